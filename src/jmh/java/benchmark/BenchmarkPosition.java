@@ -0,0 +1,33 @@
+package benchmark;
+
+import model.BitboardBoard;
+import model.Board;
+import perft.PerftPosition;
+
+/**
+ * Positions the benchmarks run on, one per phase of the game. Each of them has at least one
+ * white piece of every type so every piece benchmark has work to do.
+ */
+public enum BenchmarkPosition {
+    // After 1.e4 e5 2.Nf3 Nc6 3.Bb5 a6.
+    OPENING("r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R"),
+    // Perft suite position 6, a symmetrical Italian game.
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1"),
+    // Reduced material with open lines for the sliding pieces.
+    ENDGAME("6k1/5p2/4p1p1/3qB3/2r5/1N3Q1P/5RPK/8");
+
+    private final String placement;
+
+    BenchmarkPosition(String placement) {
+        this.placement = placement;
+    }
+
+    /**
+     * Creates a board holding this position.
+     * @param bitboard true for a {@link BitboardBoard}, false for the square-based board
+     * @return A new board with the pieces of the position
+     */
+    public Board createBoard(boolean bitboard) {
+        return PerftPosition.load(placement, bitboard ? new BitboardBoard(true) : new Board(8, 8, true));
+    }
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Bitboards;
+import model.Board;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+import model.Piece;
+import model.Square;
+
+/**
+ * Measures {@code Board.movePiece}, {@code Board.hasKing} and the game-over queries
+ * ({@code isInCheck}, {@code hasLegalMove}) run after every move.
+ * The movePiece benchmark plays the first move White has in the position and puts the pieces
+ * back through the squares, so every operation starts from the same position.
+ * Run with {@code -prof gc} to also get the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    @Param({"false", "true"})
+    private boolean bitboard;
+
+    private Board board;
+    private Square origin;
+    private Square destination;
+
+    @Setup
+    public void setUp() {
+        board = position.createBoard(bitboard);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        MoveGenerator.generate(board, Color.WHITE, moves);
+        int from = Move.from(moves[0]);
+        int to = Move.to(moves[0]);
+        origin = board.getSquare(Bitboards.row(from), Bitboards.column(from));
+        destination = board.getSquare(Bitboards.row(to), Bitboards.column(to));
+    }
+
+    @Benchmark
+    public boolean movePiece() {
+        Piece moving = origin.getPiece();
+        Piece captured = destination.getPiece();
+        boolean moved = board.movePiece(origin, destination);
+        origin.setPiece(moving);
+        destination.setPiece(captured);
+        return moved;
+    }
+
+    @Benchmark
+    public boolean hasKing() {
+        return board.hasKing(Color.BLACK);
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return board.isInCheck(Color.WHITE);
+    }
+
+    @Benchmark
+    public boolean hasLegalMove() {
+        return board.hasLegalMove(Color.WHITE);
+    }
+}
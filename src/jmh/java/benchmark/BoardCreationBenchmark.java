@@ -0,0 +1,39 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Board;
+import model.BoardType;
+
+/**
+ * Measures setting up a new game on each board representation.
+ * Run with {@code -prof gc} to compare the bytes allocated per board, i.e. the per-game footprint:
+ * the flyweight board allocates no piece objects and the compact board no square objects either.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardCreationBenchmark {
+
+    @Param({"STANDARD", "BITBOARD", "FLYWEIGHT", "COMPACT"})
+    private BoardType type;
+
+    @Benchmark
+    public Board newGame() {
+        return type.createBoard();
+    }
+}
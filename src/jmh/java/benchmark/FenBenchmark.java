@@ -0,0 +1,68 @@
+package benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import perft.PerftPosition;
+
+/**
+ * Measures loading positions from FEN into a reused board, reading the records one line after
+ * the other from a byte buffer as when a position file is ingested, and writing them back.
+ * Run with {@code -prof gc} to check that parsing allocates (almost) nothing per position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FenBenchmark {
+
+    @Param({"STANDARD", "BITBOARD", "FLYWEIGHT", "COMPACT"})
+    private BoardType boardType;
+
+    private Board board;
+    private ByteBuffer records;
+    private final StringBuilder out = new StringBuilder(128);
+
+    @Setup
+    public void setUp() {
+        board = boardType.createBoard();
+        StringBuilder text = new StringBuilder();
+        for (PerftPosition position : PerftPosition.values()) {
+            text.append(position.getPlacement()).append(" w - - 0 1\n");
+        }
+        records = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public Color load() {
+        if (!records.hasRemaining()) {
+            records.rewind();
+        }
+        return Fen.load(records, board);
+    }
+
+    @Benchmark
+    public int write() {
+        out.setLength(0);
+        return Fen.append(board, Color.WHITE, out).length();
+    }
+}
@@ -0,0 +1,112 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Board;
+import model.Color;
+import model.Piece;
+import model.PieceType;
+import model.Square;
+
+/**
+ * Measures {@code validMovement} of each piece type. One operation asks the first white piece of
+ * that type about every one of the 64 squares, so ns/op divided by 64 is the cost of one call and
+ * both accepted and rejected destinations are covered.
+ * Run with {@code -prof gc} to also get the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovementBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    @Param({"false", "true"})
+    private boolean bitboard;
+
+    private Board board;
+    private Square[] destinations;
+    private Piece pawn;
+    private Piece knight;
+    private Piece bishop;
+    private Piece rook;
+    private Piece queen;
+
+    @Setup
+    public void setUp() {
+        board = position.createBoard(bitboard);
+        destinations = new Square[64];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                destinations[row * 8 + col] = board.getSquare(row, col);
+            }
+        }
+        pawn = find(PieceType.PAWN);
+        knight = find(PieceType.KNIGHT);
+        bishop = find(PieceType.BISHOP);
+        rook = find(PieceType.ROOK);
+        queen = find(PieceType.QUEEN);
+    }
+
+    @Benchmark
+    public int pawnValidMovement() {
+        return countValid(pawn);
+    }
+
+    @Benchmark
+    public int knightValidMovement() {
+        return countValid(knight);
+    }
+
+    @Benchmark
+    public int bishopValidMovement() {
+        return countValid(bishop);
+    }
+
+    @Benchmark
+    public int rookValidMovement() {
+        return countValid(rook);
+    }
+
+    @Benchmark
+    public int queenValidMovement() {
+        return countValid(queen);
+    }
+
+    private int countValid(Piece piece) {
+        int valid = 0;
+        for (Square destination : destinations) {
+            if (piece.validMovement(destination, board)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    // Returns the first white piece of the given type, scanning from row 0.
+    private Piece find(PieceType type) {
+        for (Square square : destinations) {
+            Piece piece = square.getPiece();
+            if (piece != null && piece.getColor() == Color.WHITE && piece.getType() == type) {
+                return piece;
+            }
+        }
+        throw new IllegalStateException(position + " has no white " + type);
+    }
+}
@@ -1,12 +1,20 @@
 
 
 import controller.GameController;
+import engine.SearchLimits;
+import model.Color;
 import view.ConsoleGameView;
 
 public class Main {
     public static void main(String[] args) {
         ConsoleGameView consoleView = new ConsoleGameView();
         GameController gameController = new GameController(consoleView);     
+        // "--computer [threads]" lets the computer play Black with two seconds per move,
+        // searching on all processors unless a thread count is given.
+        if (args.length > 0 && args[0].equals("--computer")) {
+            int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            gameController.setComputerPlayer(Color.BLACK, SearchLimits.time(2000), threads);
+        }
         gameController.startGame();
     }
 }
@@ -0,0 +1,284 @@
+package archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Zobrist;
+import pgn.GameReplayer;
+import pgn.PgnGame;
+import pgn.PgnReader;
+import pgn.ReplayResult;
+
+/**
+ * Command line tool for {@link GameArchive} files.
+ * <p>
+ * Usage:
+ * <ul>
+ * <li>{@code ArchiveCommand pack games.pgn games.arc [games.idx]}: replays every game of a PGN file and
+ * stores the valid ones, under their number in the file, then prints the sizes of both files;
+ * with an index file, also builds the {@link PositionIndex} of the archive</li>
+ * <li>{@code ArchiveCommand bench games.arc [lookups]}: reads every move of the archive in
+ * order, then looks up and replays random games by id (default 100,000), and prints the rates</li>
+ * <li>{@code ArchiveCommand codec games.arc}: codes every game of the archive with
+ * {@link MoveIndexCodec}, checks that it decodes back, and compares bytes per move and decoding
+ * speed with the 16-bit codes of the archive</li>
+ * <li>{@code ArchiveCommand index games.arc games.idx [threads] [lookups]}: builds the position
+ * index of an archive (default: one thread per processor), then looks up the positions of random
+ * games (default 1,000,000) and compares with finding a few of them by replaying every game</li>
+ * <li>{@code ArchiveCommand find games.idx FEN}: prints the ids of the games that reach a position</li>
+ * </ul>
+ */
+public final class ArchiveCommand {
+
+    private ArchiveCommand() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("pack")) {
+            pack(Paths.get(args[1]), Paths.get(args[2]));
+            if (args.length > 3) {
+                index(Paths.get(args[2]), Paths.get(args[3]), Runtime.getRuntime().availableProcessors(), 0);
+            }
+        } else if (args.length >= 2 && args[0].equals("bench")) {
+            bench(Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 100_000);
+        } else if (args.length >= 2 && args[0].equals("codec")) {
+            codec(Paths.get(args[1]));
+        } else if (args.length >= 3 && args[0].equals("index")) {
+            index(Paths.get(args[1]), Paths.get(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors(),
+                    args.length > 4 ? Integer.parseInt(args[4]) : 1_000_000);
+        } else if (args.length >= 3 && args[0].equals("find")) {
+            find(Paths.get(args[1]), args[2]);
+        } else {
+            System.err.println("Usage: ArchiveCommand pack games.pgn games.arc [games.idx] | bench games.arc [lookups]"
+                    + " | codec games.arc | index games.arc games.idx [threads] [lookups] | find games.idx FEN");
+            System.exit(2);
+        }
+    }
+
+    private static void pack(Path pgn, Path archive) throws IOException {
+        long start = System.nanoTime();
+        GameReplayer replayer = new GameReplayer(BoardType.BITBOARD);
+        long skipped = 0;
+        long plies = 0;
+        int games;
+        try (PgnReader reader = PgnReader.open(pgn); ArchiveWriter writer = new ArchiveWriter(archive)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                ReplayResult result = replayer.replay(game);
+                if (!result.isValid()) {
+                    skipped++;
+                    continue;
+                }
+                int[] moves = replayer.getMoves();
+                writer.add(game.getNumber(), game.getResult(), game.getTag("FEN"), moves, moves.length);
+                plies += moves.length;
+            }
+            games = writer.getGameCount();
+        }
+        long pgnBytes = Files.size(pgn);
+        long archiveBytes = Files.size(archive);
+        System.out.printf("%,d games (%,d plies) packed in %.2f s, %,d not replayable and skipped%n", games, plies,
+                (System.nanoTime() - start) / 1e9, skipped);
+        System.out.printf("PGN %,d bytes, archive %,d bytes (%.1f%%), %.0f bytes per game%n", pgnBytes, archiveBytes,
+                100.0 * archiveBytes / pgnBytes, (double) archiveBytes / Math.max(1, games));
+    }
+
+    private static void bench(Path file, int lookups) throws IOException {
+        try (GameArchive archive = new GameArchive(file)) {
+            int count = archive.getGameCount();
+            int[] moves = new int[GameArchive.MAX_PLIES];
+            for (int round = 0; round < 3; round++) { // The first rounds warm up the code and the page cache.
+                long start = System.nanoTime();
+                long plies = 0;
+                long checksum = 0;
+                for (int index = 0; index < count; index++) {
+                    int length = archive.getMoves(index, moves);
+                    plies += length;
+                    checksum += length > 0 ? moves[length - 1] : 0;
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Scan: %,d games, %,d moves in %.3f s = %,.0f games/s, %,.0f MB/s (checksum %d)%n",
+                        count, plies, seconds, count / seconds, archive.getSize() / seconds / (1 << 20), checksum);
+            }
+
+            Random random = new Random(1);
+            Board board = BoardType.COMPACT.createBoard();
+            long start = System.nanoTime();
+            long plies = 0;
+            for (int i = 0; i < lookups && count > 0; i++) {
+                int index = archive.find(archive.getGameId(random.nextInt(count)));
+                archive.replay(index, board);
+                plies += archive.getPlyCount(index);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Random access: %,d games found by id and replayed (%,d plies) in %.3f s = %,.0f games/s%n",
+                    lookups, plies, seconds, lookups / seconds);
+        }
+    }
+
+    private static void codec(Path file) throws IOException {
+        try (GameArchive archive = new GameArchive(file)) {
+            int count = archive.getGameCount();
+            MoveIndexCodec codec = new MoveIndexCodec(BoardType.BITBOARD);
+            int[] moves = new int[GameArchive.MAX_PLIES];
+            int[] decoded = new int[GameArchive.MAX_PLIES];
+            byte[][] coded = new byte[count][];
+            String[] fens = new String[count];
+            long plies = 0;
+            long codedBytes = 0;
+            long wrong = 0;
+            long start = System.nanoTime();
+            for (int index = 0; index < count; index++) {
+                int length = archive.getMoves(index, moves);
+                fens[index] = archive.getStartFen(index);
+                coded[index] = codec.encode(fens[index], moves, length);
+                plies += length;
+                codedBytes += coded[index].length;
+                codec.decode(fens[index], coded[index], length, decoded);
+                wrong += Arrays.equals(moves, 0, length, decoded, 0, length) ? 0 : 1;
+            }
+            System.out.printf("Coded %,d games (%,d plies) in %.2f s: %.2f bits per move against 16,"
+                    + " %,d bytes of moves against %,d; %d games decode differently%n", count, plies,
+                    (System.nanoTime() - start) / 1e9, 8.0 * codedBytes / plies, codedBytes, 2 * plies, wrong);
+            System.out.printf("Archive with coded moves: about %,d bytes against %,d (%.1f%%)%n",
+                    archive.getSize() - 2 * plies + codedBytes, archive.getSize(),
+                    100.0 * (archive.getSize() - 2 * plies + codedBytes) / archive.getSize());
+
+            Board board = BoardType.COMPACT.createBoard();
+            for (int round = 0; round < 3; round++) { // The first rounds warm up the code.
+                start = System.nanoTime();
+                long checksum = 0;
+                for (int index = 0; index < count; index++) {
+                    int length = archive.getMoves(index, moves);
+                    checksum += length > 0 ? moves[length - 1] : 0;
+                }
+                double plain = (System.nanoTime() - start) / 1e9;
+
+                start = System.nanoTime();
+                for (int index = 0; index < count; index++) {
+                    archive.replay(index, board);
+                }
+                double replayed = (System.nanoTime() - start) / 1e9;
+
+                start = System.nanoTime();
+                for (int index = 0; index < count; index++) {
+                    int length = archive.getPlyCount(index);
+                    codec.decode(fens[index], coded[index], length, decoded);
+                    checksum += length > 0 ? decoded[length - 1] : 0;
+                }
+                double indexed = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Decode: 16-bit codes %,.0f moves/s, 16-bit codes replayed %,.0f moves/s,"
+                        + " move indices (replayed) %,.0f moves/s (checksum %d)%n", plies / plain,
+                        plies / replayed, plies / indexed, checksum);
+            }
+        }
+    }
+
+    private static void index(Path archiveFile, Path indexFile, int threads, int lookups) throws IOException {
+        try (GameArchive archive = new GameArchive(archiveFile)) {
+            long start = System.nanoTime();
+            new PositionIndexBuilder(BoardType.BITBOARD, threads).build(archive, indexFile);
+            try (PositionIndex index = new PositionIndex(indexFile)) {
+                System.out.printf("Index of %,d games built in %.2f s with %d threads: %,d positions, %,d postings,"
+                        + " %,d bytes%n", archive.getGameCount(), (System.nanoTime() - start) / 1e9, threads,
+                        index.getKeyCount(), index.getPostingCount(), index.getSize());
+                if (lookups > 0 && archive.getGameCount() > 0) {
+                    benchIndex(archive, index, lookups);
+                }
+            }
+        }
+    }
+
+    // Looks up positions reached by random games; each lookup must list its game.
+    private static void benchIndex(GameArchive archive, PositionIndex index, int lookups) {
+        Random random = new Random(1);
+        Board board = BoardType.BITBOARD.createBoard();
+        int[] moves = new int[GameArchive.MAX_PLIES];
+        long[] keys = new long[lookups];
+        long[] expected = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            int game = random.nextInt(archive.getGameCount());
+            Color side = board.loadFen(archive.getStartFen(game));
+            int plies = random.nextInt(archive.getMoves(game, moves) + 1);
+            for (int ply = 0; ply < plies; ply++) {
+                board.makeMove(moves[ply]);
+                side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+            }
+            keys[i] = Zobrist.key(board, side);
+            for (int ply = 0; ply < plies; ply++) {
+                board.unmakeMove();
+            }
+            expected[i] = archive.getGameId(game);
+        }
+
+        long[] ids = new long[archive.getGameCount()];
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the code and the page cache.
+            long start = System.nanoTime();
+            long found = 0;
+            for (int i = 0; i < lookups; i++) {
+                found += index.count(keys[i]) > 0 ? 1 : 0;
+            }
+            double counted = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            long postings = 0;
+            long missing = 0;
+            for (int i = 0; i < lookups; i++) {
+                int count = index.find(keys[i], ids);
+                postings += count;
+                if (Arrays.binarySearch(ids, 0, count, expected[i]) < 0) {
+                    missing++;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Index: %,d positions found in %.3f s = %.2f us per key lookup; %.2f us per lookup"
+                    + " with its games (%,.1f games per position), %d without their game%n", found, counted,
+                    counted * 1e6 / lookups, seconds * 1e6 / lookups, (double) postings / lookups, missing);
+        }
+
+        int scans = 3;
+        long start = System.nanoTime();
+        long matches = 0;
+        for (int i = 0; i < scans; i++) {
+            for (int game = 0; game < archive.getGameCount(); game++) {
+                Color side = board.loadFen(archive.getStartFen(game));
+                boolean found = Zobrist.key(board, side) == keys[i];
+                int plies = archive.getMoves(game, moves);
+                for (int ply = 0; ply < plies && !found; ply++) {
+                    board.makeMove(moves[ply]);
+                    side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+                    found = Zobrist.key(board, side) == keys[i];
+                }
+                while (board.getUndoDepth() > 0) {
+                    board.unmakeMove();
+                }
+                matches += found ? 1 : 0;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Replaying every game: %.1f ms per lookup (%,d games found for %d positions)%n",
+                seconds * 1e3 / scans, matches, scans);
+    }
+
+    private static void find(Path indexFile, String fen) throws IOException {
+        Board board = BoardType.BITBOARD.createBoard();
+        long key = Zobrist.key(board, board.loadFen(fen));
+        try (PositionIndex index = new PositionIndex(indexFile)) {
+            long[] ids = new long[20];
+            int count = index.find(key, ids);
+            StringBuilder line = new StringBuilder(String.format("%,d games", count));
+            for (int i = 0; i < Math.min(count, ids.length); i++) {
+                line.append(i == 0 ? ": " : " ").append(ids[i]);
+            }
+            System.out.println(count > ids.length ? line + " ..." : line);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import model.Fen;
+import model.Move;
+
+/**
+ * Writes a {@link GameArchive} file: games are added one after the other, in increasing game id
+ * order, and the offset index and the header are written when the writer is closed. Until then
+ * the file is not a valid archive.
+ * <p>
+ * Games are written through a buffer, so adding one costs a few copies; the index takes 16
+ * bytes of memory per game until it is written.
+ */
+public class ArchiveWriter implements Closeable {
+    private static final int BUFFER_BYTES = 64 << 10;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long position = GameArchive.HEADER_BYTES; // File offset of the start of the buffer.
+    private long[] ids = new long[1024];
+    private long[] offsets = new long[1024];
+    private int count;
+    private boolean closed;
+
+    /**
+     * Creates an archive file, replacing any existing file.
+     * @param file The archive file
+     * @throws IOException if the file cannot be created
+     */
+    public ArchiveWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Adds a game.
+     * @param gameId The id of the game; greater than the id of the previous game added
+     * @param result The result as in PGN: "1-0", "0-1", "1/2-1/2" or "*"
+     * @param startFen The starting position, or null (or {@link Fen#START}) for the standard start
+     * @param moves The packed moves of the game (see {@link Move})
+     * @param plies The number of moves to store, at most {@link GameArchive#MAX_PLIES}
+     * @throws IOException if the game cannot be written
+     * @throws IllegalArgumentException if an argument cannot be stored
+     */
+    public void add(long gameId, String result, CharSequence startFen, int[] moves, int plies) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The archive is closed.");
+        }
+        if (count > 0 && gameId <= ids[count - 1]) {
+            throw new IllegalArgumentException("Game " + gameId + " is not after game " + ids[count - 1] + ".");
+        }
+        if (plies < 0 || plies > GameArchive.MAX_PLIES) {
+            throw new IllegalArgumentException("Cannot store " + plies + " plies.");
+        }
+        int resultCode = GameArchive.resultCode(result);
+        byte[] fen = startFen == null || Fen.START.contentEquals(startFen) ? new byte[0]
+                : startFen.toString().getBytes(StandardCharsets.US_ASCII);
+        if (fen.length > GameArchive.MAX_FEN_LENGTH) {
+            throw new IllegalArgumentException("Starting position too long: " + startFen);
+        }
+
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        ids[count] = gameId;
+        offsets[count] = position + buffer.position();
+        count++;
+
+        room(GameArchive.GAME_HEADER_BYTES + fen.length);
+        buffer.putLong(gameId);
+        buffer.putShort((short) plies);
+        buffer.put((byte) resultCode);
+        buffer.put((byte) fen.length);
+        buffer.put(fen);
+        for (int ply = 0; ply < plies; ply++) {
+            room(Short.BYTES);
+            buffer.putShort(Move.toCode(moves[ply]));
+        }
+    }
+
+    /**
+     * Returns the number of games added.
+     * @return The game count
+     */
+    public int getGameCount() {
+        return count;
+    }
+
+    /**
+     * Writes the index and the header, forces the file to disk and closes it.
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long indexOffset = position + buffer.position();
+            for (int i = 0; i < count; i++) {
+                room(GameArchive.INDEX_ENTRY_BYTES);
+                buffer.putLong(ids[i]);
+                buffer.putLong(offsets[i]);
+            }
+            drain();
+            if (position > Integer.MAX_VALUE) {
+                throw new IOException("Archive larger than 2 GB; split the games over several archives.");
+            }
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_BYTES);
+            header.put(GameArchive.MAGIC);
+            header.putInt(GameArchive.VERSION);
+            header.putInt(count);
+            header.putLong(indexOffset);
+            header.rewind(); // The whole header, with its reserved bytes.
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Makes room for the given number of bytes in the buffer, writing it out if needed.
+    private void room(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+}
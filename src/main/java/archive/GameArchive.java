@@ -0,0 +1,266 @@
+package archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import model.Bitboards;
+import model.Board;
+import model.Color;
+import model.Fen;
+import model.Move;
+
+/**
+ * Read-only, memory-mapped archive of games in a compact binary format, written by {@link ArchiveWriter}.
+ * <p>
+ * Every move takes two bytes ({@link Move#toCode}), so a game of 80 plies is about 170 bytes
+ * where its PGN text takes four times as much, and reading it needs no parsing. The file is mapped
+ * into memory: games are read straight from the page cache, the operating system loads them at
+ * disk speed, and many processes can share one copy. A game is found by id with a binary search
+ * of the offset index.
+ * <pre>
+ * header (32 bytes): magic "CHESSARC", version (4), game count (4), index offset (8), reserved (8)
+ * game:              game id (8), plies (2, unsigned), result (1), FEN length (1), FEN (ASCII),
+ *                    one 16-bit move code per ply
+ * index:             one entry per game, sorted by game id: game id (8), offset of the game (8)
+ * </pre>
+ * Numbers are big-endian. A FEN length of 0 stands for the standard starting position. Results
+ * are coded 0 for "*", 1 for "1-0", 2 for "0-1" and 3 for "1/2-1/2".
+ * <p>
+ * Games are addressed by their index, from 0 to {@link #getGameCount()} - 1, in game id order;
+ * {@link #find(long)} gives the index of an id. Reads use absolute positions only, so an archive
+ * can be read from any number of threads. An archive holds at most 2 GB.
+ */
+public class GameArchive implements Closeable {
+    /** Most plies a game can hold. */
+    public static final int MAX_PLIES = 0xFFFF;
+    /** Longest starting position FEN a game can hold. */
+    public static final int MAX_FEN_LENGTH = 0xFF;
+
+    static final byte[] MAGIC = "CHESSARC".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int GAME_HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 16;
+    private static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final int count;
+    private final int indexOffset;
+
+    /**
+     * Maps an archive file into memory.
+     * @param file The archive file
+     * @throws IOException if the file cannot be mapped or is not a valid archive
+     */
+    public GameArchive(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw invalid("size " + size);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        byte[] magic = new byte[MAGIC.length];
+        read(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw invalid("not a game archive");
+        }
+        if (data.getInt(8) != VERSION) {
+            throw invalid("unsupported version " + data.getInt(8));
+        }
+        count = data.getInt(12);
+        long index = data.getLong(16);
+        if (count < 0 || index < HEADER_BYTES || index + (long) count * INDEX_ENTRY_BYTES != data.capacity()) {
+            throw invalid("the index does not match the file size");
+        }
+        indexOffset = (int) index;
+    }
+
+    /**
+     * Returns the number of games.
+     * @return The game count
+     */
+    public int getGameCount() {
+        return count;
+    }
+
+    /**
+     * Returns the index of a game.
+     * @param gameId The id of the game
+     * @return The index of the game, or -1 if the archive has no game with this id
+     */
+    public int find(long gameId) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long id = getGameId(middle);
+            if (id < gameId) {
+                low = middle + 1;
+            } else if (id > gameId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of a game.
+     * @param index The index of the game
+     * @return The game id
+     */
+    public long getGameId(int index) {
+        return data.getLong(indexEntry(index));
+    }
+
+    /**
+     * Returns the number of moves of a game.
+     * @param index The index of the game
+     * @return The ply count
+     */
+    public int getPlyCount(int index) {
+        return data.getShort(offset(index) + 8) & 0xFFFF;
+    }
+
+    /**
+     * Returns the result of a game.
+     * @param index The index of the game
+     * @return "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public String getResult(int index) {
+        return RESULTS[data.get(offset(index) + 10) & 3];
+    }
+
+    /**
+     * Returns the starting position of a game.
+     * @param index The index of the game
+     * @return The FEN of the starting position; {@link Fen#START} for the standard start
+     */
+    public String getStartFen(int index) {
+        int offset = offset(index);
+        int length = data.get(offset + 11) & 0xFF;
+        if (length == 0) {
+            return Fen.START;
+        }
+        byte[] fen = new byte[length];
+        read(offset + GAME_HEADER_BYTES, fen);
+        return new String(fen, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns one move of a game.
+     * @param index The index of the game
+     * @param ply The ply of the move, from 0
+     * @return The packed move (see {@link Move})
+     */
+    public int getMove(int index, int ply) {
+        if (ply < 0 || ply >= getPlyCount(index)) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " of game " + getGameId(index) + ".");
+        }
+        return Move.fromCode(data.getShort(moves(index) + 2 * ply));
+    }
+
+    /**
+     * Copies the moves of a game into a buffer.
+     * @param index The index of the game
+     * @param moves The buffer, at least {@link #getPlyCount} long
+     * @return The number of moves copied
+     */
+    public int getMoves(int index, int[] moves) {
+        int plies = getPlyCount(index);
+        int position = moves(index);
+        for (int ply = 0; ply < plies; ply++) {
+            moves[ply] = Move.fromCode(data.getShort(position + 2 * ply));
+        }
+        return plies;
+    }
+
+    /**
+     * Sets up a game's final position on a board: its starting position, then every move played
+     * through {@link Board#movePiece}, as {@link controller.GameController} plays them.
+     * @param index The index of the game
+     * @param board The board, 8x8
+     * @return The side to move after the last move
+     * @throws IllegalStateException if a move cannot be played on the board
+     */
+    public Color replay(int index, Board board) {
+        Color side = board.loadFen(getStartFen(index));
+        int plies = getPlyCount(index);
+        int position = moves(index);
+        for (int ply = 0; ply < plies; ply++) {
+            int move = Move.fromCode(data.getShort(position + 2 * ply));
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (!board.movePiece(board.getSquare(Bitboards.row(from), Bitboards.column(from)),
+                    board.getSquare(Bitboards.row(to), Bitboards.column(to)))) {
+                throw new IllegalStateException("Move " + Move.toString(move) + " at ply " + ply + " of game "
+                        + getGameId(index) + " cannot be played.");
+            }
+            side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+        }
+        return side;
+    }
+
+    /**
+     * Returns the size of the archive file.
+     * @return The size in bytes
+     */
+    public long getSize() {
+        return data.capacity();
+    }
+
+    /**
+     * Releases the archive. The mapping itself is released by the garbage collector once no
+     * reference to it remains; Java 11 has no supported way to unmap a file earlier.
+     */
+    @Override
+    public void close() {
+        // Nothing to close: the channel was closed after mapping.
+    }
+
+    static int resultCode(String result) {
+        for (int code = 0; code < RESULTS.length; code++) {
+            if (RESULTS[code].equals(result)) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("Unknown result: " + result);
+    }
+
+    private int indexEntry(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Game index " + index + " of " + count + ".");
+        }
+        return indexOffset + index * INDEX_ENTRY_BYTES;
+    }
+
+    private int offset(int index) {
+        return (int) data.getLong(indexEntry(index) + 8);
+    }
+
+    private int moves(int index) {
+        int offset = offset(index);
+        return offset + GAME_HEADER_BYTES + (data.get(offset + 11) & 0xFF);
+    }
+
+    // Absolute bulk reads only exist from Java 13 on.
+    private void read(int offset, byte[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = data.get(offset + i);
+        }
+    }
+
+    private IOException invalid(String reason) {
+        return new IOException("Invalid game archive " + file + ": " + reason + ".");
+    }
+}
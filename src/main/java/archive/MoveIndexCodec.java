@@ -0,0 +1,179 @@
+package archive;
+
+import java.util.Arrays;
+
+import model.Bitboards;
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.Move;
+import model.MoveGenerator;
+
+/**
+ * Codes the moves of a game as their index in the sorted move list of each position, packed in
+ * as few bits as the list needs.
+ * <p>
+ * Both sides replay the game on a board: before every move the moves of the side to move are
+ * generated with {@link MoveGenerator#generate} (the list {@link pgn.GameReplayer} picks PGN moves
+ * from), sorted so the codes do not depend on the board representation, and the move is written
+ * as its index. A position with {@code n} moves has {@code n + 1} symbols, the last one an escape
+ * followed by the 15-bit {@link Move#toCode code} of a move the list does not hold, so any game
+ * the archive accepts can be coded. Symbols are written in truncated binary: {@code floor(log2(n + 1))}
+ * bits for the first ones and one more for the others, which is about 5 bits for the 30 to 40
+ * moves of a middlegame position instead of the 16 of {@link GameArchive}.
+ * <p>
+ * The indices of a sorted list are close to uniform, so Huffman or range coding them gains almost
+ * nothing; that would take a model that ranks the likely moves first. Decoding replays the game,
+ * so a move can only be read after every move before it.
+ * <p>
+ * A codec keeps its board and buffers between calls: it is not thread-safe, so every thread needs
+ * its own.
+ */
+public class MoveIndexCodec {
+    private static final int ESCAPE_BITS = 15;
+
+    private final Board board;
+    private final int[] list = new int[MoveGenerator.MAX_MOVES];
+    private byte[] bytes = new byte[256];
+    private int length; // Bytes written.
+    private long bits; // Bits not yet written, in the low bitCount bits.
+    private int bitCount;
+    private int readOffset;
+
+    /**
+     * Creates a codec.
+     * @param boardType The board representation games are replayed on
+     */
+    public MoveIndexCodec(BoardType boardType) {
+        board = boardType.createBoard();
+    }
+
+    /**
+     * Codes the moves of a game.
+     * @param startFen The starting position, or null for the standard start
+     * @param moves The packed moves of the game (see {@link Move})
+     * @param plies The number of moves to code
+     * @return The coded moves
+     * @throws IllegalArgumentException if a move cannot be played on the board
+     */
+    public byte[] encode(CharSequence startFen, int[] moves, int plies) {
+        Color side = board.loadFen(startFen == null ? Fen.START : startFen);
+        length = 0;
+        bits = 0;
+        bitCount = 0;
+        for (int ply = 0; ply < plies; ply++) {
+            int count = sortedMoves(side);
+            int index = Arrays.binarySearch(list, 0, count, moves[ply]);
+            if (index >= 0) {
+                writeSymbol(index, count + 1);
+            } else {
+                writeSymbol(count, count + 1);
+                write(Move.toCode(moves[ply]), ESCAPE_BITS);
+            }
+            if (!play(moves[ply])) {
+                throw new IllegalArgumentException("Move " + Move.toString(moves[ply]) + " at ply " + ply
+                        + " cannot be played.");
+            }
+            side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+        }
+        if (bitCount > 0) {
+            write(0, 8 - bitCount); // Pads the last byte.
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Decodes the moves of a game.
+     * @param startFen The starting position the moves were coded from, or null for the standard start
+     * @param data The coded moves
+     * @param plies The number of moves coded
+     * @param moves Receives the packed moves, at least plies long
+     * @return The side to move after the last move
+     * @throws IllegalStateException if the data does not decode to moves that can be played
+     */
+    public Color decode(CharSequence startFen, byte[] data, int plies, int[] moves) {
+        Color side = board.loadFen(startFen == null ? Fen.START : startFen);
+        readOffset = 0;
+        bits = 0;
+        bitCount = 0;
+        for (int ply = 0; ply < plies; ply++) {
+            int count = sortedMoves(side);
+            int index = readSymbol(data, count + 1);
+            int move = index < count ? list[index] : Move.fromCode((short) read(data, ESCAPE_BITS));
+            if (!play(move)) {
+                throw new IllegalStateException("Move " + Move.toString(move) + " at ply " + ply
+                        + " cannot be played.");
+            }
+            moves[ply] = move;
+            side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+        }
+        return side;
+    }
+
+    // Generates and sorts the moves of the side to move into list; returns their number.
+    private int sortedMoves(Color side) {
+        int count = MoveGenerator.generate(board, side, list);
+        Arrays.sort(list, 0, count);
+        return count;
+    }
+
+    // Plays a move like GameController.makeMove.
+    private boolean play(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        return board.movePiece(board.getSquare(Bitboards.row(from), Bitboards.column(from)),
+                board.getSquare(Bitboards.row(to), Bitboards.column(to)));
+    }
+
+    // Truncated binary code of value among symbols: the first (2^(k+1) - symbols) values take
+    // k = floor(log2(symbols)) bits, the others k + 1.
+    private void writeSymbol(int value, int symbols) {
+        int k = 31 - Integer.numberOfLeadingZeros(symbols);
+        int shortCodes = (1 << (k + 1)) - symbols;
+        if (value < shortCodes) {
+            write(value, k);
+        } else {
+            write(value + shortCodes, k + 1);
+        }
+    }
+
+    private int readSymbol(byte[] data, int symbols) {
+        int k = 31 - Integer.numberOfLeadingZeros(symbols);
+        int shortCodes = (1 << (k + 1)) - symbols;
+        int value = read(data, k);
+        if (value < shortCodes) {
+            return value;
+        }
+        value = (value << 1 | read(data, 1)) - shortCodes;
+        if (value >= symbols) {
+            throw new IllegalStateException("Invalid move index " + value + " of " + symbols + ".");
+        }
+        return value;
+    }
+
+    // Appends the low count bits of value, most significant first.
+    private void write(int value, int count) {
+        bits = bits << count | value;
+        bitCount += count;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) (bits >>> bitCount);
+        }
+    }
+
+    private int read(byte[] data, int count) {
+        while (bitCount < count) {
+            if (readOffset == data.length) {
+                throw new IllegalStateException("Coded moves end early.");
+            }
+            bits = bits << 8 | (data[readOffset++] & 0xFF);
+            bitCount += 8;
+        }
+        bitCount -= count;
+        return (int) (bits >>> bitCount) & ((1 << count) - 1);
+    }
+}
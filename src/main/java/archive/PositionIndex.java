@@ -0,0 +1,208 @@
+package archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.Zobrist;
+
+/**
+ * Read-only, memory-mapped index from positions to the archived games that reach them, written
+ * by {@link PositionIndexBuilder}.
+ * <p>
+ * Positions are looked up by their {@link Zobrist#key(model.Board, model.Color) key}, which
+ * covers the pieces and the side to move. The keys are spread over {@link #PARTITIONS} hash
+ * tables, chosen by the top bits of the key, with open addressing and linear probing inside
+ * each. A table has twice as many slots as keys, and the low 32 bits of a key, scaled to the
+ * table size, give its first slot. Each slot points to a posting list: the ids of the games
+ * that reach the position, in increasing order, each game once.
+ * <pre>
+ * header (32 bytes): magic "CHESSIDX", version (4), partition bits (4), key count (8), posting count (8)
+ * directory:         per partition, the file offset of its table (8), its slot count (4) and posting count (4)
+ * tables:            per partition, its slots then its postings
+ *   slots:           key (8), first posting in the table (4), posting count (4, 0 for an empty slot)
+ *   postings:        game ids (8)
+ * </pre>
+ * Numbers are big-endian. Every table is mapped on its own, so a table holds at most 2 GB and
+ * an index up to {@link #PARTITIONS} times that. Lookups read the mappings with absolute gets
+ * and allocate nothing, so they cost a few cache misses, and an index can be read from any
+ * number of threads.
+ */
+public class PositionIndex implements Closeable {
+    /** Number of top key bits that choose the hash table of a key. */
+    public static final int PARTITION_BITS = 8;
+    /** Number of hash tables. */
+    public static final int PARTITIONS = 1 << PARTITION_BITS;
+
+    static final byte[] MAGIC = "CHESSIDX".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int DIRECTORY_ENTRY_BYTES = 16;
+    static final int SLOT_BYTES = 16;
+    static final int POSTING_BYTES = 8;
+    static final int TABLES_OFFSET = HEADER_BYTES + PARTITIONS * DIRECTORY_ENTRY_BYTES;
+
+    private final Path file;
+    private final MappedByteBuffer[] tables = new MappedByteBuffer[PARTITIONS]; // Null for an empty table.
+    private final int[] slotCounts = new int[PARTITIONS];
+    private final long size;
+    private final long keyCount;
+    private final long postingCount;
+
+    /**
+     * Maps an index file into memory.
+     * @param file The index file
+     * @throws IOException if the file cannot be mapped or is not a valid index
+     */
+    public PositionIndex(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size < TABLES_OFFSET) {
+                throw invalid("size " + size);
+            }
+            ByteBuffer header = ByteBuffer.allocate(TABLES_OFFSET);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Reads the header and the directory.
+            }
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (header.get(i) != MAGIC[i]) {
+                    throw invalid("not a position index");
+                }
+            }
+            if (header.getInt(8) != VERSION) {
+                throw invalid("unsupported version " + header.getInt(8));
+            }
+            if (header.getInt(12) != PARTITION_BITS) {
+                throw invalid("unsupported partition bits " + header.getInt(12));
+            }
+            keyCount = header.getLong(16);
+            postingCount = header.getLong(24);
+            long offset = TABLES_OFFSET;
+            long slots = 0;
+            long postings = 0;
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                int entry = HEADER_BYTES + partition * DIRECTORY_ENTRY_BYTES;
+                int tableSlots = header.getInt(entry + 8);
+                int tablePostings = header.getInt(entry + 12);
+                if (header.getLong(entry) != offset || tableSlots < 0 || tablePostings < 0) {
+                    throw invalid("bad directory entry for partition " + partition);
+                }
+                long bytes = (long) tableSlots * SLOT_BYTES + (long) tablePostings * POSTING_BYTES;
+                if (bytes > Integer.MAX_VALUE || offset + bytes > size) {
+                    throw invalid("the tables do not match the file size");
+                }
+                if (tableSlots > 0) {
+                    tables[partition] = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+                }
+                slotCounts[partition] = tableSlots;
+                offset += bytes;
+                slots += tableSlots;
+                postings += tablePostings;
+            }
+            if (offset != size || keyCount < 0 || keyCount > slots || postings != postingCount
+                    || postingCount < keyCount) {
+                throw invalid("the tables do not match the file size");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of different positions indexed.
+     * @return The key count
+     */
+    public long getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Returns the total length of the posting lists: the number of (position, game) pairs.
+     * @return The posting count
+     */
+    public long getPostingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Returns the number of games that reach a position.
+     * @param key The key of the position
+     * @return The number of games, 0 if no game reaches it
+     */
+    public int count(long key) {
+        int partition = partition(key);
+        MappedByteBuffer table = tables[partition];
+        int slot = table == null ? -1 : slot(table, slotCounts[partition], key);
+        return slot < 0 ? 0 : table.getInt(slot + 12);
+    }
+
+    /**
+     * Finds the games that reach a position.
+     * @param key The key of the position
+     * @param gameIds Receives the ids of the games in increasing order; when it is too short, only
+     *        the first ones
+     * @return The number of games that reach the position, which may be more than were copied
+     */
+    public int find(long key, long[] gameIds) {
+        int partition = partition(key);
+        MappedByteBuffer table = tables[partition];
+        int slot = table == null ? -1 : slot(table, slotCounts[partition], key);
+        if (slot < 0) {
+            return 0;
+        }
+        int count = table.getInt(slot + 12);
+        int posting = slotCounts[partition] * SLOT_BYTES + table.getInt(slot + 8) * POSTING_BYTES;
+        for (int i = 0, copied = Math.min(count, gameIds.length); i < copied; i++) {
+            gameIds[i] = table.getLong(posting + i * POSTING_BYTES);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the size of the index file.
+     * @return The size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Releases the index. As for {@link GameArchive#close()}, the mappings themselves are released
+     * by the garbage collector.
+     */
+    @Override
+    public void close() {
+        // Nothing to close: the channel was closed after mapping.
+    }
+
+    // Returns the hash table a key belongs to.
+    static int partition(long key) {
+        return (int) (key >>> (Long.SIZE - PARTITION_BITS));
+    }
+
+    // Returns the first slot to probe for a key in a table of the given size.
+    static int home(long key, int size) {
+        return (int) (((key & 0xFFFF_FFFFL) * size) >>> 32);
+    }
+
+    // Returns the offset in its table of the slot holding a key, or -1 if the key is not indexed.
+    private static int slot(MappedByteBuffer table, int size, long key) {
+        for (int i = home(key, size);; i = i + 1 == size ? 0 : i + 1) {
+            int slot = i * SLOT_BYTES;
+            if (table.getInt(slot + 12) == 0) {
+                return -1; // Tables are never full, so every probe ends at an empty slot.
+            }
+            if (table.getLong(slot) == key) {
+                return slot;
+            }
+        }
+    }
+
+    private IOException invalid(String reason) {
+        return new IOException("Invalid position index " + file + ": " + reason + ".");
+    }
+}
@@ -0,0 +1,342 @@
+package archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Bitboards;
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Move;
+import model.Zobrist;
+
+/**
+ * Builds the {@link PositionIndex} of a {@link GameArchive} on a pool of threads.
+ * <p>
+ * The build runs in three phases, each spread over the threads:
+ * <ol>
+ * <li>the games are replayed in chunks, as {@link GameArchive#replay} does; every thread keeps
+ * the keys of the positions each game reaches, once per game, in buffers split by
+ * {@link PositionIndex partition};</li>
+ * <li>each partition gathers its pairs from every thread and sorts them by key, then game id;</li>
+ * <li>once the sizes of all the tables are known, each partition maps its own part of the file
+ * and writes its hash table and posting lists there.</li>
+ * </ol>
+ * The pairs are kept in memory until they are written: 16 bytes for every position of every game.
+ * Building the same archive gives the same file whatever the number of threads.
+ */
+public class PositionIndexBuilder {
+    /** Number of games a replay thread takes at a time. */
+    public static final int CHUNK_SIZE = 256;
+
+    private final BoardType boardType;
+    private final int threads;
+
+    /**
+     * Creates a builder.
+     * @param boardType The board representation the games are replayed on
+     * @param threads The number of threads
+     */
+    public PositionIndexBuilder(BoardType boardType, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed.");
+        }
+        this.boardType = boardType;
+        this.threads = threads;
+    }
+
+    /**
+     * Builds the index of every position reached by the games of an archive, from their starting
+     * position to their last move.
+     * @param archive The archive
+     * @param file The index file; replaced if it exists
+     * @throws IOException if the index cannot be written, or one of its tables is larger than 2 GB
+     * @throws IllegalStateException if a game cannot be replayed or a thread fails
+     */
+    public void build(GameArchive archive, Path file) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Pairs[]> collected = run(pool, replayTasks(archive));
+            Partition[] partitions = new Partition[PositionIndex.PARTITIONS];
+            List<Callable<Partition>> sorts = new ArrayList<>();
+            for (int p = 0; p < partitions.length; p++) {
+                int partition = p;
+                sorts.add(() -> Partition.gather(collected, partition));
+            }
+            partitions = run(pool, sorts).toArray(partitions);
+            write(pool, partitions, file);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // One task per thread: replays chunks of games until there are none left.
+    private List<Callable<Pairs[]>> replayTasks(GameArchive archive) {
+        AtomicInteger next = new AtomicInteger();
+        int count = archive.getGameCount();
+        List<Callable<Pairs[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                Pairs[] pairs = new Pairs[PositionIndex.PARTITIONS];
+                for (int p = 0; p < pairs.length; p++) {
+                    pairs[p] = new Pairs(64);
+                }
+                Board board = boardType.createBoard();
+                int[] moves = new int[GameArchive.MAX_PLIES];
+                long[] keys = new long[GameArchive.MAX_PLIES + 1];
+                int first;
+                while ((first = next.getAndAdd(CHUNK_SIZE)) < count) {
+                    for (int index = first, last = Math.min(first + CHUNK_SIZE, count); index < last; index++) {
+                        int positions = positions(archive, index, board, moves, keys);
+                        Arrays.sort(keys, 0, positions);
+                        long gameId = archive.getGameId(index);
+                        for (int i = 0; i < positions; i++) {
+                            if (i == 0 || keys[i] != keys[i - 1]) { // A game reaching a position twice is listed once.
+                                pairs[PositionIndex.partition(keys[i])].add(keys[i], gameId);
+                            }
+                        }
+                    }
+                }
+                return pairs;
+            });
+        }
+        return tasks;
+    }
+
+    // Writes the keys of the positions of a game into keys; returns their number.
+    private static int positions(GameArchive archive, int index, Board board, int[] moves, long[] keys) {
+        Color side = board.loadFen(archive.getStartFen(index));
+        int plies = archive.getMoves(index, moves);
+        keys[0] = Zobrist.key(board, side);
+        for (int ply = 0; ply < plies; ply++) {
+            int from = Move.from(moves[ply]);
+            int to = Move.to(moves[ply]);
+            if (!board.movePiece(board.getSquare(Bitboards.row(from), Bitboards.column(from)),
+                    board.getSquare(Bitboards.row(to), Bitboards.column(to)))) {
+                throw new IllegalStateException("Move " + Move.toString(moves[ply]) + " at ply " + ply + " of game "
+                        + archive.getGameId(index) + " cannot be played.");
+            }
+            side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+            keys[ply + 1] = Zobrist.key(board, side);
+        }
+        return plies + 1;
+    }
+
+    // Lays the tables out one after the other, then maps and fills each one, and writes the directory.
+    private void write(ExecutorService pool, Partition[] partitions, Path file) throws IOException {
+        long offset = PositionIndex.TABLES_OFFSET;
+        long postings = 0;
+        long keys = 0;
+        for (Partition partition : partitions) {
+            partition.offset = offset;
+            long bytes = partition.bytes();
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Position index table larger than 2 GB; split the games over several archives.");
+            }
+            offset += bytes;
+            postings += partition.pairs.size;
+            keys += partition.keys;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            List<Callable<Void>> fills = new ArrayList<>();
+            for (Partition partition : partitions) {
+                if (partition.slots > 0) {
+                    fills.add(() -> {
+                        // Each table has its own mapping, so no mapping is larger than 2 GB.
+                        MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, partition.offset,
+                                partition.bytes());
+                        partition.fill(table);
+                        table.force();
+                        return null;
+                    });
+                }
+            }
+            run(pool, fills);
+
+            ByteBuffer header = ByteBuffer.allocate(PositionIndex.TABLES_OFFSET);
+            header.put(PositionIndex.MAGIC);
+            header.putInt(PositionIndex.VERSION);
+            header.putInt(PositionIndex.PARTITION_BITS);
+            header.putLong(keys);
+            header.putLong(postings);
+            for (Partition partition : partitions) {
+                header.putLong(partition.offset);
+                header.putInt(partition.slots);
+                header.putInt(partition.pairs.size);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.truncate(offset); // Sets the size when the last tables are empty.
+            channel.force(true);
+        }
+    }
+
+    // Runs tasks on the pool and returns their results in order.
+    private static <T> List<T> run(ExecutorService pool, List<Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Index builder failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Index build interrupted.", e);
+        }
+    }
+
+    // Growable (key, game id) pairs.
+    private static final class Pairs {
+        long[] keys;
+        long[] ids;
+        int size;
+
+        Pairs(int capacity) {
+            keys = new long[capacity];
+            ids = new long[capacity];
+        }
+
+        void add(long key, long id) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            keys[size] = key;
+            ids[size++] = id;
+        }
+
+        // Sorts by key, then id: a quicksort on both arrays, with an insertion sort for short ranges.
+        void sort(int from, int to) {
+            while (to - from > 16) {
+                int middle = (from + to) >>> 1;
+                long pivotKey = keys[middle];
+                long pivotId = ids[middle];
+                int i = from;
+                int j = to - 1;
+                while (i <= j) {
+                    while (less(keys[i], ids[i], pivotKey, pivotId)) {
+                        i++;
+                    }
+                    while (less(pivotKey, pivotId, keys[j], ids[j])) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // Recurses into the smaller side, so the stack stays logarithmic.
+                if (j + 1 - from < to - i) {
+                    sort(from, j + 1);
+                    from = i;
+                } else {
+                    sort(i, to);
+                    to = j + 1;
+                }
+            }
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && less(keys[j], ids[j], keys[j - 1], ids[j - 1]); j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private static boolean less(long key, long id, long otherKey, long otherId) {
+            return key != otherKey ? Long.compareUnsigned(key, otherKey) < 0 : id < otherId;
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+    }
+
+    // The sorted pairs of one partition and the place of its table in the file.
+    private static final class Partition {
+        final Pairs pairs;
+        final int keys;
+        final int slots;
+        long offset; // Of the table in the file.
+
+        private Partition(Pairs pairs, int keys) {
+            this.pairs = pairs;
+            this.keys = keys;
+            // Half full, so probes stay short and always reach an empty slot.
+            this.slots = keys * 2;
+        }
+
+        // Moves the pairs of one partition out of the buffers of every thread and sorts them.
+        static Partition gather(List<Pairs[]> collected, int partition) {
+            int size = 0;
+            for (Pairs[] pairs : collected) {
+                size += pairs[partition].size;
+            }
+            Pairs all = new Pairs(Math.max(1, size));
+            for (Pairs[] pairs : collected) {
+                Pairs part = pairs[partition];
+                System.arraycopy(part.keys, 0, all.keys, all.size, part.size);
+                System.arraycopy(part.ids, 0, all.ids, all.size, part.size);
+                all.size += part.size;
+                pairs[partition] = null;
+            }
+            all.sort(0, all.size);
+            int keys = 0;
+            for (int i = 0; i < all.size; i++) {
+                if (i == 0 || all.keys[i] != all.keys[i - 1]) {
+                    keys++;
+                }
+            }
+            return new Partition(all, keys);
+        }
+
+        // Returns the size of the table: its slots, then its postings.
+        long bytes() {
+            return (long) slots * PositionIndex.SLOT_BYTES + (long) pairs.size * PositionIndex.POSTING_BYTES;
+        }
+
+        // Writes the hash table and the posting lists of this partition into its mapping.
+        void fill(ByteBuffer table) {
+            int postingsOffset = slots * PositionIndex.SLOT_BYTES;
+            for (int start = 0, end; start < pairs.size; start = end) {
+                long key = pairs.keys[start];
+                end = start + 1;
+                while (end < pairs.size && pairs.keys[end] == key) {
+                    end++;
+                }
+                int i = PositionIndex.home(key, slots);
+                while (table.getInt(i * PositionIndex.SLOT_BYTES + 12) != 0) {
+                    i = i + 1 == slots ? 0 : i + 1;
+                }
+                int slot = i * PositionIndex.SLOT_BYTES;
+                table.putLong(slot, key);
+                table.putInt(slot + 8, start);
+                table.putInt(slot + 12, end - start);
+                for (int posting = start; posting < end; posting++) {
+                    table.putLong(postingsOffset + posting * PositionIndex.POSTING_BYTES, pairs.ids[posting]);
+                }
+            }
+        }
+    }
+}
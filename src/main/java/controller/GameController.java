@@ -1,11 +1,22 @@
 package controller;
 
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.util.Scanner;
 
+import engine.ParallelSearch;
+import engine.SearchLimits;
+import engine.SearchResult;
+import journal.MoveJournal;
 import model.Board;
+import model.Bitboards;
+import model.BoardType;
 import model.Color;
+import model.Move;
+import model.MoveGenerator;
 import model.Player;
 import model.Square;
+import model.Zobrist;
 import view.GameView;
 
 public class GameController {
@@ -14,28 +25,114 @@ public class GameController {
     private Player blackPlayer;
     private Player actualTurn;
     private boolean isGameOver;
+    private Player winner;
     private GameView view;
+    private Color computerColor;
+    private SearchLimits computerLimits;
+    private int computerThreads = 1;
+    private ParallelSearch searcher;
+    private SearchResult lastSearch;
+    private InputStream input; // Streams of the console game; null for System.in and System.out.
+    private PrintStream output;
+    private MoveJournal journal; // Receives every move made, or null.
+    private long journalGameId;
+    private int journalPly;
+    private long journalSequence;
 
     /**
-     * Constructor for initializing the game with a specified view.
+     * Constructor for initializing the game with a specified view and board representation.
      * Sets up the board and players, and sets the initial turn to white.
      * @param view The view to display the game state
+     * @param boardType The representation used for the board (squares or bitboards)
      */
-    public GameController(GameView view) {
+    public GameController(GameView view, BoardType boardType) {
     	this.view = view;
-        board = new Board();
+        board = boardType.createBoard();
         whitePlayer = new Player(Color.WHITE);
         blackPlayer = new Player(Color.BLACK);
         actualTurn = whitePlayer;
         isGameOver = false;
     }
     
+    /**
+     * Constructor for initializing the game with a specified view on the standard board.
+     * @param view The view to display the game state
+     */
+    public GameController(GameView view) {
+        this(view, BoardType.STANDARD);
+    }
+
     /**
      * Sets a custom board to the game.
      * @param board The board to be set
      */
     public void setBoard(Board board) {
         this.board = board;
+        releaseSearcher();
+    }
+
+    /**
+     * Lets the computer play one of the colors.
+     * @param color The color played by the computer, or null for two human players
+     * @param limits The depth, time and node budget of each computer move
+     */
+    public void setComputerPlayer(Color color, SearchLimits limits) {
+        setComputerPlayer(color, limits, 1);
+    }
+
+    /**
+     * Lets the computer play one of the colors, searching with several threads.
+     * @param color The color played by the computer, or null for two human players
+     * @param limits The depth, time and node budget of each computer move
+     * @param threads The number of search threads; 1 searches deterministically on the calling thread
+     */
+    public void setComputerPlayer(Color color, SearchLimits limits, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is needed.");
+        }
+        this.computerColor = color;
+        this.computerLimits = limits;
+        if (threads != computerThreads) {
+            this.computerThreads = threads;
+            releaseSearcher();
+        }
+    }
+
+    // Stops the threads of the current searcher; the next computer move creates a new one.
+    private void releaseSearcher() {
+        if (searcher != null) {
+            searcher.close();
+            searcher = null;
+        }
+    }
+
+    /**
+     * Returns whether the player whose turn it is is played by the computer.
+     * @return true if the computer should move now
+     */
+    public boolean isComputerTurn() {
+        return computerColor != null && actualTurn.getColor() == computerColor;
+    }
+
+    /**
+     * Searches the current position for the player whose turn it is and plays the best move found.
+     * @return true if a move was made, false if the player has no move
+     */
+    public boolean playComputerMove() {
+        if (searcher == null) {
+            searcher = new ParallelSearch(board, computerThreads);
+        }
+        SearchLimits limits = computerLimits != null ? computerLimits : SearchLimits.depth(4);
+        lastSearch = searcher.search(actualTurn.getColor(), limits);
+        return lastSearch.getBestMove() != Move.NONE && makeMove(lastSearch.getBestMove());
+    }
+
+    /**
+     * Returns the result of the last computer search (best move, score, depth, nodes per second).
+     * @return The last search result, or null if the computer has not moved yet
+     */
+    public SearchResult getLastSearchResult() {
+        return lastSearch;
     }
     
     /**
@@ -61,6 +158,78 @@ public class GameController {
     	return board;
     }
 
+    /**
+     * Returns the 64-bit key of the current position, including whose turn it is.
+     * Equal positions reached through different move orders have the same key.
+     * @return The Zobrist key of the board combined with the side to move
+     */
+    public long getPositionKey() {
+        return Zobrist.key(board, actualTurn.getColor());
+    }
+
+    /**
+     * Sets up the position of a FEN record: the pieces are placed on the current board and the
+     * turn goes to the side to move of the record. The game starts over from that position.
+     * @param fen The position, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"
+     * @throws IllegalArgumentException if the record is not a valid FEN position
+     */
+    public void loadFen(CharSequence fen) {
+        Color side = board.loadFen(fen);
+        actualTurn = side == Color.WHITE ? whitePlayer : blackPlayer;
+        isGameOver = false;
+        winner = null;
+    }
+
+    /**
+     * Returns the current position in FEN, with the player whose turn it is as the side to move.
+     * @return The FEN record of the position
+     */
+    public String toFen() {
+        return board.toFen(actualTurn.getColor());
+    }
+
+    /**
+     * Records every move made from now on in a journal, numbering the plies from 0. The current
+     * position is recorded first, then again every {@link MoveJournal#getSnapshotInterval()} plies,
+     * so the game can be rebuilt by {@link journal.JournalRecovery}. The journal is written in the
+     * background; use {@link #getJournalSequence()} to wait until a move is on disk.
+     * @param journal The journal, or null to stop recording
+     * @param gameId The id of this game in the journal
+     * @throws IllegalArgumentException if the board has more pieces than a snapshot holds
+     *         ({@link journal.BoardSnapshot#MAX_PIECES}); recovery could not rebuild the game, so
+     *         nothing is recorded and the previous journal, if any, is kept
+     */
+    public void setJournal(MoveJournal journal, long gameId) {
+        if (journal != null) {
+            long sequence = journal.appendSnapshot(gameId, 0, board, actualTurn.getColor());
+            if (sequence == 0) {
+                throw new IllegalArgumentException("The board has too many pieces to be journaled.");
+            }
+            journalSequence = sequence;
+        }
+        this.journal = journal;
+        this.journalGameId = gameId;
+        this.journalPly = 0;
+    }
+
+    // Records the board and the side to move. Moves never add pieces, so a board that was
+    // snapshotted by setJournal always fits.
+    private void snapshot() {
+        long sequence = journal.appendSnapshot(journalGameId, journalPly, board, actualTurn.getColor());
+        if (sequence != 0) {
+            journalSequence = sequence;
+        }
+    }
+
+    /**
+     * Returns the journal sequence number of the last move recorded, to pass to
+     * {@link MoveJournal#awaitDurable(long)}.
+     * @return The sequence number, or 0 if no move was recorded
+     */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
     /**
      * Switches the turn between the two players.
      * If it’s white’s turn, it switches to black, and vice versa.
@@ -85,14 +254,44 @@ public class GameController {
         // If both squares are valid, attempt to move the piece && can move piece
         if (origin != null && destination != null && board.movePiece(origin, destination)) {
         	changeTurn();
+            if (journal != null) {
+                journalSequence = journal.append(journalGameId, journalPly++, Move.encode(startRow, startColumn, destRow, destColumn));
+                int interval = journal.getSnapshotInterval();
+                if (interval > 0 && journalPly % interval == 0) {
+                    snapshot();
+                }
+            }
             return true;
         }
         return false; // Return false if the move could not be made
     }
 
+    /**
+     * Attempts to make a move given in the packed format produced by {@link MoveGenerator}.
+     * @param move The packed move (see {@link Move})
+     * @return true if the move was successfully made, false otherwise
+     */
+    public boolean makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        return makeMove(Bitboards.row(from), Bitboards.column(from), Bitboards.row(to), Bitboards.column(to));
+    }
+
+    /**
+     * Writes every legal move of the player whose turn it is into the given buffer: the moves
+     * that do not leave the player's own king in check.
+     * The buffer is reused by the caller, so no objects are created per move.
+     * @param moves The buffer receiving packed moves, at least {@link MoveGenerator#MAX_MOVES} long
+     * @return The number of moves written
+     */
+    public int getLegalMoves(int[] moves) {
+        return MoveGenerator.generateLegal(board, actualTurn.getColor(), moves);
+    }
+
     /**
      * Checks if the game is over.
-     * The game is over if either the white or black king is missing.
+     * The game is over if either the white or black king is missing, or if the player whose turn
+     * it is is checkmated (the other player wins) or stalemated (a draw).
      * @return true if the game is over, false otherwise
      */
     public boolean checkGameOver() {
@@ -102,26 +301,78 @@ public class GameController {
         
         if (!whiteKingExists || !blackKingExists) {
             //System.out.println((!whiteKingExists ? "Black" : "White") + " player has won.");
+            winner = whiteKingExists ? whitePlayer : (blackKingExists ? blackPlayer : null);
+            isGameOver = true;
+            return true;
+        }
+
+        // Without a legal move, the player to move is checkmated if in check and stalemated otherwise.
+        Color side = actualTurn.getColor();
+        if (!board.hasLegalMove(side)) {
+            winner = board.isInCheck(side) ? opponentOf(actualTurn) : null;
             isGameOver = true;
             return true;
         }
         return false;
     }
+
+    /**
+     * Returns whether the player whose turn it is has their king in check.
+     * @return true if the king of the player to move is attacked
+     */
+    public boolean isInCheck() {
+        return board.isInCheck(actualTurn.getColor());
+    }
+
+    /**
+     * Returns the winner of a finished game.
+     * @return The winning player, or null if the game is not over or ended in a draw (stalemate)
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    private Player opponentOf(Player player) {
+        return player == whitePlayer ? blackPlayer : whitePlayer;
+    }
     
+    /**
+     * Sets the streams the console game of {@link #startGame()} reads moves from and writes
+     * prompts to, instead of System.in and System.out. Programs that drive games themselves
+     * should use a {@link GameSession}, which does no I/O at all.
+     * @param input The stream moves are read from, or null for System.in
+     * @param output The stream prompts are written to, or null for System.out
+     */
+    public void setConsole(InputStream input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
     /**
      * Starts the game and keeps running until the game is over.
      * It continuously displays the board, the current player's turn, 
      * and handles user input for making moves.
+     * Moves are read from the console streams (see {@link #setConsole}); the streams are left open.
      */
     public void startGame() {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = new Scanner(input != null ? input : System.in);
+        PrintStream out = output != null ? output : System.out;
         while (!isGameOver) {
             view.displayBoard(board);
             view.displayTurn(actualTurn);
 
-            System.out.println("Enter your move (format: startRow startColumn destRow destColumn):");
-            String input = scanner.nextLine();
-            String[] parts = input.split(" ");
+            if (isComputerTurn()) {
+                if (playComputerMove()) {
+                    checkGameOver();
+                } else {
+                    isGameOver = true; // The computer has no move left.
+                }
+                continue;
+            }
+
+            out.println("Enter your move (format: startRow startColumn destRow destColumn):");
+            String line = scanner.nextLine();
+            String[] parts = line.split(" ");
 
             if (parts.length == 4) {
                 try {
@@ -133,17 +384,16 @@ public class GameController {
                     if (makeMove(startRow, startColumn, destRow, destColumn)) {
                         checkGameOver();
                     } else {
-                        System.out.println("Invalid move, please try again.");
+                        out.println("Invalid move, please try again.");
                     }
                 } catch (NumberFormatException e) {
-                    System.out.println("Invalid entry, please enter numbers.");
+                    out.println("Invalid entry, please enter numbers.");
                 }
             } else {
-                System.out.println("Invalid input format, please enter four numbers.");
+                out.println("Invalid input format, please enter four numbers.");
             }
         }
 
-        scanner.close();
-        view.displayGameOver(actualTurn);
+        view.displayGameOver(winner);
     }
 }
@@ -0,0 +1,290 @@
+package controller;
+
+import java.util.Arrays;
+
+import engine.Evaluator;
+import engine.SearchLimits;
+import engine.Searcher;
+import engine.TranspositionTable;
+import journal.MoveJournal;
+import model.Bitboards;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.Move;
+import model.MoveGenerator;
+import model.Piece;
+
+/**
+ * A game driven through method calls instead of the console: moves are submitted and answered
+ * at once, and the state of the game can be queried at any time. A session performs no I/O and
+ * never waits for input, so a program can host any number of games in one JVM.
+ * <p>
+ * Moves follow the same rules as {@link GameController#makeMove(int)}, which the session is
+ * built on; after every move the session checks whether the game is over
+ * ({@link GameController#checkGameOver()}) and rejects moves once it is.
+ * <p>
+ * A session is not thread-safe; callers sharing one between threads must synchronize on it.
+ */
+public class GameSession {
+
+    /**
+     * State of the game.
+     */
+    public enum Status {
+        /** The game goes on. */
+        IN_PROGRESS,
+        /** White checkmated Black or captured the black king. */
+        WHITE_WINS,
+        /** Black checkmated White or captured the white king. */
+        BLACK_WINS,
+        /** The side to move is stalemated. */
+        DRAW
+    }
+
+    /**
+     * Answer to a submitted move.
+     */
+    public enum MoveResult {
+        /** The move was played. */
+        ACCEPTED,
+        /** The move is not valid in the position; nothing changed. */
+        ILLEGAL,
+        /** The move was submitted for the side that is not to move; nothing changed. */
+        NOT_YOUR_TURN,
+        /** The game is already over; nothing changed. */
+        GAME_OVER
+    }
+
+    private static final int INITIAL_HISTORY = 32;
+    private static final int TABLE_MEGABYTES = 1;
+
+    private final GameController controller;
+    private TranspositionTable table; // Created by the first computer move.
+    private int[] history = new int[INITIAL_HISTORY];
+    private int plies;
+    private Status status = Status.IN_PROGRESS;
+
+    /**
+     * Creates a session from the starting position on the standard board.
+     */
+    public GameSession() {
+        this(BoardType.STANDARD);
+    }
+
+    /**
+     * Creates a session from the starting position.
+     * @param boardType The representation of the board
+     */
+    public GameSession(BoardType boardType) {
+        this(boardType, Fen.START);
+    }
+
+    /**
+     * Creates a session from a position.
+     * @param boardType The representation of the board
+     * @param fen The starting position and side to move
+     * @throws IllegalArgumentException if the position is not valid FEN
+     */
+    public GameSession(BoardType boardType, CharSequence fen) {
+        controller = new GameController(null, boardType);
+        controller.loadFen(fen);
+        updateStatus();
+    }
+
+    /**
+     * Plays a move for the side to move.
+     * @param move The packed move (see {@link Move})
+     * @return {@link MoveResult#ACCEPTED} if the move was played, {@link MoveResult#NOT_YOUR_TURN}
+     *         if it moves a piece of the other side, {@link MoveResult#ILLEGAL} if its origin is empty
+     *         or it is not valid in the position
+     */
+    public MoveResult submitMove(int move) {
+        if (status != Status.IN_PROGRESS) {
+            return MoveResult.GAME_OVER;
+        }
+        if (move == Move.NONE) {
+            return MoveResult.ILLEGAL;
+        }
+        int from = Move.from(move);
+        Piece piece = controller.getBoard().getPiece(Bitboards.row(from), Bitboards.column(from));
+        if (piece == null) {
+            return MoveResult.ILLEGAL;
+        }
+        if (piece.getColor() != getSideToMove()) {
+            return MoveResult.NOT_YOUR_TURN; // GameController.makeMove does not check whose piece it is.
+        }
+        if (!controller.makeMove(move)) {
+            return MoveResult.ILLEGAL;
+        }
+        played(move);
+        return MoveResult.ACCEPTED;
+    }
+
+    /**
+     * Plays a move on behalf of one of the players.
+     * @param player The color of the player submitting the move
+     * @param move The packed move (see {@link Move})
+     * @return {@link MoveResult#NOT_YOUR_TURN} if the player is not to move, otherwise as {@link #submitMove(int)}
+     */
+    public MoveResult submitMove(Color player, int move) {
+        if (status == Status.IN_PROGRESS && player != getSideToMove()) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
+        return submitMove(move);
+    }
+
+    /**
+     * Plays a move given in coordinate notation for the side to move.
+     * @param move The move, e.g. "e2e4" (see {@link Move#parse})
+     * @return {@link MoveResult#ACCEPTED} if the move was played
+     */
+    public MoveResult submitMove(CharSequence move) {
+        return submitMove(Move.parse(move));
+    }
+
+    /**
+     * Lets the engine choose and play a move for the side to move. The search uses a small
+     * transposition table of this session, created by the first call, rather than the default
+     * one of {@link GameController}, so hosting many games does not hold a large table for each.
+     * @param limits The depth, time and node budget of the search
+     * @return The move played, or {@link Move#NONE} if the game is over or no move was found
+     */
+    public int playComputerMove(SearchLimits limits) {
+        if (status != Status.IN_PROGRESS) {
+            return Move.NONE;
+        }
+        if (table == null) {
+            table = new TranspositionTable(TABLE_MEGABYTES);
+        }
+        return playComputerMove(limits, table);
+    }
+
+    /**
+     * Lets the engine choose and play a move for the side to move, searching a copy of the board
+     * with a transposition table shared with other sessions. Unlike {@link #playComputerMove(SearchLimits)},
+     * the session keeps no search state of its own, which matters when many games are hosted.
+     * @param limits The depth, time and node budget of the search
+     * @param table The transposition table; it may be shared by searches running in parallel
+     * @return The move played, or {@link Move#NONE} if the game is over or no move was found
+     */
+    public int playComputerMove(SearchLimits limits, TranspositionTable table) {
+        if (status != Status.IN_PROGRESS) {
+            return Move.NONE;
+        }
+        Searcher searcher = new Searcher(controller.getBoard().copy(), new Evaluator(), table);
+        int move = searcher.bestMove(getSideToMove(), limits);
+        return move != Move.NONE && submitMove(move) == MoveResult.ACCEPTED ? move : Move.NONE;
+    }
+
+    /**
+     * Records every move played from now on in a journal (see {@link GameController#setJournal}).
+     * @param journal The journal, or null to stop recording
+     * @param gameId The id of this game in the journal
+     * @throws IllegalArgumentException if the position cannot be journaled
+     */
+    public void setJournal(MoveJournal journal, long gameId) {
+        controller.setJournal(journal, gameId);
+    }
+
+    /**
+     * Returns the journal sequence number of the last move played, to pass to
+     * {@link MoveJournal#awaitDurable(long)}.
+     * @return The sequence number, or 0 if no move was recorded
+     */
+    public long getJournalSequence() {
+        return controller.getJournalSequence();
+    }
+
+    /**
+     * Returns the state of the game.
+     * @return The status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns whether the game is over.
+     * @return true if the status is not {@link Status#IN_PROGRESS}
+     */
+    public boolean isOver() {
+        return status != Status.IN_PROGRESS;
+    }
+
+    /**
+     * Returns the side to move.
+     * @return The color of the player whose turn it is
+     */
+    public Color getSideToMove() {
+        return controller.getActualTurn().getColor();
+    }
+
+    /**
+     * Returns whether the side to move is in check.
+     * @return true if the king of the side to move is attacked
+     */
+    public boolean isInCheck() {
+        return controller.isInCheck();
+    }
+
+    /**
+     * Returns the position in FEN.
+     * @return The FEN of the current position with the side to move
+     */
+    public String getFen() {
+        return controller.toFen();
+    }
+
+    /**
+     * Returns the 64-bit key of the position, including the side to move.
+     * @return The position key
+     */
+    public long getPositionKey() {
+        return controller.getPositionKey();
+    }
+
+    /**
+     * Writes the legal moves of the side to move into a buffer.
+     * @param moves The buffer, at least {@link MoveGenerator#MAX_MOVES} long
+     * @return The number of moves written, 0 once the game is over
+     */
+    public int getLegalMoves(int[] moves) {
+        return status == Status.IN_PROGRESS ? controller.getLegalMoves(moves) : 0;
+    }
+
+    /**
+     * Returns the number of moves played in this session.
+     * @return The ply count
+     */
+    public int getPlyCount() {
+        return plies;
+    }
+
+    /**
+     * Returns the moves played in this session, in order.
+     * @return A copy of the packed moves
+     */
+    public int[] getMoves() {
+        return Arrays.copyOf(history, plies);
+    }
+
+    // Records a move the controller has played and checks whether it ended the game.
+    private void played(int move) {
+        if (plies == history.length) {
+            history = Arrays.copyOf(history, plies * 2);
+        }
+        history[plies++] = move;
+        updateStatus();
+    }
+
+    private void updateStatus() {
+        if (!controller.checkGameOver()) {
+            status = Status.IN_PROGRESS;
+        } else if (controller.getWinner() == null) {
+            status = Status.DRAW;
+        } else {
+            status = controller.getWinner().getColor() == Color.WHITE ? Status.WHITE_WINS : Status.BLACK_WINS;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package engine;
+
+import model.Board;
+import model.Color;
+import model.Piece;
+
+/**
+ * Static evaluation of a position: material plus a small bonus or penalty per square
+ * (piece-square tables). Scores are in centipawns from the point of view of the side to move.
+ */
+public class Evaluator {
+    // Material value per PieceType ordinal. The king is not counted: losing it ends the game.
+    static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    // Piece-square tables per PieceType ordinal, from White's point of view, indexed by
+    // row * 8 + column (row 0 is White's back row). Black uses the mirrored row.
+    private static final int[][] PIECE_SQUARE = {
+        { // Pawn: advance, especially in the centre
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            0, 0, 0, 0, 0, 0, 0, 0
+        },
+        { // Knight: stay in the centre
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+        },
+        { // Bishop: long diagonals, away from the edges
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+        },
+        { // Rook: central files and the seventh row
+            0, 0, 0, 5, 5, 0, 0, 0,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+        },
+        { // Queen: slightly central
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+        },
+        { // King: stay behind the pawns
+            20, 30, 10, 0, 0, 10, 30, 20,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30
+        }
+    };
+
+    /**
+     * Evaluates the position for the given side.
+     * @param board The position to evaluate
+     * @param side The side to move
+     * @return The score in centipawns, positive when the side to move is better
+     */
+    public int evaluate(Board board, Color side) {
+        int score = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece == null) {
+                    continue;
+                }
+                int type = piece.getType().ordinal();
+                if (piece.getColor() == Color.WHITE) {
+                    score += PIECE_VALUES[type] + PIECE_SQUARE[type][row * 8 + col];
+                } else {
+                    score -= PIECE_VALUES[type] + PIECE_SQUARE[type][(7 - row) * 8 + col];
+                }
+            }
+        }
+        return side == Color.WHITE ? score : -score;
+    }
+}
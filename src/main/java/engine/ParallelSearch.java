@@ -0,0 +1,162 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.Board;
+import model.Color;
+import model.Piece;
+
+/**
+ * Multi-threaded search in the "lazy SMP" style: every thread runs an ordinary {@link Searcher}
+ * from the same root on its own copy of the board, and all of them share one
+ * {@link TranspositionTable}. Helpers fill the table with results the main searcher then finds
+ * instead of searching them again; they start at alternating depths so they do not all walk
+ * the tree in the same order.
+ * <p>
+ * The result is the one of the main searcher, which works on the given board; when it finishes,
+ * the helpers are stopped. With a single thread the search runs on the calling thread only and
+ * is fully deterministic.
+ * <p>
+ * The helper threads and their searchers, each with its own copy of the board, are created once
+ * and reused by every search; {@link #close()} stops the threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final Board board;
+    private final TranspositionTable table;
+    private final int threads;
+    private final Searcher main;
+    private final Searcher[] helpers;
+    private final Board[] helperBoards; // Set to the position of the searched board by each search.
+    private final ExecutorService pool; // Null with a single thread.
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    /**
+     * Creates a parallel search over the given board with a table of the default size.
+     * @param board The board to search; it is modified during the search and restored afterwards
+     * @param threads The number of search threads, at least 1
+     */
+    public ParallelSearch(Board board, int threads) {
+        this(board, new Evaluator(), new TranspositionTable(Searcher.DEFAULT_TABLE_MEGABYTES), threads);
+    }
+
+    /**
+     * Creates a parallel search over the given board.
+     * @param board The board to search; it is modified during the search and restored afterwards
+     * @param evaluator The static evaluation used at the leaves, shared by all threads
+     * @param table The transposition table shared by all threads
+     * @param threads The number of search threads, at least 1
+     */
+    public ParallelSearch(Board board, Evaluator evaluator, TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is needed.");
+        }
+        this.board = board;
+        this.table = table;
+        this.threads = threads;
+        this.main = new Searcher(board, evaluator, table);
+        this.helpers = new Searcher[threads - 1];
+        this.helperBoards = new Board[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helperBoards[i] = board.copy();
+            helpers[i] = new Searcher(helperBoards[i], evaluator, table);
+            helpers[i].setStopSignal(stop);
+        }
+        this.pool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "parallel-search-helper");
+            thread.setDaemon(true); // A search that is never closed does not keep the JVM alive.
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the number of threads used by each search.
+     * @return The thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the transposition table shared by the threads.
+     * @return The transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Searches the current position with all threads until the main searcher reaches a limit.
+     * @param side The side to move
+     * @param limits The depth, time and node budget; the node budget applies to each thread
+     * @return The main searcher's best move, score and depth, with the nodes of all threads
+     */
+    public SearchResult search(Color side, SearchLimits limits) {
+        if (threads == 1) {
+            return main.search(side, limits);
+        }
+        long start = System.nanoTime();
+        table.newSearch(); // Once for all threads, which store their entries in the same generation.
+        stop.set(false);
+        try {
+            List<Future<SearchResult>> results = new ArrayList<>(helpers.length);
+            for (int i = 0; i < helpers.length; i++) {
+                // The boards are set here, before the main searcher starts playing moves on its own.
+                Searcher helper = helpers[i];
+                setPosition(helperBoards[i]);
+                int startDepth = 1 + ((i + 1) & 1);
+                results.add(pool.submit(() -> helper.search(side, limits, startDepth)));
+            }
+            SearchResult result;
+            try {
+                result = main.search(side, limits, 1);
+            } finally {
+                stop.set(true);
+            }
+            long nodes = result.getNodes();
+            for (Future<SearchResult> helper : results) {
+                nodes += helper.get().getNodes();
+            }
+            return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                    System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used with more than one thread afterwards.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // Places the pieces of the searched board on a helper's board, changing only the squares that differ.
+    private void setPosition(Board copy) {
+        for (int row = 0; row < board.getSizeRows(); row++) {
+            for (int column = 0; column < board.getSizeCols(); column++) {
+                Piece piece = board.getPiece(row, column);
+                Piece current = copy.getPiece(row, column);
+                if (piece == null) {
+                    if (current != null) {
+                        copy.setPiece(row, column, null);
+                    }
+                } else if (current == null || current.getType() != piece.getType()
+                        || current.getColor() != piece.getColor()) {
+                    copy.setPiece(row, column, copy.newPiece(piece.getType(), piece.getColor()));
+                }
+            }
+        }
+    }
+}
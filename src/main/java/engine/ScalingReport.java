@@ -0,0 +1,65 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Board;
+import model.Move;
+import perft.PerftPosition;
+
+/**
+ * Command line report of how {@link ParallelSearch} scales: searches a position to a fixed depth
+ * with 1, 2, 4, ... threads and prints the time to depth, the nodes per second and the speedup
+ * over one thread. After a warm-up search, every run starts from an empty transposition table of the same size.
+ * <p>
+ * Usage: {@code ScalingReport [depth] [maxThreads] [position] [tableMegabytes]}
+ * <ul>
+ * <li>depth: depth the searches must complete (default 7)</li>
+ * <li>maxThreads: largest thread count (default: available processors)</li>
+ * <li>position: a {@link PerftPosition} name (default KIWIPETE)</li>
+ * <li>tableMegabytes: size of the shared transposition table (default 64)</li>
+ * </ul>
+ */
+public final class ScalingReport {
+
+    private ScalingReport() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        PerftPosition position = args.length > 2 ? PerftPosition.valueOf(args[2].toUpperCase()) : PerftPosition.KIWIPETE;
+        int megabytes = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+
+        System.out.println(position + " (" + position.getSideToMove() + " to move), depth " + depth
+                + ", " + megabytes + " MB table");
+        // Warm-up, so the single-thread baseline is not measured on interpreted code.
+        new ParallelSearch(position.createBoard(), 1).search(position.getSideToMove(), SearchLimits.depth(depth - 1));
+
+        double baseline = 0;
+        for (int threads : threadCounts(maxThreads)) {
+            Board board = position.createBoard();
+            SearchResult result;
+            try (ParallelSearch search = new ParallelSearch(board, new Evaluator(), new TranspositionTable(megabytes), threads)) {
+                result = search.search(position.getSideToMove(), SearchLimits.depth(depth));
+            }
+            double millis = Math.max(1, result.getElapsedNanos()) / 1e6;
+            if (threads == 1) {
+                baseline = millis;
+            }
+            System.out.printf("  %3d thread(s)  %,10.1f ms  %,14d nodes  %,14d nodes/s  speedup %5.2fx  efficiency %3.0f%%  %s%n",
+                    threads, millis, result.getNodes(), result.getNodesPerSecond(), baseline / millis,
+                    100 * baseline / millis / threads, Move.toString(result.getBestMove()));
+        }
+    }
+
+    // 1, 2, 4, ... up to the maximum, which is always included.
+    static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(Math.max(1, maxThreads));
+        return counts;
+    }
+}
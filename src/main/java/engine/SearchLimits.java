@@ -0,0 +1,72 @@
+package engine;
+
+/**
+ * Budget for one search: a maximum depth, a time limit and a node limit.
+ * The search stops at whichever limit is reached first; 0 means no limit
+ * (except for the depth, which is capped by {@link Searcher#MAX_DEPTH}).
+ */
+public class SearchLimits {
+    private final int maxDepth;
+    private final long maxTimeMillis;
+    private final long maxNodes;
+
+    /**
+     * Creates a search budget.
+     * @param maxDepth The deepest iteration to run, 0 for {@link Searcher#MAX_DEPTH}
+     * @param maxTimeMillis The time limit in milliseconds, 0 for none
+     * @param maxNodes The node limit, 0 for none
+     */
+    public SearchLimits(int maxDepth, long maxTimeMillis, long maxNodes) {
+        this.maxDepth = maxDepth;
+        this.maxTimeMillis = maxTimeMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Budget limited by depth only.
+     * @param depth The deepest iteration to run
+     * @return The search limits
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * Budget limited by time only.
+     * @param millis The time limit in milliseconds
+     * @return The search limits
+     */
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(0, millis, 0);
+    }
+
+    /**
+     * Budget limited by the number of nodes only.
+     * @param nodes The node limit
+     * @return The search limits
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, 0, nodes);
+    }
+
+    /**
+     * @return The deepest iteration to run, 0 for no explicit limit
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return The time limit in milliseconds, 0 for none
+     */
+    public long getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    /**
+     * @return The node limit, 0 for none
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+}
@@ -0,0 +1,79 @@
+package engine;
+
+import model.Move;
+
+/**
+ * Outcome of a search: the best move found, its score and the effort spent on it.
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a search result.
+     * @param bestMove The best move in packed form, or {@link Move#NONE} if there was no move
+     * @param score The score of the best move in centipawns, from the point of view of the side to move
+     * @param depth The depth of the last completed iteration
+     * @param nodes The number of nodes visited
+     * @param elapsedNanos The time spent searching in nanoseconds
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The best move in packed form, or {@link Move#NONE}
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return The score in centipawns for the side to move
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return The depth of the last completed iteration
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The number of nodes visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The time spent searching in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the search speed, the engine's main performance metric.
+     * @return The number of nodes visited per second
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (nodes * 1e9 / elapsedNanos); // In double: nodes * 10^9 overflows a long.
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " nps " + getNodesPerSecond()
+                + " bestmove " + (bestMove == Move.NONE ? "none" : Move.toString(bestMove));
+    }
+}
@@ -0,0 +1,408 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.Bitboards;
+import model.Board;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+import model.Piece;
+import model.PieceType;
+import model.Zobrist;
+
+/**
+ * Iterative-deepening alpha-beta search (negamax) over a {@link Board}.
+ * Moves are played with {@link Board#makeMove(int)} and taken back with {@link Board#unmakeMove()},
+ * so the searched board is left as it was found and nothing is allocated per node.
+ * Results are kept in a {@link TranspositionTable}, which can be shared with other searchers.
+ * Moves are ordered with the best move of the previous iteration (or of the table) first, then
+ * captures by most valuable victim / least valuable attacker, then killer moves; leaf positions
+ * are resolved with a captures-only quiescence search.
+ * In this model the game ends when a king is captured, so losing the king scores as mate; a side
+ * whose every move loses the king without being in check is stalemated and scores a draw.
+ */
+public class Searcher {
+    /** Score of a won game (the opponent's king has been captured), minus the plies to get there. */
+    public static final int MATE = 100_000;
+    /** Deepest iteration the searcher will run. */
+    public static final int MAX_DEPTH = 64;
+    /** Size of the transposition table a searcher creates when none is given. */
+    public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private static final int MAX_PLY = MAX_DEPTH + 32;
+    private static final int CAPTURE_BONUS = 1_000_000;
+    private static final int KILLER_BONUS = 500_000;
+
+    private final Board board;
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+
+    // Per-ply move buffers and ordering scores, reused by every node at that ply.
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] orderScores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean stopped;
+    // Set by another thread to end the search early (see ParallelSearch); may be null.
+    private AtomicBoolean stopSignal;
+
+    /**
+     * Creates a searcher working on the given board.
+     * @param board The board to search; it is modified during the search and restored afterwards
+     */
+    public Searcher(Board board) {
+        this(board, new Evaluator(), new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a searcher working on the given board with a custom evaluation.
+     * @param board The board to search; it is modified during the search and restored afterwards
+     * @param evaluator The static evaluation used at the leaves
+     */
+    public Searcher(Board board, Evaluator evaluator) {
+        this(board, evaluator, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a searcher working on the given board and storing its results in the given table.
+     * @param board The board to search; it is modified during the search and restored afterwards
+     * @param evaluator The static evaluation used at the leaves
+     * @param table The transposition table, possibly shared with searchers on other threads
+     */
+    public Searcher(Board board, Evaluator evaluator, TranspositionTable table) {
+        this.board = board;
+        this.evaluator = evaluator;
+        this.table = table;
+    }
+
+    /**
+     * Returns the transposition table used by this searcher, e.g. to read its hit rate.
+     * @return The transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Searches the current position and returns the best move found within the limits.
+     * @param side The side to move
+     * @param limits The depth, time and node budget
+     * @return The best move in packed form, or {@link Move#NONE} if the side has no move
+     */
+    public int bestMove(Color side, SearchLimits limits) {
+        return search(side, limits).getBestMove();
+    }
+
+    /**
+     * Searches the current position with iterative deepening until a limit is reached.
+     * The result always comes from the last iteration that completed, except that an
+     * interrupted iteration may still provide a move if none had completed yet.
+     * @param side The side to move
+     * @param limits The depth, time and node budget
+     * @return The best move, its score, the depth reached and the nodes visited
+     */
+    public SearchResult search(Color side, SearchLimits limits) {
+        table.newSearch();
+        return search(side, limits, 1);
+    }
+
+    // Same as search(side, limits), but iterative deepening starts at the given depth and the
+    // table's generation is left alone: a parallel search advances it once for all its threads.
+    // Helper threads start at different depths so they do not all search alike.
+    SearchResult search(Color side, SearchLimits limits, int startDepth) {
+        long start = System.nanoTime();
+        nodes = 0;
+        stopped = false;
+        maxNodes = limits.getMaxNodes();
+        deadline = limits.getMaxTimeMillis() > 0 ? start + limits.getMaxTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        int maxDepth = limits.getMaxDepth() > 0 ? Math.min(limits.getMaxDepth(), MAX_DEPTH) : MAX_DEPTH;
+        for (int[] killer : killers) {
+            killer[0] = Move.NONE;
+            killer[1] = Move.NONE;
+        }
+
+        int bestMove = Move.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            int[] root = searchRoot(side, depth, bestMove);
+            if (stopped && bestMove != Move.NONE) {
+                break;
+            }
+            bestMove = root[0];
+            bestScore = root[1];
+            if (stopped) {
+                break;
+            }
+            completedDepth = depth;
+            if (bestMove == Move.NONE || Math.abs(bestScore) >= MATE - MAX_PLY) {
+                break; // No move at all, or a forced result has been found.
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    // Searches every root move to the given depth; returns {best move, best score}.
+    private int[] searchRoot(Color side, int depth, int previousBest) {
+        int[] buffer = moves[0];
+        int count = MoveGenerator.generate(board, side, buffer);
+        order(0, count, previousBest);
+
+        int alpha = -MATE - 1;
+        // If the budget runs out before any move is scored, the first ordered move is still returned.
+        int bestMove = count > 0 ? buffer[0] : Move.NONE;
+        boolean scored = false;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            board.makeMove(move);
+            int score = -alphaBeta(opponent(side), depth - 1, 1, -MATE - 1, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                scored = true;
+            }
+        }
+        if (scored && !stopped) {
+            table.store(Zobrist.key(board, side), bestMove, toTable(alpha, 0), depth, TranspositionTable.EXACT);
+        }
+        return new int[] {bestMove, scored ? alpha : 0};
+    }
+
+    private int alphaBeta(Color side, int depth, int ply, int alpha, int beta) {
+        if (!board.hasKing(side)) {
+            return -MATE + ply; // The previous move captured our king.
+        }
+        if (depth <= 0 || ply >= MAX_DEPTH) {
+            return quiescence(side, ply, alpha, beta);
+        }
+        if (checkLimits()) {
+            return 0;
+        }
+        nodes++;
+
+        long key = Zobrist.key(board, side);
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0L) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generate(board, side, buffer);
+        if (count == 0) {
+            return 0; // No move available: treated as a draw.
+        }
+        order(ply, count, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -MATE - 1;
+        int bestMove = Move.NONE;
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            boolean quiet = isQuiet(move);
+            board.makeMove(move);
+            if (board.isInCheck(side)) {
+                board.unmakeMove(); // Leaves our king to be taken: not a legal move.
+                continue;
+            }
+            legal++;
+            int score = -alphaBeta(opponent(side), depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (score >= beta) {
+                    if (quiet) {
+                        storeKiller(ply, move);
+                    }
+                    table.store(key, move, toTable(score, ply), depth, TranspositionTable.LOWER);
+                    return score;
+                }
+            }
+        }
+        if (legal == 0) {
+            // Every move lets the opponent take our king: mated if it is attacked now, otherwise
+            // stalemated, which is a draw. Counting the legal moves keeps this exact whatever the
+            // window, where the scores of fail-high children are only bounds.
+            int score = board.isInCheck(side) ? -MATE + ply + 2 : 0;
+            table.store(key, Move.NONE, toTable(score, ply), depth, TranspositionTable.EXACT);
+            return score;
+        }
+        if (bestScore > originalAlpha) {
+            table.store(key, bestMove, toTable(bestScore, ply), depth, TranspositionTable.EXACT);
+        } else {
+            table.store(key, Move.NONE, toTable(bestScore, ply), depth, TranspositionTable.UPPER);
+        }
+        return bestScore;
+    }
+
+    // Mate scores count plies from the root; in the table they are stored relative to the
+    // position itself, so the same entry is right wherever in the tree the position is found.
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    // Searches captures only until the position is quiet, so the evaluation is not taken
+    // in the middle of an exchange.
+    private int quiescence(Color side, int ply, int alpha, int beta) {
+        if (!board.hasKing(side)) {
+            return -MATE + ply;
+        }
+        if (checkLimits()) {
+            return 0;
+        }
+        nodes++;
+
+        int standPat = evaluator.evaluate(board, side);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generate(board, side, buffer);
+        int captures = 0;
+        for (int i = 0; i < count; i++) {
+            if (!isQuiet(buffer[i])) {
+                buffer[captures++] = buffer[i];
+            }
+        }
+        order(ply, captures, Move.NONE);
+
+        for (int i = 0; i < captures; i++) {
+            board.makeMove(buffer[i]);
+            int score = -quiescence(opponent(side), ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    // Sorts the first count moves at this ply: hash/PV move, captures (MVV-LVA), killers, the rest.
+    private void order(int ply, int count, int firstMove) {
+        int[] buffer = moves[ply];
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            Piece victim = pieceAt(Move.to(move));
+            if (move == firstMove) {
+                scores[i] = Integer.MAX_VALUE;
+            } else if (victim != null) {
+                Piece attacker = pieceAt(Move.from(move));
+                scores[i] = CAPTURE_BONUS + victimValue(victim) * 10 - attacker.getType().ordinal();
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                scores[i] = KILLER_BONUS;
+            } else {
+                scores[i] = 0;
+            }
+        }
+        // Insertion sort: move lists are short and often nearly ordered already.
+        for (int i = 1; i < count; i++) {
+            int move = buffer[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                buffer[j + 1] = buffer[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            buffer[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    private int victimValue(Piece victim) {
+        // Capturing the king ends the game, so it is always tried first.
+        return victim.getType() == PieceType.KING ? 10_000 : Evaluator.PIECE_VALUES[victim.getType().ordinal()];
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private boolean isQuiet(int move) {
+        return pieceAt(Move.to(move)) == null;
+    }
+
+    private Piece pieceAt(int square) {
+        return board.getPiece(Bitboards.row(square), Bitboards.column(square));
+    }
+
+    /**
+     * Lets another thread end the search: once the flag is set, the search stops as if its
+     * time had run out. It is polled together with the clock.
+     * @param stopSignal The shared flag, or null to only stop on the limits
+     */
+    void setStopSignal(AtomicBoolean stopSignal) {
+        this.stopSignal = stopSignal;
+    }
+
+    // Checks the node and time budget; the clock and the stop signal are only read every 1024 nodes.
+    private boolean checkLimits() {
+        if (stopped) {
+            return true;
+        }
+        if ((maxNodes > 0 && nodes >= maxNodes) || ((nodes & 1023) == 0
+                && (System.nanoTime() >= deadline || (stopSignal != null && stopSignal.get())))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private static Color opponent(Color side) {
+        return side == Color.WHITE ? Color.BLACK : Color.WHITE;
+    }
+}
@@ -0,0 +1,211 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.Move;
+
+/**
+ * Fixed-size hash table of search results, shared by any number of search threads without locks.
+ * <p>
+ * Entries live in a flat {@code long[]}, two slots per entry: the position key XORed with the data,
+ * and the data itself. A reader only accepts an entry if XORing the two slots gives back its key,
+ * so an entry torn by two threads writing at the same time is detected and treated as a miss
+ * instead of returning another position's data.
+ * <p>
+ * Data layout (low to high bits): move (16), score (32, signed), depth (8), bound (2),
+ * search generation (5), and a top bit that marks the slot as used.
+ * The number of entries is the largest power of two that fits in the requested megabytes.
+ * The hit and occupancy counters are statistics only and may be slightly off under concurrency.
+ */
+public class TranspositionTable {
+    /** The stored score is exact. */
+    public static final int EXACT = 0;
+    /** The stored score is a lower bound (the search failed high). */
+    public static final int LOWER = 1;
+    /** The stored score is an upper bound (the search failed low). */
+    public static final int UPPER = 2;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final long USED = 1L << 63;
+
+    private final long[] table;
+    private final int mask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Creates an empty table.
+     * @param megabytes The memory to use; rounded down to a power-of-two number of entries (at least one)
+     */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(1, (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        int size = (int) Long.highestOneBit(Math.min(entries, 1 << 29));
+        table = new long[size * 2];
+        mask = size - 1;
+    }
+
+    /**
+     * Looks up a position.
+     * @param key The Zobrist key of the position (including the side to move)
+     * @return The packed entry data, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = ((int) key & mask) << 1;
+        long data = table[index + 1];
+        if ((table[index] ^ data) == key && (data & USED) != 0) {
+            hits.increment();
+            return data;
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result. An existing entry for another position is only replaced if it comes
+     * from an older search or was searched less deeply.
+     * @param key The Zobrist key of the position (including the side to move)
+     * @param move The best move found, or {@link Move#NONE}
+     * @param score The score, already adjusted so that it does not depend on the distance to the root
+     * @param depth The remaining depth the score was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & mask) << 1;
+        long existing = table[index + 1];
+        boolean samePosition = (table[index] ^ existing) == key;
+        if (!samePosition && (existing & USED) != 0 && generation(existing) == generation
+                && depth(existing) > depth) {
+            return; // Keep the deeper result of the current search.
+        }
+        if (samePosition && move == Move.NONE) {
+            move = move(existing); // Do not lose the best move of an earlier visit.
+        }
+        long data = (move & 0xFFFFL)
+                | ((score & 0xFFFFFFFFL) << 16)
+                | ((long) (Math.max(0, Math.min(depth, 255))) << 48)
+                | ((long) bound << 56)
+                | ((long) generation << 58)
+                | USED;
+        table[index] = key ^ data;
+        table[index + 1] = data;
+        stores.increment();
+    }
+
+    /**
+     * Marks the start of a new search, so entries of earlier searches are replaced first.
+     * Called once per search by the owner of the search, never by the threads that share the
+     * table while it runs.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x1F;
+    }
+
+    /**
+     * Returns the generation stored with new entries, advanced by {@link #newSearch()}.
+     * @return The generation, from 0 to 31
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Empties the table and resets the counters.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    /**
+     * @param data Packed entry data returned by {@link #probe(long)}
+     * @return The best move stored in the entry
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * @param data Packed entry data returned by {@link #probe(long)}
+     * @return The score stored in the entry
+     */
+    public static int score(long data) {
+        return (int) (data >>> 16);
+    }
+
+    /**
+     * @param data Packed entry data returned by {@link #probe(long)}
+     * @return The depth the stored score was searched to
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    /**
+     * @param data Packed entry data returned by {@link #probe(long)}
+     * @return The bound type of the stored score
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> 56) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 58) & 0x1F);
+    }
+
+    /**
+     * @return The number of entries in the table
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return The number of lookups since the table was created or cleared
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return The number of lookups that found their position
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of entries written
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return The fraction of lookups that found their position, between 0 and 1
+     */
+    public double getHitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0.0 : (double) hits.sum() / probeCount;
+    }
+
+    /**
+     * Estimates how full the table is by sampling up to the first 1000 entries.
+     * @return The fraction of used entries, between 0 and 1
+     */
+    public double getOccupancy() {
+        int sample = Math.min(1000, mask + 1);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if ((table[i * 2 + 1] & USED) != 0) {
+                used++;
+            }
+        }
+        return (double) used / sample;
+    }
+}
@@ -0,0 +1,86 @@
+package journal;
+
+import model.Board;
+import model.Color;
+import model.Piece;
+import model.PieceType;
+
+/**
+ * Compact encoding of the pieces of an 8x8 board, stored in the journal every few plies so a
+ * game can be rebuilt without replaying it from the start.
+ * <p>
+ * The payload is {@link #BYTES} long: the occupied squares as a 64-bit mask (big-endian), then
+ * one 4-bit code per occupied square in square order (row * 8 + column), two per byte, high
+ * nibble first. A code is the piece type ordinal plus one, with bit 3 set for black. A position
+ * of up to {@link #MAX_PIECES} pieces fits; positions reached by play have at most 32.
+ */
+public final class BoardSnapshot {
+    /** Size of an encoded board. */
+    public static final int BYTES = 28;
+    /** Most pieces an encoded board can hold. */
+    public static final int MAX_PIECES = (BYTES - 8) * 2;
+
+    private static final PieceType[] TYPES = PieceType.values(); // values() copies the array on every call.
+    private static final int SIZE = 8;
+    private static final int BLACK = 8;
+
+    private BoardSnapshot() {
+    }
+
+    /**
+     * Encodes the pieces of a board.
+     * @param board The board, 8x8
+     * @param payload The array receiving the encoding, at least {@link #BYTES} long
+     * @return false if the board has more than {@link #MAX_PIECES} pieces and was not encoded
+     */
+    public static boolean encode(Board board, byte[] payload) {
+        long occupied = 0;
+        int pieces = 0;
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            Piece piece = board.getPiece(square / SIZE, square % SIZE);
+            if (piece == null) {
+                continue;
+            }
+            if (pieces == MAX_PIECES) {
+                return false;
+            }
+            int code = piece.getType().ordinal() + 1 | (piece.getColor() == Color.BLACK ? BLACK : 0);
+            int index = 8 + pieces / 2;
+            payload[index] = (byte) (pieces % 2 == 0 ? code << 4 : payload[index] & 0xF0 | code);
+            occupied |= 1L << square;
+            pieces++;
+        }
+        for (int i = 0; i < 8; i++) {
+            payload[i] = (byte) (occupied >>> (56 - 8 * i));
+        }
+        for (int index = 8 + (pieces + 1) / 2; index < BYTES; index++) {
+            payload[index] = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Places the pieces of an encoding on a board, emptying every other square.
+     * @param payload The encoding made by {@link #encode}
+     * @param board The board, 8x8
+     */
+    public static void decode(byte[] payload, Board board) {
+        long occupied = 0;
+        for (int i = 0; i < 8; i++) {
+            occupied = occupied << 8 | payload[i] & 0xFF;
+        }
+        int pieces = 0;
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            int row = square / SIZE;
+            int column = square % SIZE;
+            if ((occupied & 1L << square) == 0) {
+                board.setPiece(row, column, null);
+                continue;
+            }
+            int packed = payload[8 + pieces / 2];
+            int code = (pieces % 2 == 0 ? packed >> 4 : packed) & 0xF;
+            pieces++;
+            board.setPiece(row, column, board.newPiece(TYPES[(code & 7) - 1], (code & BLACK) != 0 ? Color.BLACK : Color.WHITE));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import model.Color;
+
+/**
+ * Sequential reader of the entries of a {@link MoveJournal} directory, oldest first: moves, and
+ * the snapshots of the boards taken every few plies.
+ * <p>
+ * The reader is a cursor: {@link #next()} moves to the next entry and the getters return its
+ * fields, so reading creates no object per entry. Reading stops at the first entry that does not
+ * check out, the torn tail left by a crash; {@link #isTruncated()} tells whether that happened.
+ */
+public class JournalReader implements Closeable {
+    private final List<Path> segments;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+    private int segment = -1;
+    private int offset; // Offset of the next record in the buffer.
+    private int current; // Offset of the current record.
+    private long position; // Records read so far.
+    private boolean truncated;
+    private boolean done;
+
+    /**
+     * Opens the journal of a directory with a 64 KB read buffer.
+     * @param directory The journal directory; a missing directory reads as an empty journal
+     * @throws IOException if the directory cannot be listed
+     */
+    public JournalReader(Path directory) throws IOException {
+        this(directory, MoveJournal.DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Opens the journal of a directory.
+     * @param directory The journal directory; a missing directory reads as an empty journal
+     * @param bufferBytes The size of the read buffer, at least one snapshot
+     * @throws IOException if the directory cannot be listed
+     */
+    public JournalReader(Path directory, int bufferBytes) throws IOException {
+        if (bufferBytes < JournalRecord.SNAPSHOT_BYTES) {
+            throw new IllegalArgumentException("The buffer must hold at least one snapshot.");
+        }
+        segments = MoveJournal.segments(directory);
+        buffer = ByteBuffer.allocateDirect(bufferBytes);
+        buffer.limit(0);
+    }
+
+    /**
+     * Moves to the next entry: a move, or a snapshot of a game's board.
+     * @return true if there is an entry, false at the end of the journal
+     * @throws IOException if a segment cannot be read
+     */
+    public boolean next() throws IOException {
+        if (done) {
+            return false;
+        }
+        if (!ensure(JournalRecord.BYTES)) {
+            return end();
+        }
+        int size = JournalRecord.entryBytes(buffer, offset);
+        if (!ensure(size) || !JournalRecord.isValid(buffer, offset)) {
+            truncated = true;
+            return end();
+        }
+        current = offset;
+        offset += size;
+        position += size / JournalRecord.BYTES;
+        return true;
+    }
+
+    /**
+     * Returns whether the current entry is a snapshot.
+     * @return true for a snapshot, false for a move
+     */
+    public boolean isSnapshot() {
+        return JournalRecord.isSnapshot(buffer, current);
+    }
+
+    /**
+     * Returns the game id of the current entry.
+     * @return The game id
+     */
+    public long getGameId() {
+        return JournalRecord.gameId(buffer, current);
+    }
+
+    /**
+     * Returns the ply of the current move, or the number of plies played when the current snapshot was taken.
+     * @return The ply
+     */
+    public int getPly() {
+        return JournalRecord.ply(buffer, current);
+    }
+
+    /**
+     * Returns the move of the current entry.
+     * @return The packed move (see {@link model.Move}); meaningless for a snapshot
+     */
+    public int getMove() {
+        return JournalRecord.move(buffer, current);
+    }
+
+    /**
+     * Returns the side to move of the current snapshot.
+     * @return The side to move
+     */
+    public Color getSideToMove() {
+        return JournalRecord.snapshotSide(buffer, current);
+    }
+
+    /**
+     * Copies the board of the current snapshot.
+     * @param payload The array receiving the encoded board (see {@link BoardSnapshot#decode}),
+     *                at least {@link BoardSnapshot#BYTES} long
+     */
+    public void getSnapshot(byte[] payload) {
+        JournalRecord.snapshotPayload(buffer, current, payload);
+    }
+
+    /**
+     * Returns the sequence number of the current entry, as returned by {@link MoveJournal#append}.
+     * @return The number of records read, including those of the current entry
+     */
+    public long getSequence() {
+        return position;
+    }
+
+    /**
+     * Returns whether reading stopped at an entry that was not completely written.
+     * @return true if the journal has a torn tail
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private boolean end() {
+        done = true;
+        return false;
+    }
+
+    // Makes sure the buffer holds the given number of bytes from the offset on, reading the
+    // following segments as needed; false if the journal ends first. The buffer is kept ready
+    // for reading: its data runs from 0 to the limit.
+    private boolean ensure(int bytes) throws IOException {
+        while (buffer.limit() - offset < bytes) {
+            buffer.position(offset);
+            buffer.compact();
+            offset = 0;
+            int read = read();
+            buffer.flip();
+            if (read < 0) {
+                if (buffer.limit() > 0) {
+                    truncated = true; // A partial record at the very end.
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Reads into the buffer from the current segment, moving on to the next at the end of one.
+    private int read() throws IOException {
+        while (true) {
+            if (channel == null) {
+                if (segment + 1 >= segments.size()) {
+                    return -1;
+                }
+                channel = FileChannel.open(segments.get(++segment), StandardOpenOption.READ);
+            }
+            int read = channel.read(buffer);
+            if (read >= 0) {
+                return read;
+            }
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package journal;
+
+import java.nio.ByteBuffer;
+
+import model.Color;
+import model.Move;
+
+/**
+ * Layout of the fixed-width records of a {@link MoveJournal}: one record per move played, and
+ * a snapshot of the board every few plies.
+ * <pre>
+ * offset  size  field
+ *  0       8    game id
+ *  8       4    ply (0 for the first move recorded for the game)
+ * 12       1    origin square (row * 8 + column)
+ * 13       1    destination square
+ * 14       1    flags: promotion piece code (bits 0-2, see {@link Move}), 0 for none
+ * 15       1    check byte: XOR of bytes 0-14 and {@link #CHECK_SEED}
+ * </pre>
+ * A snapshot (keyframe) takes {@link #SNAPSHOT_BYTES}, three records with their own check byte,
+ * marked by a byte 12 that is not a square: {@link #SNAPSHOT} followed by its part number.
+ * <pre>
+ * header:   game id (8), ply count when taken (4), 0x80, side to move (0 white, 1 black), 0, check
+ * part 1-2: 14 bytes of the {@link BoardSnapshot} payload in bytes 0-11 and 13-14, 0x81 or 0x82, check
+ * </pre>
+ * The check byte lets a reader find where a journal torn by a crash ends: a record that was
+ * only partly written, or the zeros of a file extended but never written, do not check out.
+ * Records are big-endian, and neither a record nor a snapshot straddles two segments.
+ */
+public final class JournalRecord {
+    /** Size of a record in bytes. */
+    public static final int BYTES = 16;
+    /** Size of a snapshot: a header and two payload records. */
+    public static final int SNAPSHOT_BYTES = 3 * BYTES;
+    /** Byte 12 of a snapshot header; the payload records follow with 0x81 and 0x82. */
+    static final int SNAPSHOT = 0x80;
+    /** Seed of the check byte, so that a record of zeros is not valid. */
+    static final int CHECK_SEED = 0x5A;
+
+    private JournalRecord() {
+    }
+
+    /**
+     * Writes a record at the position of a buffer and advances the position.
+     * @param buffer The buffer, with at least {@link #BYTES} remaining
+     * @param gameId The id of the game
+     * @param ply The ply of the move in the game
+     * @param move The packed move (see {@link Move})
+     */
+    public static void put(ByteBuffer buffer, long gameId, int ply, int move) {
+        int start = buffer.position();
+        buffer.putLong(gameId);
+        buffer.putInt(ply);
+        buffer.put((byte) Move.from(move));
+        buffer.put((byte) Move.to(move));
+        buffer.put((byte) (move >>> 12 & 0x7));
+        buffer.put((byte) check(buffer, start));
+    }
+
+    /**
+     * Writes a snapshot at the position of a buffer and advances the position.
+     * @param buffer The buffer, with at least {@link #SNAPSHOT_BYTES} remaining
+     * @param gameId The id of the game
+     * @param ply The number of plies played in the game when the snapshot was taken
+     * @param sideToMove The side to move in the position
+     * @param payload The board, encoded by {@link BoardSnapshot#encode}
+     */
+    public static void putSnapshot(ByteBuffer buffer, long gameId, int ply, Color sideToMove, byte[] payload) {
+        int start = buffer.position();
+        buffer.putLong(gameId);
+        buffer.putInt(ply);
+        buffer.put((byte) SNAPSHOT);
+        buffer.put((byte) sideToMove.ordinal());
+        buffer.put((byte) 0);
+        buffer.put((byte) check(buffer, start));
+        for (int part = 1; part <= 2; part++) {
+            int record = buffer.position();
+            int from = (part - 1) * (BYTES - 2);
+            buffer.put(payload, from, 12);
+            buffer.put((byte) (SNAPSHOT | part));
+            buffer.put(payload, from + 12, 2);
+            buffer.put((byte) check(buffer, record));
+        }
+    }
+
+    /**
+     * Copies the board of the snapshot at an offset.
+     * @param buffer The buffer
+     * @param offset The offset of the snapshot header
+     * @param payload The array receiving the {@link BoardSnapshot} payload, at least {@link BoardSnapshot#BYTES} long
+     */
+    public static void snapshotPayload(ByteBuffer buffer, int offset, byte[] payload) {
+        for (int part = 1; part <= 2; part++) {
+            int record = offset + part * BYTES;
+            int to = (part - 1) * (BYTES - 2);
+            for (int i = 0; i < 12; i++) {
+                payload[to + i] = buffer.get(record + i);
+            }
+            payload[to + 12] = buffer.get(record + 13);
+            payload[to + 13] = buffer.get(record + 14);
+        }
+    }
+
+    /**
+     * Returns the side to move of the snapshot at an offset.
+     * @param buffer The buffer
+     * @param offset The offset of the snapshot header
+     * @return The side to move
+     */
+    public static Color snapshotSide(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 13) == 0 ? Color.WHITE : Color.BLACK;
+    }
+
+    /**
+     * Returns whether the entry at an offset is a snapshot rather than a move.
+     * @param buffer The buffer
+     * @param offset The offset of the entry
+     * @return true for a snapshot header
+     */
+    public static boolean isSnapshot(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + 12) & 0xFF) == SNAPSHOT;
+    }
+
+    /**
+     * Returns the size of the entry starting at an offset, judged by its first record.
+     * @param buffer The buffer
+     * @param offset The offset of the entry
+     * @return {@link #SNAPSHOT_BYTES} for a snapshot, {@link #BYTES} otherwise
+     */
+    public static int entryBytes(ByteBuffer buffer, int offset) {
+        return isSnapshot(buffer, offset) ? SNAPSHOT_BYTES : BYTES;
+    }
+
+    /**
+     * Returns whether the entry at an offset of a buffer, a move or a whole snapshot, is complete and intact.
+     * @param buffer The buffer
+     * @param offset The offset of the entry, with at least {@link #entryBytes} bytes after it
+     * @return true if every check byte matches
+     */
+    public static boolean isValid(ByteBuffer buffer, int offset) {
+        if (!isSnapshot(buffer, offset)) {
+            return checks(buffer, offset) && (buffer.get(offset + 12) & 0xFF) < 64 && (buffer.get(offset + 13) & 0xFF) < 64;
+        }
+        for (int part = 0; part <= 2; part++) {
+            int record = offset + part * BYTES;
+            if (!checks(buffer, record) || (buffer.get(record + 12) & 0xFF) != (SNAPSHOT | part)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the game id of the record at an offset.
+     * @param buffer The buffer
+     * @param offset The offset of the record
+     * @return The game id
+     */
+    public static long gameId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+
+    /**
+     * Reads the ply of the record at an offset.
+     * @param buffer The buffer
+     * @param offset The offset of the record
+     * @return The ply
+     */
+    public static int ply(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 8);
+    }
+
+    /**
+     * Reads the move of the record at an offset.
+     * @param buffer The buffer
+     * @param offset The offset of the record
+     * @return The packed move (see {@link Move})
+     */
+    public static int move(ByteBuffer buffer, int offset) {
+        int from = buffer.get(offset + 12);
+        int to = buffer.get(offset + 13);
+        int promotion = buffer.get(offset + 14) & 0x7;
+        return Move.encode(from, to) | promotion << 12;
+    }
+
+    private static boolean checks(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + 15) & 0xFF) == check(buffer, offset);
+    }
+
+    private static int check(ByteBuffer buffer, int offset) {
+        int check = CHECK_SEED;
+        for (int i = 0; i < BYTES - 1; i++) {
+            check ^= buffer.get(offset + i);
+        }
+        return check & 0xFF;
+    }
+}
@@ -0,0 +1,211 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import model.Bitboards;
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Move;
+
+/**
+ * Rebuilds the games of a {@link MoveJournal} after a restart.
+ * <p>
+ * Recovery runs in two phases. The journal is read once, in order, keeping for every game only
+ * its last snapshot and the moves journaled after it; older moves are dropped as soon as a
+ * newer snapshot arrives, so memory stays bounded by the snapshot interval. The games are then
+ * rebuilt on a pool of threads: each board is set up from the game's snapshot (the starting
+ * position if it has none) and only the tail is replayed through {@link Board#movePiece}, like
+ * {@link controller.GameController#makeMove(int, int, int, int)} did when the moves were played.
+ * <p>
+ * Moves must follow each other without gaps from the snapshot on; a game with a missing ply or a
+ * move the board refuses is rebuilt up to that point and reported as incomplete.
+ */
+public class JournalRecovery {
+    /** Number of games a replay thread takes at a time. */
+    public static final int CHUNK_SIZE = 256;
+
+    private final BoardType boardType;
+    private final int threads;
+    private final boolean useSnapshots;
+
+    /**
+     * Creates a recovery that uses the snapshots of the journal.
+     * @param boardType The board representation of the rebuilt games
+     * @param threads The number of replay threads
+     */
+    public JournalRecovery(BoardType boardType, int threads) {
+        this(boardType, threads, true);
+    }
+
+    /**
+     * Creates a recovery.
+     * @param boardType The board representation of the rebuilt games
+     * @param threads The number of replay threads
+     * @param useSnapshots false to replay every game from its first snapshot, for comparison
+     */
+    public JournalRecovery(BoardType boardType, int threads, boolean useSnapshots) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one replay thread is needed.");
+        }
+        this.boardType = boardType;
+        this.threads = threads;
+        this.useSnapshots = useSnapshots;
+    }
+
+    /**
+     * Rebuilds every game of a journal.
+     * @param directory The journal directory
+     * @param output Receives each rebuilt game; called from the replay threads, so it must be thread-safe
+     * @return The counts and timings of the recovery
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalStateException if a replay thread fails
+     */
+    public RecoveryStats recover(Path directory, Consumer<RecoveredGame> output) throws IOException {
+        long start = System.nanoTime();
+        Map<Long, GameLog> logs = new HashMap<>();
+        long entries = 0;
+        boolean truncated;
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                entries++;
+                long gameId = reader.getGameId();
+                GameLog log = logs.get(gameId);
+                if (log == null) {
+                    log = new GameLog(gameId);
+                    logs.put(gameId, log);
+                }
+                if (!reader.isSnapshot()) {
+                    log.add(reader.getPly(), reader.getMove());
+                } else if (useSnapshots || log.snapshot == null) {
+                    log.snapshot(reader);
+                }
+            }
+            truncated = reader.isTruncated();
+        }
+        long scanned = System.nanoTime();
+
+        List<GameLog> games = new ArrayList<>(logs.values());
+        logs = null;
+        long[] totals = replay(games, output);
+        long replayed = System.nanoTime();
+        return new RecoveryStats(games.size(), totals[0], entries, totals[1], totals[2], truncated, threads,
+                scanned - start, replayed - scanned);
+    }
+
+    // Rebuilds the games on the pool; returns the incomplete games, replayed plies and skipped plies.
+    private long[] replay(List<GameLog> games, Consumer<RecoveredGame> output) {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    long[] totals = new long[3];
+                    int first;
+                    while ((first = next.getAndAdd(CHUNK_SIZE)) < games.size()) {
+                        int last = Math.min(first + CHUNK_SIZE, games.size());
+                        for (int i = first; i < last; i++) {
+                            GameLog log = games.get(i);
+                            RecoveredGame game = rebuild(log);
+                            totals[0] += game.isComplete() ? 0 : 1;
+                            totals[1] += game.getPlies() - log.base;
+                            totals[2] += log.base;
+                            games.set(i, null); // Lets the log be collected once its game is rebuilt.
+                            output.accept(game);
+                        }
+                    }
+                    return totals;
+                }));
+            }
+            long[] totals = new long[3];
+            for (Future<long[]> worker : workers) {
+                long[] counts = worker.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+            }
+            return totals;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Recovery worker failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recovery interrupted.", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private RecoveredGame rebuild(GameLog log) {
+        Board board = boardType.createBoard(); // Set up with the starting position.
+        Color side = Color.WHITE;
+        if (log.snapshot != null) {
+            BoardSnapshot.decode(log.snapshot, board);
+            side = log.side;
+        }
+        int plies = log.base;
+        for (int i = 0; i < log.size; i++) {
+            int from = Move.from(log.moves[i]);
+            int to = Move.to(log.moves[i]);
+            if (!board.movePiece(board.getSquare(Bitboards.row(from), Bitboards.column(from)),
+                    board.getSquare(Bitboards.row(to), Bitboards.column(to)))) {
+                return new RecoveredGame(log.gameId, board, side, plies, false);
+            }
+            side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+            plies++;
+        }
+        return new RecoveredGame(log.gameId, board, side, plies, !log.gap);
+    }
+
+    // The last snapshot of a game and the moves journaled after it.
+    private static final class GameLog {
+        final long gameId;
+        byte[] snapshot;
+        Color side;
+        int base; // Plies covered by the snapshot.
+        int[] moves = new int[8];
+        int size;
+        boolean gap; // A ply is missing; the moves after it are not kept.
+
+        GameLog(long gameId) {
+            this.gameId = gameId;
+        }
+
+        void snapshot(JournalReader reader) {
+            if (snapshot == null) {
+                snapshot = new byte[BoardSnapshot.BYTES];
+            }
+            reader.getSnapshot(snapshot);
+            side = reader.getSideToMove();
+            base = reader.getPly();
+            size = 0;
+            gap = false;
+        }
+
+        void add(int ply, int move) {
+            if (gap || ply < base + size) {
+                return; // Already covered by the snapshot, or unusable after a gap.
+            }
+            if (ply > base + size) {
+                gap = true;
+                return;
+            }
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+            }
+            moves[size++] = move;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Move;
+
+/**
+ * Command line report of the durable write rate of a {@link MoveJournal}: several threads, each
+ * standing for the games of one server worker, append moves and wait until every move is on disk
+ * before the next one. The report gives the moves made durable per second and how many moves each
+ * fsync covered, first with a single writer (one fsync per move) and then with all of them.
+ * <p>
+ * Usage: {@code JournalReport [threads] [movesPerThread] [directory]}
+ * <ul>
+ * <li>threads: concurrent writers (default 64)</li>
+ * <li>movesPerThread: durable moves written by each writer (default 200)</li>
+ * <li>directory: where the journal is written; it must not exist yet (default: a temporary directory)</li>
+ * </ul>
+ */
+public final class JournalReport {
+
+    private JournalReport() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Path directory = args.length > 2 ? Paths.get(args[2]) : Files.createTempDirectory("journal");
+
+        run(directory.resolve("single"), 1, moves);
+        run(directory.resolve("group"), threads, moves);
+    }
+
+    private static void run(Path directory, int threads, int moves) throws IOException, InterruptedException {
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long gameId = t;
+                writers.add(new Thread(() -> {
+                    for (int ply = 0; ply < moves; ply++) {
+                        journal.appendDurable(gameId, ply, Move.encode(ply & 63, (ply + 8) & 63));
+                    }
+                }));
+            }
+            long start = System.nanoTime();
+            for (Thread writer : writers) {
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long records = journal.getDurable();
+            long syncs = Math.max(1, journal.getSyncCount());
+            System.out.printf("%3d writers: %,d durable moves in %.2f s = %,.0f moves/s, %,d fsyncs, %.1f moves per fsync%n",
+                    threads, records, seconds, records / seconds, syncs, (double) records / syncs);
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import model.Board;
+import model.Color;
+
+/**
+ * Append-only journal of the moves played in any number of games, kept in a directory of
+ * segment files of fixed-width records ({@link JournalRecord}).
+ * <p>
+ * Appending only copies the record into a memory buffer and returns its sequence number (the
+ * number of records in the journal once it is written). A single writer thread moves the
+ * buffer to the current segment through a {@link FileChannel} and forces it to disk, while the
+ * appends that arrive in the meantime fill a second buffer: every fsync makes a whole batch
+ * durable at once (group commit), so the number of disk flushes follows the speed of the disk
+ * rather than the number of moves. Callers that must not acknowledge a move before it is on disk
+ * wait for its sequence number with {@link #awaitDurable(long)}.
+ * <p>
+ * Every {@link #getSnapshotInterval()} plies, games journaled through
+ * {@link controller.GameController#setJournal} also append a snapshot of their board
+ * ({@link #appendSnapshot}), so that {@link JournalRecovery} only has to replay the moves after
+ * the last one.
+ * <p>
+ * A segment is closed once it holds {@code segmentBytes} and the next one is started; segments
+ * are named {@code moves-<index>.journal}. Reopening a directory continues after the last valid
+ * record, cutting off the torn tail of a crash. All methods are thread-safe.
+ */
+public class MoveJournal implements Closeable {
+    /** Default size of a segment file: 64 MB. */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    /** Default size of each of the two append buffers: 64 KB, i.e. 4096 moves per fsync at most. */
+    public static final int DEFAULT_BUFFER_BYTES = 64 << 10;
+    /** Default number of plies between two snapshots of a game. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+
+    private static final String PREFIX = "moves-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int snapshotInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition written = lock.newCondition();
+    private ByteBuffer filling; // Appended, not yet written; guarded by lock.
+    private ByteBuffer flushing; // Being written by the writer thread.
+    private long appended; // Records appended, guarded by lock.
+    private long durable; // Records forced to disk, guarded by lock.
+    private long syncs;
+    private IOException failure;
+    private boolean closed;
+
+    // Owned by the writer thread after construction.
+    private FileChannel segment;
+    private int segmentIndex;
+    private long segmentPosition;
+    private final Thread writer;
+
+    /**
+     * Opens a journal with the default segment and buffer sizes.
+     * @param directory The directory of the segments; created if missing
+     * @throws IOException if the directory or the last segment cannot be opened
+     */
+    public MoveJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Opens a journal with the default snapshot interval.
+     * @param directory The directory of the segments; created if missing
+     * @param segmentBytes The size at which a segment is closed; rounded down to whole records
+     * @param bufferBytes The size of each append buffer; rounded down to whole records
+     * @throws IOException if the directory or the last segment cannot be opened
+     */
+    public MoveJournal(Path directory, long segmentBytes, int bufferBytes) throws IOException {
+        this(directory, segmentBytes, bufferBytes, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens a journal, continuing after the last valid record of the existing segments.
+     * @param directory The directory of the segments; created if missing
+     * @param segmentBytes The size at which a segment is closed; rounded down to whole records
+     * @param bufferBytes The size of each append buffer; rounded down to whole records
+     * @param snapshotInterval The plies between two snapshots of a game; 0 takes none
+     * @throws IOException if the directory or the last segment cannot be opened
+     */
+    public MoveJournal(Path directory, long segmentBytes, int bufferBytes, int snapshotInterval) throws IOException {
+        if (segmentBytes < JournalRecord.BYTES || bufferBytes < JournalRecord.SNAPSHOT_BYTES) {
+            throw new IllegalArgumentException("Segments must hold a record and buffers a snapshot.");
+        }
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("The snapshot interval cannot be negative.");
+        }
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.segmentBytes = segmentBytes - segmentBytes % JournalRecord.BYTES;
+        int buffer = bufferBytes - bufferBytes % JournalRecord.BYTES;
+        filling = ByteBuffer.allocateDirect(buffer);
+        flushing = ByteBuffer.allocateDirect(buffer);
+
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        long records = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            records += Files.size(segments.get(i)) / JournalRecord.BYTES;
+        }
+        segmentIndex = segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1));
+        segment = FileChannel.open(segment(directory, segmentIndex),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentPosition = validLength(segment);
+        segment.truncate(segmentPosition);
+        records += segmentPosition / JournalRecord.BYTES;
+        appended = records;
+        durable = records;
+
+        writer = new Thread(this::writeLoop, "move-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Appends a move without waiting for the disk. Blocks only while both buffers are full.
+     * @param gameId The id of the game
+     * @param ply The ply of the move in the game
+     * @param move The packed move (see {@link model.Move})
+     * @return The sequence number of the record, to pass to {@link #awaitDurable(long)}
+     * @throws IllegalStateException if the journal is closed or a write failed
+     */
+    public long append(long gameId, int ply, int move) {
+        lock.lock();
+        try {
+            reserve(JournalRecord.BYTES);
+            JournalRecord.put(filling, gameId, ply, move);
+            return appended += 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a snapshot of a game's board without waiting for the disk. Moves of the game
+     * appended after it are the moves played from that position.
+     * @param gameId The id of the game
+     * @param ply The number of plies played in the game so far
+     * @param board The board, 8x8
+     * @param sideToMove The side to move
+     * @return The sequence number of the snapshot's last record, or 0 if the board has too many
+     *         pieces to be encoded ({@link BoardSnapshot#MAX_PIECES}) and nothing was appended
+     * @throws IllegalStateException if the journal is closed or a write failed
+     */
+    public long appendSnapshot(long gameId, int ply, Board board, Color sideToMove) {
+        byte[] payload = new byte[BoardSnapshot.BYTES];
+        return BoardSnapshot.encode(board, payload) ? appendSnapshot(gameId, ply, sideToMove, payload) : 0;
+    }
+
+    /**
+     * Appends a snapshot already encoded with {@link BoardSnapshot#encode}.
+     * @param gameId The id of the game
+     * @param ply The number of plies played in the game so far
+     * @param sideToMove The side to move
+     * @param payload The encoded board
+     * @return The sequence number of the snapshot's last record
+     * @throws IllegalStateException if the journal is closed or a write failed
+     */
+    public long appendSnapshot(long gameId, int ply, Color sideToMove, byte[] payload) {
+        lock.lock();
+        try {
+            reserve(JournalRecord.SNAPSHOT_BYTES);
+            JournalRecord.putSnapshot(filling, gameId, ply, sideToMove, payload);
+            return appended += JournalRecord.SNAPSHOT_BYTES / JournalRecord.BYTES;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of plies between two snapshots of a game.
+     * @return The snapshot interval, 0 if no snapshots are taken
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    // Waits for room in the filling buffer and wakes the writer when the buffer stops being empty.
+    private void reserve(int bytes) {
+        while (filling.remaining() < bytes && !closed && failure == null) {
+            notFull.awaitUninterruptibly();
+        }
+        checkOpen();
+        if (filling.position() == 0) {
+            notEmpty.signal();
+        }
+    }
+
+    /**
+     * Appends a move and waits until it is on disk.
+     * @param gameId The id of the game
+     * @param ply The ply of the move in the game
+     * @param move The packed move (see {@link model.Move})
+     * @return The sequence number of the record
+     * @throws IllegalStateException if the journal is closed or a write failed
+     */
+    public long appendDurable(long gameId, int ply, int move) {
+        long sequence = append(gameId, ply, move);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Waits until the records up to a sequence number are forced to disk.
+     * @param sequence The sequence number returned by {@link #append}
+     * @throws IllegalStateException if a write failed before the record was durable
+     */
+    public void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durable < sequence && failure == null) {
+                written.awaitUninterruptibly();
+            }
+            if (durable < sequence) {
+                throw new IllegalStateException("Journal write failed.", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every record appended so far is on disk.
+     */
+    public void flush() {
+        long sequence;
+        lock.lock();
+        try {
+            sequence = appended;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Returns the number of records appended, including those not yet on disk.
+     * @return The sequence number of the last record appended
+     */
+    public long getAppended() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of records known to be on disk.
+     * @return The sequence number of the last durable record
+     */
+    public long getDurable() {
+        lock.lock();
+        try {
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of fsyncs done since the journal was opened; with many writers it is
+     * far smaller than the number of records, one per batch.
+     * @return The fsync count
+     */
+    public long getSyncCount() {
+        lock.lock();
+        try {
+            return syncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the directory of the segments.
+     * @return The journal directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes the pending records, forces them to disk and closes the journal.
+     * @throws IOException if the last records could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Swaps the buffers, writes and forces a batch, then wakes the appenders waiting for it.
+    private void writeLoop() {
+        while (true) {
+            long batchEnd;
+            lock.lock();
+            try {
+                while (filling.position() == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (filling.position() == 0) {
+                    return; // Closed with nothing left to write.
+                }
+                ByteBuffer batch = filling;
+                filling = flushing;
+                flushing = batch;
+                batchEnd = appended;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                flushing.flip();
+                write(flushing);
+                segment.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            flushing.clear();
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    closed = true;
+                    notFull.signalAll();
+                } else {
+                    durable = batchEnd;
+                    syncs++;
+                }
+                written.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Writes a batch to the segments, starting new segments where the current one is full.
+    private void write(ByteBuffer batch) throws IOException {
+        while (batch.hasRemaining()) {
+            if (segmentPosition >= segmentBytes) {
+                segment.force(false);
+                segment.close();
+                segmentIndex++;
+                segmentPosition = 0;
+                segment = FileChannel.open(segment(directory, segmentIndex),
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            }
+            int limit = batch.limit();
+            int end = batch.position() + (int) Math.min(batch.remaining(), Math.max(0, segmentBytes - segmentPosition));
+            while (end < limit && (batch.get(end + 12) & 0xFF) > JournalRecord.SNAPSHOT) {
+                end += JournalRecord.BYTES; // Finish the snapshot in this segment.
+            }
+            batch.limit(end);
+            while (batch.hasRemaining()) {
+                segmentPosition += segment.write(batch, segmentPosition);
+            }
+            batch.limit(limit);
+        }
+    }
+
+    private void checkOpen() {
+        if (failure != null) {
+            throw new IllegalStateException("Journal write failed.", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed.");
+        }
+    }
+
+    /**
+     * Returns the segment files of a journal directory in write order.
+     * @param directory The journal directory
+     * @return The segment paths, oldest first; empty if there are none
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments); // The index is zero-padded, so names sort in write order.
+        return segments;
+    }
+
+    static Path segment(Path directory, int index) {
+        return directory.resolve(String.format("%s%010d%s", PREFIX, index, SUFFIX));
+    }
+
+    private static int index(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // Length of the valid entries at the start of a segment: a torn or zeroed record ends it.
+    static long validLength(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_BYTES);
+        long position = 0;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < JournalRecord.BYTES) {
+                return position;
+            }
+            int offset = 0;
+            while (offset + JournalRecord.BYTES <= read) {
+                int size = JournalRecord.entryBytes(buffer, offset);
+                if (offset + size > read) {
+                    break; // Read the entry again at the start of the next chunk.
+                }
+                if (!JournalRecord.isValid(buffer, offset)) {
+                    return position + offset;
+                }
+                offset += size;
+            }
+            if (offset == 0) {
+                return position; // An incomplete snapshot at the end.
+            }
+            position += offset;
+        }
+    }
+}
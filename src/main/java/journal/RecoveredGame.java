@@ -0,0 +1,72 @@
+package journal;
+
+import model.Board;
+import model.Color;
+
+/**
+ * A game rebuilt from a {@link MoveJournal} by {@link JournalRecovery}: its board, the side to
+ * move and the number of plies played.
+ */
+public final class RecoveredGame {
+    private final long gameId;
+    private final Board board;
+    private final Color sideToMove;
+    private final int plies;
+    private final boolean complete;
+
+    /**
+     * Creates a recovered game.
+     * @param gameId The id of the game in the journal
+     * @param board The board after the last move replayed
+     * @param sideToMove The side to move on the board
+     * @param plies The number of plies played, including those covered by the snapshot
+     * @param complete false if a journaled move could not be replayed or plies are missing
+     */
+    public RecoveredGame(long gameId, Board board, Color sideToMove, int plies, boolean complete) {
+        this.gameId = gameId;
+        this.board = board;
+        this.sideToMove = sideToMove;
+        this.plies = plies;
+        this.complete = complete;
+    }
+
+    /**
+     * Returns the id of the game in the journal.
+     * @return The game id
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Returns the board of the game, with the position after the last move replayed.
+     * @return The board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the side to move.
+     * @return The color of the player whose turn it is
+     */
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Returns the number of plies played in the game.
+     * @return The ply count
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Returns whether every journaled move of the game was replayed.
+     * @return false if the game stops at a move that could not be replayed or at a gap in the plies
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,109 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import controller.GameController;
+import model.BoardType;
+import model.Color;
+import model.MoveGenerator;
+
+/**
+ * Command line report of the recovery time of a large journal: writes a journal of many games
+ * played in parallel, the way a server journals them, then rebuilds every game once from the
+ * snapshots and once by replaying all moves, checking every rebuilt position.
+ * <p>
+ * The games replay a few hundred random games, so writing a million of them needs no search.
+ * <p>
+ * Usage: {@code RecoveryReport [games] [plies] [snapshotInterval] [threads] [directory]}
+ * <ul>
+ * <li>games: games in the journal (default 1,000,000)</li>
+ * <li>plies: plies per game (default 40)</li>
+ * <li>snapshotInterval: plies between snapshots (default {@link MoveJournal#DEFAULT_SNAPSHOT_INTERVAL})</li>
+ * <li>threads: replay threads (default: available processors)</li>
+ * <li>directory: where the journal is written; it must not exist yet (default: a temporary directory)</li>
+ * </ul>
+ */
+public final class RecoveryReport {
+    private static final int SCRIPTS = 256;
+
+    private RecoveryReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int interval = args.length > 2 ? Integer.parseInt(args[2]) : MoveJournal.DEFAULT_SNAPSHOT_INTERVAL;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Path directory = args.length > 4 ? Paths.get(args[4]) : Files.createTempDirectory("recovery");
+
+        Script[] scripts = new Script[SCRIPTS];
+        for (int i = 0; i < SCRIPTS; i++) {
+            scripts[i] = new Script(new Random(i), plies, interval);
+        }
+        long start = System.nanoTime();
+        try (MoveJournal journal = new MoveJournal(directory, MoveJournal.DEFAULT_SEGMENT_BYTES,
+                MoveJournal.DEFAULT_BUFFER_BYTES, interval)) {
+            for (int game = 0; game < games; game++) {
+                journal.appendSnapshot(game, 0, Color.WHITE, scripts[game % SCRIPTS].snapshots[0]);
+            }
+            // Round-robin, so the moves of a game are spread over the whole journal.
+            for (int ply = 0; ply < plies; ply++) {
+                for (int game = 0; game < games; game++) {
+                    Script script = scripts[game % SCRIPTS];
+                    if (ply < script.length) {
+                        journal.append(game, ply, script.moves[ply]);
+                        if (interval > 0 && (ply + 1) % interval == 0) {
+                            journal.appendSnapshot(game, ply + 1, (ply + 1) % 2 == 0 ? Color.WHITE : Color.BLACK,
+                                    script.snapshots[(ply + 1) / interval]);
+                        }
+                    }
+                }
+            }
+            journal.flush();
+            System.out.printf("Journal: %,d games, %,d records, %,d MB written in %.2f s%n", games, journal.getDurable(),
+                    journal.getDurable() * JournalRecord.BYTES >> 20, (System.nanoTime() - start) / 1e9);
+        }
+
+        for (boolean useSnapshots : new boolean[] {true, false}) {
+            LongAdder wrong = new LongAdder();
+            RecoveryStats stats = new JournalRecovery(BoardType.COMPACT, threads, useSnapshots).recover(directory, game -> {
+                Script script = scripts[(int) (game.getGameId() % SCRIPTS)];
+                if (game.getBoard().getHash() != script.finalHash || game.getPlies() != script.length) {
+                    wrong.increment();
+                }
+            });
+            System.out.println((useSnapshots ? "With snapshots: " : "Full replay: ") + stats.summary()
+                    + ", " + wrong.sum() + " wrong positions");
+        }
+    }
+
+    // A random game with its snapshots every interval plies and the key of its final position.
+    private static final class Script {
+        final int[] moves;
+        final byte[][] snapshots;
+        int length;
+        long finalHash;
+
+        Script(Random random, int plies, int interval) {
+            moves = new int[plies];
+            snapshots = new byte[interval > 0 ? plies / interval + 1 : 1][BoardSnapshot.BYTES];
+            GameController game = new GameController(null, BoardType.COMPACT);
+            BoardSnapshot.encode(game.getBoard(), snapshots[0]);
+            int[] legal = new int[MoveGenerator.MAX_MOVES];
+            while (length < plies && !game.checkGameOver()) {
+                int count = game.getLegalMoves(legal);
+                moves[length] = legal[random.nextInt(count)];
+                game.makeMove(moves[length++]);
+                if (interval > 0 && length % interval == 0) {
+                    BoardSnapshot.encode(game.getBoard(), snapshots[length / interval]);
+                }
+            }
+            finalHash = game.getBoard().getHash();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package journal;
+
+/**
+ * Counts and timings of one {@link JournalRecovery} run.
+ */
+public final class RecoveryStats {
+    private final long games;
+    private final long incomplete;
+    private final long entries;
+    private final long pliesReplayed;
+    private final long pliesSkipped;
+    private final boolean truncated;
+    private final int threads;
+    private final long scanNanos;
+    private final long replayNanos;
+
+    /**
+     * Creates the statistics of a run.
+     * @param games The number of games rebuilt
+     * @param incomplete The number of games with a move that could not be replayed or a gap in the plies
+     * @param entries The number of journal entries read (moves and snapshots)
+     * @param pliesReplayed The number of moves replayed on the boards
+     * @param pliesSkipped The number of moves not replayed because a snapshot covered them
+     * @param truncated Whether the journal ended with a torn entry
+     * @param threads The number of replay threads
+     * @param scanNanos The time spent reading the journal
+     * @param replayNanos The time spent rebuilding the boards
+     */
+    public RecoveryStats(long games, long incomplete, long entries, long pliesReplayed, long pliesSkipped,
+            boolean truncated, int threads, long scanNanos, long replayNanos) {
+        this.games = games;
+        this.incomplete = incomplete;
+        this.entries = entries;
+        this.pliesReplayed = pliesReplayed;
+        this.pliesSkipped = pliesSkipped;
+        this.truncated = truncated;
+        this.threads = threads;
+        this.scanNanos = scanNanos;
+        this.replayNanos = replayNanos;
+    }
+
+    /**
+     * Returns the number of games rebuilt.
+     * @return The game count
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games that could not be rebuilt up to their last journaled move.
+     * @return The incomplete game count
+     */
+    public long getIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Returns the number of journal entries read.
+     * @return The entry count
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the number of moves replayed on the boards.
+     * @return The replayed ply count
+     */
+    public long getPliesReplayed() {
+        return pliesReplayed;
+    }
+
+    /**
+     * Returns the number of moves covered by snapshots and therefore not replayed.
+     * @return The skipped ply count
+     */
+    public long getPliesSkipped() {
+        return pliesSkipped;
+    }
+
+    /**
+     * Returns whether the journal ended with an entry torn by a crash, which was ignored.
+     * @return true if the journal had a torn tail
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the time spent reading the journal and keeping the last snapshot of each game.
+     * @return The scan time in nanoseconds
+     */
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    /**
+     * Returns the time spent rebuilding the boards on the replay threads.
+     * @return The replay time in nanoseconds
+     */
+    public long getReplayNanos() {
+        return replayNanos;
+    }
+
+    /**
+     * Returns the throughput of the whole recovery.
+     * @return The games rebuilt per second
+     */
+    public double getGamesPerSecond() {
+        return games * 1e9 / Math.max(1, scanNanos + replayNanos);
+    }
+
+    /**
+     * Formats the statistics on two lines: the counts, then the timings.
+     * @return The summary
+     */
+    public String summary() {
+        return String.format("%,d games (%,d incomplete%s) from %,d entries: %,d plies replayed, %,d covered by snapshots%n"
+                + "%.2f s = scan %.2f s + replay %.2f s on %d thread(s), %,.0f games/s",
+                games, incomplete, truncated ? ", torn tail ignored" : "", entries, pliesReplayed, pliesSkipped,
+                (scanNanos + replayNanos) / 1e9, scanNanos / 1e9, replayNanos / 1e9, threads, getGamesPerSecond());
+    }
+}
@@ -0,0 +1,146 @@
+package model;
+
+// An 8x8 board that mirrors its squares into twelve 64-bit piece masks (one per piece kind)
+// plus occupancy masks per color. The squares are still available through getSquare, but the
+// queries used on the hot move-validation path (path clearance, own-piece captures) are
+// answered with mask operations instead of walking Square objects.
+public class BitboardBoard extends Board {
+    // One mask per piece kind, indexed by PieceType.index(color).
+    private long[] pieces;
+
+    // Squares occupied by white and by black pieces, indexed by Color.ordinal().
+    private long[] colors;
+
+    // Squares occupied by any piece.
+    private long occupied;
+
+    // Default constructor that initializes an 8x8 board with pieces placed in their starting positions.
+    public BitboardBoard() {
+        this(false);
+    }
+
+    // Constructor to initialize an 8x8 board, either empty or with the default pieces.
+    public BitboardBoard(boolean empty) {
+        super(8, 8, empty);
+    }
+
+    // Constructor for an 8x8 board that may use the shared pieces of PieceType.shared.
+    public BitboardBoard(boolean empty, boolean sharedPieces) {
+        super(8, 8, empty, sharedPieces);
+    }
+
+    @Override
+    public void initializeEmptyBoard(int rows, int cols) {
+        clearMasks();
+        super.initializeEmptyBoard(rows, cols);
+    }
+
+    @Override
+    public void initializeBoard(int rows, int cols) {
+        clearMasks();
+        super.initializeBoard(rows, cols);
+    }
+
+    // Resets every mask. Called before the squares are (re)created, which happens from the
+    // Board constructor, so the arrays are allocated here rather than in field initializers.
+    private void clearMasks() {
+        pieces = new long[PieceType.KIND_COUNT];
+        colors = new long[2];
+        occupied = 0L;
+    }
+
+    @Override
+    protected Board newEmptyBoard(int rows, int cols) {
+        return new BitboardBoard(true);
+    }
+
+    @Override
+    protected void squareChanged(Square square, Piece previous, Piece current) {
+        super.squareChanged(square, previous, current);
+        long bit = Bitboards.bit(Bitboards.square(square.getRow(), square.getColumn()));
+        if (isTracked(previous)) {
+            pieces[previous.getType().index(previous.getColor())] &= ~bit;
+            colors[previous.getColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+        }
+        if (isTracked(current)) {
+            pieces[current.getType().index(current.getColor())] |= bit;
+            colors[current.getColor().ordinal()] |= bit;
+            occupied |= bit;
+        }
+    }
+
+    @Override
+    public boolean isPathClear(int fromRow, int fromColumn, int toRow, int toColumn) {
+        long path = Bitboards.between(Bitboards.square(fromRow, fromColumn), Bitboards.square(toRow, toColumn));
+        return (path & occupied) == 0;
+    }
+
+    @Override
+    public boolean movePiece(Square origin, Square destination) {
+        Piece piece = origin.getPiece();
+        // A piece can never land on a square held by its own side: reject it with a single mask test.
+        if (piece == null || (colors[piece.getColor().ordinal()]
+                & Bitboards.bit(Bitboards.square(destination.getRow(), destination.getColumn()))) != 0) {
+            return false;
+        }
+        return super.movePiece(origin, destination);
+    }
+
+    // Returns the squares attacked by a piece of the given type and color standing on the given
+    // square, whether or not they hold pieces of its own side. Sliders are answered by the magic
+    // bitboard tables, the other pieces by the precomputed masks; pawns attack diagonally only.
+    public long attacks(PieceType type, Color color, int square) {
+        switch (type) {
+            case PAWN:
+                return Bitboards.pawnAttacks(color, square);
+            case KNIGHT:
+                return Bitboards.knightAttacks(square);
+            case BISHOP:
+                return MagicBitboards.bishopAttacks(square, occupied);
+            case ROOK:
+                return MagicBitboards.rookAttacks(square, occupied);
+            case QUEEN:
+                return MagicBitboards.queenAttacks(square, occupied);
+            default:
+                return Bitboards.kingAttacks(square);
+        }
+    }
+
+    // Same answer as Board.isAttacked, from the piece masks: each kind of attacker is looked up
+    // backwards from the square with one mask (or one magic lookup) and an AND.
+    @Override
+    public boolean isAttacked(int row, int column, Color by) {
+        if (!Bitboards.isInside(row, column)) {
+            return false;
+        }
+        int square = Bitboards.square(row, column);
+        long queens = pieces[PieceType.QUEEN.index(by)];
+        return (Bitboards.knightAttacks(square) & pieces[PieceType.KNIGHT.index(by)]) != 0
+                || (Bitboards.kingAttacks(square) & pieces[PieceType.KING.index(by)]) != 0
+                || (Bitboards.pawnAttacks(by.opposite(), square) & pieces[PieceType.PAWN.index(by)]) != 0
+                || (MagicBitboards.rookAttacks(square, occupied) & (pieces[PieceType.ROOK.index(by)] | queens)) != 0
+                || (MagicBitboards.bishopAttacks(square, occupied) & (pieces[PieceType.BISHOP.index(by)] | queens)) != 0;
+    }
+
+    // Checks in constant time that a knight, bishop, rook, queen or king of the given color can move
+    // from one square to the other: the destination is attacked and not held by its own side.
+    public boolean canReach(PieceType type, Color color, int from, int to) {
+        return (attacks(type, color, from) & ~colors[color.ordinal()] & Bitboards.bit(to)) != 0;
+    }
+
+    // Returns the mask of the squares holding pieces of the given type and color.
+    public long getPieces(PieceType type, Color color) {
+        return pieces[type.index(color)];
+    }
+
+    // Returns the mask of the squares holding pieces of the given color.
+    public long getOccupancy(Color color) {
+        return colors[color.ordinal()];
+    }
+
+    // Returns the mask of the squares holding any piece.
+    public long getOccupancy() {
+        return occupied;
+    }
+}
@@ -0,0 +1,119 @@
+package model;
+
+// Helpers for 64-bit board masks. Bit (row * 8 + column) of a mask stands for the square
+// at that row and column, so row 0 occupies the lowest byte.
+public final class Bitboards {
+
+    // BETWEEN[from][to] holds the squares strictly between two aligned squares,
+    // or 0 when the squares do not share a row, a column or a diagonal.
+    private static final long[][] BETWEEN = new long[64][64];
+
+    // KNIGHT_ATTACKS[square] and KING_ATTACKS[square] hold the squares a knight or a king standing
+    // on that square reaches, whatever is on them.
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+
+    // PAWN_ATTACKS[color][square] holds the two squares diagonally in front of a pawn of that color.
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final int[][] KNIGHT_OFFSETS = {
+        {2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
+    };
+    private static final int[][] KING_OFFSETS = {
+        {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    static {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                BETWEEN[from][to] = computeBetween(from, to);
+            }
+            KNIGHT_ATTACKS[from] = computeSteps(from, KNIGHT_OFFSETS);
+            KING_ATTACKS[from] = computeSteps(from, KING_OFFSETS);
+            PAWN_ATTACKS[Color.WHITE.ordinal()][from] = computeSteps(from, new int[][] {{1, 1}, {1, -1}});
+            PAWN_ATTACKS[Color.BLACK.ordinal()][from] = computeSteps(from, new int[][] {{-1, 1}, {-1, -1}});
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    // Returns the square index (0-63) for a row and a column.
+    public static int square(int row, int column) {
+        return row * 8 + column;
+    }
+
+    // Returns the row of a square index.
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    // Returns the column of a square index.
+    public static int column(int square) {
+        return square & 7;
+    }
+
+    // Returns true if the row and column are inside the 8x8 area covered by the masks.
+    public static boolean isInside(int row, int column) {
+        return (row | column) >= 0 && row < 8 && column < 8;
+    }
+
+    // Returns a mask with only the given square set.
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    // Returns the mask of the squares strictly between two squares (0 if they are not aligned).
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    // Returns the mask of the squares a knight on the given square attacks.
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    // Returns the mask of the squares a king on the given square attacks.
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    // Returns the mask of the squares a pawn of the given color on the given square attacks.
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    // Collects the squares at the given offsets that are still on the board.
+    private static long computeSteps(int from, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            int targetRow = row(from) + offset[0];
+            int targetCol = column(from) + offset[1];
+            if (isInside(targetRow, targetCol)) {
+                mask |= bit(square(targetRow, targetCol));
+            }
+        }
+        return mask;
+    }
+
+    // Walks from one square towards the other and collects the squares in between.
+    private static long computeBetween(int from, int to) {
+        int rowDelta = row(to) - row(from);
+        int colDelta = column(to) - column(from);
+        boolean aligned = rowDelta == 0 || colDelta == 0 || Math.abs(rowDelta) == Math.abs(colDelta);
+        if (from == to || !aligned) {
+            return 0L;
+        }
+        int rowStep = Integer.compare(rowDelta, 0);
+        int colStep = Integer.compare(colDelta, 0);
+        long mask = 0L;
+        int currentRow = row(from) + rowStep;
+        int currentCol = column(from) + colStep;
+        while (currentRow != row(to) || currentCol != column(to)) {
+            mask |= bit(square(currentRow, currentCol));
+            currentRow += rowStep;
+            currentCol += colStep;
+        }
+        return mask;
+    }
+}
@@ -1,19 +1,47 @@
 package model;
 
+import java.util.Arrays;
+
 public class Board {
     private int sizeRows = 8; // Default number of rows on the board.
     private int sizeCols = 8; // Default number of columns on the board.
     private Square[][] squares; // A 2D array representing the board's squares.
+    private long hash; // Zobrist key of the pieces on the board, kept up to date on every change.
+    private int[] pieceCounts; // Number of pieces of each kind (PieceType.index) on the board.
+    private Square[] kingSquares; // Square of the king of each color (Color.ordinal), or null.
+    private boolean sharedPieces; // Whether the board is filled with the shared flyweight pieces.
+
+    // Undo stack for makeMove/unmakeMove: the move, the piece that moved and the piece it captured
+    // (or null) for each move still on the stack. Allocated on the first makeMove and reused after.
+    private static final int INITIAL_UNDO_CAPACITY = 128;
+    private int[] undoMoves;
+    private Piece[] undoMoved;
+    private Piece[] undoCaptured;
+    private int undoSize;
+
+    // Move buffer of hasLegalMove, allocated on first use.
+    private int[] legalMoveBuffer;
+
+    // Directions of the rays a rook (first four) or a bishop (last four) attacks along.
+    private static final int[][] RAY_DIRECTIONS = {
+        {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
 
     // Default constructor that initializes an 8x8 board with pieces placed in their starting positions.
     public Board() {
-        squares = new Square[sizeRows][sizeCols];
         initializeBoard(sizeRows, sizeCols);
     }
 
     // Constructor to initialize a board with custom dimensions. Can be empty or initialized with default pieces.
     public Board(int rows, int cols, boolean empty) {
-        squares = new Square[rows][cols];
+        this(rows, cols, empty, false);
+    }
+
+    // Constructor for a board that uses the shared, immutable pieces of PieceType.shared instead
+    // of creating a piece object per piece: the board holds no per-game piece objects at all and
+    // the position of each piece is only kept by the squares.
+    public Board(int rows, int cols, boolean empty, boolean sharedPieces) {
+        this.sharedPieces = sharedPieces;
         if (empty) {
             initializeEmptyBoard(rows, cols);
         } else {
@@ -22,54 +50,106 @@ public class Board {
     }
 
     // Initializes an empty board with the specified number of rows and columns.
+    // The square array is allocated here rather than in the constructors, so representations
+    // that keep no Square objects (CompactBoard) do not allocate it.
     public void initializeEmptyBoard(int rows, int cols) {
+        resetTracking();
+        squares = new Square[rows][cols];
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < cols; column++) {
-                squares[row][column] = new Square(row, column);
+                squares[row][column] = new Square(row, column, this);
             }
         }
     }
 
     // Initializes the board with pieces in their starting positions for a standard chess game.
     public void initializeBoard(int rows, int cols) {
+        resetTracking();
         // Create squares for the board.
+        squares = new Square[rows][cols];
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < cols; column++) {
-                squares[row][column] = new Square(row, column);
+                squares[row][column] = new Square(row, column, this);
             }
         }
 
         // Place pawns on the second and seventh rows.
         for (int column = 0; column < 8; column++) {
-            squares[1][column].setPiece(new Pawn(Color.WHITE));
-            squares[6][column].setPiece(new Pawn(Color.BLACK));
+            squares[1][column].setPiece(newPiece(PieceType.PAWN, Color.WHITE));
+            squares[6][column].setPiece(newPiece(PieceType.PAWN, Color.BLACK));
         }
 
         // Place rooks in their starting positions.
-        squares[0][0].setPiece(new Rook(Color.WHITE));
-        squares[0][7].setPiece(new Rook(Color.WHITE));
-        squares[7][0].setPiece(new Rook(Color.BLACK));
-        squares[7][7].setPiece(new Rook(Color.BLACK));
+        squares[0][0].setPiece(newPiece(PieceType.ROOK, Color.WHITE));
+        squares[0][7].setPiece(newPiece(PieceType.ROOK, Color.WHITE));
+        squares[7][0].setPiece(newPiece(PieceType.ROOK, Color.BLACK));
+        squares[7][7].setPiece(newPiece(PieceType.ROOK, Color.BLACK));
 
         // Place knights in their starting positions.
-        squares[0][1].setPiece(new Knight(Color.WHITE));
-        squares[0][6].setPiece(new Knight(Color.WHITE));
-        squares[7][1].setPiece(new Knight(Color.BLACK));
-        squares[7][6].setPiece(new Knight(Color.BLACK));
+        squares[0][1].setPiece(newPiece(PieceType.KNIGHT, Color.WHITE));
+        squares[0][6].setPiece(newPiece(PieceType.KNIGHT, Color.WHITE));
+        squares[7][1].setPiece(newPiece(PieceType.KNIGHT, Color.BLACK));
+        squares[7][6].setPiece(newPiece(PieceType.KNIGHT, Color.BLACK));
 
         // Place bishops in their starting positions.
-        squares[0][2].setPiece(new Bishop(Color.WHITE));
-        squares[0][5].setPiece(new Bishop(Color.WHITE));
-        squares[7][2].setPiece(new Bishop(Color.BLACK));
-        squares[7][5].setPiece(new Bishop(Color.BLACK));
+        squares[0][2].setPiece(newPiece(PieceType.BISHOP, Color.WHITE));
+        squares[0][5].setPiece(newPiece(PieceType.BISHOP, Color.WHITE));
+        squares[7][2].setPiece(newPiece(PieceType.BISHOP, Color.BLACK));
+        squares[7][5].setPiece(newPiece(PieceType.BISHOP, Color.BLACK));
 
         // Place queens in their starting positions.
-        squares[0][3].setPiece(new Queen(Color.WHITE));
-        squares[7][3].setPiece(new Queen(Color.BLACK));
+        squares[0][3].setPiece(newPiece(PieceType.QUEEN, Color.WHITE));
+        squares[7][3].setPiece(newPiece(PieceType.QUEEN, Color.BLACK));
 
         // Place kings in their starting positions.
-        squares[0][4].setPiece(new King(Color.WHITE));
-        squares[7][4].setPiece(new King(Color.BLACK));
+        squares[0][4].setPiece(newPiece(PieceType.KING, Color.WHITE));
+        squares[7][4].setPiece(newPiece(PieceType.KING, Color.BLACK));
+    }
+
+    // Returns a piece of the given type and color to be placed on this board: the shared flyweight
+    // in shared-pieces mode, a new piece otherwise. Pieces without a color are never shared.
+    public Piece newPiece(PieceType type, Color color) {
+        return sharedPieces && color != null ? type.shared(color) : type.create(color);
+    }
+
+    // Returns true if the board is filled with shared pieces (see PieceType.shared).
+    public boolean usesSharedPieces() {
+        return sharedPieces;
+    }
+
+    // Returns an independent board with the same dimensions and pieces on the same squares
+    // (new pieces, or the same shared ones in shared-pieces mode).
+    // Used to give each thread its own board when work is split across threads.
+    public Board copy() {
+        Board copy = newEmptyBoard(squares.length, squares.length == 0 ? 0 : squares[0].length);
+        copy.sharedPieces = sharedPieces;
+        copy.setSizeRows(sizeRows);
+        copy.setSizeCols(sizeCols);
+        for (int row = 0; row < squares.length; row++) {
+            for (int column = 0; column < squares[row].length; column++) {
+                Piece piece = squares[row][column].getPiece();
+                if (piece != null) {
+                    copy.squares[row][column].setPiece(copy.newPiece(piece.getType(), piece.getColor()));
+                }
+            }
+        }
+        return copy;
+    }
+
+    // Creates an empty board of the same representation as this one; used by copy().
+    protected Board newEmptyBoard(int rows, int cols) {
+        return new Board(rows, cols, true);
+    }
+
+    // Replaces the pieces of this 8x8 board with those of a FEN position (see Fen) and returns
+    // the side to move. Throws IllegalArgumentException for an invalid position.
+    public Color loadFen(CharSequence fen) {
+        return Fen.load(fen, this);
+    }
+
+    // Returns the FEN of the pieces of this 8x8 board with the given side to move.
+    public String toFen(Color sideToMove) {
+        return Fen.toFen(this, sideToMove);
     }
 
     // Returns the number of rows on the board.
@@ -101,10 +181,17 @@ public class Board {
         return squares[row][column];
     }
 
+    // Returns the piece on a square, or null if the square is empty or out of bounds.
+    // Lets callers read the board without going through Square objects.
+    public Piece getPiece(int row, int column) {
+        Square square = getSquare(row, column);
+        return square == null ? null : square.getPiece();
+    }
+
     // Moves a piece from the origin square to the destination square if the move is valid.
     // Returns true if the move was successful, false otherwise.
     public boolean movePiece(Square origin, Square destination) {
-        if (origin.getPiece() != null && origin.getPiece().validMovement(destination, this)) {
+        if (origin.getPiece() != null && origin.getPiece().validMovement(origin, destination, this)) {
             destination.setPiece(origin.getPiece());
             origin.setPiece(null);
             return true;
@@ -113,17 +200,244 @@ public class Board {
         }
     }
 
+    // Plays a move given in the packed format of Move without validating it, and records what is
+    // needed to take it back with unmakeMove. Meant for search and analysis code that plays moves
+    // from MoveGenerator and explores variations without copying the board.
+    // A promotion move replaces the pawn with a piece of the promotion type (see newPiece).
+    public void makeMove(int move) {
+        if (undoMoves == null) {
+            undoMoves = new int[INITIAL_UNDO_CAPACITY];
+            undoMoved = new Piece[INITIAL_UNDO_CAPACITY];
+            undoCaptured = new Piece[INITIAL_UNDO_CAPACITY];
+        } else if (undoSize == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoSize * 2);
+            undoMoved = Arrays.copyOf(undoMoved, undoSize * 2);
+            undoCaptured = Arrays.copyOf(undoCaptured, undoSize * 2);
+        }
+        Square from = squares[Bitboards.row(Move.from(move))][Bitboards.column(Move.from(move))];
+        Square to = squares[Bitboards.row(Move.to(move))][Bitboards.column(Move.to(move))];
+        Piece moving = from.getPiece();
+        undoMoves[undoSize] = move;
+        undoMoved[undoSize] = moving;
+        undoCaptured[undoSize] = to.getPiece();
+        undoSize++;
+
+        PieceType promotion = Move.promotion(move);
+        to.setPiece(promotion == null ? moving : newPiece(promotion, moving.getColor()));
+        from.setPiece(null);
+    }
+
+    // Takes back the last move played with makeMove, restoring the moved and the captured piece.
+    public void unmakeMove() {
+        assert undoSize > 0 : "There is no move to take back.";
+        undoSize--;
+        int move = undoMoves[undoSize];
+        Square from = squares[Bitboards.row(Move.from(move))][Bitboards.column(Move.from(move))];
+        Square to = squares[Bitboards.row(Move.to(move))][Bitboards.column(Move.to(move))];
+        from.setPiece(undoMoved[undoSize]);
+        to.setPiece(undoCaptured[undoSize]);
+        undoMoved[undoSize] = null;
+        undoCaptured[undoSize] = null;
+    }
+
+    // Returns the number of moves made with makeMove that have not been taken back yet.
+    public int getUndoDepth() {
+        return undoSize;
+    }
+
+    // Forgets every move still on the undo stack, e.g. when a new position is loaded, so
+    // unmakeMove cannot take the board back into a previous game.
+    void clearUndo() {
+        if (undoSize > 0) {
+            Arrays.fill(undoMoved, 0, undoSize, null);
+            Arrays.fill(undoCaptured, 0, undoSize, null);
+            undoSize = 0;
+        }
+    }
+
+    // Checks that every square strictly between the origin and the destination is empty.
+    // Both squares must share a row, a column or a diagonal; used by the sliding pieces.
+    public boolean isPathClear(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int rowStep = Integer.compare(toRow, fromRow);
+        int colStep = Integer.compare(toColumn, fromColumn);
+
+        int currentRow = fromRow + rowStep;
+        int currentCol = fromColumn + colStep;
+        while (currentRow != toRow || currentCol != toColumn) {
+            // If any square along the path contains a piece, the path is blocked.
+            if (squares[currentRow][currentCol].getPiece() != null) {
+                return false;
+            }
+            currentRow += rowStep;
+            currentCol += colStep;
+        }
+        return true;
+    }
+
+    // Places a piece (or null to empty it) on a square of the board.
+    public void setPiece(int row, int column, Piece piece) {
+        squares[row][column].setPiece(piece);
+    }
+
+    // Clears the state derived from the pieces; called before the squares are (re)created.
+    private void resetTracking() {
+        hash = 0L;
+        pieceCounts = new int[PieceType.KIND_COUNT];
+        kingSquares = new Square[2];
+    }
+
+    // Called by the squares of this board every time the piece on one of them changes.
+    // Updates the Zobrist key, the piece counts and the king squares; alternative representations
+    // override it (calling this version) to keep their own structures in sync with the squares.
+    protected void squareChanged(Square square, Piece previous, Piece current) {
+        if (isTracked(previous)) {
+            pieceCounts[previous.getType().index(previous.getColor())]--;
+            if (previous.getType() == PieceType.KING && kingSquares[previous.getColor().ordinal()] == square) {
+                kingSquares[previous.getColor().ordinal()] = findKing(previous.getColor());
+            }
+        }
+        if (isTracked(current)) {
+            pieceCounts[current.getType().index(current.getColor())]++;
+            if (current.getType() == PieceType.KING) {
+                kingSquares[current.getColor().ordinal()] = square;
+            }
+        }
+        if (square.getRow() >= 8 || square.getColumn() >= 8) {
+            return; // Only the 8x8 area is hashed.
+        }
+        int index = Bitboards.square(square.getRow(), square.getColumn());
+        if (isTracked(previous)) {
+            hash ^= Zobrist.key(previous, index);
+        }
+        if (isTracked(current)) {
+            hash ^= Zobrist.key(current, index);
+        }
+    }
+
+    // Looks for another king of the given color; only needed when a board holds more than one.
+    private Square findKing(Color color) {
+        if (pieceCounts[PieceType.KING.index(color)] == 0) {
+            return null;
+        }
+        for (Square[] row : squares) {
+            for (Square square : row) {
+                if (square != null && square.getPiece() instanceof King && square.getPiece().getColor() == color) {
+                    return square;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Pieces without a color break the piece invariants and are left out of the derived state.
+    static boolean isTracked(Piece piece) {
+        return piece != null && piece.getColor() != null;
+    }
+
+    // Returns the 64-bit Zobrist key of the pieces on the board.
+    // Two boards with the same pieces on the same squares have the same key.
+    public long getHash() {
+        return hash;
+    }
+
     // Checks if the board contains a king of the specified color.
+    // Answered from the piece counts, without scanning the squares.
     public boolean hasKing(Color color) {
-        for (int row = 0; row < sizeRows; row++) {
-            for (int column = 0; column < sizeCols; column++) {
-                Square square = squares[row][column];
-                // Check if the square contains a king of the specified color.
-                if (square.getPiece() instanceof King && square.getPiece().getColor() == color) {
-                    return true;
+        return pieceCounts[PieceType.KING.index(color)] > 0;
+    }
+
+    // Returns the square of the king of the specified color, or null if there is none.
+    public Square getKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    // Returns the number of pieces of the given type and color on the board.
+    public int getPieceCount(PieceType type, Color color) {
+        return pieceCounts[type.index(color)];
+    }
+
+    // Checks if a square of the 8x8 area is attacked by any piece of the given color.
+    // The lookup goes backwards from the square: knights, kings and pawns are found with the
+    // precomputed attack masks (a knight on the square would reach exactly the knights that attack
+    // it) and sliders by walking the eight rays until the first piece. Squares outside the 8x8
+    // area are never attacked.
+    public boolean isAttacked(int row, int column, Color by) {
+        if (!Bitboards.isInside(row, column)) {
+            return false;
+        }
+        int square = Bitboards.square(row, column);
+        if (anyPiece(Bitboards.knightAttacks(square), PieceType.KNIGHT, by)
+                || anyPiece(Bitboards.kingAttacks(square), PieceType.KING, by)
+                || anyPiece(Bitboards.pawnAttacks(by.opposite(), square), PieceType.PAWN, by)) {
+            return true;
+        }
+        for (int i = 0; i < RAY_DIRECTIONS.length; i++) {
+            PieceType slider = i < 4 ? PieceType.ROOK : PieceType.BISHOP;
+            int currentRow = row + RAY_DIRECTIONS[i][0];
+            int currentCol = column + RAY_DIRECTIONS[i][1];
+            while (Bitboards.isInside(currentRow, currentCol)) {
+                Piece piece = getPiece(currentRow, currentCol);
+                if (piece != null) {
+                    if (piece.getColor() == by && (piece.getType() == slider || piece.getType() == PieceType.QUEEN)) {
+                        return true;
+                    }
+                    break;
                 }
+                currentRow += RAY_DIRECTIONS[i][0];
+                currentCol += RAY_DIRECTIONS[i][1];
             }
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // Checks if any square of the mask holds a piece of the given type and color.
+    private boolean anyPiece(long mask, PieceType type, Color color) {
+        while (mask != 0) {
+            int square = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            Piece piece = getPiece(Bitboards.row(square), Bitboards.column(square));
+            if (piece != null && piece.getType() == type && piece.getColor() == color) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Checks if the king of the given color is attacked. The king square is kept up to date on
+    // every change, so this is a single backwards attack lookup. A side without a king is not in check.
+    public boolean isInCheck(Color color) {
+        Square king = getKingSquare(color);
+        return king != null && isAttacked(king.getRow(), king.getColumn(), color.opposite());
+    }
+
+    // Checks if the given side has at least one move that does not leave its own king in check.
+    // Tries the moves of MoveGenerator with makeMove/unmakeMove and stops at the first legal one,
+    // which is usually among the first few, so the board is left as it was found.
+    public boolean hasLegalMove(Color color) {
+        if (legalMoveBuffer == null) {
+            legalMoveBuffer = new int[MoveGenerator.MAX_MOVES];
+        }
+        int[] moves = legalMoveBuffer;
+        int count = MoveGenerator.generate(this, color, moves);
+        for (int i = 0; i < count; i++) {
+            makeMove(moves[i]);
+            boolean legal = !isInCheck(color);
+            unmakeMove();
+            if (legal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Checks if the given side is checkmated: its king is in check and no move gets it out of check.
+    public boolean isCheckmate(Color color) {
+        return isInCheck(color) && !hasLegalMove(color);
+    }
+
+    // Checks if the given side is stalemated: its king is not in check but every move would put it in check
+    // (or the side has no move at all).
+    public boolean isStalemate(Color color) {
+        return hasKing(color) && !isInCheck(color) && !hasLegalMove(color);
+    }
+}
@@ -0,0 +1,27 @@
+package model;
+
+// Define the available board representations a game can be played on.
+public enum BoardType {
+    // Square objects only (model.Board).
+    STANDARD,
+    // Squares mirrored into 64-bit masks (model.BitboardBoard).
+    BITBOARD,
+    // Square objects holding the twelve shared flyweight pieces (see PieceType.shared).
+    FLYWEIGHT,
+    // One byte per square and shared pieces, no Square objects (model.CompactBoard).
+    COMPACT;
+
+    // Creates a board of this representation with the pieces in their starting positions.
+    public Board createBoard() {
+        switch (this) {
+            case BITBOARD:
+                return new BitboardBoard();
+            case COMPACT:
+                return new CompactBoard();
+            case FLYWEIGHT:
+                return new Board(8, 8, false, true);
+            default:
+                return new Board();
+        }
+    }
+}
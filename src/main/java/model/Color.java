@@ -2,5 +2,10 @@ package model;
 
 //Define possible colors for pieces
 public enum Color {
-    WHITE, BLACK
-}
\ No newline at end of file
+    WHITE, BLACK;
+
+    // Returns the other color.
+    public Color opposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
+}
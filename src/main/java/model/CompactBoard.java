@@ -0,0 +1,248 @@
+package model;
+
+import java.util.Arrays;
+
+// An 8x8 board stored in a single 64-byte array, one byte per square, instead of Square and Piece
+// objects. A byte is 0 for an empty square or 1 + PieceType.index(color) for a piece, and the
+// pieces handed out are the shared flyweights of PieceType.shared, so a game costs a few hundred
+// bytes instead of several kilobytes.
+// getSquare returns a short-lived view of a cell: changes made through it are written to the
+// board, but a view does not see later changes made by other means. Pieces without a color
+// cannot be encoded and are rejected.
+public class CompactBoard extends Board {
+    private static final int SIZE = 8;
+
+    // Shared piece of each cell code (index 0, the empty cell, is null).
+    private static final Piece[] PIECES = new Piece[PieceType.KIND_COUNT + 1];
+
+    static {
+        for (PieceType type : PieceType.values()) {
+            for (Color color : Color.values()) {
+                PIECES[encode(type, color)] = type.shared(color);
+            }
+        }
+    }
+
+    // Cell contents, indexed by Bitboards.square(row, column).
+    private byte[] cells;
+
+    // State derived from the cells, kept up to date on every change as in Board.
+    private long hash;
+    private byte[] pieceCounts;
+    private byte[] kingCells; // Cell of the king of each color (Color.ordinal), or -1.
+
+    // Undo stack for makeMove/unmakeMove: the move in the low 16 bits, the code of the moved piece
+    // in bits 16-19 and the code of the captured piece (or 0) in bits 20-23.
+    private static final int INITIAL_UNDO_CAPACITY = 32;
+    private int[] undo;
+    private int undoSize;
+
+    // Default constructor that initializes an 8x8 board with pieces placed in their starting positions.
+    public CompactBoard() {
+        this(false);
+    }
+
+    // Constructor to initialize an 8x8 board, either empty or with the default pieces.
+    public CompactBoard(boolean empty) {
+        super(SIZE, SIZE, empty, true);
+    }
+
+    // Clears every cell. Called from the Board constructor, so the arrays are allocated here
+    // rather than in field initializers. The board always has 8x8 cells.
+    @Override
+    public void initializeEmptyBoard(int rows, int cols) {
+        cells = new byte[SIZE * SIZE];
+        pieceCounts = new byte[PieceType.KIND_COUNT];
+        kingCells = new byte[] {-1, -1};
+        hash = 0L;
+        undo = null;
+        undoSize = 0;
+    }
+
+    @Override
+    public void initializeBoard(int rows, int cols) {
+        initializeEmptyBoard(rows, cols);
+        PieceType[] backRank = {PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+                PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK};
+        for (int column = 0; column < SIZE; column++) {
+            set(Bitboards.square(0, column), encode(backRank[column], Color.WHITE));
+            set(Bitboards.square(1, column), encode(PieceType.PAWN, Color.WHITE));
+            set(Bitboards.square(6, column), encode(PieceType.PAWN, Color.BLACK));
+            set(Bitboards.square(7, column), encode(backRank[column], Color.BLACK));
+        }
+    }
+
+    @Override
+    protected Board newEmptyBoard(int rows, int cols) {
+        return new CompactBoard(true);
+    }
+
+    // Returns an independent board with the same cells; the undo stack is not copied.
+    @Override
+    public Board copy() {
+        CompactBoard copy = new CompactBoard(true);
+        copy.cells = cells.clone();
+        copy.pieceCounts = pieceCounts.clone();
+        copy.kingCells = kingCells.clone();
+        copy.hash = hash;
+        return copy;
+    }
+
+    // Returns a view of the cell at the given row and column, or null if out of bounds.
+    @Override
+    public Square getSquare(int row, int column) {
+        if (!inside(row, column)) {
+            return null;
+        }
+        return new Square(row, column, decode(cells[Bitboards.square(row, column)]), this);
+    }
+
+    @Override
+    public Piece getPiece(int row, int column) {
+        return inside(row, column) ? decode(cells[Bitboards.square(row, column)]) : null;
+    }
+
+    @Override
+    public void setPiece(int row, int column, Piece piece) {
+        set(Bitboards.square(row, column), encode(piece));
+    }
+
+    // Called when a piece is set through a view returned by getSquare.
+    @Override
+    protected void squareChanged(Square square, Piece previous, Piece current) {
+        set(Bitboards.square(square.getRow(), square.getColumn()), encode(current));
+    }
+
+    @Override
+    public void makeMove(int move) {
+        if (undo == null) {
+            undo = new int[INITIAL_UNDO_CAPACITY];
+        } else if (undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undoSize * 2);
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        byte moving = cells[from];
+        undo[undoSize++] = move | moving << 16 | cells[to] << 20;
+
+        PieceType promotion = Move.promotion(move);
+        set(to, promotion == null ? moving : encode(promotion, decode(moving).getColor()));
+        set(from, (byte) 0);
+    }
+
+    @Override
+    public void unmakeMove() {
+        assert undoSize > 0 : "There is no move to take back.";
+        int entry = undo[--undoSize];
+        set(Move.from(entry & 0xFFFF), (byte) ((entry >>> 16) & 0xF));
+        set(Move.to(entry & 0xFFFF), (byte) ((entry >>> 20) & 0xF));
+    }
+
+    @Override
+    public int getUndoDepth() {
+        return undoSize;
+    }
+
+    @Override
+    void clearUndo() {
+        undoSize = 0;
+    }
+
+    @Override
+    public boolean isPathClear(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int rowStep = Integer.compare(toRow, fromRow);
+        int colStep = Integer.compare(toColumn, fromColumn);
+        int step = rowStep * SIZE + colStep;
+        int target = Bitboards.square(toRow, toColumn);
+        for (int cell = Bitboards.square(fromRow, fromColumn) + step; cell != target; cell += step) {
+            if (cells[cell] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean hasKing(Color color) {
+        return pieceCounts[PieceType.KING.index(color)] > 0;
+    }
+
+    @Override
+    public Square getKingSquare(Color color) {
+        int cell = kingCells[color.ordinal()];
+        return cell < 0 ? null : getSquare(Bitboards.row(cell), Bitboards.column(cell));
+    }
+
+    @Override
+    public int getPieceCount(PieceType type, Color color) {
+        return pieceCounts[type.index(color)];
+    }
+
+    // Writes a cell and updates the hash, the piece counts and the king cells.
+    private void set(int cell, byte code) {
+        byte previous = cells[cell];
+        if (previous == code) {
+            return;
+        }
+        cells[cell] = code;
+        if (previous != 0) {
+            pieceCounts[previous - 1]--;
+            hash ^= Zobrist.key(decode(previous), cell);
+            if (isKing(previous) && kingCells[colorOf(previous)] == cell) {
+                kingCells[colorOf(previous)] = (byte) findKing(previous);
+            }
+        }
+        if (code != 0) {
+            pieceCounts[code - 1]++;
+            hash ^= Zobrist.key(decode(code), cell);
+            if (isKing(code)) {
+                kingCells[colorOf(code)] = (byte) cell;
+            }
+        }
+    }
+
+    // Looks for another king with the given code; only needed when a board holds more than one.
+    private int findKing(byte code) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == code) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean inside(int row, int column) {
+        return row >= 0 && row < SIZE && column >= 0 && column < SIZE;
+    }
+
+    private static byte encode(PieceType type, Color color) {
+        return (byte) (1 + type.index(color));
+    }
+
+    private static byte encode(Piece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        if (piece.getColor() == null) {
+            throw new IllegalArgumentException("A compact board cannot hold a piece without a color.");
+        }
+        return encode(piece.getType(), piece.getColor());
+    }
+
+    private static Piece decode(byte code) {
+        return PIECES[code];
+    }
+
+    private static boolean isKing(byte code) {
+        return (code - 1) % 6 == PieceType.KING.ordinal();
+    }
+
+    private static int colorOf(byte code) {
+        return (code - 1) / 6;
+    }
+}
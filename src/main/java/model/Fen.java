@@ -0,0 +1,231 @@
+package model;
+
+import java.nio.ByteBuffer;
+
+// Reading and writing positions in Forsyth-Edwards Notation (FEN), e.g.
+// "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1". Rank 8 comes first and rank n is row
+// n - 1, so white starts on rows 0 and 1 as on a new Board.
+// Only the piece placement and the side to move mean something to this model. A position must
+// have exactly one king per side, which king tracking and the search rely on, and at most 32
+// pieces, as many as the starting position, which the compact encodings (e.g. journal
+// snapshots) are sized for. The castling, en passant and move counter fields are optional when
+// reading and skipped; when writing they are "- - 0 1", since the model has neither castling nor
+// en passant.
+// Parsing reads the characters in place, from a CharSequence or straight from the bytes of a
+// ByteBuffer, without splitting the text into fields or creating strings, so large position
+// files can be loaded one position after the other.
+public final class Fen {
+    // FEN of the starting position.
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private static final int SIZE = 8;
+    private static final int MAX_PIECES = 32;
+    private static final String PIECE_LETTERS = "pnbrqk"; // In PieceType order.
+    private static final PieceType[] TYPES = PieceType.values(); // values() copies the array on every call.
+
+    private Fen() {
+    }
+
+    // Replaces the pieces of an 8x8 board with those of a FEN position and returns the side to
+    // move (white when the field is missing). The text is checked before the board is touched,
+    // so an invalid position throws IllegalArgumentException and leaves the board unchanged.
+    // The board's undo stack is cleared: moves made before the load cannot be taken back.
+    public static Color load(CharSequence fen, Board board) {
+        return load(fen, 0, fen.length(), board);
+    }
+
+    // Loads the FEN record starting at the buffer's position, which must be ASCII text, and moves
+    // the position past the end of the record's line, so consecutive calls read a file of one
+    // position per line. The position moves even when the record is invalid, so a caller can
+    // skip a bad line and go on. The bytes are read in place and never copied.
+    public static Color load(ByteBuffer buffer, Board board) {
+        int start = buffer.position();
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        buffer.position(end < buffer.limit() ? end + 1 : end);
+        return load(new AsciiSequence(buffer), start, end, board);
+    }
+
+    // Parses the characters between start (inclusive) and end (exclusive).
+    private static Color load(CharSequence fen, int start, int end, Board board) {
+        if (board.getSizeRows() != SIZE || board.getSizeCols() != SIZE) {
+            throw new IllegalArgumentException("FEN positions need an 8x8 board.");
+        }
+        int from = skipSpaces(fen, start, end);
+        int placementEnd = checkPlacement(fen, from, end);
+        Color side = sideToMove(fen, skipSpaces(fen, placementEnd, end), end);
+
+        board.clearUndo();
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                board.setPiece(row, column, null);
+            }
+        }
+        int row = SIZE - 1;
+        int column = 0;
+        for (int i = from; i < placementEnd; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                row--;
+                column = 0;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+            } else {
+                board.setPiece(row, column++, board.newPiece(pieceType(c), pieceColor(c)));
+            }
+        }
+        return side;
+    }
+
+    // Checks that the placement field has eight ranks of eight squares, only known letters, one
+    // king per side and at most 32 pieces. Returns the index just past the field.
+    private static int checkPlacement(CharSequence fen, int start, int end) {
+        int ranks = 1;
+        int squares = 0;
+        int whiteKings = 0;
+        int blackKings = 0;
+        int pieces = 0;
+        int i = start;
+        for (; i < end && !isSpace(fen.charAt(i)); i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (squares != SIZE) {
+                    throw invalid(fen, start, end, "rank " + (SIZE + 1 - ranks) + " does not have 8 squares");
+                }
+                ranks++;
+                squares = 0;
+            } else if (c >= '1' && c <= '8') {
+                squares += c - '0';
+            } else if (PIECE_LETTERS.indexOf(Character.toLowerCase(c)) >= 0) {
+                squares++;
+                pieces++;
+                whiteKings += c == 'K' ? 1 : 0;
+                blackKings += c == 'k' ? 1 : 0;
+            } else {
+                throw invalid(fen, start, end, "unexpected character '" + c + "'");
+            }
+            if (squares > SIZE) {
+                throw invalid(fen, start, end, "rank " + (SIZE + 1 - ranks) + " has more than 8 squares");
+            }
+        }
+        if (ranks != SIZE || squares != SIZE) {
+            throw invalid(fen, start, end, "the placement must have 8 ranks of 8 squares");
+        }
+        if (whiteKings != 1 || blackKings != 1) {
+            throw invalid(fen, start, end, "each side must have exactly one king");
+        }
+        if (pieces > MAX_PIECES) {
+            throw invalid(fen, start, end, "more than " + MAX_PIECES + " pieces");
+        }
+        return i;
+    }
+
+    // Reads the side to move field; the fields after it are not needed.
+    private static Color sideToMove(CharSequence fen, int start, int end) {
+        if (start == end) {
+            return Color.WHITE;
+        }
+        char c = fen.charAt(start);
+        if ((c == 'w' || c == 'b') && (start + 1 == end || isSpace(fen.charAt(start + 1)))) {
+            return c == 'w' ? Color.WHITE : Color.BLACK;
+        }
+        throw invalid(fen, start, end, "the side to move must be 'w' or 'b'");
+    }
+
+    // Returns the FEN of an 8x8 board with the given side to move.
+    public static String toFen(Board board, Color sideToMove) {
+        return append(board, sideToMove, new StringBuilder(90)).toString();
+    }
+
+    // Appends the FEN of an 8x8 board to a builder, so many positions can be written with one buffer.
+    public static StringBuilder append(Board board, Color sideToMove, StringBuilder out) {
+        for (int row = SIZE - 1; row >= 0; row--) {
+            int empty = 0;
+            for (int column = 0; column < SIZE; column++) {
+                Piece piece = board.getPiece(row, column);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(letter(piece));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                out.append('/');
+            }
+        }
+        return out.append(sideToMove == Color.BLACK ? " b" : " w").append(" - - 0 1");
+    }
+
+    // Returns the FEN letter of a piece: upper case for white, lower case for black.
+    static char letter(Piece piece) {
+        char c = PIECE_LETTERS.charAt(piece.getType().ordinal());
+        return piece.getColor() == Color.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    private static PieceType pieceType(char c) {
+        return TYPES[PIECE_LETTERS.indexOf(Character.toLowerCase(c))];
+    }
+
+    private static Color pieceColor(char c) {
+        return Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+    }
+
+    private static int skipSpaces(CharSequence fen, int i, int end) {
+        while (i < end && isSpace(fen.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    // The text is only copied into a string here, to report an error.
+    private static IllegalArgumentException invalid(CharSequence fen, int start, int end, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen.subSequence(start, end).toString().trim()
+                + "\": " + reason + ".");
+    }
+
+    // Read-only view of the bytes of a buffer as ASCII characters, indexed like the buffer.
+    private static final class AsciiSequence implements CharSequence {
+        private final ByteBuffer buffer;
+
+        AsciiSequence(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder text = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                text.append(charAt(i));
+            }
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -13,8 +13,14 @@ public class King extends Piece {
     }
 
     @Override
-    public boolean validMovement(Square destination, Board board) {
+    public PieceType getType() {
+        return PieceType.KING;
+    }
+
+    @Override
+    public boolean validMovement(Square origin, Square destination, Board board) {
     	// Preconditions and invariant
+        assert origin != null : "Origin square cannot be null.";
         assert destination != null : "Destination square cannot be null.";
         assert destination.getRow() >= 0 && destination.getRow() < board.getSizeRows() 
             : "Row is out of bounds.";
@@ -22,12 +28,8 @@ public class King extends Piece {
             : "Column is out of bounds.";
         assert checkInvariants() : "King's state invariant violated: color cannot be null.";
         
-        // Calculate the row and column differences between the current position and the destination.
-        int rowDelta = Math.abs(destination.getRow() - this.position.getRow());
-        int colDelta = Math.abs(destination.getColumn() - this.position.getColumn());
-
         // Check that movement is one square in any direction
-        if ((rowDelta <= 1 && colDelta <= 1) && !(rowDelta == 0 && colDelta == 0)) {
+        if (reaches(origin, destination)) {
             Piece destinationPiece = destination.getPiece();
 
             // Check if the destination square is occupied.
@@ -40,6 +42,19 @@ public class King extends Piece {
         return false;
     }
 
+    // Checks the one-square step. Inside the 8x8 area this is a lookup in the precomputed king masks;
+    // squares of larger custom boards compare the row and column differences instead.
+    private static boolean reaches(Square origin, Square destination) {
+        if (Bitboards.isInside(origin.getRow(), origin.getColumn())
+                && Bitboards.isInside(destination.getRow(), destination.getColumn())) {
+            return (Bitboards.kingAttacks(Bitboards.square(origin.getRow(), origin.getColumn()))
+                    & Bitboards.bit(Bitboards.square(destination.getRow(), destination.getColumn()))) != 0;
+        }
+        int rowDelta = Math.abs(destination.getRow() - origin.getRow());
+        int colDelta = Math.abs(destination.getColumn() - origin.getColumn());
+        return rowDelta <= 1 && colDelta <= 1 && !(rowDelta == 0 && colDelta == 0);
+    }
+
     private boolean checkInvariants() {
         return this.color != null;
     }
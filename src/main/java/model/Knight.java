@@ -14,8 +14,14 @@ public class Knight extends Piece {
     }
 
     @Override
-    public boolean validMovement(Square destination, Board board) {
+    public PieceType getType() {
+        return PieceType.KNIGHT;
+    }
+
+    @Override
+    public boolean validMovement(Square origin, Square destination, Board board) {
     	// Preconditions and invariant
+        assert origin != null : "Origin square cannot be null.";
         assert destination != null : "Destination square cannot be null.";
         assert destination.getRow() >= 0 && destination.getRow() < board.getSizeRows() 
             : "Row is out of bounds.";
@@ -23,12 +29,8 @@ public class Knight extends Piece {
             : "Column is out of bounds.";
         assert checkInvariants() : "Knight's state invariant violated: color cannot be null.";
 
-        // Calculate the absolute differences in rows and columns between the current position and destination.
-        int rowDelta = Math.abs(destination.getRow() - this.position.getRow());
-        int colDelta = Math.abs(destination.getColumn() - this.position.getColumn());
-
         // A knight moves in an "L" shape: two squares in one direction and one in the perpendicular direction.
-        if ((rowDelta == 2 && colDelta == 1) || (rowDelta == 1 && colDelta == 2)) {
+        if (reaches(origin, destination)) {
             // Retrieve the piece at the destination square, if any.
             Piece destinationPiece = destination.getPiece();
 
@@ -45,13 +47,30 @@ public class Knight extends Piece {
         return false;
     }
 
+    // Checks the "L" shape. Inside the 8x8 area this is a lookup in the precomputed knight masks;
+    // squares of larger custom boards compare the row and column differences instead.
+    private static boolean reaches(Square origin, Square destination) {
+        if (Bitboards.isInside(origin.getRow(), origin.getColumn())
+                && Bitboards.isInside(destination.getRow(), destination.getColumn())) {
+            return (Bitboards.knightAttacks(Bitboards.square(origin.getRow(), origin.getColumn()))
+                    & Bitboards.bit(Bitboards.square(destination.getRow(), destination.getColumn()))) != 0;
+        }
+        int rowDelta = Math.abs(destination.getRow() - origin.getRow());
+        int colDelta = Math.abs(destination.getColumn() - origin.getColumn());
+        return (rowDelta == 2 && colDelta == 1) || (rowDelta == 1 && colDelta == 2);
+    }
+
     // Ensures the invariants of the Knight are upheld (e.g., it has a valid color).
     private boolean checkInvariants() {
         return this.color != null;
     }
 
     // Sets the color of the Knight (used for testing or initialization purposes).
+    // Shared knights are immutable, as they may stand on several boards.
     public void setColor(Color color) {
+        if (isShared()) {
+            throw new UnsupportedOperationException("A shared piece cannot change color.");
+        }
         this.color = color;
     }
 }
@@ -0,0 +1,146 @@
+package model;
+
+import java.util.SplittableRandom;
+
+// Sliding piece attacks by "magic bitboards": the squares a rook or a bishop attacks from a square,
+// given the occupied squares, are read from a table in constant time. The occupancy bits that
+// matter for a square are multiplied by a magic number that maps every combination of them onto
+// a distinct index (or onto an index holding the same attacks).
+// The magic numbers are searched for once, when the class is loaded, with a fixed seed, so every
+// run builds the same tables; this takes a fraction of a second.
+public final class MagicBitboards {
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final long SEED = 0x5EED_5A1D_2024L;
+
+    private static final Table ROOK = new Table(ROOK_DIRECTIONS);
+    private static final Table BISHOP = new Table(BISHOP_DIRECTIONS);
+
+    private MagicBitboards() {
+    }
+
+    // Returns the squares attacked by a rook on the given square. The first piece met in each
+    // direction is included, whatever its color; callers remove their own pieces.
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK.attacks(square, occupied);
+    }
+
+    // Returns the squares attacked by a bishop on the given square (see rookAttacks).
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP.attacks(square, occupied);
+    }
+
+    // Returns the squares attacked by a queen on the given square (see rookAttacks).
+    public static long queenAttacks(int square, long occupied) {
+        return ROOK.attacks(square, occupied) | BISHOP.attacks(square, occupied);
+    }
+
+    // Computes the attacks by walking each direction until a piece or the edge is met.
+    // Used to build the tables and, in tests, as the reference the tables are checked against.
+    static long slowAttacks(int square, long occupied, boolean rook) {
+        long attacks = 0L;
+        for (int[] direction : rook ? ROOK_DIRECTIONS : BISHOP_DIRECTIONS) {
+            int row = Bitboards.row(square) + direction[0];
+            int column = Bitboards.column(square) + direction[1];
+            while (Bitboards.isInside(row, column)) {
+                long bit = Bitboards.bit(Bitboards.square(row, column));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // The tables of one kind of slider. All squares share one flat attack array; each square owns
+    // the slice starting at its offset.
+    private static final class Table {
+        private final long[] masks = new long[64];
+        private final long[] magics = new long[64];
+        private final int[] shifts = new int[64];
+        private final int[] offsets = new int[64];
+        private final long[] attacks;
+
+        Table(int[][] directions) {
+            boolean rook = directions == ROOK_DIRECTIONS;
+            int size = 0;
+            for (int square = 0; square < 64; square++) {
+                masks[square] = relevantOccupancy(square, directions);
+                shifts[square] = 64 - Long.bitCount(masks[square]);
+                offsets[square] = size;
+                size += 1 << Long.bitCount(masks[square]);
+            }
+            attacks = new long[size];
+            SplittableRandom random = new SplittableRandom(rook ? SEED : ~SEED);
+            for (int square = 0; square < 64; square++) {
+                findMagic(square, rook, random);
+            }
+        }
+
+        long attacks(int square, long occupied) {
+            return attacks[offsets[square] + (int) (((occupied & masks[square]) * magics[square]) >>> shifts[square])];
+        }
+
+        // Tries sparse random numbers until one maps every occupancy subset of the mask without a
+        // harmful collision, then fills the square's slice of the attack array.
+        private void findMagic(int square, boolean rook, SplittableRandom random) {
+            long mask = masks[square];
+            int count = 1 << Long.bitCount(mask);
+            long[] occupancies = new long[count];
+            long[] reference = new long[count];
+            int subset = 0;
+            long occupancy = 0L;
+            do {
+                // Carry-rippler: enumerates every subset of the mask.
+                occupancies[subset] = occupancy;
+                reference[subset] = slowAttacks(square, occupancy, rook);
+                subset++;
+                occupancy = (occupancy - mask) & mask;
+            } while (occupancy != 0L);
+
+            long[] slice = new long[count];
+            int[] usedBy = new int[count]; // Attempt that last wrote each index, so nothing is cleared.
+            int shift = shifts[square];
+            for (int attempt = 1; ; attempt++) {
+                long magic = random.nextLong() & random.nextLong() & random.nextLong();
+                if (Long.bitCount((mask * magic) & 0xFF00_0000_0000_0000L) < 6) {
+                    continue; // Too few high bits to spread the indices; not worth trying.
+                }
+                boolean ok = true;
+                for (int i = 0; i < count && ok; i++) {
+                    int index = (int) ((occupancies[i] * magic) >>> shift);
+                    if (usedBy[index] != attempt) {
+                        usedBy[index] = attempt;
+                        slice[index] = reference[i];
+                    } else if (slice[index] != reference[i]) {
+                        ok = false;
+                    }
+                }
+                if (ok) {
+                    magics[square] = magic;
+                    System.arraycopy(slice, 0, attacks, offsets[square], count);
+                    return;
+                }
+            }
+        }
+
+        // The squares whose occupancy changes the attacks: every square of each ray except the
+        // last one, since a piece on the edge blocks nothing further.
+        private static long relevantOccupancy(int square, int[][] directions) {
+            long mask = 0L;
+            for (int[] direction : directions) {
+                int row = Bitboards.row(square) + direction[0];
+                int column = Bitboards.column(square) + direction[1];
+                while (Bitboards.isInside(row + direction[0], column + direction[1])) {
+                    mask |= Bitboards.bit(Bitboards.square(row, column));
+                    row += direction[0];
+                    column += direction[1];
+                }
+            }
+            return mask;
+        }
+    }
+}
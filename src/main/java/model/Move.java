@@ -0,0 +1,102 @@
+package model;
+
+// Packs a move into a single int so move lists can live in primitive arrays.
+// Layout (low to high bits): origin square (6 bits), destination square (6 bits),
+// promotion piece (3 bits, PieceType ordinal, 0 when the move is not a promotion).
+// Squares are indexed as in Bitboards: row * 8 + column.
+public final class Move {
+    // Value that never encodes a real move (origin and destination would be equal).
+    public static final int NONE = 0;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final PieceType[] TYPES = PieceType.values(); // values() copies the array on every call.
+
+    private Move() {
+    }
+
+    // Encodes a move between two square indices.
+    public static int encode(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    // Encodes a move between two square indices that promotes to the given piece type.
+    public static int encode(int from, int to, PieceType promotion) {
+        return encode(from, to) | (promotion == null ? 0 : promotion.ordinal() << PROMOTION_SHIFT);
+    }
+
+    // Encodes a move given as rows and columns, like GameController.makeMove.
+    public static int encode(int fromRow, int fromColumn, int toRow, int toColumn) {
+        return encode(Bitboards.square(fromRow, fromColumn), Bitboards.square(toRow, toColumn));
+    }
+
+    // Returns the origin square index of a move.
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    // Returns the destination square index of a move.
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    // Returns the piece a pawn promotes to, or null if the move is not a promotion.
+    // The field has room for 8 values; only knight to queen are promotions, so a move read from
+    // corrupt data with any other value is treated as a plain move.
+    public static PieceType promotion(int move) {
+        int code = (move >>> PROMOTION_SHIFT) & 7;
+        return code >= PieceType.KNIGHT.ordinal() && code <= PieceType.QUEEN.ordinal() ? TYPES[code] : null;
+    }
+
+    // Returns the move as a 16-bit code for compact storage: the layout above fits in 15 bits,
+    // so the code is the packed move itself and the top bit is always clear.
+    public static short toCode(int move) {
+        return (short) (move & 0x7FFF);
+    }
+
+    // Returns the move stored as a 16-bit code by toCode.
+    public static int fromCode(short code) {
+        return code & 0x7FFF;
+    }
+
+    // Returns the move in coordinate notation, columns as files a-h and rows as ranks 1-8 (e.g. "e2e4").
+    public static String toString(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append("nbrq".charAt(promotion.ordinal() - 1));
+        }
+        return text.toString();
+    }
+
+    // Parses a move in coordinate notation ("e2e4", "e7e8q"), the format of toString.
+    // Returns NONE if the text is not a move.
+    public static int parse(CharSequence text) {
+        if (text.length() != 4 && text.length() != 5) {
+            return NONE;
+        }
+        int from = parseSquare(text, 0);
+        int to = parseSquare(text, 2);
+        if (from < 0 || to < 0 || from == to) {
+            return NONE;
+        }
+        if (text.length() == 4) {
+            return encode(from, to);
+        }
+        int promotion = "nbrq".indexOf(Character.toLowerCase(text.charAt(4)));
+        return promotion < 0 ? NONE : encode(from, to, TYPES[promotion + 1]);
+    }
+
+    private static int parseSquare(CharSequence text, int index) {
+        int column = text.charAt(index) - 'a';
+        int row = text.charAt(index + 1) - '1';
+        return Bitboards.isInside(row, column) ? Bitboards.square(row, column) : -1;
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + Bitboards.column(square))).append((char) ('1' + Bitboards.row(square)));
+    }
+}
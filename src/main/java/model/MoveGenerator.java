@@ -0,0 +1,193 @@
+package model;
+
+// Generates every move available to one side on an 8x8 board, following the same rules as the
+// validMovement implementations of the pieces. Moves are written as packed ints (see Move) into
+// a buffer supplied by the caller, so enumerating moves creates no Square or boxed objects.
+public final class MoveGenerator {
+    // Upper bound on the number of moves in positions reached by play (the most known is 218).
+    // Positions set up by hand can have more; generate then throws IllegalArgumentException
+    // rather than writing past the end of the buffer.
+    public static final int MAX_MOVES = 256;
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private MoveGenerator() {
+    }
+
+    // Writes the moves of the given side into moves, starting at index 0.
+    // Returns the number of moves written. Throws IllegalArgumentException if they do not fit.
+    public static int generate(Board board, Color side, int[] moves) {
+        if (board instanceof BitboardBoard) {
+            return generate((BitboardBoard) board, side, moves);
+        }
+        int count = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece == null || piece.getColor() != side) {
+                    continue;
+                }
+                switch (piece.getType()) {
+                    case PAWN:
+                        count = addPawnMoves(board, side, row, col, moves, count);
+                        break;
+                    case KNIGHT:
+                        count = addSteps(board, side, row, col, Bitboards.knightAttacks(Bitboards.square(row, col)), moves, count);
+                        break;
+                    case BISHOP:
+                        count = addSlides(board, side, row, col, BISHOP_DIRECTIONS, moves, count);
+                        break;
+                    case ROOK:
+                        count = addSlides(board, side, row, col, ROOK_DIRECTIONS, moves, count);
+                        break;
+                    case QUEEN:
+                        count = addSlides(board, side, row, col, ROOK_DIRECTIONS, moves, count);
+                        count = addSlides(board, side, row, col, BISHOP_DIRECTIONS, moves, count);
+                        break;
+                    default:
+                        count = addSteps(board, side, row, col, Bitboards.kingAttacks(Bitboards.square(row, col)), moves, count);
+                        break;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Writes the legal moves of the given side into moves: the moves of generate that do not leave
+    // the side's own king in check. Each move is tried with makeMove/unmakeMove, so the board must
+    // support them; it is left as it was found. Returns the number of moves written.
+    public static int generateLegal(Board board, Color side, int[] moves) {
+        int count = generate(board, side, moves);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            if (!board.isInCheck(side)) {
+                moves[legal++] = moves[i];
+            }
+            board.unmakeMove();
+        }
+        return legal;
+    }
+
+    // Same moves as generate(Board, ...), read from the piece masks: every piece's targets are its
+    // attack mask (magic bitboards for sliders) without the squares of its own side.
+    private static int generate(BitboardBoard board, Color side, int[] moves) {
+        int count = 0;
+        long own = board.getOccupancy(side);
+        long enemy = board.getOccupancy(side == Color.WHITE ? Color.BLACK : Color.WHITE);
+        long empty = ~board.getOccupancy();
+        for (PieceType type : PIECE_TYPES) {
+            long pieces = board.getPieces(type, side);
+            while (pieces != 0) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long targets;
+                if (type == PieceType.PAWN) {
+                    targets = pawnPushes(side, from, empty) | (Bitboards.pawnAttacks(side, from) & enemy);
+                } else {
+                    targets = board.attacks(type, side, from) & ~own;
+                }
+                if (count + Long.bitCount(targets) > moves.length) {
+                    throw tooManyMoves(moves);
+                }
+                while (targets != 0) {
+                    moves[count++] = Move.encode(from, Long.numberOfTrailingZeros(targets));
+                    targets &= targets - 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    // One square forward if it is empty, and two from the starting row if both are empty.
+    private static long pawnPushes(Color side, int from, long empty) {
+        long bit = Bitboards.bit(from);
+        if (side == Color.WHITE) {
+            long single = (bit << 8) & empty;
+            return single | ((single & 0x0000_0000_00FF_0000L) << 8 & empty);
+        }
+        long single = (bit >>> 8) & empty;
+        return single | ((single & 0x0000_FF00_0000_0000L) >>> 8 & empty);
+    }
+
+    // Pawns push one square forward, two from their starting row, and capture one square diagonally.
+    private static int addPawnMoves(Board board, Color side, int row, int col, int[] moves, int count) {
+        int direction = side == Color.WHITE ? 1 : -1;
+        int startRow = side == Color.WHITE ? 1 : 6;
+        int from = Bitboards.square(row, col);
+        int next = row + direction;
+        if (next < 0 || next > 7) {
+            return count;
+        }
+        if (board.getPiece(next, col) == null) {
+            count = add(moves, count, Move.encode(from, Bitboards.square(next, col)));
+            if (row == startRow && board.getPiece(next + direction, col) == null) {
+                count = add(moves, count, Move.encode(from, Bitboards.square(next + direction, col)));
+            }
+        }
+        for (int captureStep = -1; captureStep <= 1; captureStep += 2) {
+            int targetCol = col + captureStep;
+            if (targetCol >= 0 && targetCol <= 7) {
+                Piece target = board.getPiece(next, targetCol);
+                if (target != null && target.getColor() != side) {
+                    count = add(moves, count, Move.encode(from, Bitboards.square(next, targetCol)));
+                }
+            }
+        }
+        return count;
+    }
+
+    // Knights and kings jump to the squares of their precomputed attack mask that are not held
+    // by their own side.
+    private static int addSteps(Board board, Color side, int row, int col, long targets, int[] moves, int count) {
+        int from = Bitboards.square(row, col);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            Piece target = board.getPiece(Bitboards.row(to), Bitboards.column(to));
+            if (target == null || target.getColor() != side) {
+                count = add(moves, count, Move.encode(from, to));
+            }
+        }
+        return count;
+    }
+
+    // Sliding pieces move along each direction until they leave the board or hit a piece,
+    // which they may capture when it belongs to the other side.
+    private static int addSlides(Board board, Color side, int row, int col, int[][] directions,
+            int[] moves, int count) {
+        int from = Bitboards.square(row, col);
+        for (int[] direction : directions) {
+            int targetRow = row + direction[0];
+            int targetCol = col + direction[1];
+            while (targetRow >= 0 && targetRow <= 7 && targetCol >= 0 && targetCol <= 7) {
+                Piece target = board.getPiece(targetRow, targetCol);
+                if (target == null || target.getColor() != side) {
+                    count = add(moves, count, Move.encode(from, Bitboards.square(targetRow, targetCol)));
+                }
+                if (target != null) {
+                    break;
+                }
+                targetRow += direction[0];
+                targetCol += direction[1];
+            }
+        }
+        return count;
+    }
+
+    // Writes a move at the given index of the buffer; returns the next index.
+    private static int add(int[] moves, int count, int move) {
+        if (count == moves.length) {
+            throw tooManyMoves(moves);
+        }
+        moves[count] = move;
+        return count + 1;
+    }
+
+    private static IllegalArgumentException tooManyMoves(int[] moves) {
+        return new IllegalArgumentException("The position has more moves than the buffer holds (" + moves.length + ").");
+    }
+}
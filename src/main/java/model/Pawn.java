@@ -14,8 +14,14 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public boolean validMovement(Square destination, Board board) {
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
+    @Override
+    public boolean validMovement(Square origin, Square destination, Board board) {
     	// Preconditions and invariant
+        assert origin != null : "Origin square cannot be null.";
         assert destination != null : "Destination square cannot be null.";
         assert destination.getRow() >= 0 && destination.getRow() < board.getSizeRows() 
             : "Row is out of bounds.";
@@ -24,8 +30,8 @@ public class Pawn extends Piece {
         assert checkInvariants() : "Pawn's state invariant violated: color cannot be null.";
         
         // Basic logic for pawn movement (only forward, or diagonal attack)
-        int rowDelta = destination.getRow() - this.position.getRow();
-        int colDelta = Math.abs(destination.getColumn() - this.position.getColumn());
+        int rowDelta = destination.getRow() - origin.getRow();
+        int colDelta = Math.abs(destination.getColumn() - origin.getColumn());
 
         // If the pawn is black, it moves downward the board
         if (color == Color.BLACK) {
@@ -34,9 +40,9 @@ public class Pawn extends Piece {
                 return true; // Move forward
             } 
             // First move: move forward two squares if no pieces are in the way
-            else if (rowDelta == -2 && colDelta == 0 && this.position.getRow() == 6 &&
-                    !destination.isOccupied() && !board.getSquare(this.position.getRow() - 1, 
-                            this.position.getColumn()).isOccupied()) {
+            else if (rowDelta == -2 && colDelta == 0 && origin.getRow() == 6 &&
+                    !destination.isOccupied() && !board.getSquare(origin.getRow() - 1, 
+                            origin.getColumn()).isOccupied()) {
                return true; // First move
             } 
             // Diagonal attack: move one square diagonally to capture an opponent's piece
@@ -51,9 +57,9 @@ public class Pawn extends Piece {
                 return true; // Move forward
             } 
             // First move: move forward two squares if no pieces are in the way
-            else if (rowDelta == 2 && colDelta == 0 && this.position.getRow() == 1 &&
-                    !destination.isOccupied() && !board.getSquare(this.position.getRow() + 1, 
-                            this.position.getColumn()).isOccupied()) {
+            else if (rowDelta == 2 && colDelta == 0 && origin.getRow() == 1 &&
+                    !destination.isOccupied() && !board.getSquare(origin.getRow() + 1, 
+                            origin.getColumn()).isOccupied()) {
                return true; // First move
             } 
             // Diagonal attack: move one square diagonally to capture an opponent's piece
@@ -5,8 +5,13 @@ public abstract class Piece {
     protected Color color;
 
     // Current position of the piece on the board.
+    // Always null for shared pieces, whose position is only known by the board.
     protected Square position;
 
+    // Shared pieces are flyweights: a single immutable instance per type and color, used by
+    // boards in shared-pieces mode (see PieceType.shared) instead of one object per piece.
+    private boolean shared;
+
     // Constructor: initializes the piece with its color.
     public Piece(Color color) {
         this.color = color;
@@ -19,8 +24,22 @@ public abstract class Piece {
 
     // Setter: updates the current position of the piece on the board.
     // This method is typically called when the piece is moved to a new square.
+    // Shared pieces stand on many squares at once and ignore it.
     public void setPosition(Square position) {
-        this.position = position;
+        if (!shared) {
+            this.position = position;
+        }
+    }
+
+    // Returns true if this piece is a shared flyweight that may be on several boards and squares.
+    public boolean isShared() {
+        return shared;
+    }
+
+    // Marks the piece as shared; only used when the flyweights are created.
+    Piece markShared() {
+        this.shared = true;
+        return this;
     }
 
     // Returns the name of the piece as a string.
@@ -28,10 +47,48 @@ public abstract class Piece {
     // This method should be overridden by subclasses to provide specific names (e.g., "Rook", "Bishop").
     public abstract String getName();
 
-    // Abstract method: checks if the movement to the specified destination square is valid.
+    // Returns the kind of the piece (pawn, knight, ...), independent of its color.
+    // Used by board representations that index pieces by kind rather than by class.
+    public abstract PieceType getType();
+
+    // Checks if the movement from the square the piece is on to the specified destination is valid.
+    // Shared pieces do not know their square; the board validates their moves with the origin.
+    // Parameters:
+    // - destination: the target square to which the piece wants to move.
+    // - board: the current state of the board, used to validate the move.
+    public boolean validMovement(Square destination, Board board) {
+        if (shared) {
+            throw new UnsupportedOperationException(
+                    "Shared pieces do not know their square; use validMovement(origin, destination, board).");
+        }
+        return validMovement(position, destination, board);
+    }
+
+    // Abstract method: checks if the movement from the origin square to the specified destination is valid.
     // Must be implemented by each specific piece type (e.g., Rook, Bishop).
     // Parameters:
+    // - origin: the square the piece moves from.
     // - destination: the target square to which the piece wants to move.
     // - board: the current state of the board, used to validate the move.
-    public abstract boolean validMovement(Square destination, Board board);
+    public abstract boolean validMovement(Square origin, Square destination, Board board);
+
+    // Checks a move of a sliding piece (bishop, rook, queen), along straight lines, diagonals or
+    // both. On a BitboardBoard the reachable squares come from the magic bitboard tables in one
+    // lookup; on other boards the line must be clear and the destination not held by this side.
+    protected final boolean slides(Square origin, Square destination, Board board, boolean straight, boolean diagonal) {
+        if (board instanceof BitboardBoard) {
+            return ((BitboardBoard) board).canReach(getType(), this.color,
+                    Bitboards.square(origin.getRow(), origin.getColumn()),
+                    Bitboards.square(destination.getRow(), destination.getColumn()));
+        }
+        int rowDelta = Math.abs(destination.getRow() - origin.getRow());
+        int colDelta = Math.abs(destination.getColumn() - origin.getColumn());
+        boolean aligned = (straight && (rowDelta == 0 || colDelta == 0)) || (diagonal && rowDelta == colDelta);
+        if (!aligned || !board.isPathClear(origin.getRow(), origin.getColumn(),
+                destination.getRow(), destination.getColumn())) {
+            return false;
+        }
+        Piece destinationPiece = destination.getPiece();
+        return destinationPiece == null || destinationPiece.getColor() != this.color;
+    }
 }
@@ -0,0 +1,52 @@
+package model;
+
+// Define the kinds of pieces, independent of their color.
+public enum PieceType {
+    PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING;
+
+    // Number of distinct (type, color) combinations on a board.
+    public static final int KIND_COUNT = 12;
+
+    // Returns a dense index in [0, KIND_COUNT) for this type combined with a color.
+    // White kinds come first (0-5), followed by black kinds (6-11).
+    public int index(Color color) {
+        return color.ordinal() * 6 + ordinal();
+    }
+
+    // Creates a new piece of this type with the given color.
+    public Piece create(Color color) {
+        switch (this) {
+            case PAWN:
+                return new Pawn(color);
+            case KNIGHT:
+                return new Knight(color);
+            case BISHOP:
+                return new Bishop(color);
+            case ROOK:
+                return new Rook(color);
+            case QUEEN:
+                return new Queen(color);
+            default:
+                return new King(color);
+        }
+    }
+
+    // Returns the shared, immutable piece of this type and color. The same instance is returned
+    // on every call, so boards holding shared pieces need no piece objects of their own.
+    public Piece shared(Color color) {
+        return Flyweights.PIECES[index(color)];
+    }
+
+    // Holder of the twelve shared pieces, created on first use.
+    private static final class Flyweights {
+        private static final Piece[] PIECES = new Piece[KIND_COUNT];
+
+        static {
+            for (PieceType type : values()) {
+                for (Color color : Color.values()) {
+                    PIECES[type.index(color)] = type.create(color).markShared();
+                }
+            }
+        }
+    }
+}
@@ -14,8 +14,14 @@ public class Rook extends Piece {
     }
 
     @Override
-    public boolean validMovement(Square destination, Board board) {
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
+
+    @Override
+    public boolean validMovement(Square origin, Square destination, Board board) {
     	// Preconditions and invariant
+        assert origin != null : "Origin square cannot be null.";
         assert destination != null : "Destination square cannot be null.";
         assert destination.getRow() >= 0 && destination.getRow() < board.getSizeRows() 
             : "Row is out of bounds.";
@@ -23,39 +29,7 @@ public class Rook extends Piece {
             : "Column is out of bounds.";
         assert checkInvariants() : "Rook's state invariant violated: color cannot be null.";
 
-        // Calculate the absolute row and column differences between the current position and the destination.
-        int rowDelta = Math.abs(destination.getRow() - this.position.getRow());
-        int colDelta = Math.abs(destination.getColumn() - this.position.getColumn());
-
-        // A Rook can only move in straight lines (either rows or columns must remain constant).
-        if (rowDelta == 0 || colDelta == 0) {
-            // Determine the step direction for rows or columns.
-            int rowStep = Integer.compare(destination.getRow(), this.position.getRow());
-            int colStep = Integer.compare(destination.getColumn(), this.position.getColumn());
-
-            // Check each square along the path to the destination.
-            int currentRow = this.position.getRow() + rowStep;
-            int currentCol = this.position.getColumn() + colStep;
-            while (currentRow != destination.getRow() || currentCol != destination.getColumn()) {
-                // If any square along the path contains a piece, the move is invalid.
-                if (board.getSquare(currentRow, currentCol).getPiece() != null) {
-                    return false; // Path is blocked
-                }
-                currentRow += rowStep;
-                currentCol += colStep;
-            }
-
-            // Ensure the destination square does not contain a piece of the same color.
-            Piece destinationPiece = destination.getPiece();
-            if (destinationPiece != null && destinationPiece.getColor() == this.color) {
-                return false; // Cannot capture a friendly piece
-            }
-
-            return true; // The move is valid.
-        }
-
-        // The move is invalid if it is not in a straight line.
-        return false;
+        return slides(origin, destination, board, true, false);
     }
 
     // Ensures the invariants of the Rook are upheld (e.g., it has a valid color).
@@ -10,6 +10,10 @@ public class Square {
     // The piece currently occupying this square, or null if the square is empty.
     private Piece piece;
 
+    // The board this square belongs to, notified whenever the piece on it changes.
+    // Null for free-standing squares that are not part of any board.
+    private Board board;
+
     // Constructor: initializes a square with specified row, column, and a piece.
     // Parameters:
     // - row: the row index of the square.
@@ -26,7 +30,28 @@ public class Square {
     // - row: the row index of the square.
     // - column: the column index of the square.
     public Square(int row, int column) {
-        this(row, column, null);
+        this(row, column, (Piece) null);
+    }
+
+    // Constructor used by boards: initializes an empty square that reports piece changes to its board.
+    // Parameters:
+    // - row: the row index of the square.
+    // - column: the column index of the square.
+    // - board: the board that owns this square.
+    Square(int row, int column, Board board) {
+        this(row, column, null, board);
+    }
+
+    // Constructor used by boards that do not keep Square objects: a view of a board cell holding
+    // the given piece, which reports changes made through it back to the board.
+    // Parameters:
+    // - row: the row index of the square.
+    // - column: the column index of the square.
+    // - piece: the piece currently on the cell (or null if empty).
+    // - board: the board the cell belongs to.
+    Square(int row, int column, Piece piece, Board board) {
+        this(row, column, piece);
+        this.board = board;
     }
 
     // Getter: returns the piece occupying the square.
@@ -39,11 +64,16 @@ public class Square {
     // Parameters:
     // - piece: the piece to place on the square.
     // If the piece is not null, its position is updated to this square.
+    // If the square belongs to a board, the board is told about the change.
     public void setPiece(Piece piece) {
+        Piece previous = this.piece;
         this.piece = piece;
         if (piece != null) {
             piece.setPosition(this);
         }
+        if (board != null) {
+            board.squareChanged(this, previous, piece);
+        }
     }
 
     // Getter: returns the row index of this square.
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.SplittableRandom;
+
+// Random 64-bit keys for Zobrist hashing. The key of a position is the XOR of the keys of every
+// (piece kind, square) pair on the board, so moving a piece only needs a couple of XORs to update it.
+// The keys come from a fixed seed, so the same position has the same key in every run and every JVM,
+// which keeps stored keys comparable.
+public final class Zobrist {
+    // Keys per piece kind (PieceType.index) and square (Bitboards.square).
+    private static final long[][] PIECE_SQUARE = new long[PieceType.KIND_COUNT][64];
+
+    // XORed into a key when black is to move. The board does not know whose turn it is,
+    // so callers that track the turn (e.g. a game or a search) combine it themselves.
+    public static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C0DE_2024L);
+        for (int kind = 0; kind < PieceType.KIND_COUNT; kind++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[kind][square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    // Returns the key of a piece standing on a square.
+    public static long key(Piece piece, int square) {
+        return PIECE_SQUARE[piece.getType().index(piece.getColor())][square];
+    }
+
+    // Returns the key of a position for the given side to move.
+    public static long key(Board board, Color sideToMove) {
+        return sideToMove == Color.BLACK ? board.getHash() ^ BLACK_TO_MOVE : board.getHash();
+    }
+
+    // Computes the key of the pieces on a board from scratch, without using the incremental value.
+    public static long compute(Board board) {
+        long hash = 0L;
+        for (int row = 0; row < Math.min(8, board.getSizeRows()); row++) {
+            for (int column = 0; column < Math.min(8, board.getSizeCols()); column++) {
+                Piece piece = board.getPiece(row, column);
+                if (Board.isTracked(piece)) {
+                    hash ^= key(piece, Bitboards.square(row, column));
+                }
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,109 @@
+package perft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.Board;
+import model.Color;
+import model.MoveGenerator;
+
+/**
+ * Counts the leaf nodes of the game tree to a fixed depth (perft), using the moves produced by
+ * {@link MoveGenerator}. The node counts are a correctness oracle for the move rules and the
+ * time taken to produce them measures move generation throughput.
+ * A position where a king has been captured is a finished game and has no children.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes reachable from the given position in exactly {@code depth} moves.
+     * The board is restored to its initial state before returning.
+     * @param board The position to start from
+     * @param side The side to move
+     * @param depth The number of moves (plies) to play
+     * @return The number of leaf nodes
+     */
+    public static long perft(Board board, Color side, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return count(board, side, depth, new int[depth][MoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * Same as {@link #perft(Board, Color, int)}, but the moves at the root are split across
+     * the given number of threads, each working on its own copy of the board.
+     * @param board The position to start from (left untouched)
+     * @param side The side to move
+     * @param depth The number of moves (plies) to play
+     * @param threads The number of worker threads; 1 runs on the calling thread
+     * @return The number of leaf nodes
+     */
+    public static long perft(Board board, Color side, int depth, int threads) {
+        if (threads <= 1 || depth <= 1) {
+            return perft(board, side, depth);
+        }
+        int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+        int count = gameOver(board) ? 0 : MoveGenerator.generate(board, side, rootMoves);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int move = rootMoves[i];
+                results.add(pool.submit(() -> {
+                    Board copy = board.copy();
+                    copy.makeMove(move);
+                    return perft(copy, opponent(side), depth - 1);
+                }));
+            }
+            long nodes = 0;
+            for (Future<Long> result : results) {
+                nodes += result.get();
+            }
+            return nodes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Depth-first count; moves[ply] is the move buffer reused by every node at that ply.
+    private static long count(Board board, Color side, int depth, int[][] moves) {
+        if (gameOver(board)) {
+            return 0;
+        }
+        int[] buffer = moves[depth - 1];
+        int count = MoveGenerator.generate(board, side, buffer);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(buffer[i]);
+            nodes += count(board, opponent(side), depth - 1, moves);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // The game ends as soon as one of the kings has been captured.
+    private static boolean gameOver(Board board) {
+        return !board.hasKing(Color.WHITE) || !board.hasKing(Color.BLACK);
+    }
+
+    static Color opponent(Color side) {
+        return side == Color.WHITE ? Color.BLACK : Color.WHITE;
+    }
+}
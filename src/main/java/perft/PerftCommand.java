@@ -0,0 +1,82 @@
+package perft;
+
+import model.BitboardBoard;
+import model.Board;
+import model.Color;
+
+/**
+ * Command line driver for perft. Runs every depth from 1 up to the requested one and prints
+ * the node count, the elapsed time and the nodes per second of each depth.
+ * <p>
+ * Usage: {@code PerftCommand [depth] [threads] [position] [w|b] [bitboard]}
+ * <ul>
+ * <li>depth: deepest depth to run (default 4)</li>
+ * <li>threads: worker threads for the root moves (default 1)</li>
+ * <li>position: a {@link PerftPosition} name, {@code all} for the whole reference suite (default),
+ * or a FEN piece placement followed by the side to move</li>
+ * <li>bitboard: run on {@link BitboardBoard} instead of the square-based board</li>
+ * </ul>
+ * Counts of reference positions are compared with the recorded ones; the exit status is 1 on a mismatch.
+ */
+public final class PerftCommand {
+
+    private PerftCommand() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        String position = args.length > 2 ? args[2] : "all";
+        boolean bitboard = args.length > 0 && args[args.length - 1].equalsIgnoreCase("bitboard");
+
+        boolean ok = true;
+        if (position.equalsIgnoreCase("all")) {
+            for (PerftPosition reference : PerftPosition.values()) {
+                ok &= run(reference.name(), reference, reference.getPlacement(), reference.getSideToMove(),
+                        depth, threads, bitboard);
+            }
+        } else if (isReference(position)) {
+            PerftPosition reference = PerftPosition.valueOf(position.toUpperCase());
+            ok = run(reference.name(), reference, reference.getPlacement(), reference.getSideToMove(),
+                    depth, threads, bitboard);
+        } else {
+            Color side = args.length > 3 && args[3].equals("b") ? Color.BLACK : Color.WHITE;
+            ok = run(position, null, position, side, depth, threads, bitboard);
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Runs depths 1..depth on one position and prints a line per depth.
+    private static boolean run(String name, PerftPosition reference, String placement, Color side,
+            int depth, int threads, boolean bitboard) {
+        Board board = PerftPosition.load(placement, bitboard ? new BitboardBoard(true) : new Board(8, 8, true));
+        System.out.println(name + " (" + side + " to move, " + threads + " thread(s))");
+        boolean ok = true;
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes = Perft.perft(board, side, d, threads);
+            long elapsed = Math.max(1, System.nanoTime() - start);
+
+            String check = "";
+            if (reference != null && d <= reference.getMaxDepth()) {
+                boolean match = nodes == reference.getExpectedNodes(d);
+                ok &= match;
+                check = match ? "  ok" : "  MISMATCH (expected " + reference.getExpectedNodes(d) + ")";
+            }
+            System.out.printf("  depth %2d  %,15d nodes  %,10.1f ms  %,14.0f nodes/s%s%n",
+                    d, nodes, elapsed / 1e6, nodes * 1e9 / elapsed, check);
+        }
+        return ok;
+    }
+
+    private static boolean isReference(String name) {
+        for (PerftPosition reference : PerftPosition.values()) {
+            if (reference.name().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
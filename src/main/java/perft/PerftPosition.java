@@ -0,0 +1,91 @@
+package perft;
+
+import model.Board;
+import model.Color;
+
+/**
+ * Reference positions for perft. They are the positions commonly used to check chess move
+ * generators (start position, "Kiwipete" and positions 3 to 6 of the Chess Programming Wiki
+ * perft suite), with the node counts produced under the rules of this model.
+ * Those rules have no castling, en passant, promotion or check, and the game ends when a king
+ * is captured, so the counts differ from the published ones; they are recorded here so that any
+ * change in the behaviour of the pieces shows up as a mismatch.
+ */
+public enum PerftPosition {
+    START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", Color.WHITE,
+            20L, 400L, 8902L, 197742L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R", Color.WHITE,
+            46L, 1870L, 87218L, 3570584L),
+    POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8", Color.WHITE,
+            16L, 276L, 4793L, 87695L),
+    POSITION_4("r3k2r/Pppp1ppp/1b3nbn/np2q1B1/3P4/5N2/Pp1P1PPP/R2Q1RK1", Color.WHITE,
+            28L, 1392L, 41797L, 2018588L),
+    POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R", Color.WHITE,
+            40L, 1394L, 58044L, 2081197L),
+    POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1", Color.WHITE,
+            46L, 2124L, 94089L, 4181760L);
+
+    private final String placement;
+    private final Color sideToMove;
+    private final long[] expectedNodes;
+
+    PerftPosition(String placement, Color sideToMove, long... expectedNodes) {
+        this.placement = placement;
+        this.sideToMove = sideToMove;
+        this.expectedNodes = expectedNodes;
+    }
+
+    /**
+     * Returns the piece placement in FEN notation (rank 8 first, rank n is row n - 1).
+     * @return The piece placement field of the position
+     */
+    public String getPlacement() {
+        return placement;
+    }
+
+    /**
+     * Returns the side to move in this position.
+     * @return The color that moves first
+     */
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Returns the deepest depth with a recorded node count.
+     * @return The maximum depth that can be checked
+     */
+    public int getMaxDepth() {
+        return expectedNodes.length;
+    }
+
+    /**
+     * Returns the recorded node count for a depth between 1 and {@link #getMaxDepth()}.
+     * @param depth The perft depth
+     * @return The expected number of leaf nodes
+     */
+    public long getExpectedNodes(int depth) {
+        return expectedNodes[depth - 1];
+    }
+
+    /**
+     * Creates a board holding this position.
+     * @return A new standard board with the pieces of the position
+     */
+    public Board createBoard() {
+        return load(placement, new Board(8, 8, true));
+    }
+
+    /**
+     * Places the pieces of a FEN piece placement field on an empty 8x8 board.
+     * @param placement The piece placement, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+     *        optionally followed by the other FEN fields
+     * @param board An empty board receiving the pieces
+     * @return The same board, for chaining
+     * @see model.Fen
+     */
+    public static Board load(String placement, Board board) {
+        board.loadFen(placement);
+        return board;
+    }
+}
@@ -0,0 +1,115 @@
+package pgn;
+
+import java.util.Arrays;
+import java.util.List;
+
+import controller.GameController;
+import model.Bitboards;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.Move;
+import model.MoveGenerator;
+import model.PieceType;
+
+/**
+ * Replays games read from PGN through the rules of the model: every move is decoded against the
+ * moves of the position (see {@link San#find}) and played with {@link GameController#makeMove(int)}.
+ * <p>
+ * The model has no castling, en passant or promotion, so games using them cannot be replayed
+ * past that move; they are reported as {@link ReplayResult.Status#UNSUPPORTED_MOVE} rather than
+ * as illegal. A replayer owns its controller and buffers and is reused for every game; use one
+ * per thread.
+ */
+public class GameReplayer {
+    private final GameController controller;
+    private final San san = new San();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private int[] played = new int[256];
+    private int plies;
+
+    /**
+     * Creates a replayer on the standard board.
+     */
+    public GameReplayer() {
+        this(BoardType.STANDARD);
+    }
+
+    /**
+     * Creates a replayer on the given board representation.
+     * @param boardType The representation of the board games are replayed on
+     */
+    public GameReplayer(BoardType boardType) {
+        this.controller = new GameController(null, boardType);
+    }
+
+    /**
+     * Replays a game from its starting position (the FEN tag, or the standard start).
+     * @param game The game to replay
+     * @return How far the game could be replayed and why it stopped
+     */
+    public ReplayResult replay(PgnGame game) {
+        String fen = game.getTag("FEN");
+        try {
+            controller.loadFen(fen != null ? fen : Fen.START);
+        } catch (IllegalArgumentException e) {
+            return new ReplayResult(game.getNumber(), ReplayResult.Status.INVALID_POSITION, 0, fen);
+        }
+        plies = 0;
+        List<String> line = game.getMoves();
+        for (int ply = 0; ply < line.size(); ply++) {
+            ReplayResult.Status status = play(line.get(ply));
+            if (status != ReplayResult.Status.VALID) {
+                return new ReplayResult(game.getNumber(), status, ply, line.get(ply));
+            }
+        }
+        return new ReplayResult(game.getNumber(), ReplayResult.Status.VALID, line.size(), null);
+    }
+
+    /**
+     * Returns the moves of the last replay, up to the move where it stopped.
+     * @return A copy of the packed moves played
+     */
+    public int[] getMoves() {
+        return Arrays.copyOf(played, plies);
+    }
+
+    /**
+     * Returns the controller games are replayed on; after a replay it holds the last position reached.
+     * @return The controller of this replayer
+     */
+    public GameController getController() {
+        return controller;
+    }
+
+    // Decodes and plays one move.
+    private ReplayResult.Status play(String move) {
+        if (!san.parse(move)) {
+            return ReplayResult.Status.ILLEGAL_MOVE;
+        }
+        if (san.isCastling() || san.getPromotion() != null) {
+            return ReplayResult.Status.UNSUPPORTED_MOVE;
+        }
+        Color side = controller.getActualTurn().getColor();
+        int count = MoveGenerator.generate(controller.getBoard(), side, moves);
+        int found = san.find(controller.getBoard(), side, moves, count);
+        if (found == Move.NONE) {
+            return isEnPassant() ? ReplayResult.Status.UNSUPPORTED_MOVE : ReplayResult.Status.ILLEGAL_MOVE;
+        }
+        if (!controller.makeMove(found)) {
+            return ReplayResult.Status.ILLEGAL_MOVE;
+        }
+        if (plies == played.length) {
+            played = Arrays.copyOf(played, plies * 2);
+        }
+        played[plies++] = found;
+        return ReplayResult.Status.VALID;
+    }
+
+    // A pawn capturing onto an empty square can only be an en passant capture.
+    private boolean isEnPassant() {
+        int to = san.getTo();
+        return san.getPiece() == PieceType.PAWN && san.isCapture()
+                && controller.getBoard().getPiece(Bitboards.row(to), Bitboards.column(to)) == null;
+    }
+}
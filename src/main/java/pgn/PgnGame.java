@@ -0,0 +1,82 @@
+package pgn;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game read from a PGN file: its tag pairs, its main line in standard algebraic notation
+ * (comments, variations, move numbers and annotation glyphs removed) and its result.
+ */
+public final class PgnGame {
+    private final long number;
+    private final long line;
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    /**
+     * Creates a game.
+     * @param number The position of the game in its file, starting at 1
+     * @param line The line of the file the game starts on, starting at 1
+     * @param tags The tag pairs, in file order
+     * @param moves The moves of the main line in SAN, e.g. "e4", "Nxf7+", "O-O"
+     * @param result The game termination marker ("1-0", "0-1", "1/2-1/2" or "*")
+     */
+    public PgnGame(long number, long line, Map<String, String> tags, List<String> moves, String result) {
+        this.number = number;
+        this.line = line;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+    }
+
+    /**
+     * Returns the position of the game in its file.
+     * @return The game number, starting at 1
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the line the game starts on, to locate it in the file.
+     * @return The line number, starting at 1
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the tag pairs of the game (Event, White, Black, FEN, ...).
+     * @return An unmodifiable map from tag name to value, in file order
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the value of a tag.
+     * @param name The tag name, e.g. "White"
+     * @return The value, or null if the game has no such tag
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Returns the moves of the main line.
+     * @return An unmodifiable list of moves in SAN
+     */
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the game termination marker.
+     * @return "1-0", "0-1", "1/2-1/2", or "*" for an unfinished or unknown result
+     */
+    public String getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,306 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of PGN (Portable Game Notation) files. Games are read one at a time from a
+ * channel through a fixed-size buffer, so files of any size can be read in constant memory;
+ * only the game being returned is held.
+ * <p>
+ * The reader keeps the tag pairs and the main line of each game. Comments ({@code {...}} and
+ * {@code ;} to the end of the line), variations ({@code (...)}, nested), numeric annotation
+ * glyphs ({@code $1}), move numbers, suffix annotations ({@code !}, {@code ?}) and escape lines
+ * ({@code %} in the first column) are skipped. A game ends with its result marker, or when the
+ * tags of the next game or the end of the file are met, in which case its result is "*".
+ * Tag values are decoded as UTF-8; moves are ASCII.
+ */
+public class PgnReader implements Closeable {
+    /** Size of the read buffer used when none is given. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int EOF = -1;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    // Text of the token or tag being read, reused for every token.
+    private byte[] token = new byte[64];
+    private int tokenLength;
+
+    private int previous = '\n'; // Last byte read, to recognize escape lines.
+    private long line = 1;
+    private long gamesRead;
+
+    /**
+     * Creates a reader over a channel with a buffer of the default size.
+     * @param channel The channel to read from; closed with the reader
+     */
+    public PgnReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a reader over a channel.
+     * @param channel The channel to read from; closed with the reader
+     * @param bufferSize The size of the read buffer in bytes
+     */
+    public PgnReader(ReadableByteChannel channel, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer must hold at least one byte.");
+        }
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Opens a PGN file for reading.
+     * @param file The file to read
+     * @return A reader over the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static PgnReader open(Path file) throws IOException {
+        return new PgnReader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Reads the next game.
+     * @return The next game, or null at the end of the input
+     * @throws IOException if the channel cannot be read
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        long startLine = -1;
+        int c;
+        while ((c = skipSpaces()) != EOF) {
+            if (startLine < 0) {
+                startLine = line;
+            }
+            if (c == '[') {
+                if (!moves.isEmpty()) {
+                    return game(startLine, tags, moves, "*"); // Tags of the next game; this one has no result.
+                }
+                read();
+                readTag(tags);
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == ';' || (c == '%' && previous == '\n')) {
+                skipLine();
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == ')' || c == ']' || c == '}' || c == '"') {
+                read(); // Unbalanced closing bracket or stray quote; readToken would stop on it forever.
+            } else if (c == '$') {
+                read();
+                readToken();
+            } else {
+                readToken();
+                if (isResult()) {
+                    return game(startLine, tags, moves, tokenString());
+                }
+                String move = move();
+                if (move != null) {
+                    moves.add(move);
+                }
+            }
+        }
+        return startLine < 0 ? null : game(startLine, tags, moves, "*");
+    }
+
+    /**
+     * Returns the number of games returned so far.
+     * @return The game count
+     */
+    public long getGamesRead() {
+        return gamesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private PgnGame game(long startLine, Map<String, String> tags, List<String> moves, String result) {
+        return new PgnGame(++gamesRead, startLine, tags, moves, result);
+    }
+
+    // Reads a tag pair after its opening bracket: a name, a quoted value and the closing bracket.
+    private void readTag(Map<String, String> tags) throws IOException {
+        skipSpaces();
+        readToken();
+        String name = tokenString();
+        int c = skipSpaces();
+        tokenLength = 0;
+        if (c == '"') {
+            read();
+            while ((c = read()) != EOF && c != '"' && c != '\n') {
+                if (c == '\\') {
+                    int escaped = peek();
+                    if (escaped == '"' || escaped == '\\') {
+                        c = read();
+                    }
+                }
+                append(c);
+            }
+        }
+        while ((c = read()) != EOF && c != ']' && c != '\n') {
+            // Anything between the value and the closing bracket is ignored.
+        }
+        if (!name.isEmpty()) {
+            tags.put(name, new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+        }
+    }
+
+    // Reads the characters of a token up to a space or a character that starts something else.
+    private void readToken() throws IOException {
+        tokenLength = 0;
+        int c;
+        while ((c = peek()) != EOF && !isSpace(c) && "{}()[];$\"".indexOf(c) < 0) {
+            append(read());
+        }
+    }
+
+    // Returns the move held by the current token, without its move number and suffix
+    // annotations, or null if the token is only a move number.
+    private String move() {
+        int start = 0;
+        while (start < tokenLength && token[start] >= '0' && token[start] <= '9') {
+            start++;
+        }
+        if (start < tokenLength && token[start] == '.') {
+            while (start < tokenLength && token[start] == '.') {
+                start++;
+            }
+        } else {
+            start = 0; // Digits not followed by a dot are not a move number ("0-0" castling).
+        }
+        int end = tokenLength;
+        while (end > start && (token[end - 1] == '!' || token[end - 1] == '?')) {
+            end--;
+        }
+        return start < end ? new String(token, start, end - start, StandardCharsets.US_ASCII) : null;
+    }
+
+    private boolean isResult() {
+        return equalsToken("1-0") || equalsToken("0-1") || equalsToken("1/2-1/2") || equalsToken("*");
+    }
+
+    private boolean equalsToken(String text) {
+        if (tokenLength != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < tokenLength; i++) {
+            if (token[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String tokenString() {
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    private void append(int c) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, tokenLength * 2);
+        }
+        token[tokenLength++] = (byte) c;
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        while ((c = read()) != EOF && c != '}') {
+            // Comments do not nest.
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != EOF && c != '\n') {
+            // The rest of the line is a comment or an escape.
+        }
+    }
+
+    // Skips a variation, including the variations and comments inside it.
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == ';') {
+                skipLine();
+            }
+        }
+    }
+
+    // Skips spaces and returns the next byte without consuming it.
+    private int skipSpaces() throws IOException {
+        int c;
+        while ((c = peek()) != EOF && isSpace(c)) {
+            read();
+        }
+        return c;
+    }
+
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return bytes[position] & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        int c = bytes[position++] & 0xFF;
+        if (c == '\n') {
+            line++;
+        }
+        previous = c;
+        return c;
+    }
+
+    // Refills the buffer from the channel; returns false at the end of the input.
+    private boolean fill() throws IOException {
+        while (!endOfInput) {
+            buffer.clear();
+            int count = channel.read(buffer);
+            if (count < 0) {
+                endOfInput = true;
+            } else if (count > 0) {
+                position = 0;
+                limit = count;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package pgn;
+
+/**
+ * Counts, throughput and waiting times of one {@link ValidationPipeline} run.
+ */
+public final class PipelineReport {
+    private final ValidationStats stats;
+    private final int threads;
+    private final long elapsedNanos;
+    private final long readerWaitNanos;
+    private final long workerIdleNanos;
+
+    /**
+     * Creates a report.
+     * @param stats The counters of the games replayed
+     * @param threads The number of worker threads
+     * @param elapsedNanos The duration of the run
+     * @param readerWaitNanos The time the reader waited for room in the pipeline
+     * @param workerIdleNanos The time the workers waited for games, summed over the workers
+     */
+    public PipelineReport(ValidationStats stats, int threads, long elapsedNanos, long readerWaitNanos,
+            long workerIdleNanos) {
+        this.stats = stats;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.readerWaitNanos = readerWaitNanos;
+        this.workerIdleNanos = workerIdleNanos;
+    }
+
+    /**
+     * Returns the counters of the games replayed.
+     * @return The validation counters
+     */
+    public ValidationStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     * @return The thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the duration of the run, from the first game read to the last result output.
+     * @return The elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the time the reader was held back because the pipeline was full. A large share of
+     * the elapsed time means the workers limit the throughput.
+     * @return The waiting time in nanoseconds
+     */
+    public long getReaderWaitNanos() {
+        return readerWaitNanos;
+    }
+
+    /**
+     * Returns the time the workers waited for games, summed over the workers. A large share of
+     * the elapsed time times the thread count means reading limits the throughput.
+     * @return The idle time in nanoseconds
+     */
+    public long getWorkerIdleNanos() {
+        return workerIdleNanos;
+    }
+
+    /**
+     * Returns the throughput of the run.
+     * @return The games replayed per second
+     */
+    public double getGamesPerSecond() {
+        return stats.getGamesPerSecond(elapsedNanos);
+    }
+
+    /**
+     * Formats the report on two lines: the counts and throughput, then the waiting times.
+     * @return The summary
+     */
+    public String summary() {
+        double elapsed = Math.max(1, elapsedNanos);
+        return stats.summary(elapsedNanos) + String.format("%n%d thread(s): reader waited %.0f%% of the time,"
+                + " workers idle %.0f%% of the time", threads, 100 * readerWaitNanos / elapsed,
+                100 * workerIdleNanos / (elapsed * threads));
+    }
+}
@@ -0,0 +1,92 @@
+package pgn;
+
+/**
+ * Outcome of replaying one game with a {@link GameReplayer}.
+ */
+public final class ReplayResult {
+
+    /**
+     * How the replay of a game ended.
+     */
+    public enum Status {
+        /** Every move was found and played. */
+        VALID,
+        /** A move is malformed, ambiguous, or names no legal move of the position. */
+        ILLEGAL_MOVE,
+        /** A move needs a rule the model does not have: castling, en passant or promotion. */
+        UNSUPPORTED_MOVE,
+        /** The FEN tag of the game does not hold a valid position. */
+        INVALID_POSITION
+    }
+
+    private final long gameNumber;
+    private final Status status;
+    private final int plies;
+    private final String move;
+
+    /**
+     * Creates a result.
+     * @param gameNumber The number of the game in its file
+     * @param status How the replay ended
+     * @param plies The number of moves played before the replay ended
+     * @param move The move that stopped the replay, or null for a valid game
+     */
+    public ReplayResult(long gameNumber, Status status, int plies, String move) {
+        this.gameNumber = gameNumber;
+        this.status = status;
+        this.plies = plies;
+        this.move = move;
+    }
+
+    /**
+     * Returns the number of the game in its file.
+     * @return The game number, starting at 1
+     */
+    public long getGameNumber() {
+        return gameNumber;
+    }
+
+    /**
+     * Returns how the replay ended.
+     * @return The status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns whether every move of the game was played.
+     * @return true if the status is {@link Status#VALID}
+     */
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    /**
+     * Returns the number of moves played; for an invalid game, the index of the failing move.
+     * @return The number of plies played
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Returns the move that stopped the replay.
+     * @return The move in SAN (the FEN for an invalid position), or null for a valid game
+     */
+    public String getMove() {
+        return move;
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "game " + gameNumber + ": valid, " + plies + " plies";
+        }
+        if (status == Status.INVALID_POSITION) {
+            return "game " + gameNumber + ": invalid position " + move;
+        }
+        return "game " + gameNumber + ": " + (status == Status.ILLEGAL_MOVE ? "illegal" : "unsupported")
+                + " move " + move + " at ply " + (plies + 1);
+    }
+}
@@ -0,0 +1,229 @@
+package pgn;
+
+import model.Bitboards;
+import model.Board;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+import model.Piece;
+import model.PieceType;
+
+/**
+ * Parser of moves in standard algebraic notation (SAN), e.g. "e4", "Nbd7", "exd5", "R1xe2+",
+ * "e8=Q" or "O-O", and lookup of the move they name among the legal moves of a position.
+ * <p>
+ * An instance holds the fields of the last parsed move and is reused for every move, so
+ * decoding a game creates no objects per move. Instances are not thread-safe.
+ */
+public final class San {
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private PieceType piece;
+    private int fromColumn;
+    private int fromRow;
+    private int to;
+    private boolean capture;
+    private PieceType promotion;
+    private boolean castling;
+    private boolean queenSide;
+
+    /**
+     * Parses a move. Check and mate marks and suffix annotations at the end are accepted and ignored.
+     * @param san The move, e.g. "Nbd7"
+     * @return true if the text is a well-formed move, false otherwise
+     */
+    public boolean parse(CharSequence san) {
+        piece = PieceType.PAWN;
+        fromColumn = -1;
+        fromRow = -1;
+        to = -1;
+        capture = false;
+        promotion = null;
+        castling = false;
+        queenSide = false;
+
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end == 0) {
+            return false;
+        }
+        if (san.charAt(0) == 'O' || san.charAt(0) == '0') {
+            return parseCastling(san, end);
+        }
+
+        int i = 0;
+        int type = "NBRQK".indexOf(san.charAt(0));
+        if (type >= 0) {
+            piece = TYPES[type + 1];
+            i++;
+        }
+        // The destination is the last square of the move, before an optional promotion.
+        int promotionAt = end;
+        for (int j = i; j < end; j++) {
+            if (san.charAt(j) == '=') {
+                promotionAt = j;
+                break;
+            }
+        }
+        if (promotionAt < end) {
+            if (promotionAt + 2 != end || piece != PieceType.PAWN) {
+                return false;
+            }
+            int promoted = "NBRQ".indexOf(san.charAt(end - 1));
+            if (promoted < 0) {
+                return false;
+            }
+            promotion = TYPES[promoted + 1];
+        } else if (piece == PieceType.PAWN && end - i >= 3 && "NBRQ".indexOf(san.charAt(end - 1)) >= 0) {
+            // Promotion written without '=' ("e8Q").
+            promotion = TYPES["NBRQ".indexOf(san.charAt(end - 1)) + 1];
+            promotionAt = end - 1;
+        }
+        if (promotionAt - i < 2) {
+            return false;
+        }
+        int toColumn = file(san.charAt(promotionAt - 2));
+        int toRow = rank(san.charAt(promotionAt - 1));
+        if (toColumn < 0 || toRow < 0) {
+            return false;
+        }
+        if (promotion != null && toRow != 0 && toRow != 7) {
+            return false; // Pawns only promote on the last rank.
+        }
+        to = Bitboards.square(toRow, toColumn);
+
+        // What is left between the piece and the destination: disambiguation and capture mark.
+        for (int j = i; j < promotionAt - 2; j++) {
+            char c = san.charAt(j);
+            if (c == 'x' || c == ':') {
+                if (capture || j != promotionAt - 3) {
+                    return false;
+                }
+                capture = true;
+            } else if (file(c) >= 0 && fromColumn < 0 && fromRow < 0) {
+                fromColumn = file(c);
+            } else if (rank(c) >= 0 && fromRow < 0) {
+                fromRow = rank(c);
+            } else {
+                return false;
+            }
+        }
+        // A pawn capture names the pawn's file; a pawn push names nothing.
+        if (piece == PieceType.PAWN && (capture != (fromColumn >= 0) || fromRow >= 0)) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean parseCastling(CharSequence san, int end) {
+        char o = san.charAt(0);
+        boolean shortCastling = end == 3 && san.charAt(1) == '-' && san.charAt(2) == o;
+        boolean longCastling = end == 5 && san.charAt(1) == '-' && san.charAt(2) == o
+                && san.charAt(3) == '-' && san.charAt(4) == o;
+        piece = PieceType.KING;
+        castling = shortCastling || longCastling;
+        queenSide = longCastling;
+        return castling;
+    }
+
+    /**
+     * Finds the move named by the last parsed move among the moves of a position.
+     * The moves may be pseudo-legal (as produced by {@link MoveGenerator#generate}): a candidate
+     * that would leave the own king in check is tried with makeMove/unmakeMove and skipped, so a
+     * piece pinned to its king does not make the notation ambiguous. Only the few candidates that
+     * match the notation are tried, which is much cheaper than filtering every move beforehand.
+     * @param board The position
+     * @param side The side to move
+     * @param moves The moves of the side to move
+     * @param count The number of moves in the array
+     * @return The only matching legal move, or {@link Move#NONE} if no move or more than one move matches
+     */
+    public int find(Board board, Color side, int[] moves, int count) {
+        if (castling || to < 0) {
+            return Move.NONE;
+        }
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to
+                    || (fromColumn >= 0 && Bitboards.column(from) != fromColumn)
+                    || (fromRow >= 0 && Bitboards.row(from) != fromRow)) {
+                continue;
+            }
+            Piece moving = board.getPiece(Bitboards.row(from), Bitboards.column(from));
+            if (moving == null || moving.getType() != piece || Move.promotion(move) != promotion) {
+                continue;
+            }
+            board.makeMove(move);
+            boolean legal = !board.isInCheck(side);
+            board.unmakeMove();
+            if (!legal) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                return Move.NONE; // Ambiguous.
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the type of the piece that moves (a king when castling).
+     * @return The moving piece type
+     */
+    public PieceType getPiece() {
+        return piece;
+    }
+
+    /**
+     * Returns the destination square index (row * 8 + column).
+     * @return The destination, or -1 for castling
+     */
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * Returns whether the move is marked as a capture.
+     * @return true if the move contains 'x'
+     */
+    public boolean isCapture() {
+        return capture;
+    }
+
+    /**
+     * Returns the piece a pawn promotes to.
+     * @return The promotion type, or null if the move is not a promotion
+     */
+    public PieceType getPromotion() {
+        return promotion;
+    }
+
+    /**
+     * Returns whether the move is castling.
+     * @return true for "O-O" and "O-O-O"
+     */
+    public boolean isCastling() {
+        return castling;
+    }
+
+    /**
+     * Returns whether the move is castling on the queen side.
+     * @return true for "O-O-O"
+     */
+    public boolean isQueenSide() {
+        return queenSide;
+    }
+
+    private static int file(char c) {
+        return c >= 'a' && c <= 'h' ? c - 'a' : -1;
+    }
+
+    private static int rank(char c) {
+        return c >= '1' && c <= '8' ? c - '1' : -1;
+    }
+}
@@ -0,0 +1,66 @@
+package pgn;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import model.BoardType;
+
+/**
+ * Command line validator of PGN files: streams the games of a file, replays them through
+ * the rules of the model with a {@link ValidationPipeline} and prints the games that could not
+ * be replayed, followed by the counts, the throughput and the waiting times of the pipeline.
+ * <p>
+ * Usage: {@code ValidateCommand file.pgn [boardType] [maxReported] [threads] [unordered]}
+ * <ul>
+ * <li>boardType: a {@link BoardType} name (default STANDARD)</li>
+ * <li>maxReported: how many invalid games are printed (default 20)</li>
+ * <li>threads: worker threads (default: available processors)</li>
+ * <li>unordered: print invalid games as they are found instead of in file order</li>
+ * </ul>
+ * The exit status is 1 if a game has an illegal move.
+ */
+public final class ValidateCommand {
+
+    private ValidateCommand() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ValidateCommand file.pgn [boardType] [maxReported] [threads] [unordered]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        BoardType boardType = args.length > 1 ? BoardType.valueOf(args[1].toUpperCase()) : BoardType.STANDARD;
+        int maxReported = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean ordered = !(args.length > 4 && args[4].equalsIgnoreCase("unordered"));
+
+        ValidationPipeline pipeline = new ValidationPipeline(boardType, threads, 4 * threads,
+                ValidationPipeline.DEFAULT_BATCH_SIZE, ordered);
+        PipelineReport report = validate(file, pipeline, maxReported);
+        System.out.println(file + ": " + report.summary());
+        if (report.getStats().getIllegalMoves() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Replays every game of a file and prints the first invalid ones.
+     * @param file The PGN file
+     * @param pipeline The pipeline replaying the games
+     * @param maxReported How many invalid games to print
+     * @return The report of the run
+     * @throws IOException if the file cannot be read
+     */
+    static PipelineReport validate(Path file, ValidationPipeline pipeline, int maxReported) throws IOException {
+        long[] reported = {0};
+        try (PgnReader reader = PgnReader.open(file)) {
+            return pipeline.run(reader, result -> {
+                if (!result.isValid() && reported[0]++ < maxReported) {
+                    System.out.println("  " + result);
+                }
+            });
+        }
+    }
+}
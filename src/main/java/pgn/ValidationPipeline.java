@@ -0,0 +1,207 @@
+package pgn;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import model.BoardType;
+
+/**
+ * Validates the games of a {@link PgnReader} on several threads. The calling thread reads games
+ * and hands them out in batches to a fixed pool of workers, each replaying with its own
+ * {@link GameReplayer} (and so its own board and controller); the results go to an output
+ * callback, in file order or as soon as they are ready.
+ * <p>
+ * At most {@code capacity} batches are in flight between the reader and the output. When the
+ * workers (or, in file order, the output of one slow batch) fall behind, the reader waits, so
+ * memory stays bounded however large the file is. The time the reader spends waiting and the
+ * time the workers spend waiting for games are reported, to tell whether reading or replaying
+ * limits the throughput.
+ */
+public class ValidationPipeline {
+    /** Number of games handed to a worker at once, when not given. */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final Batch END = new Batch(-1, new ArrayList<>()); // Tells a worker to stop.
+
+    private final BoardType boardType;
+    private final int threads;
+    private final int capacity;
+    private final int batchSize;
+    private final boolean ordered;
+
+    /**
+     * Creates a pipeline on the standard board with results in file order, default batches and
+     * four batches in flight per thread.
+     * @param threads The number of worker threads, at least 1
+     */
+    public ValidationPipeline(int threads) {
+        this(BoardType.STANDARD, threads, 4 * threads, DEFAULT_BATCH_SIZE, true);
+    }
+
+    /**
+     * Creates a pipeline.
+     * @param boardType The board representation the workers replay on
+     * @param threads The number of worker threads, at least 1
+     * @param capacity The maximum number of batches read but not yet output, at least 1
+     * @param batchSize The number of games per batch, at least 1
+     * @param ordered true to output results in file order, false to output them as they are ready
+     */
+    public ValidationPipeline(BoardType boardType, int threads, int capacity, int batchSize, boolean ordered) {
+        if (threads < 1 || capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Threads, capacity and batch size must be at least 1.");
+        }
+        this.boardType = boardType;
+        this.threads = threads;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Reads every game of the reader, replays them on the workers and passes each result to the
+     * output. The output is called by one thread at a time, so it need not be thread-safe.
+     * @param reader The games to validate; it is read on the calling thread but not closed
+     * @param output Receives the result of every game
+     * @return The counts, the throughput and the waiting times of the run
+     * @throws IOException if the reader fails
+     * @throws IllegalStateException if a worker or the output fails, or the thread is interrupted
+     */
+    public PipelineReport run(PgnReader reader, Consumer<ReplayResult> output) throws IOException {
+        long start = System.nanoTime();
+        Run run = new Run(output);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                pool.execute(run::work);
+            }
+            long sequence = 0;
+            List<PgnGame> batch = new ArrayList<>(batchSize);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                batch.add(game);
+                if (batch.size() == batchSize) {
+                    run.submit(new Batch(sequence++, batch));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                run.submit(new Batch(sequence, batch));
+            }
+            for (int i = 0; i < threads; i++) {
+                run.queue.add(END);
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                run.checkFailure();
+            }
+            run.checkFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validation was interrupted.", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return new PipelineReport(run.stats, threads, System.nanoTime() - start,
+                run.readerWait.sum(), run.workerIdle.sum());
+    }
+
+    // State of one run, shared by the reader and the workers.
+    private final class Run {
+        private final Consumer<ReplayResult> output;
+        private final ValidationStats stats = new ValidationStats();
+        private final BlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+        private final Semaphore inFlight = new Semaphore(capacity);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final LongAdder readerWait = new LongAdder();
+        private final LongAdder workerIdle = new LongAdder();
+
+        // In file order, finished batches wait here until all the batches before them are output.
+        private final Map<Long, List<ReplayResult>> finished = new HashMap<>();
+        private long nextToOutput;
+
+        Run(Consumer<ReplayResult> output) {
+            this.output = output;
+        }
+
+        // Called by the reader: waits for room (back-pressure), then queues the batch.
+        void submit(Batch batch) throws InterruptedException {
+            long start = System.nanoTime();
+            while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+            readerWait.add(System.nanoTime() - start);
+            queue.add(batch);
+        }
+
+        void work() {
+            try {
+                GameReplayer replayer = new GameReplayer(boardType);
+                while (true) {
+                    long start = System.nanoTime();
+                    Batch batch = queue.take();
+                    workerIdle.add(System.nanoTime() - start);
+                    if (batch == END) {
+                        return;
+                    }
+                    List<ReplayResult> results = new ArrayList<>(batch.games.size());
+                    for (PgnGame game : batch.games) {
+                        ReplayResult result = replayer.replay(game);
+                        stats.record(result);
+                        results.add(result);
+                    }
+                    deliver(batch.sequence, results);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // The pool is being shut down after a failure.
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        // Outputs a finished batch, in file order or at once, and makes room for the reader.
+        private synchronized void deliver(long sequence, List<ReplayResult> results) {
+            if (!ordered) {
+                results.forEach(output);
+                inFlight.release();
+                return;
+            }
+            finished.put(sequence, results);
+            List<ReplayResult> next;
+            while ((next = finished.remove(nextToOutput)) != null) {
+                next.forEach(output);
+                nextToOutput++;
+                inFlight.release();
+            }
+        }
+
+        void checkFailure() {
+            Throwable t = failure.get();
+            if (t != null) {
+                throw new IllegalStateException("Validation worker failed.", t);
+            }
+        }
+    }
+
+    // Games handed to a worker at once, with their position in the file.
+    private static final class Batch {
+        final long sequence;
+        final List<PgnGame> games;
+
+        Batch(long sequence, List<PgnGame> games) {
+            this.sequence = sequence;
+            this.games = games;
+        }
+    }
+}
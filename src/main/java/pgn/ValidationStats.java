@@ -0,0 +1,89 @@
+package pgn;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a validation run: games and plies replayed and the number of games ending with
+ * each {@link ReplayResult.Status}. The counters are {@link LongAdder}s, so threads replaying
+ * games in parallel can record their results without contending on a lock.
+ */
+public class ValidationStats {
+    private final LongAdder games = new LongAdder();
+    private final LongAdder plies = new LongAdder();
+    private final LongAdder[] statuses = new LongAdder[ReplayResult.Status.values().length];
+
+    /**
+     * Creates counters at zero.
+     */
+    public ValidationStats() {
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts the result of one game.
+     * @param result The result of replaying the game
+     */
+    public void record(ReplayResult result) {
+        games.increment();
+        plies.add(result.getPlies());
+        statuses[result.getStatus().ordinal()].increment();
+    }
+
+    /**
+     * Returns the number of games recorded.
+     * @return The game count
+     */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * Returns the number of moves played over all games.
+     * @return The ply count
+     */
+    public long getPlies() {
+        return plies.sum();
+    }
+
+    /**
+     * Returns the number of games that ended with the given status.
+     * @param status The status
+     * @return The game count for the status
+     */
+    public long getCount(ReplayResult.Status status) {
+        return statuses[status.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of games stopped by an illegal move.
+     * @return The count of {@link ReplayResult.Status#ILLEGAL_MOVE} games
+     */
+    public long getIllegalMoves() {
+        return getCount(ReplayResult.Status.ILLEGAL_MOVE);
+    }
+
+    /**
+     * Returns the throughput of a run that took the given time.
+     * @param elapsedNanos The duration of the run
+     * @return The games replayed per second
+     */
+    public double getGamesPerSecond(long elapsedNanos) {
+        return getGames() * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Formats the counters and the throughput of a run on one line.
+     * @param elapsedNanos The duration of the run
+     * @return A summary such as "1,000 games (990 valid, 2 illegal, ...) in 1.2 s, 833 games/s, ..."
+     */
+    public String summary(long elapsedNanos) {
+        long nanos = Math.max(1, elapsedNanos);
+        return String.format("%,d games (%,d valid, %,d illegal, %,d unsupported, %,d invalid position), "
+                + "%,d plies in %,.1f s: %,.0f games/s, %,.0f plies/s",
+                getGames(), getCount(ReplayResult.Status.VALID), getIllegalMoves(),
+                getCount(ReplayResult.Status.UNSUPPORTED_MOVE), getCount(ReplayResult.Status.INVALID_POSITION),
+                getPlies(), nanos / 1e9, getGamesPerSecond(nanos), getPlies() * 1e9 / nanos);
+    }
+}
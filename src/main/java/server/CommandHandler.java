@@ -0,0 +1,151 @@
+package server;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import controller.GameSession;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+
+/**
+ * The line protocol of {@link GameServer}: every request is one line, answered by one line that
+ * starts with "OK" followed by the result, or with "ERR" followed by a message. Keywords are not
+ * case-sensitive and moves use coordinate notation ("e2e4", see {@link Move#parse}).
+ * <pre>
+ * NEW [fen]            OK &lt;id&gt;
+ * MOVE &lt;id&gt; &lt;move&gt;     OK &lt;ACCEPTED|ILLEGAL|NOT_YOUR_TURN|GAME_OVER&gt; &lt;status&gt;
+ * PLAY &lt;id&gt; [depth]    OK &lt;move|none&gt; &lt;status&gt;          (the engine moves for the side to move)
+ * STATE &lt;id&gt;           OK &lt;status&gt; &lt;w|b&gt; &lt;plies&gt; &lt;fen&gt;
+ * MOVES &lt;id&gt;           OK &lt;move&gt; &lt;move&gt; ...             (legal moves of the side to move)
+ * CLOSE &lt;id&gt;           OK
+ * STATS                OK games=&lt;count&gt;
+ * QUIT                 OK bye                             (the server then closes the connection)
+ * </pre>
+ * The status is a {@link GameSession.Status} name. MOVE only moves pieces of the side to move;
+ * a move of the other side's piece answers NOT_YOUR_TURN and changes nothing. When the registry
+ * journals its games, MOVE and PLAY reply only once the game's moves are on disk
+ * ({@link SessionRegistry#awaitDurable}); the wait happens outside the game's lock, so the moves
+ * of concurrent requests are forced to disk together. The handler does
+ * no I/O and can be used from several threads at once; each game is locked while a request runs
+ * on it.
+ */
+public class CommandHandler {
+    /** Reply to QUIT. */
+    public static final String BYE = "OK bye";
+    /** Depth of PLAY when none is given. */
+    public static final int DEFAULT_PLAY_DEPTH = 4;
+    /** Deepest search PLAY accepts, so one request cannot hold a worker for long. */
+    public static final int MAX_PLAY_DEPTH = 8;
+
+    private final SessionRegistry registry;
+    private final TranspositionTable table;
+
+    /**
+     * Creates a handler.
+     * @param registry The hosted games
+     * @param table The transposition table shared by every engine move
+     */
+    public CommandHandler(SessionRegistry registry, TranspositionTable table) {
+        this.registry = registry;
+        this.table = table;
+    }
+
+    /**
+     * Answers one request.
+     * @param line The request, without its line terminator
+     * @return The reply, without a line terminator
+     */
+    public String handle(String line) {
+        String[] words = line.trim().split("\\s+", 3);
+        String command = words[0].toUpperCase();
+        try {
+            switch (command) {
+                case "NEW":
+                    return "OK " + (words.length > 1 ? registry.create(line.trim().substring(3).trim()) : registry.create());
+                case "MOVE":
+                    require(words, 3);
+                    int move = Move.parse(words[2].trim());
+                    return durably(id(words), session -> {
+                        GameSession.MoveResult result = session.submitMove(move);
+                        return "OK " + result + " " + session.getStatus();
+                    });
+                case "PLAY":
+                    require(words, 2);
+                    int depth = words.length > 2 ? Integer.parseInt(words[2].trim()) : DEFAULT_PLAY_DEPTH;
+                    if (depth < 1 || depth > MAX_PLAY_DEPTH) {
+                        return "ERR Depth must be between 1 and " + MAX_PLAY_DEPTH + ".";
+                    }
+                    return durably(id(words), session -> {
+                        int played = session.playComputerMove(SearchLimits.depth(depth), table);
+                        return "OK " + (played == Move.NONE ? "none" : Move.toString(played)) + " " + session.getStatus();
+                    });
+                case "STATE":
+                    require(words, 2);
+                    return registry.apply(id(words), session -> "OK " + session.getStatus() + " "
+                            + (session.getSideToMove() == Color.WHITE ? "w" : "b") + " "
+                            + session.getPlyCount() + " " + session.getFen());
+                case "MOVES":
+                    require(words, 2);
+                    return registry.apply(id(words), CommandHandler::legalMoves);
+                case "CLOSE":
+                    require(words, 2);
+                    long closed = id(words);
+                    return registry.remove(closed) ? "OK" : "ERR No game " + closed + ".";
+                case "STATS":
+                    return "OK games=" + registry.size();
+                case "QUIT":
+                    return BYE;
+                default:
+                    return "ERR Unknown command: " + words[0];
+            }
+        } catch (NumberFormatException e) {
+            return "ERR Not a number: " + e.getMessage();
+        } catch (NoSuchElementException | IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    /**
+     * Returns whether a request asks to close the connection.
+     * @param line The request
+     * @return true for QUIT
+     */
+    public static boolean isQuit(String line) {
+        return line.trim().equalsIgnoreCase("QUIT");
+    }
+
+    // Runs an action that may play a move, then waits until the game's journal is on disk.
+    private String durably(long id, Function<GameSession, String> action) {
+        long[] sequence = new long[1];
+        String reply = registry.apply(id, session -> {
+            String result = action.apply(session);
+            sequence[0] = session.getJournalSequence();
+            return result;
+        });
+        registry.awaitDurable(sequence[0]);
+        return reply;
+    }
+
+    private static String legalMoves(GameSession session) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = session.getLegalMoves(moves);
+        StringBuilder reply = new StringBuilder("OK");
+        for (int i = 0; i < count; i++) {
+            reply.append(' ').append(Move.toString(moves[i]));
+        }
+        return reply.toString();
+    }
+
+    private static long id(String[] words) {
+        return Long.parseLong(words[1]);
+    }
+
+    private static void require(String[] words, int count) {
+        if (words.length < count) {
+            throw new IllegalArgumentException("Missing argument for " + words[0].toUpperCase() + ".");
+        }
+    }
+}
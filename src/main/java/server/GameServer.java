@@ -0,0 +1,351 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP server hosting the games of a {@link SessionRegistry} with the line protocol of
+ * {@link CommandHandler}.
+ * <p>
+ * One thread runs a selector loop that accepts connections and does all socket reads and
+ * writes without blocking; requests are answered on a small pool of worker threads. A
+ * connection therefore costs a channel and a small buffer rather than a thread, and a game
+ * costs only its session in the registry, so tens of thousands of mostly idle games and
+ * connections fit in one JVM. Each connection has at most one request in progress, so its
+ * replies come in request order; while it waits, the selector stops reading from it.
+ * <p>
+ * Games can be shared between connections: the registry locks a game while a request runs on it.
+ */
+public class GameServer implements Closeable {
+    /** Longest request line accepted; longer lines close the connection. */
+    public static final int MAX_LINE_LENGTH = 512;
+
+    private final SessionRegistry registry;
+    private final CommandHandler handler;
+    private final ExecutorService workers;
+    private final long idleTimeoutNanos;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread loop;
+    private volatile boolean running;
+
+    // Replies computed by the workers, handed to the selector thread.
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /**
+     * Creates a server.
+     * @param registry The hosted games
+     * @param handler The protocol handler answering requests
+     * @param workerThreads The number of threads answering requests
+     * @param idleTimeoutMillis Games unused for this long are removed; 0 keeps them until closed
+     */
+    public GameServer(SessionRegistry registry, CommandHandler handler, int workerThreads, long idleTimeoutMillis) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("At least one worker thread is needed.");
+        }
+        this.registry = registry;
+        this.handler = handler;
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "game-server-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
+    /**
+     * Binds the server and starts the selector loop on its own thread.
+     * @param address The address to listen on; port 0 picks a free port (see {@link #getPort()})
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void start(InetSocketAddress address) throws IOException {
+        if (running) {
+            throw new IllegalStateException("The server is already running.");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        loop = new Thread(this::run, "game-server-selector");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return The local port
+     * @throws IOException if the port cannot be read
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Returns the number of open connections.
+     * @return The connection count
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Returns the games hosted by this server.
+     * @return The registry
+     */
+    public SessionRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and stops the threads. Games stay in the registry.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    private void run() {
+        long nextEviction = System.nanoTime() + idleTimeoutNanos;
+        try {
+            while (running) {
+                selector.select(1000);
+                Runnable completion;
+                while ((completion = completions.poll()) != null) {
+                    completion.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.write();
+                            }
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() instanceof Connection) {
+                            ((Connection) key.attachment()).close(); // The client went away.
+                        }
+                    }
+                }
+                if (idleTimeoutNanos > 0 && System.nanoTime() - nextEviction > 0) {
+                    registry.evictIdle(idleTimeoutNanos);
+                    nextEviction = System.nanoTime() + Math.min(idleTimeoutNanos, TimeUnit.MINUTES.toNanos(1));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Selector failed.", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                // Nothing more can be done while shutting down.
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.incrementAndGet();
+        }
+    }
+
+    // State of one client connection; used by the selector thread only.
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+        private final Queue<ByteBuffer> output = new ArrayDeque<>(2);
+        private SelectionKey key;
+        private boolean busy; // A request is being answered by a worker.
+        private boolean endOfInput; // The client will send nothing more; its buffered lines are still answered.
+        private boolean closing; // Close once the pending replies are written.
+        private boolean closed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                endOfInput = true; // The client may only have shut down its sending side: answer what it sent.
+            }
+            dispatch();
+        }
+
+        // Hands the next complete line to a worker, unless one is already being answered.
+        void dispatch() {
+            if (busy || closing) {
+                updateInterest();
+                return;
+            }
+            String line = nextLine();
+            if (line == null && endOfInput && input.position() > 0) {
+                line = lastLine();
+            }
+            if (line == null) {
+                if (endOfInput) {
+                    closing = true; // Closed by write() once the replies are out.
+                } else if (!input.hasRemaining()) {
+                    reply("ERR Line too long.");
+                    closing = true;
+                }
+                updateInterest();
+                return;
+            }
+            busy = true;
+            String request = line;
+            try {
+                workers.execute(() -> {
+                    String reply;
+                    try {
+                        reply = handler.handle(request);
+                    } catch (RuntimeException e) {
+                        reply = "ERR " + e;
+                    }
+                    String answer = reply;
+                    completions.add(() -> answered(request, answer));
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                close(); // The server is shutting down.
+                return;
+            }
+            updateInterest();
+        }
+
+        // Called on the selector thread when the worker has answered.
+        void answered(String line, String reply) {
+            if (closed) {
+                return;
+            }
+            busy = false;
+            reply(reply);
+            if (CommandHandler.isQuit(line)) {
+                closing = true;
+            }
+            dispatch();
+        }
+
+        // Removes the first line from the input buffer; returns null if no line is complete.
+        private String nextLine() {
+            for (int i = 0; i < input.position(); i++) {
+                if (input.get(i) == '\n') {
+                    int end = i > 0 && input.get(i - 1) == '\r' ? i - 1 : i;
+                    String line = new String(input.array(), 0, end, StandardCharsets.US_ASCII);
+                    input.flip();
+                    input.position(i + 1);
+                    input.compact();
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        // Removes the unterminated text left at the end of the input.
+        private String lastLine() {
+            int end = input.position();
+            String line = new String(input.array(), 0, end, StandardCharsets.US_ASCII);
+            input.clear();
+            return line.endsWith("\r") ? line.substring(0, end - 1) : line;
+        }
+
+        private void reply(String text) {
+            output.add(ByteBuffer.wrap((text + "\n").getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        void write() throws IOException {
+            while (!output.isEmpty()) {
+                ByteBuffer buffer = output.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    break; // The socket is full; the selector says when to go on.
+                }
+                output.poll();
+            }
+            if (output.isEmpty() && closing && !busy) {
+                close();
+                return;
+            }
+            updateInterest();
+        }
+
+        // Reads only when a request can be taken and writes only when a reply is pending.
+        private void updateInterest() {
+            if (closed || !key.isValid()) {
+                return;
+            }
+            int ops = 0;
+            if (!busy && !closing && !endOfInput) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (!output.isEmpty() || closing) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(ops);
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connections.decrementAndGet();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // The connection is being dropped anyway.
+            }
+        }
+    }
+}
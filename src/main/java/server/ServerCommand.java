@@ -0,0 +1,54 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+
+import engine.TranspositionTable;
+import journal.MoveJournal;
+import model.BoardType;
+
+/**
+ * Command line launcher of a {@link GameServer} on the loopback interface.
+ * <p>
+ * Usage: {@code ServerCommand [port] [threads] [tableMB] [idleMinutes] [journalDir]}
+ * <ul>
+ * <li>port: the port to listen on (default 7878, 0 for any free port)</li>
+ * <li>threads: worker threads answering requests (default: available processors)</li>
+ * <li>tableMB: size of the transposition table shared by all games (default 64)</li>
+ * <li>idleMinutes: games unused for this long are removed (default 30, 0 never)</li>
+ * <li>journalDir: directory of a {@link MoveJournal} recording every move; moves are answered once
+ * they are on disk (default: none, moves are not recorded)</li>
+ * </ul>
+ * The protocol is described in {@link CommandHandler}; try it with {@code nc localhost 7878}.
+ */
+public final class ServerCommand {
+
+    private ServerCommand() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7878;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int tableMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        long idleMinutes = args.length > 3 ? Long.parseLong(args[3]) : 30;
+        MoveJournal journal = args.length > 4 ? new MoveJournal(Paths.get(args[4])) : null;
+
+        SessionRegistry registry = new SessionRegistry(BoardType.COMPACT, journal);
+        CommandHandler handler = new CommandHandler(registry, new TranspositionTable(tableMegabytes));
+        GameServer server = new GameServer(registry, handler, threads, idleMinutes * 60_000);
+        server.start(new InetSocketAddress("127.0.0.1", port));
+        System.out.println("Serving games on port " + server.getPort() + " with " + threads + " worker threads.");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                // Exiting anyway.
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,190 @@
+package server;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import controller.GameSession;
+import journal.JournalReader;
+import journal.MoveJournal;
+import model.BoardType;
+import model.Fen;
+
+/**
+ * The games hosted by a server, by id. Sessions are created, used and removed from any thread:
+ * the map is concurrent and every session has its own lock, held while an action runs on it, so
+ * two connections playing in the same game are serialized while different games run in parallel.
+ * <p>
+ * Sessions are kept until they are removed or have been idle longer than a given time
+ * ({@link #evictIdle}); they hold no thread or connection of their own.
+ */
+public class SessionRegistry {
+    private final ConcurrentHashMap<Long, Entry> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId;
+    private final BoardType boardType;
+    private final MoveJournal journal;
+
+    /**
+     * Creates a registry whose games use the compact board, the representation with the smallest footprint.
+     */
+    public SessionRegistry() {
+        this(BoardType.COMPACT);
+    }
+
+    /**
+     * Creates a registry.
+     * @param boardType The board representation of the games created
+     */
+    public SessionRegistry(BoardType boardType) {
+        this.boardType = boardType;
+        this.journal = null;
+        this.nextId = new AtomicLong(1);
+    }
+
+    /**
+     * Creates a registry whose games record their moves in a journal, under their registry id.
+     * The ids continue after the highest game id already in the journal, so games of an earlier
+     * run are never given the id of a new game, whose first snapshot would replace them on recovery.
+     * @param boardType The board representation of the games created
+     * @param journal The journal, or null to record nothing
+     * @throws IOException if the journal cannot be read
+     */
+    public SessionRegistry(BoardType boardType, MoveJournal journal) throws IOException {
+        this.boardType = boardType;
+        this.journal = journal;
+        this.nextId = new AtomicLong(journal == null ? 1 : highestGameId(journal) + 1);
+    }
+
+    // Reads the whole journal once, before any game of this registry is recorded.
+    private static long highestGameId(MoveJournal journal) throws IOException {
+        long highest = 0;
+        try (JournalReader reader = new JournalReader(journal.getDirectory())) {
+            while (reader.next()) {
+                highest = Math.max(highest, reader.getGameId());
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Creates a game from the starting position.
+     * @return The id of the new game
+     */
+    public long create() {
+        return create(Fen.START);
+    }
+
+    /**
+     * Creates a game from a position.
+     * @param fen The starting position and side to move
+     * @return The id of the new game
+     * @throws IllegalArgumentException if the position is not valid FEN
+     */
+    public long create(CharSequence fen) {
+        GameSession session = new GameSession(boardType, fen);
+        long id = nextId.getAndIncrement();
+        if (journal != null) {
+            session.setJournal(journal, id);
+        }
+        sessions.put(id, new Entry(session));
+        return id;
+    }
+
+    /**
+     * Runs an action on a game while holding the game's lock.
+     * @param id The id of the game
+     * @param action The action, given the session
+     * @param <T> The type of the action's result
+     * @return The result of the action
+     * @throws NoSuchElementException if there is no game with this id, or it is removed before
+     *         the action could start
+     */
+    public <T> T apply(long id, Function<GameSession, T> action) {
+        Entry entry = sessions.get(id);
+        if (entry == null) {
+            throw new NoSuchElementException("No game " + id + ".");
+        }
+        entry.lock.lock();
+        try {
+            if (sessions.get(id) != entry) {
+                // Removed or evicted while this thread waited for the lock.
+                throw new NoSuchElementException("No game " + id + ".");
+            }
+            entry.lastAccess = System.nanoTime();
+            return action.apply(entry.session);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a journal sequence number of one of the games is on disk. Call it without
+     * holding the game's lock, so the moves of other games can join the same write.
+     * @param sequence The sequence number, from {@link GameSession#getJournalSequence()}
+     * @throws IllegalStateException if a journal write failed
+     */
+    public void awaitDurable(long sequence) {
+        if (journal != null && sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Removes a game.
+     * @param id The id of the game
+     * @return true if the game existed
+     */
+    public boolean remove(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    /**
+     * Removes the games no action has used for longer than the given time.
+     * A game whose lock is held is in use and is kept; a game is only removed while this method
+     * holds its lock, so an action that has looked it up either runs first or finds it gone.
+     * @param maxIdleNanos The longest idle time kept
+     * @return The number of games removed
+     */
+    public int evictIdle(long maxIdleNanos) {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<Map.Entry<Long, Entry>> it = sessions.entrySet().iterator(); it.hasNext();) {
+            Entry entry = it.next().getValue();
+            if (now - entry.lastAccess > maxIdleNanos && entry.lock.tryLock()) {
+                try {
+                    if (now - entry.lastAccess > maxIdleNanos) { // Not used since the first check.
+                        it.remove();
+                        removed++;
+                    }
+                } finally {
+                    entry.lock.unlock();
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of games hosted.
+     * @return The game count
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    // A hosted game with its lock and the time it was last used.
+    private static final class Entry {
+        final GameSession session;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long lastAccess = System.nanoTime();
+
+        Entry(GameSession session) {
+            this.session = session;
+        }
+    }
+}
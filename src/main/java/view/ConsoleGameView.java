@@ -9,9 +9,9 @@ import java.util.Scanner;
 public class ConsoleGameView implements GameView {
     private Scanner scanner;
 
-    // Constructor initializes the scanner to capture user input.
+    // The scanner is created on the first call to getMoveInput, so a view that only displays
+    // (the controller reads moves itself in startGame) does not open a second reader on System.in.
     public ConsoleGameView() {
-        this.scanner = new Scanner(System.in);
     }
 
     /**
@@ -51,10 +51,14 @@ public class ConsoleGameView implements GameView {
 
     /**
      * Displays the game-over message and the winner.
-     * @param winner The player who won the game.
+     * @param winner The player who won the game, or null for a draw.
      */
     @Override
     public void displayGameOver(Player winner) {
+        if (winner == null) {
+            System.out.println("Game over. Draw by stalemate.");
+            return;
+        }
         System.out.println("Game over. Winner: " + winner.getColor());
     }
 
@@ -68,6 +72,9 @@ public class ConsoleGameView implements GameView {
     @Override
     public int[] getMoveInput() {
         System.out.println("Enter your move (format: startRow startColumn destRow destColumn):");
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
         String input = scanner.nextLine();
         String[] parts = input.split(" ");// Split the input string into parts
         
@@ -34,13 +34,13 @@ public class MockGameView implements GameView {
     /**
      * Simulates displaying the game-over message with the winner.
      * Sets the winner, updates the last message, and flags the game as over.
-     * @param winner The player who won the game.
+     * @param winner The player who won the game, or null for a draw.
      */
     @Override
     public void displayGameOver(Player winner) {
         this.winner = winner;
         gameOverDisplayed = true;
-        lastDisplayedMessage = "Game Over! Winner: " + winner.getColor();
+        lastDisplayedMessage = winner == null ? "Game Over! Draw" : "Game Over! Winner: " + winner.getColor();
     }
 
     /**
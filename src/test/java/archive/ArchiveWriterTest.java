@@ -0,0 +1,84 @@
+package archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Move;
+import model.PieceType;
+
+class ArchiveWriterTest {
+
+    @TempDir
+    Path directory;
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Game id: increasing, repeated, decreasing
+    	// - Plies: 0, many (longer than the write buffer), more than a game can hold, negative
+    	// - Result: known, unknown
+    	// - Start position: standard, FEN, too long
+    	// - Writer: open, closed
+
+    // Test that arguments that cannot be stored are refused and leave the archive valid
+    @Test
+    void testInvalidArguments() throws IOException {
+        Path file = directory.resolve("games.arc");
+        ArchiveWriter writer = new ArchiveWriter(file);
+        int[] moves = {Move.parse("e2e4")};
+        writer.add(5, "*", null, moves, 1);
+        assertThrows(IllegalArgumentException.class, () -> writer.add(5, "*", null, moves, 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(4, "*", null, moves, 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(6, "1-1", null, moves, 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(6, "*", null, moves, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.add(6, "*", null, new int[GameArchive.MAX_PLIES + 1], GameArchive.MAX_PLIES + 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(6, "*", "8/".repeat(200), moves, 1));
+        writer.close();
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.add(7, "*", null, moves, 1));
+
+        try (GameArchive archive = new GameArchive(file)) {
+            assertEquals(1, archive.getGameCount());
+            assertEquals(5, archive.getGameId(0));
+        }
+    }
+
+    // **White Box Tests**
+
+    // Test many games and a game longer than the write buffer, so the buffer is written out several times
+    @Test
+    void testLargeArchive() throws IOException {
+        Path file = directory.resolve("large.arc");
+        int[] moves = new int[GameArchive.MAX_PLIES];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = Move.encode(ply % 64, (ply * 7 + 1) % 64, ply % 5 == 0 ? PieceType.ROOK : null);
+        }
+        int games = 20_000;
+        try (ArchiveWriter writer = new ArchiveWriter(file)) {
+            for (int i = 0; i < games; i++) {
+                writer.add(2L * i, "*", null, moves, i % 50);
+            }
+            writer.add(2L * games, "1-0", null, moves, GameArchive.MAX_PLIES);
+        }
+        try (GameArchive archive = new GameArchive(file)) {
+            assertEquals(games + 1, archive.getGameCount());
+            for (int i = 0; i < games; i += 997) {
+                int index = archive.find(2L * i);
+                assertEquals(i, index);
+                assertEquals(-1, archive.find(2L * i + 1));
+                assertEquals(i % 50, archive.getPlyCount(index));
+                if (i % 50 > 0) {
+                    assertEquals(moves[i % 50 - 1], archive.getMove(index, i % 50 - 1));
+                }
+            }
+            int[] read = new int[GameArchive.MAX_PLIES];
+            assertEquals(GameArchive.MAX_PLIES, archive.getMoves(games, read));
+            assertArrayEquals(moves, read);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import controller.GameController;
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.Move;
+
+class GameArchiveTest {
+
+    private static final String ENDGAME = "4k3/8/8/8/8/8/8/4K2R b - - 0 1";
+
+    @TempDir
+    Path directory;
+
+    private static int[] moves(String... moves) {
+        int[] packed = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            packed[i] = Move.parse(moves[i]);
+        }
+        return packed;
+    }
+
+    private Path write() throws IOException {
+        Path file = directory.resolve("games.arc");
+        try (ArchiveWriter writer = new ArchiveWriter(file)) {
+            writer.add(3, "1-0", null, moves("f2f3", "e7e5", "g2g4", "d8h4"), 4);
+            writer.add(10, "*", ENDGAME, moves("e8d7", "h1h7"), 2);
+            writer.add(11, "1/2-1/2", Fen.START, new int[0], 0);
+            writer.add(Long.MAX_VALUE, "0-1", null, moves("e2e4", "e7e5", "g1f3"), 2);
+            assertEquals(4, writer.getGameCount());
+        }
+        return file;
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Game id: first, middle, last, missing (below, between, above the ids)
+    	// - Start: standard position, FEN position
+    	// - Moves: none, some; fewer stored than given
+    	// - Result: each of the four
+    	// - File: valid, not an archive, truncated
+
+    // Test that games are found by id and read back with their fields
+    @Test
+    void testReadBack() throws IOException {
+        try (GameArchive archive = new GameArchive(write())) {
+            assertEquals(4, archive.getGameCount());
+            assertEquals(0, archive.find(3));
+            assertEquals(1, archive.find(10));
+            assertEquals(3, archive.find(Long.MAX_VALUE));
+            for (long missing : new long[] {0, 4, 12, Long.MIN_VALUE}) {
+                assertEquals(-1, archive.find(missing));
+            }
+
+            assertEquals(3, archive.getGameId(0));
+            assertEquals(4, archive.getPlyCount(0));
+            assertEquals("1-0", archive.getResult(0));
+            assertEquals(Fen.START, archive.getStartFen(0));
+            assertEquals(Move.parse("d8h4"), archive.getMove(0, 3));
+
+            assertEquals(ENDGAME, archive.getStartFen(1));
+            assertEquals("*", archive.getResult(1));
+            int[] read = new int[GameArchive.MAX_PLIES];
+            assertEquals(2, archive.getMoves(1, read));
+            assertEquals(Move.parse("h1h7"), read[1]);
+
+            assertEquals("1/2-1/2", archive.getResult(2));
+            assertEquals(0, archive.getPlyCount(2));
+            assertEquals("0-1", archive.getResult(3));
+            assertEquals(2, archive.getPlyCount(3));
+
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.getMove(0, 4));
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.getGameId(4));
+        }
+    }
+
+    // Test that replaying an archived game gives the position the game reached
+    @Test
+    void testReplay() throws IOException {
+        try (GameArchive archive = new GameArchive(write())) {
+            for (BoardType type : BoardType.values()) {
+                Board board = type.createBoard();
+                assertEquals(Color.WHITE, archive.replay(0, board));
+                GameController game = new GameController(null, type);
+                for (String move : new String[] {"f2f3", "e7e5", "g2g4", "d8h4"}) {
+                    game.makeMove(Move.parse(move));
+                }
+                assertEquals(game.toFen(), board.toFen(Color.WHITE));
+
+                assertEquals(Color.BLACK, archive.replay(1, board));
+                assertEquals("8/3k3R/8/8/8/8/8/4K3 b - - 0 1", board.toFen(Color.BLACK));
+            }
+        }
+    }
+
+    // Test that files that are not complete archives are refused
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path text = directory.resolve("text.arc");
+        Files.write(text, "[Event \"Not an archive\"]\n1. e4 e5 *\n".getBytes());
+        assertThrows(IOException.class, () -> new GameArchive(text));
+
+        Path file = write();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> new GameArchive(file));
+
+        try (FileChannel channel = FileChannel.open(write(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 9}), 8);
+        }
+        IOException version = assertThrows(IOException.class, () -> new GameArchive(file));
+        assertTrue(version.getMessage().contains("unsupported version 9"));
+    }
+
+    // **White Box Tests**
+
+    // Test an archive with no games
+    @Test
+    void testEmpty() throws IOException {
+        Path file = directory.resolve("empty.arc");
+        new ArchiveWriter(file).close();
+        try (GameArchive archive = new GameArchive(file)) {
+            assertEquals(0, archive.getGameCount());
+            assertEquals(-1, archive.find(1));
+            assertEquals(32, archive.getSize());
+        }
+    }
+}
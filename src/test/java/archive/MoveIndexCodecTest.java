@@ -0,0 +1,122 @@
+package archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import controller.GameController;
+import model.BoardType;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+
+class MoveIndexCodecTest {
+
+    private static final String ENDGAME = "4k3/8/8/8/8/8/8/4K2R b - - 0 1";
+
+    private static int[] moves(String... moves) {
+        int[] packed = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            packed[i] = Move.parse(moves[i]);
+        }
+        return packed;
+    }
+
+    // A random game of the given length, played through the controller.
+    private static int[] randomGame(long seed, int plies) {
+        Random random = new Random(seed);
+        GameController game = new GameController(null, BoardType.BITBOARD);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[plies];
+        int length = 0;
+        while (length < plies && !game.checkGameOver()) {
+            int count = game.getLegalMoves(legal);
+            moves[length] = legal[random.nextInt(count)];
+            game.makeMove(moves[length++]);
+        }
+        return Arrays.copyOf(moves, length);
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Start: standard position (null), FEN position
+    	// - Moves: none, in the move list, not in the move list (escaped), not playable
+    	// - Board type: each one
+    	// - Data: complete, truncated
+
+    // Test that games decode to the moves they were coded from, on every board type
+    @Test
+    void testRoundTrip() {
+        int[] decoded = new int[200];
+        for (long seed = 0; seed < 20; seed++) {
+            int[] moves = randomGame(seed, 200);
+            byte[] reference = null;
+            for (BoardType type : BoardType.values()) {
+                MoveIndexCodec codec = new MoveIndexCodec(type);
+                byte[] coded = codec.encode(null, moves, moves.length);
+                if (reference == null) {
+                    reference = coded;
+                }
+                assertArrayEquals(reference, coded, "The code should not depend on the board.");
+                assertTrue(coded.length <= moves.length, "A move should take less than a byte.");
+                codec.decode(null, coded, moves.length, decoded);
+                assertArrayEquals(moves, Arrays.copyOf(decoded, moves.length));
+            }
+        }
+    }
+
+    // Test a game from a FEN position and the side to move after it
+    @Test
+    void testFen() {
+        MoveIndexCodec codec = new MoveIndexCodec(BoardType.BITBOARD);
+        int[] moves = moves("e8d7", "h1h7", "d7c6");
+        byte[] coded = codec.encode(ENDGAME, moves, moves.length);
+        int[] decoded = new int[3];
+        assertEquals(Color.WHITE, codec.decode(ENDGAME, coded, 3, decoded));
+        assertArrayEquals(moves, decoded);
+        assertEquals(Color.BLACK, codec.decode(ENDGAME, coded, 0, decoded));
+    }
+
+    // Test that a move the generator does not give is stored whole after an escape
+    @Test
+    void testEscape() {
+        MoveIndexCodec codec = new MoveIndexCodec(BoardType.STANDARD);
+        // Black moves first: the board accepts it, White's move list does not have it. Black is then to move.
+        int[] moves = moves("e7e5", "d7d5");
+        byte[] coded = codec.encode(null, moves, 2);
+        int[] decoded = new int[2];
+        codec.decode(null, coded, 2, decoded);
+        assertArrayEquals(moves, decoded);
+        assertEquals(4, coded.length, "The escape, its 15-bit move and an index fit in 4 bytes.");
+    }
+
+    // Test that moves that cannot be played and data that is too short are reported
+    @Test
+    void testInvalid() {
+        MoveIndexCodec codec = new MoveIndexCodec(BoardType.COMPACT);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(null, moves("e2e5"), 1));
+
+        int[] moves = randomGame(1, 40);
+        byte[] coded = codec.encode(null, moves, moves.length);
+        assertThrows(IllegalStateException.class,
+                () -> codec.decode(null, Arrays.copyOf(coded, coded.length / 2), moves.length, new int[40]));
+    }
+
+    // **White Box Tests**
+
+    // Test the symbol lengths: the 20 moves of the start position and the escape make 21 symbols,
+    // coded in 4 bits for the first 11 and 5 for the others
+    @Test
+    void testSymbolLengths() {
+        MoveIndexCodec codec = new MoveIndexCodec(BoardType.BITBOARD);
+        assertEquals(0, codec.encode(null, new int[0], 0).length);
+        // Sorted by packed value, b1a3 (the smallest origin square) comes first and h2h4 last.
+        assertArrayEquals(new byte[] {0}, codec.encode(null, moves("b1a3"), 1));
+        byte[] last = codec.encode(null, moves("h2h4"), 1);
+        assertEquals(1, last.length);
+        assertEquals((byte) (0b11110 << 3), last[0]); // Index 19, the escape being 0b11111.
+    }
+}
@@ -0,0 +1,79 @@
+package archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import controller.GameController;
+import model.BoardType;
+import model.Move;
+import model.MoveGenerator;
+
+class PositionIndexBuilderTest {
+
+    @TempDir
+    Path directory;
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Threads: none, one, more than one, more than the chunks of games
+    	// - Games: playable, with a move the board refuses
+
+    // Test that the index does not depend on the number of threads or the board
+    @Test
+    void testThreads() throws IOException {
+        Path archiveFile = directory.resolve("games.arc");
+        Random random = new Random(5);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[40];
+        try (ArchiveWriter writer = new ArchiveWriter(archiveFile)) {
+            // More games than one chunk, so the threads share them.
+            for (int id = 0; id < PositionIndexBuilder.CHUNK_SIZE * 3 + 7; id++) {
+                GameController game = new GameController(null, BoardType.BITBOARD);
+                int plies = 0;
+                while (plies < moves.length && !game.checkGameOver()) {
+                    moves[plies] = legal[random.nextInt(game.getLegalMoves(legal))];
+                    game.makeMove(moves[plies++]);
+                }
+                writer.add(id, "*", null, moves, plies);
+            }
+        }
+        byte[] reference = null;
+        try (GameArchive archive = new GameArchive(archiveFile)) {
+            for (int threads : new int[] {1, 2, 8}) {
+                for (BoardType type : BoardType.values()) {
+                    Path file = directory.resolve(threads + "-" + type + ".idx");
+                    new PositionIndexBuilder(type, threads).build(archive, file);
+                    byte[] bytes = Files.readAllBytes(file);
+                    if (reference == null) {
+                        reference = bytes;
+                    }
+                    assertArrayEquals(reference, bytes, threads + " threads, " + type);
+                }
+            }
+        }
+    }
+
+    // Test that invalid arguments and games that cannot be replayed are reported
+    @Test
+    void testInvalid() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new PositionIndexBuilder(BoardType.STANDARD, 0));
+
+        Path archiveFile = directory.resolve("bad.arc");
+        try (ArchiveWriter writer = new ArchiveWriter(archiveFile)) {
+            writer.add(1, "*", null, new int[] {Move.parse("e2e4")}, 1);
+            writer.add(2, "*", null, new int[] {Move.parse("e2e5")}, 1);
+        }
+        try (GameArchive archive = new GameArchive(archiveFile)) {
+            IllegalStateException failure = assertThrows(IllegalStateException.class,
+                    () -> new PositionIndexBuilder(BoardType.STANDARD, 2).build(archive, directory.resolve("bad.idx")));
+            assertTrue(failure.getCause().getMessage().contains("game 2"));
+        }
+    }
+}
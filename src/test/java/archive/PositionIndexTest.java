@@ -0,0 +1,182 @@
+package archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import controller.GameController;
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+import model.Zobrist;
+
+class PositionIndexTest {
+
+    private static final String ENDGAME = "4k3/8/8/8/8/8/8/4K2R b - - 0 1";
+
+    @TempDir
+    Path directory;
+
+    // Writes random games, a game from a FEN position and a game that repeats its positions,
+    // and records which games reach each position.
+    private Path archive(Map<Long, TreeSet<Long>> expected) throws IOException {
+        Path file = directory.resolve("games.arc");
+        Random random = new Random(3);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[60];
+        try (ArchiveWriter writer = new ArchiveWriter(file)) {
+            for (long id = 10; id < 400; id += 3) {
+                GameController game = new GameController(null, BoardType.BITBOARD);
+                record(expected, game.getBoard(), Color.WHITE, id);
+                int plies = 0;
+                while (plies < 10 + id % 50 && !game.checkGameOver()) {
+                    int count = game.getLegalMoves(legal);
+                    moves[plies] = legal[random.nextInt(count)];
+                    game.makeMove(moves[plies++]);
+                    record(expected, game.getBoard(), game.getActualTurn().getColor(), id);
+                }
+                writer.add(id, "*", null, moves, plies);
+            }
+
+            Board board = BoardType.BITBOARD.createBoard();
+            board.loadFen(ENDGAME);
+            record(expected, board, Color.BLACK, 1000);
+            writer.add(1000, "*", ENDGAME, new int[0], 0);
+
+            String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6"};
+            board = BoardType.BITBOARD.createBoard();
+            Color side = Color.WHITE;
+            record(expected, board, side, 1001);
+            for (int ply = 0; ply < shuffle.length; ply++) {
+                moves[ply] = Move.parse(shuffle[ply]);
+                board.makeMove(moves[ply]);
+                side = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+                record(expected, board, side, 1001);
+            }
+            writer.add(1001, "1/2-1/2", null, moves, shuffle.length);
+        }
+        return file;
+    }
+
+    private static void record(Map<Long, TreeSet<Long>> expected, Board board, Color side, long id) {
+        expected.computeIfAbsent(Zobrist.key(board, side), key -> new TreeSet<>()).add(id);
+    }
+
+    private Path index(Path archiveFile, int threads) throws IOException {
+        Path file = directory.resolve("games-" + threads + ".idx");
+        try (GameArchive archive = new GameArchive(archiveFile)) {
+            new PositionIndexBuilder(BoardType.COMPACT, threads).build(archive, file);
+        }
+        return file;
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Position: reached by one game, by many games, by every game, reached twice by one game, not reached
+    	// - Side to move: white, black (same pieces)
+    	// - Id buffer: long enough, too short
+    	// - File: valid, not an index, truncated
+
+    // Test that every position lists exactly the games that reach it
+    @Test
+    void testFind() throws IOException {
+        Map<Long, TreeSet<Long>> expected = new HashMap<>();
+        Path archiveFile = archive(expected);
+        try (PositionIndex index = new PositionIndex(index(archiveFile, 2))) {
+            assertEquals(expected.size(), index.getKeyCount());
+            assertEquals(expected.values().stream().mapToInt(TreeSet::size).sum(), index.getPostingCount());
+            long[] ids = new long[200];
+            for (Map.Entry<Long, TreeSet<Long>> entry : expected.entrySet()) {
+                int count = index.find(entry.getKey(), ids);
+                assertEquals(entry.getValue().size(), count);
+                assertEquals(count, index.count(entry.getKey()));
+                List<Long> found = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    found.add(ids[i]);
+                }
+                assertEquals(new ArrayList<>(entry.getValue()), found);
+            }
+
+            Board board = BoardType.STANDARD.createBoard();
+            long start = Zobrist.key(board, Color.WHITE);
+            assertEquals(expected.get(start).size(), index.count(start));
+            assertTrue(index.count(start) > 100, "Every game from the standard start reaches it.");
+            assertEquals(0, index.count(Zobrist.key(board, Color.BLACK)));
+            assertEquals(0, index.count(0L));
+            assertEquals(0, index.find(Zobrist.key(board, Color.BLACK), ids));
+        }
+    }
+
+    // Test that a short buffer receives the first games and the count of all of them
+    @Test
+    void testShortBuffer() throws IOException {
+        Map<Long, TreeSet<Long>> expected = new HashMap<>();
+        try (PositionIndex index = new PositionIndex(index(archive(expected), 1))) {
+            long start = Zobrist.key(BoardType.STANDARD.createBoard(), Color.WHITE);
+            long[] ids = new long[3];
+            assertEquals(expected.get(start).size(), index.find(start, ids));
+            assertArrayEquals(new long[] {10, 13, 16}, ids);
+        }
+    }
+
+    // Test that files that are not complete indexes are refused
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path text = directory.resolve("text.idx");
+        Files.write(text, new byte[PositionIndex.TABLES_OFFSET]);
+        assertThrows(IOException.class, () -> new PositionIndex(text));
+
+        Path file = index(archive(new HashMap<>()), 1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - PositionIndex.POSTING_BYTES);
+        }
+        assertThrows(IOException.class, () -> new PositionIndex(file));
+
+        Path other = index(directory.resolve("games.arc"), 3);
+        try (FileChannel channel = FileChannel.open(other, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 1}), 8);
+        }
+        IOException version = assertThrows(IOException.class, () -> new PositionIndex(other));
+        assertTrue(version.getMessage().contains("unsupported version 1"));
+
+        // Every table starts where the previous one ends; a directory saying otherwise is refused.
+        Path moved = index(directory.resolve("games.arc"), 2);
+        try (FileChannel channel = FileChannel.open(moved, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, PositionIndex.TABLES_OFFSET + 8),
+                    PositionIndex.HEADER_BYTES + PositionIndex.DIRECTORY_ENTRY_BYTES);
+        }
+        IOException directoryEntry = assertThrows(IOException.class, () -> new PositionIndex(moved));
+        assertTrue(directoryEntry.getMessage().contains("bad directory entry for partition 1"));
+    }
+
+    // **White Box Tests**
+
+    // Test the index of an archive without games: every table is empty
+    @Test
+    void testEmpty() throws IOException {
+        Path archiveFile = directory.resolve("empty.arc");
+        new ArchiveWriter(archiveFile).close();
+        try (PositionIndex index = new PositionIndex(index(archiveFile, 2))) {
+            assertEquals(0, index.getKeyCount());
+            assertEquals(0, index.getPostingCount());
+            assertEquals(PositionIndex.TABLES_OFFSET, index.getSize());
+            assertEquals(0, index.count(Zobrist.key(BoardType.STANDARD.createBoard(), Color.WHITE)));
+        }
+    }
+}
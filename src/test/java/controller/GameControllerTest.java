@@ -4,13 +4,31 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
 
+import engine.SearchLimits;
+import journal.JournalReader;
+import journal.MoveJournal;
+import model.BitboardBoard;
+import model.Board;
+import model.BoardType;
 import model.Color;
+import model.Fen;
+import model.King;
+import model.Move;
+import model.CompactBoard;
 import model.MockBoard;
+import model.MoveGenerator;
+import model.PieceType;
 import model.Player;
+import model.Queen;
 import view.MockGameView;
 
 class GameControllerTest {
@@ -85,6 +103,130 @@ class GameControllerTest {
 	     assertTrue(game.checkGameOver(), "The game should be over as the Black King has been captured.");
 	 }
 	
+	// Simulate the same opening on the bitboard representation
+	@Test
+	void testSimulateGameOnBitboard() {
+	     game = new GameController(null, BoardType.BITBOARD);
+	     assertTrue(game.getBoard() instanceof BitboardBoard, "The bitboard representation should be used.");
+	     assertTrue(game.makeMove(1, 7, 2, 7), "White Pawn should move from (1, 7) to (2, 7)");
+	     assertTrue(game.makeMove(6, 3, 4, 3), "Black Pawn should move from (6, 3) to (4, 3)");
+	     assertFalse(game.makeMove(0, 2, 2, 0), "White Bishop is blocked by the pawn on (1, 1)");
+	     assertTrue(game.makeMove(1, 1, 3, 1), "White Pawn should move from (1, 1) to (3, 1)");
+	     assertTrue(game.makeMove(7, 2, 3, 6), "Black Bishop should move from (7, 2) to (3, 6)");
+	     assertTrue(game.makeMove(0, 2, 2, 0), "White Bishop should move from (0, 2) to (2, 0)");
+	     assertFalse(game.checkGameOver(), "Game should not be over.");
+	}
+
+	// Simulate a short game on the compact representation, up to a king capture
+	@Test
+	void testSimulateGameOnCompactBoard() {
+	     game = new GameController(null, BoardType.COMPACT);
+	     assertTrue(game.getBoard() instanceof CompactBoard, "The compact representation should be used.");
+	     assertTrue(game.makeMove(1, 4, 3, 4), "White Pawn should move from (1, 4) to (3, 4)");
+	     assertTrue(game.makeMove(6, 5, 5, 5), "Black Pawn should move from (6, 5) to (5, 5)");
+	     assertTrue(game.makeMove(0, 3, 4, 7), "White Queen should move from (0, 3) to (4, 7)");
+	     assertTrue(game.makeMove(6, 0, 5, 0), "Black Pawn should move from (6, 0) to (5, 0)");
+	     assertFalse(game.checkGameOver(), "Game should not be over.");
+	     assertTrue(game.makeMove(4, 7, 7, 4), "White Queen captures the Black King");
+	     assertTrue(game.checkGameOver(), "Game should be over.");
+	}
+
+	// Play the fool's mate: the game ends on checkmate, before any king is captured
+	@Test
+	void testCheckmateEndsGame() {
+	     assertTrue(game.makeMove(1, 5, 2, 5));
+	     assertTrue(game.makeMove(6, 4, 4, 4));
+	     assertTrue(game.makeMove(1, 6, 3, 6));
+	     assertFalse(game.checkGameOver(), "Game should not be over.");
+	     assertTrue(game.makeMove(7, 3, 3, 7), "Black Queen mates on h4");
+	     assertTrue(game.isInCheck(), "White is in check.");
+	     assertTrue(game.checkGameOver(), "Game should be over by checkmate.");
+	     assertEquals(Color.BLACK, game.getWinner().getColor(), "Black wins.");
+	     assertTrue(game.getBoard().hasKing(Color.WHITE), "No king was captured.");
+	}
+
+	// Test that a stalemate ends the game as a draw
+	@Test
+	void testStalemateEndsGameAsDraw() {
+	     Board board = new Board(8, 8, true);
+	     board.setPiece(7, 0, new King(Color.BLACK));
+	     board.setPiece(4, 1, new Queen(Color.WHITE));
+	     board.setPiece(0, 2, new King(Color.WHITE));
+	     game.setBoard(board);
+	     assertFalse(game.checkGameOver(), "White can move.");
+	     assertTrue(game.makeMove(4, 1, 5, 1), "White Queen to b6");
+	     assertFalse(game.isInCheck(), "Black is not in check.");
+	     assertTrue(game.checkGameOver(), "Black has no legal move.");
+	     assertNull(game.getWinner(), "A stalemate is a draw.");
+	     mockView.displayGameOver(game.getWinner());
+	     assertEquals("Game Over! Draw", mockView.getLastDisplayedMessage());
+	}
+
+	// Test that the generated moves belong to the player whose turn it is and can be played
+	@Test
+	void testGetLegalMoves() {
+	     int[] moves = new int[MoveGenerator.MAX_MOVES];
+	     assertEquals(20, game.getLegalMoves(moves), "White should have 20 moves at the start.");
+	     assertTrue(game.makeMove(moves[0]), "A generated move should be valid.");
+	     assertEquals(Color.BLACK, game.getActualTurn().getColor(), "The turn should pass to Black.");
+	     assertEquals(20, game.getLegalMoves(moves), "Black should have 20 moves after one White move.");
+	}
+
+	// Test that the position key includes the side to move
+	@Test
+	void testGetPositionKey() {
+	     long start = game.getPositionKey();
+	     assertEquals(game.getBoard().getHash(), start, "White to move adds nothing to the board key.");
+	     assertTrue(game.makeMove(0, 1, 2, 2));
+	     assertTrue(game.makeMove(7, 1, 5, 2));
+	     assertTrue(game.makeMove(2, 2, 0, 1));
+	     assertNotEquals(start, game.getPositionKey(), "Same pieces but Black to move.");
+	     assertTrue(game.makeMove(5, 2, 7, 1));
+	     assertEquals(start, game.getPositionKey(), "The starting position is reached again.");
+	}
+
+	// Test that a FEN record sets the pieces and the turn, and that toFen writes them back
+	@Test
+	void testLoadFenAndToFen() {
+	     assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1", game.toFen());
+	     assertTrue(game.makeMove(1, 4, 3, 4));
+	     assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1", game.toFen());
+
+	     game.loadFen("k7/8/1Q6/8/8/8/8/2K5 b - - 0 1");
+	     assertEquals(Color.BLACK, game.getActualTurn().getColor(), "Black is to move.");
+	     assertTrue(game.checkGameOver(), "Black is stalemated.");
+	     assertNull(game.getWinner());
+
+	     game.loadFen(Fen.START);
+	     assertEquals(Color.WHITE, game.getActualTurn().getColor());
+	     assertFalse(game.checkGameOver(), "A loaded position starts a new game.");
+	     assertThrows(IllegalArgumentException.class, () -> game.loadFen("8/8/8 w - - 0 1"));
+	     assertEquals(Fen.START, game.toFen(), "An invalid record leaves the game as it was.");
+	}
+
+	// Test that the computer plays for its color only
+	@Test
+	void testComputerPlayer() {
+	     game.setComputerPlayer(Color.BLACK, SearchLimits.depth(2));
+	     assertFalse(game.isComputerTurn(), "White is played by a human.");
+	     assertTrue(game.makeMove(1, 4, 3, 4));
+	     assertTrue(game.isComputerTurn(), "Black is played by the computer.");
+	     assertTrue(game.playComputerMove(), "The computer should find a move.");
+	     assertEquals(Color.WHITE, game.getActualTurn().getColor(), "The turn should go back to White.");
+	     assertEquals(2, game.getLastSearchResult().getDepth());
+	     assertTrue(game.getLastSearchResult().getNodesPerSecond() > 0);
+	}
+
+	// Test a computer player searching with several threads
+	@Test
+	void testComputerPlayerWithThreads() {
+	     game.setComputerPlayer(Color.WHITE, SearchLimits.depth(3), 2);
+	     assertTrue(game.playComputerMove(), "The computer should find a move.");
+	     assertEquals(Color.BLACK, game.getActualTurn().getColor());
+	     assertEquals(3, game.getLastSearchResult().getDepth());
+	     assertThrows(IllegalArgumentException.class, () -> game.setComputerPlayer(Color.WHITE, SearchLimits.depth(3), 0));
+	}
+
 	@Test
 	void testStartGame() {
 	    //Simulating inputs
@@ -124,6 +266,69 @@ class GameControllerTest {
 	}
 	
 	
+	// Test that the start position and successful moves are recorded in the journal, and refused moves are not
+	@Test
+	void testJournal(@TempDir Path directory) throws IOException {
+	    try (MoveJournal journal = new MoveJournal(directory)) {
+	        game.setJournal(journal, 42);
+	        assertTrue(game.makeMove(Move.parse("e2e4")));
+	        assertFalse(game.makeMove(Move.parse("e2e5")));
+	        assertTrue(game.makeMove(6, 4, 4, 4));
+	        journal.awaitDurable(game.getJournalSequence());
+	        assertEquals(5, game.getJournalSequence()); // The initial snapshot takes three records.
+	    }
+	    try (JournalReader reader = new JournalReader(directory)) {
+	        assertTrue(reader.next());
+	        assertTrue(reader.isSnapshot());
+	        assertEquals(0, reader.getPly());
+	        assertEquals(Color.WHITE, reader.getSideToMove());
+	        assertTrue(reader.next());
+	        assertFalse(reader.isSnapshot());
+	        assertEquals(42, reader.getGameId());
+	        assertEquals(0, reader.getPly());
+	        assertEquals(Move.parse("e2e4"), reader.getMove());
+	        assertTrue(reader.next());
+	        assertEquals(1, reader.getPly());
+	        assertEquals(Move.parse("e7e5"), reader.getMove());
+	        assertFalse(reader.next());
+	    }
+	}
+
+	// Test that a board with more pieces than a snapshot holds is not journaled, since recovery could not rebuild it
+	@Test
+	void testJournalRefusesOverfullBoard(@TempDir Path directory) throws IOException {
+	    Board board = new Board();
+	    for (int column = 0; column < 8; column++) {
+	        board.setPiece(2, column, board.newPiece(PieceType.KNIGHT, Color.WHITE));
+	    }
+	    board.setPiece(5, 0, board.newPiece(PieceType.KNIGHT, Color.BLACK)); // 41 pieces.
+	    game.setBoard(board);
+	    try (MoveJournal journal = new MoveJournal(directory)) {
+	        assertThrows(IllegalArgumentException.class, () -> game.setJournal(journal, 7));
+	        assertTrue(game.makeMove(Move.parse("c3d5")));
+	        assertEquals(0, game.getJournalSequence());
+	    }
+	    try (JournalReader reader = new JournalReader(directory)) {
+	        assertFalse(reader.next());
+	    }
+	}
+
+		// Test a console game on given streams: moves are read from the input and prompts written to the output
+	@Test
+	void testStartGameWithConsoleStreams() {
+	    String moves = "1 5 2 5\n6 4 4 4\nbad input\n1 6 3 6\n7 3 3 7\n";
+	    ByteArrayOutputStream prompts = new ByteArrayOutputStream();
+	    MockGameView view = new MockGameView();
+	    GameController controller = new GameController(view);
+	    controller.setConsole(new ByteArrayInputStream(moves.getBytes()), new PrintStream(prompts, true));
+
+	    controller.startGame();
+
+	    assertTrue(view.isGameOverDisplayed(), "The fool's mate ends the game.");
+	    assertEquals(Color.BLACK, view.getWinner().getColor());
+	    assertTrue(prompts.toString().contains("Invalid input format, please enter four numbers."));
+	}
+
 	 // Mock View: Simulate a real game with valid and invalid movements
 	 @Test
 	 void testSimulateGameWithMock() {
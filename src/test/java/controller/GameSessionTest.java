@@ -0,0 +1,150 @@
+package controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import engine.SearchLimits;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.Move;
+import model.MoveGenerator;
+
+class GameSessionTest {
+
+    private GameSession session;
+
+    @BeforeEach
+    void setUp() {
+        session = new GameSession();
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions (moves):
+    	// - Valid move, invalid move, unparseable move, Move.NONE
+    	// - Submitted by the side to move, by the other side
+    	// - Moving a piece of the side to move, of the other side, from an empty square
+    	// - Submitted after the game is over
+    // Equivalence partitions (state):
+    	// - In progress, won by checkmate, won by king capture, drawn by stalemate
+    	// - Started from the initial position, from a FEN position
+    	// - Many sessions at once in one JVM
+
+    // Test submitting moves and reading the state back
+    @Test
+    void testSubmitMoves() {
+        assertEquals(GameSession.Status.IN_PROGRESS, session.getStatus());
+        assertEquals(Color.WHITE, session.getSideToMove());
+        assertEquals(Fen.START, session.getFen());
+
+        assertEquals(GameSession.MoveResult.ACCEPTED, session.submitMove("e2e4"));
+        assertEquals(Color.BLACK, session.getSideToMove());
+        assertEquals(GameSession.MoveResult.NOT_YOUR_TURN, session.submitMove(Color.WHITE, Move.parse("d2d4")));
+        assertEquals(GameSession.MoveResult.ILLEGAL, session.submitMove("e7e4"));
+        assertEquals(GameSession.MoveResult.ILLEGAL, session.submitMove("nonsense"));
+        assertEquals(GameSession.MoveResult.ILLEGAL, session.submitMove(Move.NONE));
+        assertEquals(GameSession.MoveResult.ACCEPTED, session.submitMove(Color.BLACK, Move.parse("e7e5")));
+
+        assertEquals(2, session.getPlyCount());
+        assertArrayEquals(new int[] {Move.parse("e2e4"), Move.parse("e7e5")}, session.getMoves());
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w - - 0 1", session.getFen());
+        assertFalse(session.isInCheck());
+    }
+
+    // Test that a move of the other side's piece, or from an empty square, is refused whoever submits it
+    @Test
+    void testPieceOwnership() {
+        assertEquals(GameSession.MoveResult.NOT_YOUR_TURN, session.submitMove("e7e5"));
+        assertEquals(GameSession.MoveResult.NOT_YOUR_TURN, session.submitMove(Color.WHITE, Move.parse("e7e5")));
+        assertEquals(GameSession.MoveResult.ILLEGAL, session.submitMove("e3e4"));
+        assertEquals(GameSession.MoveResult.ILLEGAL, session.submitMove(Color.WHITE, Move.parse("e3e4")));
+        assertEquals(0, session.getPlyCount());
+        assertEquals(Fen.START, session.getFen());
+
+        assertEquals(GameSession.MoveResult.ACCEPTED, session.submitMove("e2e4"));
+        assertEquals(GameSession.MoveResult.NOT_YOUR_TURN, session.submitMove("d2d4"));
+        assertEquals(GameSession.MoveResult.ILLEGAL, session.submitMove(Color.BLACK, Move.parse("e6e5")));
+        assertEquals(1, session.getPlyCount());
+    }
+
+    // Test that checkmate ends the game and later moves are refused
+    @Test
+    void testCheckmate() {
+        for (String move : new String[] {"f2f3", "e7e5", "g2g4", "d8h4"}) {
+            assertEquals(GameSession.MoveResult.ACCEPTED, session.submitMove(move), move);
+        }
+        assertTrue(session.isOver());
+        assertTrue(session.isInCheck());
+        assertEquals(GameSession.Status.BLACK_WINS, session.getStatus());
+        assertEquals(GameSession.MoveResult.GAME_OVER, session.submitMove("a2a3"));
+        assertEquals(GameSession.MoveResult.GAME_OVER, session.submitMove(Color.BLACK, Move.parse("a7a6")));
+        assertEquals(0, session.getLegalMoves(new int[MoveGenerator.MAX_MOVES]));
+        assertEquals(Move.NONE, session.playComputerMove(SearchLimits.depth(1)));
+    }
+
+    // Test positions loaded from FEN: stalemate, a win by king capture
+    @Test
+    void testFromFen() {
+        GameSession stalemate = new GameSession(BoardType.COMPACT, "k7/8/1Q6/8/8/8/8/2K5 b - - 0 1");
+        assertEquals(GameSession.Status.DRAW, stalemate.getStatus());
+
+        // The model lets a king stay in check; capturing it ends the game.
+        GameSession capture = new GameSession(BoardType.BITBOARD, "4k3/8/8/8/8/8/4q3/4K3 w - - 0 1");
+        assertEquals(GameSession.MoveResult.ACCEPTED, capture.submitMove("e1d1"));
+        assertEquals(GameSession.MoveResult.ACCEPTED, capture.submitMove("e2d1"));
+        assertEquals(GameSession.Status.BLACK_WINS, capture.getStatus());
+
+        assertThrows(IllegalArgumentException.class, () -> new GameSession(BoardType.STANDARD, "8/8 w"));
+    }
+
+    // Test that the engine plays for the side to move
+    @Test
+    void testComputerMove() {
+        int move = session.playComputerMove(SearchLimits.depth(2));
+        assertNotEquals(Move.NONE, move);
+        assertEquals(Color.BLACK, session.getSideToMove());
+        assertEquals(move, session.getMoves()[0]);
+        assertNotEquals(Move.NONE, session.playComputerMove(SearchLimits.depth(2)));
+        assertEquals(2, session.getPlyCount());
+    }
+
+    // Test hosting many games in one JVM, each played to its own position
+    @Test
+    void testManySessions() {
+        List<GameSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            sessions.add(new GameSession(BoardType.values()[i % BoardType.values().length]));
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 6; ply++) {
+            for (int i = 0; i < sessions.size(); i++) {
+                GameSession game = sessions.get(i);
+                int count = game.getLegalMoves(moves);
+                assertEquals(GameSession.MoveResult.ACCEPTED, game.submitMove(moves[(i + ply) % count]));
+            }
+        }
+        for (GameSession game : sessions) {
+            assertEquals(6, game.getPlyCount());
+            assertEquals(Color.WHITE, game.getSideToMove());
+        }
+        assertNotEquals(sessions.get(0).getPositionKey(), sessions.get(1).getPositionKey());
+    }
+
+    // **White Box Tests**
+
+    // Test that the move history grows past its initial capacity
+    @Test
+    void testLongHistory() {
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (int i = 0; i < 200; i++) {
+            assertEquals(GameSession.MoveResult.ACCEPTED, session.submitMove(shuffle[i % 4]));
+        }
+        assertEquals(200, session.getMoves().length);
+        assertEquals(Fen.START, session.getFen());
+    }
+}
@@ -0,0 +1,39 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Color;
+import model.Move;
+
+class EvaluatorTest {
+
+    private final Evaluator evaluator = new Evaluator();
+
+    // Test that the starting position is balanced
+    @Test
+    void testStartingPositionIsBalanced() {
+        assertEquals(0, evaluator.evaluate(new Board(), Color.WHITE));
+        assertEquals(0, evaluator.evaluate(new Board(), Color.BLACK));
+    }
+
+    // Test that material counts for the side that has it
+    @Test
+    void testMaterial() {
+        Board board = new Board();
+        board.setPiece(7, 3, null); // Black loses the queen
+        assertTrue(evaluator.evaluate(board, Color.WHITE) > 800);
+        assertEquals(-evaluator.evaluate(board, Color.WHITE), evaluator.evaluate(board, Color.BLACK));
+    }
+
+    // Test that centralising a knight is rewarded
+    @Test
+    void testPieceSquare() {
+        Board board = new Board();
+        int before = evaluator.evaluate(board, Color.WHITE);
+        board.makeMove(Move.encode(0, 1, 2, 2));
+        assertTrue(evaluator.evaluate(board, Color.WHITE) > before);
+    }
+}
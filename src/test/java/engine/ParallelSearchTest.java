@@ -0,0 +1,112 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import model.BitboardBoard;
+import model.Board;
+import model.Color;
+import model.Move;
+import perft.PerftPosition;
+
+class ParallelSearchTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - One thread: same result as a plain Searcher
+    	// - Several threads: a move is found, the board is restored, nodes of all threads are counted
+    	// - Several searches with one instance: helpers follow the position, closed afterwards
+    	// - Invalid thread count: rejected
+
+    // Test that a single thread behaves exactly like the sequential searcher
+    @Test
+    void testSingleThreadIsDeterministic() {
+        SearchResult sequential = new Searcher(new Board()).search(Color.WHITE, SearchLimits.depth(4));
+        SearchResult parallel = new ParallelSearch(new Board(), 1).search(Color.WHITE, SearchLimits.depth(4));
+        assertEquals(sequential.getBestMove(), parallel.getBestMove());
+        assertEquals(sequential.getScore(), parallel.getScore());
+        assertEquals(sequential.getNodes(), parallel.getNodes());
+    }
+
+    // Test a search with several threads
+    @Test
+    void testSeveralThreads() {
+        Board board = PerftPosition.KIWIPETE.createBoard();
+        long hash = board.getHash();
+        ParallelSearch search = new ParallelSearch(board, 4);
+        SearchResult result = search.search(Color.WHITE, SearchLimits.depth(4));
+
+        assertNotEquals(Move.NONE, result.getBestMove());
+        assertEquals(4, result.getDepth());
+        assertEquals(4, search.getThreads());
+        assertTrue(result.getNodes() > 0);
+        assertEquals(hash, board.getHash(), "The searched board must be restored.");
+        assertEquals(0, board.getUndoDepth());
+        assertTrue(search.getTranspositionTable().getStores() > 0);
+    }
+
+    // Test that a time-limited search returns once the main thread is out of time
+    @Test
+    void testTimeLimitStopsHelpers() {
+        ParallelSearch search = new ParallelSearch(new BitboardBoard(), 3);
+        long start = System.nanoTime();
+        SearchResult result = search.search(Color.WHITE, SearchLimits.time(200));
+        assertNotEquals(Move.NONE, result.getBestMove());
+        assertTrue(System.nanoTime() - start < 5_000_000_000L, "Helpers must stop with the main searcher.");
+    }
+
+    // Test a capture found with several threads
+    @Test
+    void testFindsFreeQueen() {
+        Board board = PerftPosition.load("4k3/8/8/3q4/8/8/8/3RK3", new Board(8, 8, true));
+        SearchResult result = new ParallelSearch(board, 2).search(Color.WHITE, SearchLimits.depth(3));
+        assertEquals("d1d5", Move.toString(result.getBestMove()));
+    }
+
+    // Test that one instance searches several positions in a row, its helpers following the board
+    @Test
+    void testReusedAcrossSearches() {
+        Board board = new Board();
+        try (ParallelSearch search = new ParallelSearch(board, 3)) {
+            assertNotEquals(Move.NONE, search.search(Color.WHITE, SearchLimits.depth(3)).getBestMove());
+            PerftPosition.load("4k3/8/8/3q4/8/8/8/3RK3", board);
+            for (int i = 0; i < 3; i++) {
+                SearchResult result = search.search(Color.WHITE, SearchLimits.depth(3));
+                assertEquals("d1d5", Move.toString(result.getBestMove()));
+                assertEquals(0, board.getUndoDepth());
+            }
+        }
+    }
+
+    // Test that a search advances the table generation once, however many threads share the table
+    @Test
+    void testOneGenerationPerSearch() {
+        for (int threads : new int[] {1, 4}) {
+            TranspositionTable table = new TranspositionTable(1);
+            ParallelSearch search = new ParallelSearch(new Board(), new Evaluator(), table, threads);
+            for (int i = 1; i <= 3; i++) {
+                search.search(Color.WHITE, SearchLimits.depth(3));
+                assertEquals(i, table.getGeneration(), threads + " threads");
+            }
+        }
+        TranspositionTable table = new TranspositionTable(1);
+        new Searcher(new Board(), new Evaluator(), table).search(Color.WHITE, SearchLimits.depth(2));
+        assertEquals(1, table.getGeneration());
+    }
+
+    @Test
+    void testInvalidThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(new Board(), 0));
+    }
+
+    // **White Box Tests** - Thread counts of the scaling report
+    @Test
+    void testThreadCounts() {
+        assertEquals(Arrays.asList(1), ScalingReport.threadCounts(1));
+        assertEquals(Arrays.asList(1, 2, 4, 6), ScalingReport.threadCounts(6));
+        assertEquals(Arrays.asList(1, 2, 4, 8), ScalingReport.threadCounts(8));
+    }
+}
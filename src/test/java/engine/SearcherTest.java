@@ -0,0 +1,139 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Color;
+import model.King;
+import model.Knight;
+import model.Move;
+import model.Pawn;
+import model.Queen;
+import model.Rook;
+
+class SearcherTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Winning capture available: it is found (king capture, free queen)
+    	// - Threatened piece: it is saved
+    	// - Limits: depth, node and time budgets are respected
+    	// - No move: Move.NONE
+
+    // Test that capturing the king is found at once
+    @Test
+    void testCapturesKing() {
+        Board board = new Board(8, 8, true);
+        board.setPiece(0, 0, new King(Color.WHITE));
+        board.setPiece(3, 3, new Rook(Color.WHITE));
+        board.setPiece(7, 3, new King(Color.BLACK));
+
+        SearchResult result = new Searcher(board).search(Color.WHITE, SearchLimits.depth(4));
+        assertEquals(Move.encode(3, 3, 7, 3), result.getBestMove());
+        assertTrue(result.getScore() >= Searcher.MATE - 10, "Capturing the king should score as mate.");
+    }
+
+    // Test that a free queen is taken
+    @Test
+    void testCapturesFreeQueen() {
+        Board board = new Board(8, 8, true);
+        board.setPiece(0, 4, new King(Color.WHITE));
+        board.setPiece(2, 2, new Knight(Color.WHITE));
+        board.setPiece(4, 3, new Queen(Color.BLACK));
+        board.setPiece(7, 7, new King(Color.BLACK));
+
+        assertEquals(Move.encode(2, 2, 4, 3), new Searcher(board).bestMove(Color.WHITE, SearchLimits.depth(3)));
+    }
+
+    // Test that an attacked queen moves away instead of being lost
+    @Test
+    void testSavesAttackedQueen() {
+        Board board = new Board(8, 8, true);
+        board.setPiece(0, 4, new King(Color.WHITE));
+        board.setPiece(3, 3, new Queen(Color.WHITE));
+        board.setPiece(5, 4, new Pawn(Color.BLACK)); // Attacks (4, 3) and (4, 5), not the queen
+        board.setPiece(4, 4, new Pawn(Color.BLACK)); // Attacks the queen on (3, 3)
+        board.setPiece(7, 7, new King(Color.BLACK));
+
+        SearchResult result = new Searcher(board).search(Color.WHITE, SearchLimits.depth(4));
+        assertTrue(result.getScore() > 500, "White should keep the queen: " + result);
+    }
+
+    // Test that the board is restored and the statistics are filled
+    @Test
+    void testBoardRestoredAndStatistics() {
+        Board board = new Board();
+        long hash = board.getHash();
+        SearchResult result = new Searcher(board).search(Color.WHITE, SearchLimits.depth(4));
+
+        assertEquals(hash, board.getHash());
+        assertEquals(0, board.getUndoDepth());
+        assertEquals(4, result.getDepth());
+        assertTrue(result.getNodes() > 0);
+        assertTrue(result.getNodesPerSecond() > 0);
+        assertNotEquals(Move.NONE, result.getBestMove());
+    }
+
+    // Test that the node budget stops the search
+    @Test
+    void testNodeLimit() {
+        SearchResult result = new Searcher(new Board()).search(Color.WHITE, SearchLimits.nodes(5000));
+        assertTrue(result.getNodes() <= 5000 + 1);
+        assertNotEquals(Move.NONE, result.getBestMove(), "A move is returned even when the budget runs out.");
+    }
+
+    // Test that the time budget stops the search
+    @Test
+    void testTimeLimit() {
+        long start = System.nanoTime();
+        SearchResult result = new Searcher(new Board()).search(Color.WHITE, SearchLimits.time(100));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000, "The search should stop close to its budget.");
+        assertNotEquals(Move.NONE, result.getBestMove());
+    }
+
+    // Test a side without moves
+    @Test
+    void testNoMove() {
+        Board board = new Board(8, 8, true);
+        board.setPiece(7, 7, new King(Color.BLACK));
+        assertEquals(Move.NONE, new Searcher(board).bestMove(Color.WHITE, SearchLimits.depth(2)));
+    }
+
+    // Test that stalemating the opponent is scored as a draw, not as a won king capture
+    @Test
+    void testAvoidsStalemate() {
+        Board board = new Board(8, 8, true);
+        board.setPiece(7, 0, new King(Color.BLACK));
+        board.setPiece(4, 1, new Queen(Color.WHITE));
+        board.setPiece(0, 2, new King(Color.WHITE));
+
+        SearchResult result = new Searcher(board).search(Color.WHITE, SearchLimits.depth(2));
+        assertNotEquals(Move.encode(4, 1, 5, 1), result.getBestMove(), "Qb6 would stalemate Black.");
+        assertTrue(result.getScore() > 0 && result.getScore() < Searcher.MATE - 100);
+    }
+
+    // Test that stalemates deeper in the tree, searched with narrowed windows, are still draws
+    @Test
+    void testStalemateInNarrowWindow() {
+        Board board = new Board(8, 8, true);
+        board.setPiece(7, 0, new King(Color.BLACK));
+        board.setPiece(4, 1, new Queen(Color.WHITE));
+        board.setPiece(0, 2, new King(Color.WHITE));
+
+        for (int depth = 3; depth <= 5; depth++) {
+            SearchResult result = new Searcher(board).search(Color.WHITE, SearchLimits.depth(depth));
+            assertNotEquals(Move.encode(4, 1, 5, 1), result.getBestMove(), "Qb6 would stalemate Black.");
+            assertTrue(result.getScore() > 0, "Depth " + depth + ": " + result);
+        }
+    }
+
+    // Test that the search speed of long searches does not overflow
+    @Test
+    void testNodesPerSecondOfLongSearch() {
+        SearchResult result = new SearchResult(Move.NONE, 0, 20, 20_000_000_000L, 2_000_000_000L);
+        assertEquals(10_000_000_000L, result.getNodesPerSecond());
+        assertEquals(0, new SearchResult(Move.NONE, 0, 1, 5, 0).getNodesPerSecond());
+    }
+}
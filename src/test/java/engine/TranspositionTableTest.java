@@ -0,0 +1,127 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Color;
+import model.Move;
+
+class TranspositionTableTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Stored key: the stored fields are returned (positive, negative and mate scores)
+    	// - Unknown key: miss (0)
+    	// - Size: power of two entries fitting in the requested megabytes
+    	// - Concurrent writers: an entry is either complete or a miss, never mixed
+
+    // Test that every field is stored and read back
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.encode(1, 4, 3, 4);
+        table.store(0x1234_5678_9ABC_DEF0L, move, -Searcher.MATE + 7, 12, TranspositionTable.UPPER);
+
+        long data = table.probe(0x1234_5678_9ABC_DEF0L);
+        assertNotEquals(0L, data);
+        assertEquals(move, TranspositionTable.move(data));
+        assertEquals(-Searcher.MATE + 7, TranspositionTable.score(data));
+        assertEquals(12, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(data));
+    }
+
+    // Test that an unknown position is a miss, even when it maps to a used entry
+    @Test
+    void testMiss() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(0L, table.probe(42L));
+        table.store(42L, Move.NONE, 0, 0, TranspositionTable.EXACT);
+        assertNotEquals(0L, table.probe(42L), "A stored entry with only zero fields is still a hit.");
+        assertEquals(0L, table.probe(42L + ((long) table.getCapacity() << 1)));
+    }
+
+    // Test the capacity and the counters
+    @Test
+    void testCapacityAndCounters() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(65536, table.getCapacity());
+        assertEquals(1, Integer.bitCount(new TranspositionTable(3).getCapacity()));
+
+        table.store(1L, Move.NONE, 5, 1, TranspositionTable.EXACT);
+        table.probe(1L);
+        table.probe(2L);
+        assertEquals(2, table.getProbes());
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getStores());
+        assertEquals(0.5, table.getHitRate(), 1e-9);
+        assertTrue(table.getOccupancy() > 0.0);
+
+        table.clear();
+        assertEquals(0L, table.probe(1L));
+        assertEquals(0.0, table.getOccupancy(), 1e-9);
+    }
+
+    // Test that a deeper entry of the current search is kept and an older one is replaced
+    @Test
+    void testReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long first = 7L;
+        long second = 7L + ((long) table.getCapacity() << 1); // Same entry, different position
+        table.store(first, Move.NONE, 1, 10, TranspositionTable.EXACT);
+        table.store(second, Move.NONE, 2, 3, TranspositionTable.EXACT);
+        assertNotEquals(0L, table.probe(first));
+        assertEquals(0L, table.probe(second));
+
+        table.newSearch();
+        table.store(second, Move.NONE, 2, 3, TranspositionTable.EXACT);
+        assertNotEquals(0L, table.probe(second));
+    }
+
+    // **White Box Tests** - Lockless writes from several threads
+    @Test
+    void testConcurrentWritesAreNeverMixed() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // Keys collide on a few entries; each key always stores the same derived data.
+                    long key = random.nextLong() & ~0x3FFFFL | random.nextInt(64);
+                    table.store(key, (int) (key >>> 48) & 0xFFFF, (int) (key >>> 20), 5, TranspositionTable.EXACT);
+                    long data = table.probe(key);
+                    if (data != 0L && TranspositionTable.score(data) != (int) (key >>> 20)) {
+                        corrupted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, corrupted.get());
+    }
+
+    // Test that a search fills the table and finds transpositions
+    @Test
+    void testUsedBySearch() {
+        TranspositionTable table = new TranspositionTable(4);
+        Searcher searcher = new Searcher(new Board(), new Evaluator(), table);
+        searcher.search(Color.WHITE, SearchLimits.depth(5));
+        assertTrue(table.getStores() > 0);
+        assertTrue(table.getHits() > 0);
+        assertSame(table, searcher.getTranspositionTable());
+    }
+}
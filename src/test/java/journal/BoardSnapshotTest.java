@@ -0,0 +1,64 @@
+package journal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.PieceType;
+
+class BoardSnapshotTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1";
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Position: starting position, middle game, only kings, more pieces than fit
+    	// - Board type: every representation, decoded into another representation
+
+    // Test that positions survive an encode and decode on every board type
+    @Test
+    void testRoundTrip() {
+        byte[] payload = new byte[BoardSnapshot.BYTES];
+        for (String fen : new String[] {Fen.START, KIWIPETE, "8/8/8/3k4/8/8/8/K7 b - - 0 1"}) {
+            for (BoardType type : BoardType.values()) {
+                Board board = type.createBoard();
+                Color side = board.loadFen(fen);
+                assertTrue(BoardSnapshot.encode(board, payload));
+
+                Board decoded = BoardType.values()[(type.ordinal() + 1) % BoardType.values().length].createBoard();
+                BoardSnapshot.decode(payload, decoded);
+                assertEquals(fen, decoded.toFen(side), type.toString());
+                assertEquals(board.getHash(), decoded.getHash(), type.toString());
+            }
+        }
+    }
+
+    // **White Box Tests**
+
+    // Test the limit on the number of pieces and that leftover bytes are cleared
+    @Test
+    void testPieceLimit() {
+        Board board = BoardType.COMPACT.createBoard();
+        for (int column = 0; column < 8; column++) {
+            board.setPiece(2, column, board.newPiece(PieceType.PAWN, Color.WHITE));
+            board.setPiece(5, column, board.newPiece(PieceType.PAWN, Color.BLACK));
+        }
+        // The starting position and 16 more pawns: 48 pieces.
+        byte[] payload = new byte[BoardSnapshot.BYTES];
+        assertFalse(BoardSnapshot.encode(board, payload));
+
+        Arrays.fill(payload, (byte) -1);
+        Board empty = BoardType.STANDARD.createBoard();
+        empty.loadFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertTrue(BoardSnapshot.encode(empty, payload));
+        for (int i = 9; i < BoardSnapshot.BYTES; i++) {
+            assertEquals(0, payload[i]);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package journal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import controller.GameController;
+import model.BoardType;
+import model.Color;
+import model.Fen;
+import model.Move;
+import model.MoveGenerator;
+
+class JournalRecoveryTest {
+
+    @TempDir
+    Path directory;
+
+    private static Map<Long, RecoveredGame> recover(Path directory, JournalRecovery recovery, RecoveryStats[] stats)
+            throws IOException {
+        Map<Long, RecoveredGame> games = new ConcurrentHashMap<>();
+        stats[0] = recovery.recover(directory, game -> assertNull(games.put(game.getGameId(), game)));
+        return games;
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Games: from the starting position, from a FEN position, without any snapshot
+    	// - Snapshots: used, ignored (full replay)
+    	// - Threads: one, several
+    	// - Journal: intact, with a gap in a game, with a move the board refuses, with a torn tail
+
+    // Test that interleaved games are rebuilt to their last position with and without snapshots
+    @Test
+    void testRecoverGames() throws IOException {
+        int games = 40;
+        GameController[] controllers = new GameController[games];
+        try (MoveJournal journal = new MoveJournal(directory, 1 << 12, 1 << 10, 5)) {
+            for (int i = 0; i < games; i++) {
+                controllers[i] = new GameController(null, BoardType.values()[i % BoardType.values().length]);
+                if (i % 4 == 0) {
+                    controllers[i].loadFen("4k3/pppppppp/8/8/8/8/PPPPPPPP/4K3 b - - 0 1");
+                }
+                controllers[i].setJournal(journal, 1000 + i);
+            }
+            Random random = new Random(7);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            for (int ply = 0; ply < 23; ply++) {
+                for (int i = 0; i < games; i++) {
+                    if (ply < 3 + i && !controllers[i].checkGameOver()) {
+                        int count = controllers[i].getLegalMoves(moves);
+                        assertTrue(controllers[i].makeMove(moves[random.nextInt(count)]));
+                    }
+                }
+            }
+        }
+
+        for (int threads : new int[] {1, 3}) {
+            for (boolean useSnapshots : new boolean[] {true, false}) {
+                RecoveryStats[] stats = new RecoveryStats[1];
+                Map<Long, RecoveredGame> recovered = recover(directory,
+                        new JournalRecovery(BoardType.COMPACT, threads, useSnapshots), stats);
+                assertEquals(games, recovered.size());
+                assertEquals(games, stats[0].getGames());
+                assertEquals(0, stats[0].getIncomplete());
+                assertFalse(stats[0].isTruncated());
+                assertEquals(useSnapshots, stats[0].getPliesSkipped() > 0);
+                for (int i = 0; i < games; i++) {
+                    RecoveredGame game = recovered.get(1000L + i);
+                    assertTrue(game.isComplete());
+                    assertEquals(controllers[i].toFen(), game.getBoard().toFen(game.getSideToMove()));
+                    assertEquals(controllers[i].getActualTurn().getColor(), game.getSideToMove());
+                }
+                assertTrue(stats[0].summary().contains(games + " games"));
+            }
+        }
+    }
+
+    // Test a game journaled without snapshots, which is replayed from the starting position
+    @Test
+    void testWithoutSnapshots() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            journal.append(5, 0, Move.parse("e2e4"));
+            journal.append(5, 1, Move.parse("e7e5"));
+            journal.append(5, 2, Move.parse("g1f3"));
+        }
+        RecoveryStats[] stats = new RecoveryStats[1];
+        RecoveredGame game = recover(directory, new JournalRecovery(BoardType.BITBOARD, 2), stats).get(5L);
+        assertEquals(3, game.getPlies());
+        assertEquals(Color.BLACK, game.getSideToMove());
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b - - 0 1", game.getBoard().toFen(Color.BLACK));
+        assertEquals(3, stats[0].getPliesReplayed());
+    }
+
+    // Test that games with a gap or a refused move are rebuilt up to that point and reported
+    @Test
+    void testIncompleteGames() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            journal.append(1, 0, Move.parse("e2e4"));
+            journal.append(1, 2, Move.parse("g1f3")); // Ply 1 is missing.
+            journal.append(2, 0, Move.parse("e2e4"));
+            journal.append(2, 1, Move.parse("e5e4")); // No piece on e5.
+        }
+        RecoveryStats[] stats = new RecoveryStats[1];
+        Map<Long, RecoveredGame> games = recover(directory, new JournalRecovery(BoardType.STANDARD, 1), stats);
+        assertEquals(2, stats[0].getIncomplete());
+        assertFalse(games.get(1L).isComplete());
+        assertEquals(1, games.get(1L).getPlies());
+        assertFalse(games.get(2L).isComplete());
+        assertEquals(1, games.get(2L).getPlies());
+        assertEquals(Color.BLACK, games.get(2L).getSideToMove());
+    }
+
+    // **White Box Tests**
+
+    // Test that a snapshot torn by a crash is ignored and the game is rebuilt from the one before
+    @Test
+    void testTornSnapshot() throws IOException {
+        GameController game = new GameController(null, BoardType.COMPACT);
+        try (MoveJournal journal = new MoveJournal(directory, MoveJournal.DEFAULT_SEGMENT_BYTES, 1 << 10, 2)) {
+            game.setJournal(journal, 9);
+            assertTrue(game.makeMove(Move.parse("d2d4")));
+            assertTrue(game.makeMove(Move.parse("d7d5")));
+        }
+        // The last snapshot (after ply 2) loses its last record.
+        long size = (3 + 1 + 1 + 3 - 1) * JournalRecord.BYTES; // Snapshot, two moves, snapshot.
+        try (FileChannel channel = FileChannel.open(MoveJournal.segments(directory).get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+            channel.write(ByteBuffer.allocate(JournalRecord.BYTES), size);
+        }
+        RecoveryStats[] stats = new RecoveryStats[1];
+        RecoveredGame recovered = recover(directory, new JournalRecovery(BoardType.COMPACT, 1), stats).get(9L);
+        assertTrue(stats[0].isTruncated());
+        assertEquals(2, recovered.getPlies());
+        assertEquals(game.toFen(), recovered.getBoard().toFen(recovered.getSideToMove()));
+        assertEquals(2, stats[0].getPliesReplayed());
+        assertNotEquals(Fen.START, game.toFen());
+    }
+}
@@ -0,0 +1,250 @@
+package journal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Board;
+import model.BoardType;
+import model.Color;
+import model.Move;
+import model.PieceType;
+
+class MoveJournalTest {
+
+    @TempDir
+    Path directory;
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Journal: new directory, reopened directory, directory with a torn tail
+    	// - Writers: one, several at once
+    	// - Durability: append then flush, append and wait
+    	// - Segments: one, several (records rolling over)
+    	// - Entries: moves, snapshots
+    	// - State: open, closed
+
+    // Test that appended moves are read back in order with their fields
+    @Test
+    void testAppendAndRead() throws IOException {
+        int promotion = Move.encode(52, 60, PieceType.QUEEN);
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            assertEquals(1, journal.append(7, 0, Move.parse("e2e4")));
+            assertEquals(2, journal.append(8, 0, Move.parse("d2d4")));
+            assertEquals(3, journal.appendDurable(7, 1, promotion));
+            assertEquals(3, journal.getDurable());
+        }
+        try (JournalReader reader = new JournalReader(directory)) {
+            assertTrue(reader.next());
+            assertEquals(7, reader.getGameId());
+            assertEquals(0, reader.getPly());
+            assertEquals(Move.parse("e2e4"), reader.getMove());
+            assertTrue(reader.next());
+            assertEquals(8, reader.getGameId());
+            assertTrue(reader.next());
+            assertEquals(1, reader.getPly());
+            assertEquals(promotion, reader.getMove());
+            assertEquals(3, reader.getSequence());
+            assertFalse(reader.next());
+            assertFalse(reader.isTruncated());
+        }
+    }
+
+    // Test that a reopened journal continues the sequence and the segments
+    @Test
+    void testReopenAndSegments() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory, 5 * JournalRecord.BYTES, 64)) {
+            for (int ply = 0; ply < 12; ply++) {
+                journal.append(1, ply, Move.encode(ply, ply + 8));
+            }
+            journal.flush();
+        }
+        assertEquals(3, MoveJournal.segments(directory).size());
+        try (MoveJournal journal = new MoveJournal(directory, 5 * JournalRecord.BYTES, 64)) {
+            assertEquals(12, journal.getDurable());
+            assertEquals(13, journal.appendDurable(1, 12, Move.encode(12, 20)));
+        }
+        assertEquals(3, MoveJournal.segments(directory).size());
+        try (JournalReader reader = new JournalReader(directory, JournalRecord.SNAPSHOT_BYTES + 5)) {
+            int ply = 0;
+            while (reader.next()) {
+                assertEquals(ply, reader.getPly());
+                assertEquals(Move.encode(ply, ply + 8), reader.getMove());
+                ply++;
+            }
+            assertEquals(13, ply);
+        }
+    }
+
+    // Test that many writers waiting for the disk share fsyncs and lose no move
+    @Test
+    void testGroupCommit() throws Exception {
+        int threads = 16;
+        int moves = 50;
+        try (MoveJournal journal = new MoveJournal(directory, MoveJournal.DEFAULT_SEGMENT_BYTES, 256)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long gameId = t;
+                writers.add(new Thread(() -> {
+                    for (int ply = 0; ply < moves; ply++) {
+                        long sequence = journal.appendDurable(gameId, ply, Move.encode(8, 16));
+                        assertTrue(journal.getDurable() >= sequence);
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertEquals(threads * moves, journal.getDurable());
+            assertTrue(journal.getSyncCount() <= threads * moves);
+        }
+        Map<Long, Integer> nextPly = new HashMap<>();
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                int expected = nextPly.getOrDefault(reader.getGameId(), 0);
+                assertEquals(expected, reader.getPly()); // Each game's moves stay in order.
+                nextPly.put(reader.getGameId(), expected + 1);
+            }
+        }
+        assertEquals(threads, nextPly.size());
+        nextPly.values().forEach(plies -> assertEquals(moves, plies));
+    }
+
+    // Test snapshots mixed with moves, kept whole when a segment fills up
+    @Test
+    void testSnapshots() throws IOException {
+        Board board = BoardType.COMPACT.createBoard();
+        board.loadFen("4k3/8/8/8/8/8/8/R3K3 b - - 0 1");
+        try (MoveJournal journal = new MoveJournal(directory, 4 * JournalRecord.BYTES, 64, 0)) {
+            assertEquals(0, journal.getSnapshotInterval());
+            journal.append(1, 0, Move.parse("a1a2"));
+            journal.append(1, 1, Move.parse("a2a3"));
+            journal.append(1, 2, Move.parse("a3a4"));
+            assertEquals(6, journal.appendSnapshot(1, 3, board, Color.BLACK));
+            assertEquals(7, journal.appendDurable(1, 3, Move.parse("e8d8")));
+        }
+        // The snapshot starting in the first segment ends there, making it six records long.
+        assertEquals(2, MoveJournal.segments(directory).size());
+        assertEquals(6 * JournalRecord.BYTES, Files.size(MoveJournal.segments(directory).get(0)));
+
+        byte[] payload = new byte[BoardSnapshot.BYTES];
+        try (JournalReader reader = new JournalReader(directory, JournalRecord.SNAPSHOT_BYTES)) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(reader.next());
+                assertFalse(reader.isSnapshot());
+            }
+            assertTrue(reader.next());
+            assertTrue(reader.isSnapshot());
+            assertEquals(3, reader.getPly());
+            assertEquals(6, reader.getSequence());
+            assertEquals(Color.BLACK, reader.getSideToMove());
+            reader.getSnapshot(payload);
+            Board decoded = BoardType.STANDARD.createBoard();
+            BoardSnapshot.decode(payload, decoded);
+            assertEquals(board.toFen(Color.BLACK), decoded.toFen(Color.BLACK));
+            assertTrue(reader.next());
+            assertEquals(Move.parse("e8d8"), reader.getMove());
+            assertFalse(reader.next());
+        }
+    }
+
+    // Test that a closed journal refuses appends
+    @Test
+    void testClosed() throws IOException {
+        MoveJournal journal = new MoveJournal(directory);
+        journal.close();
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(1, 0, Move.encode(8, 16)));
+        assertThrows(IllegalArgumentException.class, () -> new MoveJournal(directory, 8, 64));
+    }
+
+    // **White Box Tests**
+
+    // Test that a torn tail is detected by the reader and cut off when the journal is reopened
+    @Test
+    void testTornTail() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            for (int ply = 0; ply < 4; ply++) {
+                journal.append(3, ply, Move.encode(ply, ply + 16));
+            }
+        }
+        Path segment = MoveJournal.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // A crash mid-write: the last record is damaged, followed by half a record and zeros.
+            channel.write(ByteBuffer.wrap(new byte[] {1}), 3 * JournalRecord.BYTES + 9);
+            channel.write(ByteBuffer.wrap(new byte[JournalRecord.BYTES + 8]), 4 * JournalRecord.BYTES);
+        }
+        try (JournalReader reader = new JournalReader(directory)) {
+            int count = 0;
+            while (reader.next()) {
+                count++;
+            }
+            assertEquals(3, count);
+            assertTrue(reader.isTruncated());
+        }
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            assertEquals(3, journal.getAppended());
+            journal.appendDurable(3, 3, Move.encode(3, 19));
+        }
+        assertEquals(4 * JournalRecord.BYTES, Files.size(segment));
+        try (JournalReader reader = new JournalReader(directory)) {
+            while (reader.next()) {
+                assertEquals(Move.encode(reader.getPly(), reader.getPly() + 16), reader.getMove());
+            }
+            assertFalse(reader.isTruncated());
+        }
+    }
+
+    // Test that a snapshot missing its last record is cut off when the journal is reopened
+    @Test
+    void testTornSnapshot() throws IOException {
+        Board board = BoardType.COMPACT.createBoard();
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            journal.append(2, 0, Move.parse("e2e4"));
+            journal.appendSnapshot(2, 1, board, Color.BLACK);
+        }
+        Path segment = MoveJournal.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(3 * JournalRecord.BYTES);
+        }
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            assertEquals(1, journal.getDurable());
+            assertEquals(2, journal.appendDurable(2, 1, Move.parse("e7e5")));
+        }
+        try (JournalReader reader = new JournalReader(directory)) {
+            assertTrue(reader.next());
+            assertTrue(reader.next());
+            assertFalse(reader.isSnapshot());
+            assertEquals(Move.parse("e7e5"), reader.getMove());
+            assertFalse(reader.next());
+            assertFalse(reader.isTruncated());
+        }
+    }
+
+    // Test that an all-zero record is not valid
+    @Test
+    void testRecordCheck() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * JournalRecord.BYTES);
+        assertFalse(JournalRecord.isValid(buffer, 0));
+        JournalRecord.put(buffer, Long.MAX_VALUE, Integer.MAX_VALUE, Move.encode(63, 0));
+        assertTrue(JournalRecord.isValid(buffer, 0));
+        assertEquals(Long.MAX_VALUE, JournalRecord.gameId(buffer, 0));
+        assertEquals(Integer.MAX_VALUE, JournalRecord.ply(buffer, 0));
+        assertEquals(Move.encode(63, 0), JournalRecord.move(buffer, 0));
+        buffer.put(4, (byte) 1);
+        assertFalse(JournalRecord.isValid(buffer, 0));
+    }
+}
@@ -126,6 +126,15 @@ class BishopTest {
         assertFalse(whiteBishop.validMovement(destination, board));
     }
 
+    @Test
+    void testBishopCannotJumpOffMainDiagonal() {
+        // The path must be checked on every diagonal, not only on the one where row == column.
+        Square origin = board.getSquare(0, 5);
+        origin.setPiece(whiteBishop);
+        Square destination = board.getSquare(2, 3); // (1,4) holds the white pawn
+        assertFalse(whiteBishop.validMovement(destination, board));
+    }
+
     @Test
     void testBishopCannotMoveToInvalidPosition() {
     	// Ensure the king cannot move to an invalid position.
@@ -0,0 +1,148 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import perft.PerftPosition;
+
+class BitboardBoardTest {
+
+    private BitboardBoard board;
+    private BitboardBoard emptyBoard;
+
+    @BeforeEach
+    void setUp() {
+        board = new BitboardBoard();
+        emptyBoard = new BitboardBoard(true);
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions (masks):
+    	// - Starting position: 16 pieces per side on rows 0-1 and 6-7
+    	// - Empty board: no piece at all
+    // Equivalence partitions (movePiece()):
+    	// - Valid: quiet move and capture keep the masks in sync with the squares
+    	// - Invalid: landing on an own piece, blocked slider
+
+    // Test the masks of the starting position
+    @Test
+    void testInitialMasks() {
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(Color.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(Color.BLACK));
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupancy());
+        assertEquals(0x000000000000FF00L, board.getPieces(PieceType.PAWN, Color.WHITE));
+        assertEquals(Bitboards.bit(Bitboards.square(0, 4)), board.getPieces(PieceType.KING, Color.WHITE));
+        assertEquals(Bitboards.bit(Bitboards.square(7, 3)), board.getPieces(PieceType.QUEEN, Color.BLACK));
+    }
+
+    // Test that an empty board has no pieces and no kings
+    @Test
+    void testEmptyBoard() {
+        assertEquals(0L, emptyBoard.getOccupancy());
+        assertFalse(emptyBoard.hasKing(Color.WHITE));
+        assertFalse(emptyBoard.hasKing(Color.BLACK));
+        assertNull(emptyBoard.getSquare(3, 3).getPiece());
+    }
+
+    // Test that a quiet move updates the masks
+    @Test
+    void testMovePiece_QuietMove() {
+        assertTrue(board.movePiece(board.getSquare(1, 4), board.getSquare(3, 4)));
+        assertEquals(0L, board.getOccupancy() & Bitboards.bit(Bitboards.square(1, 4)));
+        assertNotEquals(0L, board.getPieces(PieceType.PAWN, Color.WHITE) & Bitboards.bit(Bitboards.square(3, 4)));
+    }
+
+    // Test that a capture removes the captured piece from its masks
+    @Test
+    void testMovePiece_Capture() {
+        emptyBoard.getSquare(3, 3).setPiece(new Rook(Color.WHITE));
+        emptyBoard.getSquare(3, 7).setPiece(new Knight(Color.BLACK));
+
+        assertTrue(emptyBoard.movePiece(emptyBoard.getSquare(3, 3), emptyBoard.getSquare(3, 7)));
+        assertEquals(0L, emptyBoard.getOccupancy(Color.BLACK));
+        assertEquals(Bitboards.bit(Bitboards.square(3, 7)), emptyBoard.getPieces(PieceType.ROOK, Color.WHITE));
+    }
+
+    // Test that a piece cannot land on a square of its own color
+    @Test
+    void testMovePiece_OwnPiece() {
+        assertFalse(board.movePiece(board.getSquare(0, 0), board.getSquare(1, 0)));
+        assertNotNull(board.getSquare(1, 0).getPiece());
+    }
+
+    // Test that blocked sliding pieces are rejected and open lines are accepted
+    @Test
+    void testSlidingPieces() {
+        assertFalse(board.movePiece(board.getSquare(0, 3), board.getSquare(4, 7))); // Queen behind pawn
+        assertTrue(board.movePiece(board.getSquare(1, 4), board.getSquare(3, 4)));
+        assertTrue(board.movePiece(board.getSquare(0, 3), board.getSquare(4, 7))); // Diagonal now open
+        assertTrue(board.isPathClear(4, 7, 4, 0));
+        assertFalse(board.isPathClear(0, 0, 7, 0));
+    }
+
+    // Test that the masks follow pieces set directly on the squares
+    @Test
+    void testHasKing_SetPiece() {
+        board.getSquare(0, 4).setPiece(null);
+        assertFalse(board.hasKing(Color.WHITE));
+        assertTrue(board.hasKing(Color.BLACK));
+
+        emptyBoard.getSquare(5, 5).setPiece(new King(Color.WHITE));
+        assertTrue(emptyBoard.hasKing(Color.WHITE));
+    }
+
+    // **White Box Tests** - Same answers as the square-based board
+    @Test
+    void testSameAnswersAsBoard() {
+        Board reference = new Board();
+        int[][] moves = {{1, 4, 3, 4}, {6, 3, 4, 3}, {3, 4, 4, 3}, {7, 3, 4, 3}, {0, 5, 4, 1}, {7, 2, 3, 6}};
+        for (int[] move : moves) {
+            boolean expected = reference.movePiece(reference.getSquare(move[0], move[1]),
+                    reference.getSquare(move[2], move[3]));
+            assertTrue(expected);
+            assertEquals(expected, board.movePiece(board.getSquare(move[0], move[1]), board.getSquare(move[2], move[3])));
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece expected = reference.getSquare(row, col).getPiece();
+                Piece actual = board.getSquare(row, col).getPiece();
+                assertEquals(expected == null ? null : expected.getName(), actual == null ? null : actual.getName());
+                assertEquals(expected != null, (board.getOccupancy() & Bitboards.bit(Bitboards.square(row, col))) != 0);
+            }
+        }
+    }
+
+    // Test the constant-time reach checks used by the sliding pieces
+    @Test
+    void testCanReach() {
+        int rook = Bitboards.square(0, 0);
+        assertFalse(board.canReach(PieceType.ROOK, Color.WHITE, rook, Bitboards.square(1, 0)), "Own pawn");
+        assertFalse(board.canReach(PieceType.ROOK, Color.WHITE, rook, Bitboards.square(3, 0)), "Blocked");
+        board.setPiece(1, 0, null);
+        assertTrue(board.canReach(PieceType.ROOK, Color.WHITE, rook, Bitboards.square(6, 0)), "Capture");
+        assertFalse(board.canReach(PieceType.ROOK, Color.WHITE, rook, Bitboards.square(7, 0)), "Behind the pawn");
+        assertFalse(board.canReach(PieceType.ROOK, Color.WHITE, rook, Bitboards.square(2, 1)), "Not aligned");
+        assertEquals(Bitboards.bit(Bitboards.square(2, 0)) | Bitboards.bit(Bitboards.square(2, 2)),
+                board.attacks(PieceType.PAWN, Color.WHITE, Bitboards.square(1, 1)));
+        assertTrue(board.getPiece(0, 0).validMovement(board.getSquare(5, 0), board));
+    }
+
+    // Test that the mask-based attack lookup agrees with the square-based one on every square
+    @Test
+    void testIsAttackedMatchesBoard() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Board squares = PerftPosition.load(position.getPlacement(), new Board(8, 8, true));
+            Board bitboards = PerftPosition.load(position.getPlacement(), new BitboardBoard(true));
+            for (int square = 0; square < 64; square++) {
+                for (Color by : Color.values()) {
+                    assertEquals(squares.isAttacked(Bitboards.row(square), Bitboards.column(square), by),
+                            bitboards.isAttacked(Bitboards.row(square), Bitboards.column(square), by),
+                            position + " " + square + " " + by);
+                }
+            }
+        }
+        assertTrue(PerftPosition.load("R5k1/5ppp/8/8/8/8/8/6K1", new BitboardBoard(true)).isCheckmate(Color.BLACK));
+    }
+}
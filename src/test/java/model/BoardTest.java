@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import perft.PerftPosition;
+
 class BoardTest {
 
 	 private Board board;
@@ -300,5 +302,202 @@ class BoardTest {
 	        assertTrue(boardAux.hasKing(Color.WHITE));
 	    }
 
+	    // King tracking and piece counts
+	    @Test
+	    void testGetKingSquare() {
+	        assertSame(board.getSquare(0, 4), board.getKingSquare(Color.WHITE));
+	        assertSame(board.getSquare(7, 4), board.getKingSquare(Color.BLACK));
+	        assertNull(new Board(8, 8, true).getKingSquare(Color.WHITE));
+
+	        board.getSquare(1, 4).setPiece(null);
+	        assertTrue(board.movePiece(board.getSquare(0, 4), board.getSquare(1, 4)));
+	        assertSame(board.getSquare(1, 4), board.getKingSquare(Color.WHITE));
+
+	        board.getSquare(1, 4).setPiece(null);
+	        assertNull(board.getKingSquare(Color.WHITE));
+	        assertFalse(board.hasKing(Color.WHITE));
+	    }
+
+	    @Test
+	    void testGetKingSquareTwoKings() {
+	        Board boardAux = new Board(8, 8, true);
+	        boardAux.setPiece(2, 2, new King(Color.BLACK));
+	        boardAux.setPiece(5, 5, new King(Color.BLACK));
+	        boardAux.setPiece(5, 5, null);
+	        assertSame(boardAux.getSquare(2, 2), boardAux.getKingSquare(Color.BLACK));
+	        assertTrue(boardAux.hasKing(Color.BLACK));
+	    }
+
+	    @Test
+	    void testGetPieceCount() {
+	        assertEquals(8, board.getPieceCount(PieceType.PAWN, Color.WHITE));
+	        assertEquals(2, board.getPieceCount(PieceType.KNIGHT, Color.BLACK));
+	        assertEquals(1, board.getPieceCount(PieceType.QUEEN, Color.WHITE));
+	        assertEquals(0, new Board(8, 8, true).getPieceCount(PieceType.ROOK, Color.WHITE));
+
+	        // A capture removes the captured piece from the counts
+	        board.setPiece(5, 1, new Knight(Color.WHITE));
+	        assertTrue(board.movePiece(board.getSquare(5, 1), board.getSquare(7, 0)));
+	        assertEquals(1, board.getPieceCount(PieceType.ROOK, Color.BLACK));
+	        assertEquals(3, board.getPieceCount(PieceType.KNIGHT, Color.WHITE));
+	    }
+
+		    // Make/unmake: moves are played without validation and taken back in reverse order
+	    @Test
+	    void testMakeUnmakeMove() {
+	        long startHash = board.getHash();
+	        Piece knight = board.getPiece(0, 1);
+	        board.makeMove(Move.encode(0, 1, 2, 2));
+	        assertSame(knight, board.getPiece(2, 2));
+	        assertNull(board.getPiece(0, 1));
+	        assertEquals(1, board.getUndoDepth());
+
+	        board.unmakeMove();
+	        assertSame(knight, board.getPiece(0, 1));
+	        assertNull(board.getPiece(2, 2));
+	        assertEquals(startHash, board.getHash());
+	        assertEquals(0, board.getUndoDepth());
+	    }
 
-	}
\ No newline at end of file
+	    @Test
+	    void testMakeUnmakeCaptures() {
+	        long startHash = board.getHash();
+	        Piece blackQueen = board.getPiece(7, 3);
+	        board.makeMove(Move.encode(0, 3, 6, 3)); // Queen captures the pawn on (6, 3)
+	        board.makeMove(Move.encode(7, 4, 6, 3)); // King captures the queen
+	        board.makeMove(Move.encode(7, 3, 0, 3)); // Black queen lands on an empty square
+	        assertEquals(0, board.getPieceCount(PieceType.QUEEN, Color.WHITE));
+	        assertSame(board.getSquare(6, 3), board.getKingSquare(Color.BLACK));
+
+	        board.unmakeMove();
+	        board.unmakeMove();
+	        board.unmakeMove();
+	        assertSame(blackQueen, board.getPiece(7, 3));
+	        assertEquals(8, board.getPieceCount(PieceType.PAWN, Color.BLACK));
+	        assertSame(board.getSquare(7, 4), board.getKingSquare(Color.BLACK));
+	        assertEquals(startHash, board.getHash());
+	    }
+
+	    @Test
+	    void testMakeUnmakePromotion() {
+	        Board boardAux = new Board(8, 8, true);
+	        Pawn pawn = new Pawn(Color.WHITE);
+	        boardAux.setPiece(6, 0, pawn);
+	        boardAux.makeMove(Move.encode(Bitboards.square(6, 0), Bitboards.square(7, 0), PieceType.QUEEN));
+	        assertEquals(PieceType.QUEEN, boardAux.getPiece(7, 0).getType());
+	        boardAux.unmakeMove();
+	        assertSame(pawn, boardAux.getPiece(6, 0));
+	        assertNull(boardAux.getPiece(7, 0));
+	    }
+
+	    @Test
+	    void testMakeMoveBeyondInitialCapacity() {
+	        for (int i = 0; i < 300; i++) {
+	            board.makeMove(Move.encode(0, 1, 2, 2));
+	            board.makeMove(Move.encode(2, 2, 0, 1));
+	        }
+	        assertEquals(600, board.getUndoDepth());
+	        for (int i = 0; i < 600; i++) {
+	            board.unmakeMove();
+	        }
+	        assertEquals(new Board().getHash(), board.getHash());
+	    }
+
+	    // Test that shared-pieces boards reuse the same twelve pieces and behave like the standard board
+	    @Test
+	    void testSharedPieces() {
+	        Board shared = new Board(8, 8, false, true);
+	        Board other = BoardType.FLYWEIGHT.createBoard();
+	        assertTrue(shared.usesSharedPieces());
+	        assertFalse(board.usesSharedPieces());
+	        assertSame(shared.getPiece(0, 0), shared.getPiece(0, 7));
+	        assertSame(shared.getPiece(1, 3), other.getPiece(1, 3));
+	        assertTrue(shared.getPiece(7, 4).isShared());
+	        assertEquals("B.King", shared.getPiece(7, 4).getName());
+	        assertEquals(Color.BLACK, shared.getPiece(7, 4).getColor());
+	        assertEquals(board.getHash(), shared.getHash());
+
+	        assertTrue(shared.movePiece(shared.getSquare(0, 1), shared.getSquare(2, 2)), "Knight b1-c3");
+	        assertFalse(shared.movePiece(shared.getSquare(0, 0), shared.getSquare(3, 0)), "The rook is blocked.");
+	        assertSame(shared.getPiece(0, 6), shared.getPiece(2, 2));
+
+	        Board copy = shared.copy();
+	        assertTrue(copy.usesSharedPieces());
+	        assertSame(shared.getPiece(2, 2), copy.getPiece(2, 2));
+	        assertEquals(shared.getHash(), copy.getHash());
+	    }
+
+	    // Test that shared pieces cannot be changed through their setters
+	    @Test
+	    void testSharedPiecesAreImmutable() {
+	        Piece knight = PieceType.KNIGHT.shared(Color.WHITE);
+	        knight.setPosition(board.getSquare(0, 1));
+	        assertNull(knight.position, "Shared pieces do not remember a square.");
+	        assertTrue(knight.validMovement(board.getSquare(0, 1), board.getSquare(2, 2), board));
+	        assertThrows(UnsupportedOperationException.class, () -> knight.validMovement(board.getSquare(2, 2), board),
+	                "A shared piece cannot validate a move without its origin.");
+	        assertThrows(UnsupportedOperationException.class, () -> ((Knight) knight).setColor(Color.BLACK));
+	        assertEquals(Color.WHITE, knight.getColor());
+	    }
+
+	    // Test that a promotion on a shared-pieces board uses the shared piece
+	    @Test
+	    void testSharedPiecesPromotion() {
+	        Board shared = new Board(8, 8, true, true);
+	        shared.setPiece(6, 0, shared.newPiece(PieceType.PAWN, Color.WHITE));
+	        shared.makeMove(Move.encode(Bitboards.square(6, 0), Bitboards.square(7, 0), PieceType.QUEEN));
+	        assertSame(PieceType.QUEEN.shared(Color.WHITE), shared.getPiece(7, 0));
+	        shared.unmakeMove();
+	        assertSame(PieceType.PAWN.shared(Color.WHITE), shared.getPiece(6, 0));
+	    }
+
+	    // Test check detection from each kind of attacker, and blocked rays
+	    @Test
+	    void testIsInCheck() {
+	        assertFalse(board.isInCheck(Color.WHITE));
+	        assertFalse(board.isInCheck(Color.BLACK));
+
+	        Board boardAux = new Board(8, 8, true);
+	        boardAux.setPiece(0, 4, new King(Color.WHITE));
+	        boardAux.setPiece(7, 4, new Rook(Color.BLACK));
+	        assertTrue(boardAux.isInCheck(Color.WHITE), "Rook on the same file");
+	        boardAux.setPiece(3, 4, new Pawn(Color.WHITE));
+	        assertFalse(boardAux.isInCheck(Color.WHITE), "The file is blocked");
+	        boardAux.setPiece(1, 3, new Pawn(Color.BLACK));
+	        assertTrue(boardAux.isInCheck(Color.WHITE), "Black pawn attacking diagonally downwards");
+	        boardAux.setPiece(1, 3, new Pawn(Color.WHITE));
+	        assertFalse(boardAux.isInCheck(Color.WHITE), "Own pawn");
+	        boardAux.setPiece(2, 5, new Knight(Color.BLACK));
+	        assertTrue(boardAux.isInCheck(Color.WHITE), "Knight");
+	        boardAux.setPiece(2, 5, null);
+	        boardAux.setPiece(3, 7, new Queen(Color.BLACK));
+	        assertTrue(boardAux.isInCheck(Color.WHITE), "Queen on the diagonal");
+	        assertFalse(boardAux.isInCheck(Color.BLACK), "Black has no king");
+	    }
+
+	    // Test a back-rank checkmate and a position that is only check
+	    @Test
+	    void testIsCheckmate() {
+	        Board mate = PerftPosition.load("R5k1/5ppp/8/8/8/8/8/6K1", new Board(8, 8, true));
+	        assertTrue(mate.isInCheck(Color.BLACK));
+	        assertTrue(mate.isCheckmate(Color.BLACK));
+	        assertFalse(mate.isStalemate(Color.BLACK));
+	        assertFalse(mate.isCheckmate(Color.WHITE));
+	        assertEquals(Zobrist.compute(mate), mate.getHash(), "The board is restored after the search for a move.");
+
+	        Board check = PerftPosition.load("R5k1/5pp1/8/8/8/8/8/6K1", new Board(8, 8, true));
+	        assertTrue(check.isInCheck(Color.BLACK));
+	        assertFalse(check.isCheckmate(Color.BLACK), "The king escapes to h7.");
+	    }
+
+	    // Test a stalemate, and that the same position with the other side to move is not one
+	    @Test
+	    void testIsStalemate() {
+	        Board stalemate = PerftPosition.load("k7/8/1Q6/8/8/8/8/2K5", new Board(8, 8, true));
+	        assertTrue(stalemate.isStalemate(Color.BLACK));
+	        assertFalse(stalemate.isCheckmate(Color.BLACK));
+	        assertFalse(stalemate.isStalemate(Color.WHITE));
+	        assertFalse(board.isStalemate(Color.WHITE));
+	        assertTrue(board.hasLegalMove(Color.BLACK));
+	    }
+}
@@ -0,0 +1,140 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import perft.Perft;
+import perft.PerftPosition;
+
+class CompactBoardTest {
+
+    private CompactBoard board;
+    private CompactBoard emptyBoard;
+
+    @BeforeEach
+    void setUp() {
+        board = new CompactBoard();
+        emptyBoard = new CompactBoard(true);
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions (cells):
+    	// - Starting position: same pieces, hash and counts as the standard board
+    	// - Empty board: no piece at all
+    	// - Out of bounds: null square and null piece
+    // Equivalence partitions (changes):
+    	// - Through views (getSquare().setPiece, movePiece), setPiece and makeMove/unmakeMove
+    	// - Invalid: a piece without a color
+
+    // Test that the starting position matches the standard board
+    @Test
+    void testInitialPosition() {
+        Board standard = new Board();
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                Piece expected = standard.getPiece(row, column);
+                Piece actual = board.getPiece(row, column);
+                assertEquals(expected == null ? null : expected.getName(), actual == null ? null : actual.getName());
+            }
+        }
+        assertEquals(standard.getHash(), board.getHash());
+        assertEquals(Zobrist.compute(board), board.getHash());
+        assertEquals(8, board.getPieceCount(PieceType.PAWN, Color.BLACK));
+        assertEquals(4, board.getKingSquare(Color.WHITE).getColumn());
+        assertTrue(board.usesSharedPieces());
+        assertSame(PieceType.ROOK.shared(Color.WHITE), board.getPiece(0, 0));
+    }
+
+    // Test the empty board and out-of-bounds access
+    @Test
+    void testEmptyBoard() {
+        assertFalse(emptyBoard.hasKing(Color.WHITE));
+        assertNull(emptyBoard.getKingSquare(Color.BLACK));
+        assertNull(emptyBoard.getSquare(3, 3).getPiece());
+        assertEquals(0L, emptyBoard.getHash());
+        assertNull(board.getSquare(8, 0));
+        assertNull(board.getPiece(0, -1));
+    }
+
+    // Test that changes made through a square view are written to the board
+    @Test
+    void testSquareViews() {
+        emptyBoard.getSquare(3, 3).setPiece(new Rook(Color.WHITE));
+        assertEquals("W.Rook", emptyBoard.getPiece(3, 3).getName());
+        assertTrue(emptyBoard.getSquare(3, 3).isOccupied());
+        emptyBoard.setPiece(3, 3, null);
+        assertFalse(emptyBoard.getSquare(3, 3).isOccupied());
+    }
+
+    // Test valid and invalid moves through movePiece
+    @Test
+    void testMovePiece() {
+        assertTrue(board.movePiece(board.getSquare(1, 4), board.getSquare(3, 4)), "Pawn e2-e4");
+        assertNull(board.getPiece(1, 4));
+        assertEquals("W.Pawn", board.getPiece(3, 4).getName());
+        assertFalse(board.movePiece(board.getSquare(0, 0), board.getSquare(3, 0)), "The rook is blocked.");
+        assertTrue(board.movePiece(board.getSquare(0, 5), board.getSquare(4, 1)), "The bishop's path is open.");
+        assertEquals(Zobrist.compute(board), board.getHash());
+    }
+
+    // Test that a king capture is seen by hasKing and getKingSquare
+    @Test
+    void testKingCapture() {
+        emptyBoard.setPiece(0, 4, new King(Color.WHITE));
+        emptyBoard.setPiece(1, 4, new Queen(Color.BLACK));
+        assertTrue(emptyBoard.hasKing(Color.WHITE));
+        emptyBoard.makeMove(Move.encode(1, 4, 0, 4));
+        assertFalse(emptyBoard.hasKing(Color.WHITE));
+        assertNull(emptyBoard.getKingSquare(Color.WHITE));
+        emptyBoard.unmakeMove();
+        assertEquals(0, emptyBoard.getKingSquare(Color.WHITE).getRow());
+        assertEquals(0, emptyBoard.getUndoDepth());
+    }
+
+    // Test a promotion and its undo
+    @Test
+    void testPromotion() {
+        emptyBoard.setPiece(6, 0, new Pawn(Color.WHITE));
+        emptyBoard.makeMove(Move.encode(Bitboards.square(6, 0), Bitboards.square(7, 0), PieceType.QUEEN));
+        assertEquals("W.Queen", emptyBoard.getPiece(7, 0).getName());
+        emptyBoard.unmakeMove();
+        assertEquals("W.Pawn", emptyBoard.getPiece(6, 0).getName());
+        assertNull(emptyBoard.getPiece(7, 0));
+    }
+
+    // Test that copies are independent
+    @Test
+    void testCopy() {
+        Board copy = board.copy();
+        assertTrue(copy instanceof CompactBoard);
+        copy.makeMove(Move.encode(1, 4, 3, 4));
+        assertEquals("W.Pawn", board.getPiece(1, 4).getName());
+        assertNotEquals(board.getHash(), copy.getHash());
+    }
+
+    @Test
+    void testPieceWithoutColor() {
+        assertThrows(IllegalArgumentException.class, () -> emptyBoard.setPiece(0, 0, new Rook(null)));
+    }
+
+    // **White Box Tests** - Perft counts on the compact board match the reference counts
+    @Test
+    void testPerft() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Board compact = PerftPosition.load(position.getPlacement(), new CompactBoard(true));
+            long hash = compact.getHash();
+            assertEquals(position.getExpectedNodes(3), Perft.perft(compact, position.getSideToMove(), 3), position.name());
+            assertEquals(hash, compact.getHash());
+        }
+    }
+
+    // Test check, checkmate and stalemate on the compact board
+    @Test
+    void testCheckmateAndStalemate() {
+        assertTrue(PerftPosition.load("R5k1/5ppp/8/8/8/8/8/6K1", new CompactBoard(true)).isCheckmate(Color.BLACK));
+        assertTrue(PerftPosition.load("k7/8/1Q6/8/8/8/8/2K5", new CompactBoard(true)).isStalemate(Color.BLACK));
+        assertFalse(board.isInCheck(Color.WHITE));
+    }
+}
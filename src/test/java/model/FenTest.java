@@ -0,0 +1,178 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import perft.PerftPosition;
+
+class FenTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions (input):
+    	// - Full record, placement only, record with surrounding spaces
+    	// - Side to move: 'w', 'b', missing
+    	// - Source: String, StringBuilder, ByteBuffer holding several lines, some invalid
+    	// - Invalid: unknown letter, short or long rank, wrong rank count, bad side to move,
+    	//   no king or two kings for a side, more than 32 pieces
+    // Equivalence partitions (board):
+    	// - Square, bitboard, compact and flyweight boards
+    	// - Board with pieces: replaced by the position
+    	// - Board that is not 8x8
+
+    // Test that the starting position is written and read back
+    @Test
+    void testStartPosition() {
+        assertEquals(Fen.START, Fen.toFen(new Board(), Color.WHITE));
+        Board board = new Board(8, 8, true);
+        assertEquals(Color.WHITE, board.loadFen(Fen.START));
+        assertEquals(new Board().getHash(), board.getHash());
+        assertEquals(Fen.START, board.toFen(Color.WHITE));
+    }
+
+    // Test that every reference position survives a round trip on every representation
+    @Test
+    void testRoundTrip() {
+        for (BoardType type : BoardType.values()) {
+            for (PerftPosition position : PerftPosition.values()) {
+                Board board = type.createBoard();
+                String fen = position.getPlacement() + " b - - 0 1";
+                assertEquals(Color.BLACK, board.loadFen(fen));
+                assertEquals(fen, board.toFen(Color.BLACK), type + " " + position);
+                assertEquals(Zobrist.compute(board), board.getHash());
+            }
+        }
+    }
+
+    // Test that loading replaces the pieces already on the board
+    @Test
+    void testReplacesPieces() {
+        Board board = new Board();
+        board.loadFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(1, board.getPieceCount(PieceType.KING, Color.WHITE));
+        assertEquals(0, board.getPieceCount(PieceType.PAWN, Color.WHITE));
+        assertEquals(0, board.getPieceCount(PieceType.QUEEN, Color.BLACK));
+        assertEquals(PieceType.KING, board.getPiece(0, 4).getType());
+        assertEquals(Color.BLACK, board.getPiece(7, 4).getColor());
+        assertNull(board.getPiece(1, 4));
+    }
+
+    // Test the optional fields and the spaces around them
+    @Test
+    void testOptionalFields() {
+        Board board = new Board(8, 8, true);
+        assertEquals(Color.WHITE, board.loadFen("7k/8/8/8/8/8/8/7K"));
+        assertEquals(Color.BLACK, board.loadFen("  k7/8/8/8/8/8/8/7K   b  KQkq e3 12 40 "));
+        assertEquals(PieceType.KING, board.getPiece(7, 0).getType());
+        assertEquals(Color.WHITE, board.loadFen(new StringBuilder("7k/8/8/8/8/8/8/K7 w")));
+        assertEquals(Color.WHITE, board.getPiece(0, 0).getColor());
+    }
+
+    // Test reading consecutive records from the bytes of a buffer
+    @Test
+    void testByteBuffer() {
+        String text = Fen.START + "\n" + PerftPosition.KIWIPETE.getPlacement() + " b - - 0 1\r\n"
+                + "k7/8/8/8/8/8/8/7K w";
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        Board board = new CompactBoard(true);
+
+        assertEquals(Color.WHITE, Fen.load(buffer, board));
+        assertEquals(Fen.START, board.toFen(Color.WHITE));
+        assertEquals(Color.BLACK, Fen.load(buffer, board));
+        assertEquals(PerftPosition.KIWIPETE.createBoard().getHash(), board.getHash());
+        assertEquals(Color.WHITE, Fen.load(buffer, board));
+        assertEquals(1, board.getPieceCount(PieceType.KING, Color.BLACK));
+        assertEquals(1, board.getPieceCount(PieceType.KING, Color.WHITE));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    // Test that an invalid line of a buffer is skipped, so the next one can be loaded
+    @Test
+    void testByteBufferSkipsInvalidLine() {
+        ByteBuffer buffer = ByteBuffer.wrap(("bad\n" + Fen.START + "\n").getBytes(StandardCharsets.US_ASCII));
+        Board board = new Board();
+        assertThrows(IllegalArgumentException.class, () -> Fen.load(buffer, board));
+        assertEquals(4, buffer.position());
+        assertEquals(Color.WHITE, Fen.load(buffer, board));
+        assertEquals(Fen.START, board.toFen(Color.WHITE));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    // Test that invalid records are rejected and leave the board unchanged
+    @Test
+    void testInvalid() {
+        Board board = new Board();
+        long hash = board.getHash();
+        String[] invalid = {
+            "",
+            "rnbxkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR/8 w",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR white",
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "8/8/8/8/8/8/8/8 w",
+            "rnbq1bnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBKR w",
+            "rnbqkbnr/pppppppp/8/8/8/P7/PPPPPPPP/RNBQKBNR w",
+        };
+        for (String fen : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> board.loadFen(fen), fen);
+            assertEquals(hash, board.getHash(), fen);
+        }
+        Board small = new Board(6, 6, true);
+        small.setSizeRows(6);
+        small.setSizeCols(6);
+        assertThrows(IllegalArgumentException.class, () -> small.loadFen(Fen.START));
+    }
+
+    // **White Box Tests**
+
+    // Test that the error message points at the problem
+    @Test
+    void testErrorMessage() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new Board().loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPP/RNBQKBNR w"));
+        assertTrue(e.getMessage().contains("rank 2"), e.getMessage());
+    }
+
+    // Test that the messages name the king and piece limits
+    @Test
+    void testPieceLimits() {
+        IllegalArgumentException kings = assertThrows(IllegalArgumentException.class,
+                () -> new Board().loadFen("4k3/8/8/8/8/8/8/8 w"));
+        assertTrue(kings.getMessage().contains("exactly one king"), kings.getMessage());
+        IllegalArgumentException pieces = assertThrows(IllegalArgumentException.class,
+                () -> new Board().loadFen("rnbqkbnr/pppppppp/8/8/8/N7/PPPPPPPP/RNBQKBNR w"));
+        assertTrue(pieces.getMessage().contains("more than 32 pieces"), pieces.getMessage());
+        new Board().loadFen("4k3/pppppppp/pppppppp/pppppppp/2pppppp/8/8/4K3 w"); // 32 pieces, however unusual.
+    }
+
+    // Test that loading a position clears the undo stack, so no move can take the board back into the previous game
+    @Test
+    void testClearsUndo() {
+        for (BoardType type : BoardType.values()) {
+            Board board = type.createBoard();
+            board.makeMove(Move.parse("e2e4"));
+            board.makeMove(Move.parse("e7e5"));
+            board.loadFen(Fen.START);
+            assertEquals(0, board.getUndoDepth(), type.toString());
+            board.makeMove(Move.parse("d2d4"));
+            board.unmakeMove();
+            assertEquals(Fen.START, board.toFen(Color.WHITE), type.toString());
+        }
+    }
+
+    // Test the letters of the pieces
+    @Test
+    void testLetter() {
+        assertEquals('N', Fen.letter(new Knight(Color.WHITE)));
+        assertEquals('q', Fen.letter(PieceType.QUEEN.shared(Color.BLACK)));
+        assertEquals('p', Fen.letter(new Pawn(Color.BLACK)));
+    }
+}
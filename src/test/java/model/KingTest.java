@@ -185,4 +185,36 @@ class KingTest {
                 .getMessage().contains("out of bounds"),
                 "Error message should indicate that the column is out of bounds.");
     }
-}
\ No newline at end of file
+
+    // **White Box Tests** - The attack table gives the same answer as the one-square step on every square pair
+    @Test
+    void testAttackTableMatchesOneStep() {
+        Board emptyBoard = new Board(8, 8, true);
+        King king = new King(Color.BLACK);
+        for (int from = 0; from < 64; from++) {
+            Square origin = emptyBoard.getSquare(Bitboards.row(from), Bitboards.column(from));
+            origin.setPiece(king);
+            for (int to = 0; to < 64; to++) {
+                int rowDelta = Math.abs(Bitboards.row(to) - Bitboards.row(from));
+                int colDelta = Math.abs(Bitboards.column(to) - Bitboards.column(from));
+                boolean expected = rowDelta <= 1 && colDelta <= 1 && from != to;
+                assertEquals(expected, (Bitboards.kingAttacks(from) & Bitboards.bit(to)) != 0);
+                assertEquals(expected, king.validMovement(
+                        emptyBoard.getSquare(Bitboards.row(to), Bitboards.column(to)), emptyBoard));
+            }
+            origin.setPiece(null);
+        }
+    }
+
+    // Squares outside the 8x8 area of a larger board are checked without the table
+    @Test
+    void testLargeBoardOutsideTable() {
+        Board largeBoard = new Board(10, 10, true);
+        largeBoard.setSizeRows(10);
+        largeBoard.setSizeCols(10);
+        King king = new King(Color.WHITE);
+        largeBoard.getSquare(7, 7).setPiece(king);
+        assertTrue(king.validMovement(largeBoard.getSquare(8, 8), largeBoard));
+        assertFalse(king.validMovement(largeBoard.getSquare(9, 9), largeBoard));
+    }
+}
@@ -230,4 +230,34 @@ class KnightTest {
                 "Error message should indicate that color cannot be null.");
 
     }
+
+    // **White Box Tests** - The attack table gives the same answer as the "L" shape on every square pair
+    @Test
+    void testAttackTableMatchesLShape() {
+        Board emptyBoard = new Board(8, 8, true);
+        for (int from = 0; from < 64; from++) {
+            Square origin = emptyBoard.getSquare(Bitboards.row(from), Bitboards.column(from));
+            origin.setPiece(whiteKnight);
+            for (int to = 0; to < 64; to++) {
+                int rowDelta = Math.abs(Bitboards.row(to) - Bitboards.row(from));
+                int colDelta = Math.abs(Bitboards.column(to) - Bitboards.column(from));
+                boolean expected = (rowDelta == 2 && colDelta == 1) || (rowDelta == 1 && colDelta == 2);
+                assertEquals(expected, (Bitboards.knightAttacks(from) & Bitboards.bit(to)) != 0);
+                assertEquals(expected, whiteKnight.validMovement(
+                        emptyBoard.getSquare(Bitboards.row(to), Bitboards.column(to)), emptyBoard));
+            }
+            origin.setPiece(null);
+        }
+    }
+
+    // Squares outside the 8x8 area of a larger board are checked without the table
+    @Test
+    void testLargeBoardOutsideTable() {
+        Board largeBoard = new Board(10, 10, true);
+        largeBoard.setSizeRows(10);
+        largeBoard.setSizeCols(10);
+        largeBoard.getSquare(7, 7).setPiece(whiteKnight);
+        assertTrue(whiteKnight.validMovement(largeBoard.getSquare(9, 8), largeBoard));
+        assertFalse(whiteKnight.validMovement(largeBoard.getSquare(9, 9), largeBoard));
+    }
 }
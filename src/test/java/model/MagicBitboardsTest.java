@@ -0,0 +1,59 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class MagicBitboardsTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Empty board: full rays up to the edges
+    	// - Blocked rays: the first piece met is attacked, the squares behind it are not
+    	// - Queen: union of rook and bishop attacks
+
+    // Test the attacks on an empty board
+    @Test
+    void testEmptyBoard() {
+        assertEquals(14, Long.bitCount(MagicBitboards.rookAttacks(Bitboards.square(0, 0), 0L)));
+        assertEquals(7, Long.bitCount(MagicBitboards.bishopAttacks(Bitboards.square(0, 0), 0L)));
+        assertEquals(13, Long.bitCount(MagicBitboards.bishopAttacks(Bitboards.square(3, 3), 0L)));
+        assertEquals(27, Long.bitCount(MagicBitboards.queenAttacks(Bitboards.square(4, 3), 0L)));
+    }
+
+    // Test that a blocker stops the ray after its own square
+    @Test
+    void testBlockedRay() {
+        int rook = Bitboards.square(0, 0);
+        long blocker = Bitboards.bit(Bitboards.square(0, 3));
+        long attacks = MagicBitboards.rookAttacks(rook, blocker);
+        assertNotEquals(0L, attacks & blocker, "The blocker itself is attacked.");
+        assertEquals(0L, attacks & Bitboards.bit(Bitboards.square(0, 4)), "Squares behind the blocker are not.");
+        assertEquals(3 + 7, Long.bitCount(attacks));
+    }
+
+    @Test
+    void testQueenIsRookAndBishop() {
+        long occupied = 0x0042_0018_2400_8100L;
+        for (int square = 0; square < 64; square++) {
+            assertEquals(MagicBitboards.rookAttacks(square, occupied) | MagicBitboards.bishopAttacks(square, occupied),
+                    MagicBitboards.queenAttacks(square, occupied));
+        }
+    }
+
+    // **White Box Tests** - The tables agree with walking the rays, on every square and many occupancies
+    @Test
+    void testTablesMatchRayWalk() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 2000; i++) {
+            // Sparse and dense occupancies alike.
+            long occupied = i % 2 == 0 ? random.nextLong() & random.nextLong() : random.nextLong() | random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                assertEquals(MagicBitboards.slowAttacks(square, occupied, true), MagicBitboards.rookAttacks(square, occupied));
+                assertEquals(MagicBitboards.slowAttacks(square, occupied, false), MagicBitboards.bishopAttacks(square, occupied));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import perft.PerftPosition;
+
+class MoveGeneratorTest {
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Starting position: 20 moves for each side
+    	// - Empty side: no moves
+    	// - Any position: same moves as asking validMovement for every destination
+
+    // Test the number of moves in the starting position
+    @Test
+    void testStartingPosition() {
+        assertEquals(20, MoveGenerator.generate(new Board(), Color.WHITE, moves));
+        assertEquals(20, MoveGenerator.generate(new Board(), Color.BLACK, moves));
+    }
+
+    // Test that a side without pieces has no moves
+    @Test
+    void testNoPieces() {
+        Board board = new Board(8, 8, true);
+        board.getSquare(4, 4).setPiece(new King(Color.BLACK));
+        assertEquals(0, MoveGenerator.generate(board, Color.WHITE, moves));
+        assertEquals(8, MoveGenerator.generate(board, Color.BLACK, moves));
+    }
+
+    // Test the moves of a lone pawn on its starting row and on the last row
+    @Test
+    void testPawnMoves() {
+        Board board = new Board(8, 8, true);
+        board.getSquare(1, 0).setPiece(new Pawn(Color.WHITE));
+        board.getSquare(2, 1).setPiece(new Rook(Color.BLACK));
+        board.getSquare(7, 7).setPiece(new Pawn(Color.WHITE));
+        int count = MoveGenerator.generate(board, Color.WHITE, moves);
+
+        Set<String> generated = toSet(count);
+        assertEquals(Set.of("a2a3", "a2a4", "a2b3"), generated);
+    }
+
+    // **White Box Tests** - Compare with validMovement on every square of several positions
+    @Test
+    void testSameMovesAsValidMovement() {
+        Board board = new Board();
+        int[][] game = {{1, 4, 3, 4}, {6, 3, 4, 3}, {3, 4, 4, 3}, {7, 3, 4, 3}, {0, 5, 4, 1}, {7, 2, 3, 6},
+            {0, 6, 2, 5}, {4, 3, 1, 3}, {0, 3, 1, 3}, {7, 1, 5, 2}, {4, 1, 5, 2}, {6, 1, 5, 2}};
+        assertSameMoves(board);
+        for (int[] move : game) {
+            assertTrue(board.movePiece(board.getSquare(move[0], move[1]), board.getSquare(move[2], move[3])));
+            assertSameMoves(board);
+        }
+    }
+
+    // Test that a position with more moves than the buffer holds is refused on both paths,
+    // instead of writing past the end of the buffer
+    @Test
+    void testTooManyMoves() {
+        for (Board board : new Board[] {new Board(), new BitboardBoard()}) {
+            assertEquals(20, MoveGenerator.generate(board, Color.WHITE, new int[20]));
+            assertThrows(IllegalArgumentException.class, () -> MoveGenerator.generate(board, Color.WHITE, new int[19]));
+            assertThrows(IllegalArgumentException.class, () -> MoveGenerator.generate(board, Color.BLACK, new int[3]));
+        }
+    }
+
+    // Test that the bitboard representation generates the same moves
+    @Test
+    void testBitboardBoard() {
+        BitboardBoard board = new BitboardBoard();
+        board.movePiece(board.getSquare(1, 3), board.getSquare(3, 3));
+        board.movePiece(board.getSquare(6, 4), board.getSquare(4, 4));
+        assertSameMoves(board);
+    }
+
+    // Test that the bitboard path and the square path generate the same moves on the reference positions
+    @Test
+    void testBitboardPathMatchesSquarePath() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Board squares = PerftPosition.load(position.getPlacement(), new Board(8, 8, true));
+            Board bitboards = PerftPosition.load(position.getPlacement(), new BitboardBoard(true));
+            for (Color side : Color.values()) {
+                int count = MoveGenerator.generate(squares, side, moves);
+                Set<String> expected = toSet(count);
+                assertEquals(count, MoveGenerator.generate(bitboards, side, moves), position.name());
+                assertEquals(expected, toSet(count), position.name());
+            }
+        }
+    }
+
+    private void assertSameMoves(Board board) {
+        for (Color side : Color.values()) {
+            Set<String> expected = new HashSet<>();
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    Piece piece = board.getPiece(row, col);
+                    if (piece == null || piece.getColor() != side) {
+                        continue;
+                    }
+                    for (int toRow = 0; toRow < 8; toRow++) {
+                        for (int toCol = 0; toCol < 8; toCol++) {
+                            if (piece.validMovement(board.getSquare(toRow, toCol), board)) {
+                                expected.add(Move.toString(Move.encode(row, col, toRow, toCol)));
+                            }
+                        }
+                    }
+                }
+            }
+            int count = MoveGenerator.generate(board, side, moves);
+            assertEquals(expected.size(), count, "No move should be generated twice.");
+            assertEquals(expected, toSet(count));
+        }
+    }
+
+    private Set<String> toSet(int count) {
+        Set<String> set = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            set.add(Move.toString(moves[i]));
+        }
+        return set;
+    }
+
+    // Test that legal moves leave out the moves that leave the own king in check
+    @Test
+    void testGenerateLegal() {
+        assertEquals(20, MoveGenerator.generateLegal(new Board(), Color.WHITE, moves));
+
+        // The white rook on e2 is pinned by the black rook on e8 and may only move along the file.
+        Board board = PerftPosition.load("4r2k/8/8/8/8/8/4R3/4K3", new Board(8, 8, true));
+        int count = MoveGenerator.generateLegal(board, Color.WHITE, moves);
+        Set<String> generated = toSet(count);
+        assertTrue(generated.contains("e2e8"));
+        assertTrue(generated.contains("e2e3"));
+        assertFalse(generated.contains("e2d2"));
+        assertEquals(6 + 4, count, "Six rook moves on the file and four king moves.");
+        assertEquals(Zobrist.compute(board), board.getHash());
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MoveTest {
+
+    // Test that the packed fields can be read back
+    @Test
+    void testEncodeDecode() {
+        int move = Move.encode(1, 4, 3, 4);
+        assertEquals(Bitboards.square(1, 4), Move.from(move));
+        assertEquals(Bitboards.square(3, 4), Move.to(move));
+        assertNull(Move.promotion(move));
+        assertEquals("e2e4", Move.toString(move));
+    }
+
+    // Test the boundary squares and the promotion field
+    @Test
+    void testPromotion() {
+        int move = Move.encode(63, 0, PieceType.QUEEN);
+        assertEquals(63, Move.from(move));
+        assertEquals(0, Move.to(move));
+        assertEquals(PieceType.QUEEN, Move.promotion(move));
+        assertEquals("h8a1q", Move.toString(move));
+        assertTrue(move < (1 << 16), "Moves should fit in 16 bits.");
+    }
+
+    // Test parsing the coordinate notation written by toString
+    @Test
+    void testParse() {
+        assertEquals(Move.encode(1, 4, 3, 4), Move.parse("e2e4"));
+        assertEquals(Move.encode(63, 0, PieceType.QUEEN), Move.parse("h8a1q"));
+        assertEquals(Move.encode(48, 56, PieceType.KNIGHT), Move.parse("a7a8N"));
+        for (String text : new String[] {"", "e2", "e2e4e", "e2e9", "i2e4", "e2e2", "e7e8k", "e2e4 "}) {
+            assertEquals(Move.NONE, Move.parse(text), text);
+        }
+    }
+
+    // Test that every move survives the 16-bit code
+    @Test
+    void testCode() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                for (PieceType promotion : new PieceType[] {null, PieceType.KNIGHT, PieceType.QUEEN}) {
+                    int move = Move.encode(from, to, promotion);
+                    assertEquals(move, Move.fromCode(Move.toCode(move)));
+                }
+            }
+        }
+        assertTrue(Move.toCode(Move.encode(63, 63, PieceType.KING)) >= 0, "The top bit is never set.");
+    }
+
+    // Test that promotion values that are not promotions, as corrupt data can hold, read as plain moves
+    @Test
+    void testInvalidPromotion() {
+        int plain = Move.encode(12, 28);
+        for (int code : new int[] {0, 5, 6, 7}) {
+            int move = Move.fromCode((short) (plain | code << 12));
+            assertNull(Move.promotion(move));
+            assertEquals("e2e4", Move.toString(move));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ZobristTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Same pieces on the same squares: same key (transpositions, copies, representations)
+    	// - Different pieces or squares: different key
+    	// - Incremental key: equal to the key computed from scratch after any change
+
+    // Test that the incremental key matches a full computation after moves and captures
+    @Test
+    void testIncrementalMatchesComputed() {
+        Board board = new Board();
+        assertEquals(Zobrist.compute(board), board.getHash());
+        assertTrue(board.movePiece(board.getSquare(1, 4), board.getSquare(3, 4)));
+        assertTrue(board.movePiece(board.getSquare(6, 3), board.getSquare(4, 3)));
+        assertTrue(board.movePiece(board.getSquare(3, 4), board.getSquare(4, 3))); // Capture
+        assertEquals(Zobrist.compute(board), board.getHash());
+
+        board.getSquare(0, 4).setPiece(null);
+        board.getSquare(5, 5).setPiece(new Queen(Color.WHITE));
+        assertEquals(Zobrist.compute(board), board.getHash());
+    }
+
+    // Test that two move orders reaching the same position give the same key
+    @Test
+    void testTransposition() {
+        Board first = new Board();
+        first.movePiece(first.getSquare(0, 1), first.getSquare(2, 2));
+        first.movePiece(first.getSquare(0, 6), first.getSquare(2, 5));
+        Board second = new Board();
+        second.movePiece(second.getSquare(0, 6), second.getSquare(2, 5));
+        second.movePiece(second.getSquare(0, 1), second.getSquare(2, 2));
+
+        assertEquals(first.getHash(), second.getHash());
+        assertNotEquals(new Board().getHash(), first.getHash());
+    }
+
+    // Test that moving a piece and moving it back restores the key
+    @Test
+    void testMoveBack() {
+        Board board = new Board();
+        long start = board.getHash();
+        board.movePiece(board.getSquare(0, 1), board.getSquare(2, 2));
+        assertNotEquals(start, board.getHash());
+        board.movePiece(board.getSquare(2, 2), board.getSquare(0, 1));
+        assertEquals(start, board.getHash());
+    }
+
+    // Test that copies and other representations share the key
+    @Test
+    void testCopyAndBitboard() {
+        Board board = new Board();
+        assertEquals(board.getHash(), board.copy().getHash());
+        assertEquals(board.getHash(), new BitboardBoard().getHash());
+        assertEquals(0L, new Board(8, 8, true).getHash());
+    }
+
+    // Test the side to move component
+    @Test
+    void testSideToMove() {
+        Board board = new Board();
+        assertEquals(board.getHash(), Zobrist.key(board, Color.WHITE));
+        assertEquals(board.getHash() ^ Zobrist.BLACK_TO_MOVE, Zobrist.key(board, Color.BLACK));
+    }
+}
@@ -0,0 +1,82 @@
+package perft;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import model.BitboardBoard;
+import model.Board;
+import model.Color;
+
+class PerftTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Depth 0: a single node
+    	// - Depth 1-3: recorded counts of every reference position
+    	// - Threads: same counts with the root moves split across threads
+
+    // Test that depth 0 counts the position itself
+    @Test
+    void testDepthZero() {
+        assertEquals(1, Perft.perft(new Board(), Color.WHITE, 0));
+    }
+
+    // Test the starting position created by the default constructor
+    @Test
+    void testStartingPosition() {
+        assertEquals(20, Perft.perft(new Board(), Color.WHITE, 1));
+        assertEquals(400, Perft.perft(new Board(), Color.WHITE, 2));
+        assertEquals(8902, Perft.perft(new Board(), Color.WHITE, 3));
+    }
+
+    // Test every reference position up to depth 3
+    @Test
+    void testReferencePositions() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Board board = position.createBoard();
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(position.getExpectedNodes(depth), Perft.perft(board, position.getSideToMove(), depth),
+                        position + " at depth " + depth);
+            }
+        }
+    }
+
+    // Test that the board is left as it was found
+    @Test
+    void testBoardRestored() {
+        Board board = PerftPosition.KIWIPETE.createBoard();
+        Perft.perft(board, Color.WHITE, 3);
+        Board fresh = PerftPosition.KIWIPETE.createBoard();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                assertEquals(fresh.getPiece(row, col) == null ? null : fresh.getPiece(row, col).getName(),
+                        board.getPiece(row, col) == null ? null : board.getPiece(row, col).getName());
+            }
+        }
+    }
+
+    // Test that splitting the root across threads gives the same counts
+    @Test
+    void testParallel() {
+        Board board = PerftPosition.POSITION_4.createBoard();
+        assertEquals(PerftPosition.POSITION_4.getExpectedNodes(3), Perft.perft(board, Color.WHITE, 3, 4));
+    }
+
+    // Test that the bitboard representation gives the same counts
+    @Test
+    void testBitboardBoard() {
+        Board board = PerftPosition.load(PerftPosition.KIWIPETE.getPlacement(), new BitboardBoard(true));
+        assertEquals(PerftPosition.KIWIPETE.getExpectedNodes(3), Perft.perft(board, Color.WHITE, 3, 2));
+        for (PerftPosition position : PerftPosition.values()) {
+            Board bitboard = PerftPosition.load(position.getPlacement(), new BitboardBoard(true));
+            assertEquals(position.getExpectedNodes(3), Perft.perft(bitboard, position.getSideToMove(), 3), position.name());
+        }
+    }
+
+    // Test that an invalid placement is rejected
+    @Test
+    void testInvalidPlacement() {
+        assertThrows(IllegalArgumentException.class, () -> PerftPosition.load("rnbxkbnr", new Board(8, 8, true)));
+    }
+}
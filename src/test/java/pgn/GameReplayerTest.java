@@ -0,0 +1,135 @@
+package pgn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.BoardType;
+import model.Color;
+import model.Move;
+
+class GameReplayerTest {
+
+    private static final String GAMES =
+            "[Event \"Scholar's mate\"]\n1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0\n\n"
+            + "[Event \"Castling\"]\n1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O Nf6 *\n\n"
+            + "[Event \"Illegal\"]\n1. e4 e5 2. Ke3 *\n\n"
+            + "[Event \"En passant\"]\n1. e4 a6 2. e5 d5 3. exd6 *\n\n"
+            + "[Event \"Promotion\"]\n[FEN \"8/P6k/8/8/8/8/8/K7 w - - 0 1\"]\n1. a8=Q *\n\n"
+            + "[Event \"Bad FEN\"]\n[FEN \"8/8/8 w - - 0 1\"]\n1. e4 *\n\n"
+            + "[Event \"Black to move\"]\n[FEN \"4k3/8/8/8/8/8/8/4K2R b - - 0 1\"]\n1... Kd7 2. Rh7+ Kc6 *\n\n"
+            + "[Event \"Garbage\"]\n1. e4 Zz9 *\n";
+
+    private static List<PgnGame> read(String text) throws IOException {
+        List<PgnGame> games = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))))) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Valid game from the start position, from a FEN position with Black to move
+    	// - Illegal move, malformed move
+    	// - Moves the model does not have: castling, en passant, promotion
+    	// - Invalid FEN tag
+    	// - Every board representation
+
+    // Test the result of each game on every board representation
+    @Test
+    void testReplay() throws IOException {
+        List<PgnGame> games = read(GAMES);
+        for (BoardType type : BoardType.values()) {
+            GameReplayer replayer = new GameReplayer(type);
+            ValidationStats stats = new ValidationStats();
+            List<ReplayResult> results = new ArrayList<>();
+            for (PgnGame game : games) {
+                ReplayResult result = replayer.replay(game);
+                stats.record(result);
+                results.add(result);
+            }
+
+            assertTrue(results.get(0).isValid(), type.name());
+            assertEquals(7, results.get(0).getPlies());
+            assertNull(results.get(0).getMove());
+
+            assertEquals(ReplayResult.Status.UNSUPPORTED_MOVE, results.get(1).getStatus());
+            assertEquals(6, results.get(1).getPlies());
+            assertEquals("O-O", results.get(1).getMove());
+
+            assertEquals(ReplayResult.Status.ILLEGAL_MOVE, results.get(2).getStatus());
+            assertEquals("Ke3", results.get(2).getMove());
+            assertEquals("game 3: illegal move Ke3 at ply 3", results.get(2).toString());
+
+            assertEquals(ReplayResult.Status.UNSUPPORTED_MOVE, results.get(3).getStatus(), "En passant");
+            assertEquals(4, results.get(3).getPlies());
+            assertEquals(ReplayResult.Status.UNSUPPORTED_MOVE, results.get(4).getStatus(), "Promotion");
+            assertEquals(ReplayResult.Status.INVALID_POSITION, results.get(5).getStatus());
+            assertTrue(results.get(6).isValid());
+            assertEquals(ReplayResult.Status.ILLEGAL_MOVE, results.get(7).getStatus());
+            assertEquals("Zz9", results.get(7).getMove());
+
+            assertEquals(8, stats.getGames());
+            assertEquals(2, stats.getCount(ReplayResult.Status.VALID));
+            assertEquals(2, stats.getIllegalMoves());
+            assertEquals(3, stats.getCount(ReplayResult.Status.UNSUPPORTED_MOVE));
+            assertEquals(1, stats.getCount(ReplayResult.Status.INVALID_POSITION));
+            assertEquals(7 + 6 + 2 + 4 + 0 + 0 + 3 + 1, stats.getPlies());
+        }
+    }
+
+    // Test that the controller holds the final position with the right side to move
+    @Test
+    void testFinalPosition() throws IOException {
+        GameReplayer replayer = new GameReplayer();
+        List<PgnGame> games = read(GAMES);
+        replayer.replay(games.get(0));
+        assertEquals("r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b - - 0 1",
+                replayer.getController().toFen());
+        assertTrue(replayer.getController().checkGameOver(), "Black is checkmated.");
+        assertEquals(Color.WHITE, replayer.getController().getWinner().getColor());
+
+        replayer.replay(games.get(6));
+        assertEquals(Color.WHITE, replayer.getController().getActualTurn().getColor());
+    }
+
+    // Test that the moves played are kept, up to the move where a replay stops
+    @Test
+    void testMoves() throws IOException {
+        GameReplayer replayer = new GameReplayer();
+        List<PgnGame> games = read(GAMES);
+        replayer.replay(games.get(0));
+        int[] moves = replayer.getMoves();
+        assertEquals(7, moves.length);
+        assertEquals(Move.parse("e2e4"), moves[0]);
+        assertEquals(Move.parse("h5f7"), moves[6]);
+
+        replayer.replay(games.get(2));
+        assertArrayEquals(new int[] {Move.parse("e2e4"), Move.parse("e7e5")}, replayer.getMoves());
+    }
+
+    // **White Box Tests**
+
+    // Test the throughput and the summary line of the counters
+    @Test
+    void testStatsSummary() {
+        ValidationStats stats = new ValidationStats();
+        stats.record(new ReplayResult(1, ReplayResult.Status.VALID, 40, null));
+        stats.record(new ReplayResult(2, ReplayResult.Status.ILLEGAL_MOVE, 10, "Ke3"));
+        assertEquals(2.0, stats.getGamesPerSecond(1_000_000_000L), 1e-9);
+        assertEquals("2 games (1 valid, 1 illegal, 0 unsupported, 0 invalid position), 50 plies in 1.0 s: "
+                + "2 games/s, 50 plies/s", stats.summary(1_000_000_000L));
+    }
+}
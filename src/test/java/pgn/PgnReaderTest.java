@@ -0,0 +1,145 @@
+package pgn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PgnReaderTest {
+
+    private static final String TWO_GAMES =
+            "[Event \"Casual\"]\n"
+            + "[White \"Müller, \\\"Tom\\\"\"]\n"
+            + "[Black \"Doe\"]\n"
+            + "\n"
+            + "1. e4 e5 2. Qh5 {threatens mate} Nc6 3. Bc4 Nf6?? 4. Qxf7# 1-0\n"
+            + "\n"
+            + "[Event \"Second\"]\n"
+            + "1.d4 d5 2.c4 (2.Nf3 Nf6 (2...c5) 3.c4) 2...e6 $1 ; line comment 3. Nc3\n"
+            + "% escape line 4. Nf3\n"
+            + "3...Nf6 1/2-1/2\n";
+
+    private static PgnReader reader(String text, int bufferSize) {
+        return new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), bufferSize);
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions (input):
+    	// - Games with tags and results, games without tags, without result, empty input
+    	// - Movetext with comments, variations (nested), NAGs, escape lines, move numbers with
+    	//   and without spaces, annotations
+    	// - Tag values with escaped quotes and UTF-8 characters
+    // Equivalence partitions (buffer):
+    	// - Buffer much larger than the input, buffer of a few bytes (tokens split across reads)
+
+    // Test that games, tags, moves and results are read in order
+    @Test
+    void testReadsGames() throws IOException {
+        for (int bufferSize : new int[] {PgnReader.DEFAULT_BUFFER_SIZE, 7, 1}) {
+            try (PgnReader reader = reader(TWO_GAMES, bufferSize)) {
+                PgnGame first = reader.next();
+                assertEquals(1, first.getNumber());
+                assertEquals(1, first.getLine());
+                assertEquals("Casual", first.getTag("Event"));
+                assertEquals("Müller, \"Tom\"", first.getTag("White"));
+                assertEquals(Arrays.asList("Event", "White", "Black"), Arrays.asList(first.getTags().keySet().toArray()));
+                assertEquals(Arrays.asList("e4", "e5", "Qh5", "Nc6", "Bc4", "Nf6", "Qxf7#"), first.getMoves());
+                assertEquals("1-0", first.getResult());
+
+                PgnGame second = reader.next();
+                assertEquals(2, second.getNumber());
+                assertEquals(7, second.getLine());
+                assertEquals(Arrays.asList("d4", "d5", "c4", "e6", "Nf6"), second.getMoves());
+                assertEquals("1/2-1/2", second.getResult());
+
+                assertNull(reader.next());
+                assertNull(reader.next());
+                assertEquals(2, reader.getGamesRead());
+            }
+        }
+    }
+
+    // Test games that end without a result marker
+    @Test
+    void testMissingResult() throws IOException {
+        try (PgnReader reader = reader("1. e4 e5\n[Event \"Next\"]\n1. d4 *\n2. c4", 16)) {
+            PgnGame first = reader.next();
+            assertEquals(Arrays.asList("e4", "e5"), first.getMoves());
+            assertEquals("*", first.getResult());
+            PgnGame second = reader.next();
+            assertEquals("Next", second.getTag("Event"));
+            assertEquals(Arrays.asList("d4"), second.getMoves());
+            PgnGame third = reader.next();
+            assertEquals(Arrays.asList("c4"), third.getMoves());
+            assertEquals("*", third.getResult());
+            assertNull(reader.next());
+        }
+    }
+
+    // Test that empty input and input with only spaces hold no game
+    @Test
+    void testEmpty() throws IOException {
+        assertNull(reader("", 8).next());
+        assertNull(reader(" \r\n\t\n", 8).next());
+        assertThrows(IllegalArgumentException.class, () -> reader("", 0));
+    }
+
+    // Test reading a file through a file channel
+    @Test
+    void testOpenFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("games.pgn");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("[Round \"").append(i).append("\"]\n1. e4 e5 2. Nf3 Nc6 *\n\n");
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+        try (PgnReader reader = PgnReader.open(file)) {
+            long count = 0;
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                assertEquals(String.valueOf(count), game.getTag("Round"));
+                assertEquals(4, game.getMoves().size());
+                count++;
+            }
+            assertEquals(1000, count);
+        }
+    }
+
+    // **White Box Tests**
+
+    // Test tokens: move numbers glued to moves, castling written with zeros, annotations
+    @Test
+    void testTokens() throws IOException {
+        PgnGame game = reader("12.e4 12...e5 13. O-O!? 0-0-0 Nf3! exd5?! 0-1", 4).next();
+        assertEquals(Arrays.asList("e4", "e5", "O-O", "0-0-0", "Nf3", "exd5"), game.getMoves());
+        assertEquals("0-1", game.getResult());
+    }
+
+    // Test unbalanced brackets and an unterminated comment at the end of the input
+    @Test
+    void testMalformed() throws IOException {
+        PgnGame game = reader("1. e4 ) e5 ] 2. Nf3 } {never closed", 5).next();
+        assertEquals(Arrays.asList("e4", "e5", "Nf3"), game.getMoves());
+        assertEquals("*", game.getResult());
+    }
+
+    // Test that a quote outside a tag is skipped rather than stopping the reader
+    @Test
+    void testStrayQuote() {
+        PgnGame game = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> reader("[Event \"x\"]\n\n1. e4 \" e5 1-0\n", 4).next());
+        assertEquals(Arrays.asList("e4", "e5"), game.getMoves());
+        assertEquals("1-0", game.getResult());
+        assertEquals("x", game.getTag("Event"));
+    }
+}
@@ -0,0 +1,123 @@
+package pgn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Color;
+import model.Move;
+import model.MoveGenerator;
+import model.PieceType;
+
+class SanTest {
+
+    private San san;
+    private int[] moves;
+
+    @BeforeEach
+    void setUp() {
+        san = new San();
+        moves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    private int find(Board board, Color side, String text) {
+        assertTrue(san.parse(text), text);
+        return san.find(board, side, moves, MoveGenerator.generate(board, side, moves));
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions (notation):
+    	// - Pawn pushes and captures, piece moves, captures, disambiguation by file, rank or both
+    	// - Castling (O-O, O-O-O, with zeros), promotion (with and without '=')
+    	// - Check, mate and annotation suffixes
+    	// - Malformed: empty, bad squares, misplaced capture mark, pawn capture without file
+    // Equivalence partitions (lookup):
+    	// - One matching move, no matching move, ambiguous move, pinned piece
+
+    // Test the fields of well-formed moves
+    @Test
+    void testParse() {
+        assertTrue(san.parse("e4"));
+        assertEquals(PieceType.PAWN, san.getPiece());
+        assertEquals(28, san.getTo());
+        assertFalse(san.isCapture());
+
+        assertTrue(san.parse("Nbxd7+"));
+        assertEquals(PieceType.KNIGHT, san.getPiece());
+        assertEquals(51, san.getTo());
+        assertTrue(san.isCapture());
+
+        assertTrue(san.parse("exd8=Q#"));
+        assertEquals(PieceType.QUEEN, san.getPromotion());
+        assertTrue(san.parse("b1N"));
+        assertEquals(PieceType.KNIGHT, san.getPromotion());
+
+        assertTrue(san.parse("O-O"));
+        assertTrue(san.isCastling());
+        assertFalse(san.isQueenSide());
+        assertTrue(san.parse("0-0-0+"));
+        assertTrue(san.isQueenSide());
+        assertEquals(-1, san.getTo());
+
+        assertTrue(san.parse("Qh4xe1!?"));
+        assertEquals(4, san.getTo());
+    }
+
+    // Test that malformed moves are rejected
+    @Test
+    void testParseInvalid() {
+        for (String text : new String[] {"", "+", "e9", "i4", "Nx", "xe4", "Ne4x", "dd4", "exd", "e4=Q",
+                "Ne8=Q", "e8=K", "O-O-", "O-0", "Zf3", "e2e4"}) {
+            assertFalse(san.parse(text), text);
+        }
+    }
+
+    // Test finding moves in the starting position
+    @Test
+    void testFindInStartPosition() {
+        Board board = new Board();
+        assertEquals(Move.encode(1, 4, 3, 4), find(board, Color.WHITE, "e4"));
+        assertEquals(Move.encode(0, 6, 2, 5), find(board, Color.WHITE, "Nf3"));
+        assertEquals(Move.encode(6, 3, 5, 3), find(board, Color.BLACK, "d6"));
+        assertEquals(Move.NONE, find(board, Color.WHITE, "e5"), "Too far for a pawn.");
+        assertEquals(Move.NONE, find(board, Color.WHITE, "Bc4"), "Blocked bishop.");
+        assertEquals(Move.NONE, find(board, Color.WHITE, "O-O"), "Castling is not a move of the model.");
+    }
+
+    // Test disambiguation and pins
+    @Test
+    void testAmbiguity() {
+        Board board = new Board(8, 8, true);
+        board.loadFen("4k3/8/8/8/8/8/8/N3K2N w");
+        assertEquals(Move.encode(0, 0, 2, 1), find(board, Color.WHITE, "Nb3"), "Only one knight reaches b3.");
+        board.loadFen("4k3/8/8/8/8/8/8/1N2KN2 w");
+        assertEquals(Move.NONE, find(board, Color.WHITE, "Nd2"), "Both knights reach d2.");
+        assertEquals(Move.encode(0, 1, 1, 3), find(board, Color.WHITE, "Nbd2"));
+        assertEquals(Move.encode(0, 5, 1, 7), find(board, Color.WHITE, "Nh2"));
+
+        board.loadFen("4k3/8/8/8/R7/8/8/R3K3 w");
+        assertEquals(Move.encode(3, 0, 2, 0), find(board, Color.WHITE, "R4a3"));
+        assertEquals(Move.encode(0, 0, 2, 0), find(board, Color.WHITE, "R1a3"));
+
+        // The knight on e2 is pinned by the rook on e8, so Nc3 names the knight on b1 only.
+        board.loadFen("4r1k1/8/8/8/8/8/4N3/1N2K3 w");
+        assertEquals(Move.encode(0, 1, 2, 2), find(board, Color.WHITE, "Nc3"));
+    }
+
+    // **White Box Tests**
+
+    // Test that the parser is reset between moves
+    @Test
+    void testReuse() {
+        assertTrue(san.parse("exd8=Q"));
+        assertTrue(san.parse("Kd2"));
+        assertNull(san.getPromotion());
+        assertFalse(san.isCapture());
+        assertEquals(PieceType.KING, san.getPiece());
+        assertFalse(san.parse("O-O-O-O"));
+        assertTrue(san.parse("d3"));
+        assertFalse(san.isCastling());
+    }
+}
@@ -0,0 +1,140 @@
+package pgn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.BoardType;
+
+class ValidationPipelineTest {
+
+    // A valid game, a game stopped by castling and a game with an illegal move, repeated.
+    private static final String[] GAMES = {
+        "[Event \"Valid\"]\n1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0\n\n",
+        "[Event \"Castling\"]\n1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O Nf6 *\n\n",
+        "[Event \"Illegal\"]\n1. d4 d5 2. Ke3 *\n\n",
+    };
+
+    private static PgnReader reader(int games) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < games; i++) {
+            text.append(GAMES[i % GAMES.length]);
+        }
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static List<ReplayResult> sequential(int games) throws IOException {
+        List<ReplayResult> results = new ArrayList<>();
+        GameReplayer replayer = new GameReplayer();
+        try (PgnReader reader = reader(games)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                results.add(replayer.replay(game));
+            }
+        }
+        return results;
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Threads: 1, several
+    	// - Output: in file order, as ready
+    	// - Capacity and batch size: 1 (constant back-pressure), larger than the input
+    	// - Input: empty, fewer games than a batch, many batches
+    	// - Failure: output throwing; invalid arguments
+
+    // Test that ordered output matches a sequential replay game by game
+    @Test
+    void testOrderedMatchesSequential() throws IOException {
+        List<ReplayResult> expected = sequential(1000);
+        for (int threads : new int[] {1, 4}) {
+            for (int capacity : new int[] {1, 3, 100}) {
+                for (int batchSize : new int[] {1, 7, 2000}) {
+                    List<ReplayResult> results = new ArrayList<>();
+                    ValidationPipeline pipeline = new ValidationPipeline(BoardType.STANDARD, threads, capacity, batchSize, true);
+                    PipelineReport report = pipeline.run(reader(1000), results::add);
+
+                    assertEquals(expected.size(), results.size());
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertEquals(i + 1, results.get(i).getGameNumber());
+                        assertEquals(expected.get(i).getStatus(), results.get(i).getStatus());
+                        assertEquals(expected.get(i).getPlies(), results.get(i).getPlies());
+                    }
+                    assertEquals(1000, report.getStats().getGames());
+                    assertEquals(333, report.getStats().getIllegalMoves());
+                    assertEquals(threads, report.getThreads());
+                }
+            }
+        }
+    }
+
+    // Test that unordered output holds every game once, on every board representation
+    @Test
+    void testUnordered() throws IOException {
+        for (BoardType type : BoardType.values()) {
+            boolean[] seen = new boolean[301];
+            PipelineReport report = new ValidationPipeline(type, 3, 2, 5, false).run(reader(300), result -> {
+                assertFalse(seen[(int) result.getGameNumber()], "Each game is output once.");
+                seen[(int) result.getGameNumber()] = true;
+            });
+            for (int i = 1; i <= 300; i++) {
+                assertTrue(seen[i], type + " game " + i);
+            }
+            assertEquals(100, report.getStats().getCount(ReplayResult.Status.VALID));
+            assertEquals(100, report.getStats().getCount(ReplayResult.Status.UNSUPPORTED_MOVE));
+            assertTrue(report.getGamesPerSecond() > 0);
+        }
+    }
+
+    // Test empty input and input smaller than one batch
+    @Test
+    void testSmallInputs() throws IOException {
+        List<ReplayResult> results = new ArrayList<>();
+        PipelineReport report = new ValidationPipeline(2).run(reader(0), results::add);
+        assertTrue(results.isEmpty());
+        assertEquals(0, report.getStats().getGames());
+
+        new ValidationPipeline(2).run(reader(2), results::add);
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isValid());
+    }
+
+    // Test that a failing output stops the run with an exception instead of hanging
+    @Test
+    void testOutputFailure() {
+        ValidationPipeline pipeline = new ValidationPipeline(BoardType.STANDARD, 2, 1, 1, true);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.run(reader(500), result -> {
+            if (result.getGameNumber() == 10) {
+                throw new IllegalArgumentException("Output failed.");
+            }
+        }));
+        assertEquals("Output failed.", e.getCause().getMessage());
+    }
+
+    // Test that invalid settings are rejected
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ValidationPipeline(0));
+        assertThrows(IllegalArgumentException.class, () -> new ValidationPipeline(BoardType.STANDARD, 1, 0, 1, true));
+        assertThrows(IllegalArgumentException.class, () -> new ValidationPipeline(BoardType.STANDARD, 1, 1, 0, false));
+    }
+
+    // **White Box Tests**
+
+    // Test that the report accounts the waiting times and formats them
+    @Test
+    void testReport() throws IOException {
+        PipelineReport report = new ValidationPipeline(BoardType.STANDARD, 2, 1, 1, true).run(reader(50), result -> { });
+        assertTrue(report.getElapsedNanos() > 0);
+        assertTrue(report.getReaderWaitNanos() >= 0);
+        assertTrue(report.getWorkerIdleNanos() > 0, "Workers wait at least for the first game.");
+        assertTrue(report.summary().contains("2 thread(s): reader waited"), report.summary());
+    }
+}
@@ -0,0 +1,126 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import engine.TranspositionTable;
+import journal.MoveJournal;
+import model.BoardType;
+import model.Fen;
+
+class CommandHandlerTest {
+
+    private SessionRegistry registry;
+    private CommandHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SessionRegistry();
+        handler = new CommandHandler(registry, new TranspositionTable(1));
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Command: NEW, MOVE, PLAY, STATE, MOVES, CLOSE, STATS, QUIT, unknown, empty
+    	// - Keyword case: upper, lower
+    	// - Arguments: valid, missing, not a number, unknown game, invalid FEN, depth out of range
+    	// - Game: in progress, over
+    	// - Moved piece: of the side to move, of the other side, none
+    	// - Registry: without journal, with journal
+
+    // Test a game played through the protocol
+    @Test
+    void testPlayGame() {
+        assertEquals("OK 1", handler.handle("NEW"));
+        assertEquals("OK IN_PROGRESS w 0 " + Fen.START, handler.handle("STATE 1"));
+        assertEquals("OK ACCEPTED IN_PROGRESS", handler.handle("MOVE 1 f2f3"));
+        assertEquals("OK ILLEGAL IN_PROGRESS", handler.handle("move 1 e7e4"));
+        assertEquals("OK ACCEPTED IN_PROGRESS", handler.handle("move 1 e7e5"));
+        assertEquals("OK ACCEPTED IN_PROGRESS", handler.handle("MOVE 1 g2g4"));
+        assertEquals("OK ACCEPTED BLACK_WINS", handler.handle("MOVE 1 d8h4"));
+        assertEquals("OK GAME_OVER BLACK_WINS", handler.handle("MOVE 1 a2a3"));
+        assertEquals("OK", handler.handle("MOVES 1"));
+        assertEquals("OK none BLACK_WINS", handler.handle("PLAY 1"));
+        assertTrue(handler.handle("STATE 1").startsWith("OK BLACK_WINS w 4 "));
+    }
+
+    // Test that MOVE only moves pieces of the side to move
+    @Test
+    void testMoveOwnership() {
+        assertEquals("OK 1", handler.handle("NEW"));
+        assertEquals("OK NOT_YOUR_TURN IN_PROGRESS", handler.handle("MOVE 1 e7e5"));
+        assertEquals("OK ILLEGAL IN_PROGRESS", handler.handle("MOVE 1 e3e4"));
+        assertEquals("OK ACCEPTED IN_PROGRESS", handler.handle("MOVE 1 e2e4"));
+        assertEquals("OK NOT_YOUR_TURN IN_PROGRESS", handler.handle("MOVE 1 d2d4"));
+        assertTrue(handler.handle("STATE 1").startsWith("OK IN_PROGRESS b 1 "));
+    }
+
+    // Test that with a journal, MOVE and PLAY reply only once their move is on disk
+    @Test
+    void testJournaledRepliesAreDurable(@TempDir Path directory) throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            SessionRegistry journaled = new SessionRegistry(BoardType.COMPACT, journal);
+            CommandHandler durable = new CommandHandler(journaled, new TranspositionTable(1));
+            assertEquals("OK 1", durable.handle("NEW"));
+            assertEquals("OK ACCEPTED IN_PROGRESS", durable.handle("MOVE 1 e2e4"));
+            assertEquals(journal.getAppended(), journal.getDurable());
+            assertTrue(durable.handle("PLAY 1 1").startsWith("OK "));
+            assertEquals(journal.getAppended(), journal.getDurable());
+            assertEquals(5, journal.getDurable()); // A three-record snapshot and two moves.
+        }
+    }
+
+    // Test games started from a position, listed moves and engine moves
+    @Test
+    void testPositionMovesAndPlay() {
+        assertEquals("OK 1", handler.handle("NEW 4k3/8/8/8/8/8/8/4K2R w - - 0 1"));
+        String moves = handler.handle("MOVES 1");
+        assertTrue(moves.startsWith("OK "));
+        assertTrue(moves.contains("h1h8"));
+        assertTrue(moves.contains("e1d1"));
+        // The rook checks along the eighth rank; no mate yet, the game goes on.
+        assertEquals("OK ACCEPTED IN_PROGRESS", handler.handle("MOVE 1 h1h8"));
+
+        assertEquals("OK 2", handler.handle("new"));
+        String played = handler.handle("PLAY 2 2");
+        assertTrue(played.matches("OK [a-h][1-8][a-h][1-8] IN_PROGRESS"), played);
+        assertTrue(handler.handle("STATE 2").startsWith("OK IN_PROGRESS b 1 "));
+    }
+
+    // Test CLOSE, STATS and QUIT
+    @Test
+    void testSessionCommands() {
+        handler.handle("NEW");
+        handler.handle("NEW");
+        assertEquals("OK games=2", handler.handle("STATS"));
+        assertEquals("OK", handler.handle("CLOSE 1"));
+        assertEquals("ERR No game 1.", handler.handle("CLOSE 1"));
+        assertEquals("OK games=1", handler.handle("stats"));
+        assertEquals(CommandHandler.BYE, handler.handle("QUIT"));
+        assertTrue(CommandHandler.isQuit(" quit "));
+        assertFalse(CommandHandler.isQuit("STATS"));
+    }
+
+    // Test the error replies
+    @Test
+    void testErrors() {
+        assertEquals("ERR Unknown command: JUMP", handler.handle("JUMP 1"));
+        assertEquals("ERR Unknown command: ", handler.handle(""));
+        assertEquals("ERR No game 7.", handler.handle("STATE 7"));
+        assertEquals("ERR Missing argument for MOVE.", handler.handle("move 1"));
+        assertEquals("ERR Missing argument for STATE.", handler.handle("STATE"));
+        assertTrue(handler.handle("STATE x").startsWith("ERR Not a number: "));
+        assertTrue(handler.handle("NEW 8/8 w").startsWith("ERR Invalid FEN"));
+        handler.handle("NEW");
+        assertEquals("ERR Depth must be between 1 and " + CommandHandler.MAX_PLAY_DEPTH + ".", handler.handle("PLAY 1 0"));
+        assertEquals("ERR Depth must be between 1 and " + CommandHandler.MAX_PLAY_DEPTH + ".", handler.handle("PLAY 1 99"));
+        assertEquals("OK ILLEGAL IN_PROGRESS", handler.handle("MOVE 1 zz"));
+        assertEquals("OK games=1", handler.handle("STATS"));
+    }
+}
@@ -0,0 +1,202 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import engine.TranspositionTable;
+
+class GameServerTest {
+
+    private SessionRegistry registry;
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = new SessionRegistry();
+        server = new GameServer(registry, new CommandHandler(registry, new TranspositionTable(1)), 2, 0);
+        server.start(new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    // A blocking client of the line protocol.
+    private static final class Client implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket("127.0.0.1", port);
+            socket.setSoTimeout(10_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(socket.getOutputStream(), true);
+        }
+
+        String send(String line) throws IOException {
+            out.print(line + "\r\n");
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Clients: one, several at once, several sharing a game
+    	// - Requests: one at a time, several sent before reading the replies
+    	// - Connection end: QUIT, client closing, client shutting down its output, line too long,
+    	//   server closing
+
+    // Test a game played over a socket, ended with QUIT
+    @Test
+    void testRoundTrip() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("OK 1", client.send("NEW"));
+            assertEquals("OK ACCEPTED IN_PROGRESS", client.send("MOVE 1 e2e4"));
+            assertTrue(client.send("PLAY 1 1").matches("OK [a-h][1-8][a-h][1-8] IN_PROGRESS"));
+            assertTrue(client.send("STATE 1").startsWith("OK IN_PROGRESS w 2 "));
+            assertEquals(CommandHandler.BYE, client.send("QUIT"));
+            assertNull(client.in.readLine());
+        }
+        assertEquals(1, registry.size());
+    }
+
+    // Test that requests sent together are answered one by one, in order
+    @Test
+    void testPipelinedRequests() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.out.print("NEW\nMOVE 1 d2d4\nMOVE 1 d7d5\nSTATE 1\nSTATS\n");
+            client.out.flush();
+            assertEquals("OK 1", client.in.readLine());
+            assertEquals("OK ACCEPTED IN_PROGRESS", client.in.readLine());
+            assertEquals("OK ACCEPTED IN_PROGRESS", client.in.readLine());
+            assertTrue(client.in.readLine().startsWith("OK IN_PROGRESS w 2 "));
+            assertEquals("OK games=1", client.in.readLine());
+        }
+    }
+
+    // Test several clients playing their own games and one shared game at once
+    @Test
+    void testConcurrentClients() throws Exception {
+        long shared = registry.create();
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            accepted.add(pool.submit(() -> {
+                try (Client client = new Client(server.getPort())) {
+                    String id = client.send("NEW").substring(3);
+                    assertEquals("OK ACCEPTED IN_PROGRESS", client.send("MOVE " + id + " g1f3"));
+                    assertEquals("OK ACCEPTED IN_PROGRESS", client.send("MOVE " + id + " g8f6"));
+                    // Every client tries the same two moves in the shared game; each is accepted once.
+                    int count = 0;
+                    for (String move : new String[] {"b1c3", "b8c6"}) {
+                        if (client.send("MOVE " + shared + " " + move).startsWith("OK ACCEPTED")) {
+                            count++;
+                        }
+                    }
+                    assertEquals(CommandHandler.BYE, client.send("QUIT"));
+                    return count;
+                }
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> future : accepted) {
+            total += future.get();
+        }
+        pool.shutdown();
+        assertTrue(total >= 1 && total <= 2);
+        assertEquals(clients + 1, registry.size());
+    }
+
+    // Test that clients shutting down their sending side still get every reply, then end of stream
+    @Test
+    void testHalfClose() throws Exception {
+        int clients = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<List<String>>> replies = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            replies.add(pool.submit(() -> {
+                try (Client client = new Client(server.getPort())) {
+                    client.out.print("NEW\nSTATS\nSTATS"); // The last line has no terminator.
+                    client.out.flush();
+                    client.socket.shutdownOutput();
+                    List<String> lines = new ArrayList<>();
+                    String line;
+                    while ((line = client.in.readLine()) != null) {
+                        lines.add(line);
+                    }
+                    return lines;
+                }
+            }));
+        }
+        for (Future<List<String>> future : replies) {
+            List<String> lines = future.get();
+            assertEquals(3, lines.size(), lines.toString());
+            assertTrue(lines.get(0).matches("OK \\d+"), lines.get(0));
+            assertTrue(lines.get(2).startsWith("OK games="), lines.get(2));
+        }
+        pool.shutdown();
+        assertEquals(clients, registry.size());
+        for (int i = 0; i < 100 && server.getConnectionCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getConnectionCount());
+    }
+
+    // **White Box Tests**
+
+    // Test that a line longer than the read buffer closes the connection with an error
+    @Test
+    void testLineTooLong() throws IOException {
+        StringBuilder line = new StringBuilder("NEW ");
+        while (line.length() <= GameServer.MAX_LINE_LENGTH) {
+            line.append('x');
+        }
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("ERR Line too long.", client.send(line.toString()));
+            assertNull(client.in.readLine());
+        }
+        assertEquals(0, registry.size());
+    }
+
+    // Test that connections are counted and closing the server drops them
+    @Test
+    void testConnectionsAndClose() throws Exception {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            assertEquals("OK games=0", first.send("STATS"));
+            assertEquals("OK games=0", second.send("STATS"));
+            assertEquals(2, server.getConnectionCount());
+            first.close();
+            for (int i = 0; i < 100 && server.getConnectionCount() > 1; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, server.getConnectionCount());
+            server.close();
+            assertNull(second.in.readLine());
+        }
+    }
+}
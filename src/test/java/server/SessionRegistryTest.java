@@ -0,0 +1,199 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import controller.GameSession;
+import journal.JournalRecovery;
+import journal.MoveJournal;
+import journal.RecoveredGame;
+import model.BoardType;
+import model.MoveGenerator;
+
+class SessionRegistryTest {
+
+    // **Black Box Tests**
+    // Equivalence partitions:
+    	// - Game: existing, unknown, removed
+    	// - Start: initial position, FEN position, invalid FEN
+    	// - Access: one thread, several threads on one game, several threads on different games
+    	// - Eviction: idle game, recently used game, game in use, game removed while an action waits
+    	// - Journal: none, new directory, directory with games of an earlier run
+
+    // Test creating, using and removing games
+    @Test
+    void testCreateApplyRemove() {
+        SessionRegistry registry = new SessionRegistry();
+        long first = registry.create();
+        long second = registry.create("4k3/8/8/8/8/8/8/4K2Q b - - 0 1");
+        assertNotEquals(first, second);
+        assertEquals(2, registry.size());
+
+        assertEquals(GameSession.MoveResult.ACCEPTED, registry.apply(first, session -> session.submitMove("e2e4")));
+        assertEquals(1, (int) registry.apply(first, GameSession::getPlyCount));
+        assertEquals(0, (int) registry.apply(second, GameSession::getPlyCount));
+
+        assertTrue(registry.remove(first));
+        assertFalse(registry.remove(first));
+        assertThrows(NoSuchElementException.class, () -> registry.apply(first, GameSession::getStatus));
+        assertThrows(IllegalArgumentException.class, () -> registry.create("not a position"));
+        assertEquals(1, registry.size());
+    }
+
+    // Test that threads playing in the same game never interleave their moves
+    @Test
+    void testConcurrentMovesInOneGame() throws Exception {
+        SessionRegistry registry = new SessionRegistry(BoardType.BITBOARD);
+        long id = registry.create();
+        int threads = 4;
+        int movesPerThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            accepted.add(pool.submit(() -> {
+                start.await();
+                int count = 0;
+                int[] moves = new int[MoveGenerator.MAX_MOVES];
+                for (int i = 0; i < movesPerThread; i++) {
+                    count += registry.apply(id, session -> {
+                        // Generating and playing under one lock: the move is always legal.
+                        int legal = session.getLegalMoves(moves);
+                        return legal > 0 && session.submitMove(moves[0]) == GameSession.MoveResult.ACCEPTED ? 1 : 0;
+                    });
+                }
+                return count;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : accepted) {
+            total += future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        int plies = registry.apply(id, GameSession::getPlyCount);
+        assertEquals(total, plies);
+        assertTrue(plies > 0);
+    }
+
+    // Test many games created and played from several threads
+    @Test
+    void testManyGamesInParallel() throws Exception {
+        SessionRegistry registry = new SessionRegistry();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Long>> ids = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            ids.add(pool.submit(() -> {
+                long id = registry.create();
+                registry.apply(id, session -> session.submitMove("g1f3"));
+                return id;
+            }));
+        }
+        for (Future<Long> id : ids) {
+            assertEquals(1, (int) registry.apply(id.get(), GameSession::getPlyCount));
+        }
+        pool.shutdown();
+        assertEquals(400, registry.size());
+    }
+
+    // Test that a registry journaling into a directory used before numbers its games after the journaled ones
+    @Test
+    void testIdsContinueAfterJournal(@TempDir Path directory) throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            SessionRegistry first = new SessionRegistry(BoardType.COMPACT, journal);
+            assertEquals(1, first.create());
+            assertEquals(GameSession.MoveResult.ACCEPTED, first.apply(1, session -> session.submitMove("e2e4")));
+            assertEquals(2, first.create());
+        }
+        try (MoveJournal journal = new MoveJournal(directory)) {
+            SessionRegistry second = new SessionRegistry(BoardType.COMPACT, journal);
+            assertEquals(3, second.create());
+        }
+        List<RecoveredGame> games = new ArrayList<>();
+        new JournalRecovery(BoardType.COMPACT, 1).recover(directory, games::add);
+        games.sort((a, b) -> Long.compare(a.getGameId(), b.getGameId()));
+        assertEquals(3, games.size());
+        assertEquals(1, games.get(0).getPlies());
+        assertEquals(0, games.get(2).getPlies());
+    }
+
+    // **White Box Tests**
+
+    // Test that only idle games that are not in use are evicted
+    @Test
+    void testEvictIdle() throws Exception {
+        SessionRegistry registry = new SessionRegistry();
+        long idle = registry.create();
+        long busy = registry.create();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> registry.apply(busy, session -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        locked.await();
+        Thread.sleep(30);
+        long fresh = registry.create();
+
+        // Both older games are idle for longer than 10 ms, but the busy one is locked.
+        assertEquals(1, registry.evictIdle(TimeUnit.MILLISECONDS.toNanos(10)));
+        release.countDown();
+        holder.join();
+
+        assertThrows(NoSuchElementException.class, () -> registry.apply(idle, GameSession::getStatus));
+        assertEquals(GameSession.Status.IN_PROGRESS, registry.apply(busy, GameSession::getStatus));
+        assertEquals(GameSession.Status.IN_PROGRESS, registry.apply(fresh, GameSession::getStatus));
+        assertEquals(0, registry.evictIdle(Long.MAX_VALUE));
+    }
+
+    // Test that an action waiting for the lock of a game removed meanwhile does not run
+    @Test
+    void testRemovedWhileWaiting() throws Exception {
+        SessionRegistry registry = new SessionRegistry();
+        long id = registry.create();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> registry.apply(id, session -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        locked.await();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<GameSession.MoveResult> waiting = pool.submit(() -> registry.apply(id, session -> session.submitMove("e2e4")));
+        Thread.sleep(50); // Lets the action look the game up and wait for its lock.
+        assertTrue(registry.remove(id));
+        release.countDown();
+        holder.join();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof NoSuchElementException);
+        pool.shutdown();
+    }
+}